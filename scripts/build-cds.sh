@@ -0,0 +1,46 @@
+#!/usr/bin/env sh
+# Unpacks the executable jar into a flat classpath and records an AppCDS
+# archive from a training run that exits as soon as the application context
+# has refreshed. Run by `mvn -Pfast-startup package`; start the result with
+#
+#   cd target/cds && java @run.args
+#
+# The training run creates every bean but connects to no database. It runs
+# without AOT so that disabling Flyway takes effect; the generated bean
+# definitions are small and load from the jar as usual.
+set -eu
+
+JAR="$1"
+OUT="$2"
+MAIN_CLASS="$3"
+
+rm -rf "$OUT"
+mkdir -p "$OUT/extracted"
+cd "$OUT"
+(cd extracted && jar -xf "$JAR")
+
+# CDS only archives classes loaded from jars, not from directories or nested jars
+mkdir lib
+jar -cf lib/application.jar -C extracted/BOOT-INF/classes .
+mv extracted/BOOT-INF/lib/*.jar lib/
+rm -rf extracted
+
+CLASSPATH="lib/application.jar"
+for dependency in lib/*.jar; do
+    [ "$dependency" = "lib/application.jar" ] || CLASSPATH="$CLASSPATH:$dependency"
+done
+
+java -XX:ArchiveClassesAtExit=application.jsa \
+    -Dspring.aot.enabled=false \
+    -Dspring.context.exit=onRefresh \
+    -Dspring.profiles.active=prod \
+    -Dspring.flyway.enabled=false \
+    -Dspring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+    -cp "$CLASSPATH" "$MAIN_CLASS"
+
+cat > run.args <<ARGS
+-XX:SharedArchiveFile=application.jsa
+-Dspring.aot.enabled=true
+-cp $CLASSPATH
+$MAIN_CLASS
+ARGS
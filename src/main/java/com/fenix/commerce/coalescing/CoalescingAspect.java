@@ -0,0 +1,59 @@
+package com.fenix.commerce.coalescing;
+
+import com.fenix.commerce.config.ClientWriteTracker;
+import com.fenix.commerce.sharding.ShardContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies {@link RequestCoalescer} to {@link Coalesced} service methods.
+ * Runs just inside shard routing and outside the cache and transaction
+ * interceptors, so waiting callers neither take a connection nor touch the
+ * cache, and coalescing works with caching disabled.
+ *
+ * Only calls that would read from the same place share a load: the shard is
+ * part of the key, and a client pinned to the primary after a write runs its
+ * own load, since a shared one may be reading a lagging replica.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CoalescingAspect {
+
+    private final CoalescingProperties properties;
+    private final RequestCoalescer coalescer;
+    private final ObjectProvider<ClientWriteTracker> writeTracker;
+
+    private record Key(Method method, List<Object> args, String shard) {
+    }
+
+    public CoalescingAspect(CoalescingProperties properties, ObjectProvider<ClientWriteTracker> writeTracker) {
+        this.properties = properties;
+        this.coalescer = new RequestCoalescer(properties.getMaxWait());
+        this.writeTracker = writeTracker;
+    }
+
+    @Around("@annotation(com.fenix.commerce.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        ClientWriteTracker tracker = writeTracker.getIfAvailable();
+        if (tracker != null && tracker.wroteRecently(ClientWriteTracker.currentClient())) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()), ShardContext.current());
+        return coalescer.execute(key, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fenix.commerce.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for sharing in-flight reads between concurrent identical calls
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    /** How long a caller waits on another's load before running its own */
+    private Duration maxWait = Duration.ofSeconds(2);
+}
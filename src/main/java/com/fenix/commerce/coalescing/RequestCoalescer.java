@@ -0,0 +1,63 @@
+package com.fenix.commerce.coalescing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight execution: the first caller for a key runs the load, and
+ * callers arriving with the same key while it runs wait for and share its
+ * outcome. Nothing is kept once the load completes, so this only removes
+ * duplicate concurrent work and never serves a result older than the call
+ * that was already running when a caller arrived.
+ */
+public class RequestCoalescer {
+
+    @FunctionalInterface
+    public interface Load {
+        Object run() throws Throwable;
+    }
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    public RequestCoalescer(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Runs or joins the load for {@code key}. A caller that waits longer
+     * than the configured maximum runs the load itself instead.
+     */
+    public Object execute(Object key, Load load) throws Throwable {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException ex) {
+                throw ex.getCause();
+            } catch (TimeoutException ex) {
+                return load.run();
+            }
+        }
+        try {
+            Object result = load.run();
+            mine.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fenix.commerce.config;
+
+import com.fenix.commerce.entity.Order;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings for moving old orders to the archive tier and for managing the
+ * archive tables' monthly partitions
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    /** Orders whose order_updated_at is older than this many months are archived */
+    private int afterMonths = 6;
+
+    private Set<Order.OrderStatus> statuses = EnumSet.of(Order.OrderStatus.CLOSED, Order.OrderStatus.CANCELLED);
+
+    /** Orders moved per transaction */
+    private int batchSize = 500;
+
+    private String cron = "0 30 2 * * *";
+
+    private Partitions partitions = new Partitions();
+
+    @Data
+    public static class Partitions {
+
+        /** Monthly partitions created ahead of the current month */
+        private int monthsAhead = 3;
+
+        /** Archive partitions older than this many months are dropped; 0 keeps everything */
+        private int retentionMonths = 0;
+
+        private String cron = "0 0 1 * * *";
+    }
+}
@@ -0,0 +1,46 @@
+package com.fenix.commerce.config;
+
+import com.fenix.commerce.invalidation.BroadcastingCacheManager;
+import com.fenix.commerce.invalidation.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Local Caffeine caches, sized and expired by {@code spring.cache.caffeine.spec}.
+ * Evictions are deferred until the surrounding transaction commits so a
+ * concurrent reader cannot re-cache the pre-commit state, and then
+ * broadcast to the other instances when {@code fenix.cache-invalidation}
+ * is enabled.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    /** {@code GET /orders/{orderId}/full}, keyed by order id */
+    public static final String ORDER_DETAILS = "orderDetails";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties, CacheInvalidationBus invalidationBus) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        String spec = properties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        }
+        cacheManager.setCacheNames(List.of(ORDER_DETAILS));
+        if (!invalidationBus.isEnabled()) {
+            return new TransactionAwareCacheManagerProxy(cacheManager);
+        }
+        return new TransactionAwareCacheManagerProxy(new BroadcastingCacheManager(cacheManager, invalidationBus));
+    }
+}
@@ -0,0 +1,78 @@
+package com.fenix.commerce.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each API client last committed a write so that its
+ * subsequent reads can be pinned to the primary (read-your-writes).
+ * Writes are remembered per instance only: a client whose next read is
+ * balanced to another instance may read from a lagging replica there, so
+ * deployments with several instances need client-sticky load balancing
+ * for the guarantee to hold.
+ */
+public class ClientWriteTracker {
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+    private final Duration window;
+    private final int maxTrackedClients;
+    private final Clock clock;
+
+    public ClientWriteTracker(Duration window, int maxTrackedClients, Clock clock) {
+        this.window = window;
+        this.maxTrackedClients = maxTrackedClients;
+        this.clock = clock;
+    }
+
+    public static void setCurrentClient(String clientId) {
+        CURRENT_CLIENT.set(clientId);
+    }
+
+    public static String currentClient() {
+        return CURRENT_CLIENT.get();
+    }
+
+    public static void clearCurrentClient() {
+        CURRENT_CLIENT.remove();
+    }
+
+    public void recordWrite(String clientId) {
+        if (clientId == null) {
+            return;
+        }
+        if (lastWrites.size() >= maxTrackedClients) {
+            evictExpired();
+        }
+        lastWrites.put(clientId, clock.instant());
+    }
+
+    public boolean wroteRecently(String clientId) {
+        if (clientId == null) {
+            return false;
+        }
+        Instant lastWrite = lastWrites.get(clientId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (lastWrite.plus(window).isAfter(clock.instant())) {
+            return true;
+        }
+        lastWrites.remove(clientId, lastWrite);
+        return false;
+    }
+
+    private void evictExpired() {
+        Instant cutoff = clock.instant().minus(window);
+        lastWrites.values().removeIf(lastWrite -> lastWrite.isBefore(cutoff));
+        if (lastWrites.size() >= maxTrackedClients) {
+            // Still full of live entries: forget everyone rather than grow unbounded,
+            // at worst a few clients read slightly stale data from a replica.
+            lastWrites.clear();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.fenix.commerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the job that recounts every order's fulfillment counters and
+ * repairs the ones that drifted
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.fulfillment-reconciliation")
+public class FulfillmentReconciliationProperties {
+
+    private boolean enabled = false;
+
+    private String cron = "0 0 4 * * *";
+
+    /** Order ids read per keyset page; each page is split into batches across the pool */
+    private int pageSize = 10000;
+
+    /** Orders checked and repaired per transaction */
+    private int batchSize = 1000;
+
+    /** Batches reconciled concurrently; each holds a pooled connection while it runs */
+    private int parallelism = 4;
+
+    private Runner runner = new Runner();
+
+    @Data
+    public static class Runner {
+
+        /** Let this instance run requested reconciliations; with {@code fenix.scheduler} on, tenants are split among runners */
+        private boolean enabled = true;
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        /** Pages per reconciliation before yielding the scheduler thread until the next poll */
+        private int maxPagesPerPoll = 10;
+    }
+}
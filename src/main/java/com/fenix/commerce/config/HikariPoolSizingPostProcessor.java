@@ -0,0 +1,54 @@
+package com.fenix.commerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes every Hikari pool from the number of available CPUs when
+ * {@code fenix.datasource.pool.auto-size=true}, using the usual
+ * {@code cores * connectionsPerCore + effectiveSpindles} rule of thumb.
+ */
+@Component
+@Slf4j
+public class HikariPoolSizingPostProcessor implements BeanPostProcessor, EnvironmentAware, Ordered {
+
+    private boolean autoSize;
+    private int connectionsPerCore;
+    private int effectiveSpindles;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        Binder binder = Binder.get(environment);
+        this.autoSize = binder.bind("fenix.datasource.pool.auto-size", Boolean.class).orElse(false);
+        this.connectionsPerCore = binder.bind("fenix.datasource.pool.connections-per-core", Integer.class).orElse(2);
+        this.effectiveSpindles = binder.bind("fenix.datasource.pool.effective-spindles", Integer.class).orElse(1);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (autoSize && bean instanceof HikariDataSource dataSource) {
+            int poolSize = poolSize();
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(poolSize);
+            log.info("Sized connection pool {} to {} connections", beanName, poolSize);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        // Run before any post-processor that wraps the data source
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    public int poolSize() {
+        return Runtime.getRuntime().availableProcessors() * connectionsPerCore + effectiveSpindles;
+    }
+}
@@ -0,0 +1,37 @@
+package com.fenix.commerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for chunked order deletion and the purge job runner
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.purge")
+public class PurgeProperties {
+
+    /** Orders deleted per chunk of a purge job */
+    private int orderChunkSize = 200;
+
+    /** Child rows (tracking events, tracking, fulfillments, items) deleted per transaction */
+    private int rowChunkSize = 1000;
+
+    /** Pause after every order chunk, leaving room for replication and foreground writes */
+    private Duration pause = Duration.ofMillis(100);
+
+    private Runner runner = new Runner();
+
+    @Data
+    public static class Runner {
+
+        /** Let this instance run purge jobs; with {@code fenix.scheduler} on, tenants are split among runners */
+        private boolean enabled = false;
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        /** Order chunks per job before yielding the scheduler thread until the next poll */
+        private int maxChunksPerPoll = 20;
+    }
+}
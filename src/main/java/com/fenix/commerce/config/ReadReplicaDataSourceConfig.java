@@ -0,0 +1,88 @@
+package com.fenix.commerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routes {@code @Transactional(readOnly = true)} work to read replicas.
+ * Enabled with {@code fenix.datasource.read-replicas.enabled=true}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+// Per-shard replicas are not supported yet, tenant shard routing takes precedence
+@ConditionalOnExpression("${fenix.datasource.read-replicas.enabled:false} and !${fenix.datasource.shards.enabled:false}")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ClientWriteTracker clientWriteTracker(ReadReplicaProperties properties) {
+        return new ClientWriteTracker(
+                properties.getReadYourWritesWindow(), properties.getMaxTrackedClients(), Clock.systemUTC());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ReadReplicaProperties properties,
+            ClientWriteTracker clientWriteTracker) {
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReadReplicaProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replica.getName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize() != null
+                    ? replica.getMaximumPoolSize() : primaryDataSource.getMaximumPoolSize());
+            dataSource.setAutoCommit(primaryDataSource.isAutoCommit());
+            dataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            dataSource.setReadOnly(true);
+            replicas.put(replica.getName(), dataSource);
+        }
+
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, clientWriteTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                               ReadReplicaProperties properties) {
+        return new ReplicaLagMonitor(readWriteRoutingDataSource, properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getClientIdHeader()));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
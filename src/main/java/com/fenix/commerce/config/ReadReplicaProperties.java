@@ -0,0 +1,46 @@
+package com.fenix.commerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for routing read-only transactions to MySQL read replicas
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Replicas lagging further behind the primary than this are skipped */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /** How long a client's reads stay on the primary after it committed a write */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Header naming the client for read-your-writes; requests without it are
+     * not tracked. Tracking is per instance, see {@link ClientWriteTracker}.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    private int maxTrackedClients = 100_000;
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        /** Defaults to the primary pool's size */
+        private Integer maximumPoolSize;
+    }
+}
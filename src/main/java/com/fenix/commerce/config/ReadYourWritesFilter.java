@@ -0,0 +1,36 @@
+package com.fenix.commerce.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the calling client's identity to the request thread so the routing
+ * data source can apply read-your-writes. Only clients that name themselves
+ * in the client id header are tracked: behind a load balancer or NAT the
+ * remote address is shared by many clients, and one write would pin all of
+ * their reads to the primary. Requests without the header read from the
+ * replicas.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final String clientIdHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(clientIdHeader);
+        ClientWriteTracker.setCurrentClient(clientId != null && !clientId.isBlank() ? clientId : null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ClientWriteTracker.clearCurrentClient();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.fenix.commerce.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Periodically reads replication lag from each replica and takes replicas
+ * that fall behind the configured tolerance out of rotation.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final ReadReplicaProperties properties;
+
+    @Scheduled(fixedDelayString = "${fenix.datasource.read-replicas.lag-check-interval:PT5S}")
+    public void checkLag() {
+        long maxLagSeconds = properties.getMaxLag().toSeconds();
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            Long lag = readLagSeconds(replica.getKey(), replica.getValue());
+            routingDataSource.markLagging(replica.getKey(), lag == null || lag > maxLagSeconds);
+        }
+    }
+
+    /**
+     * @return seconds behind the source, 0 for a standalone instance, or null when unknown
+     */
+    private Long readLagSeconds(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                // Not configured as a replica (e.g. a local stand-in instance)
+                return 0L;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : lag;
+        } catch (SQLException ex) {
+            log.warn("Could not read replication lag for replica {}: {}", name, ex.getMessage());
+            return null;
+        }
+    }
+}
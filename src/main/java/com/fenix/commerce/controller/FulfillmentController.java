@@ -1,7 +1,9 @@
 package com.fenix.commerce.controller;
 
+import com.fenix.commerce.dto.FieldSet;
 import com.fenix.commerce.dto.PagedResponse;
 import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentFields;
 import com.fenix.commerce.dto.fulfillment.FulfillmentPatchRequest;
 import com.fenix.commerce.dto.fulfillment.FulfillmentResponse;
 import com.fenix.commerce.entity.Fulfillment;
@@ -17,6 +19,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -30,6 +33,7 @@ import java.util.UUID;
 public class FulfillmentController {
 
     private final FulfillmentService fulfillmentService;
+    private final PagedResponseStreamer pagedResponseStreamer;
 
     @PostMapping
     @Operation(summary = "Create fulfillment for an order")
@@ -51,7 +55,7 @@ public class FulfillmentController {
 
     @GetMapping
     @Operation(summary = "List/search fulfillments for an order")
-    public ResponseEntity<PagedResponse<FulfillmentResponse>> listFulfillments(
+    public Object listFulfillments(
             @PathVariable UUID orderId,
             @RequestParam(required = false) Fulfillment.FulfillmentStatus status,
             @RequestParam(required = false) String carrier,
@@ -59,11 +63,19 @@ public class FulfillmentController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
-            @RequestParam(defaultValue = "updatedAt,desc") String sort) {
+            @RequestParam(defaultValue = "updatedAt,desc") String sort,
+            @Parameter(description = "Comma-separated response fields, e.g. id,status,carrier")
+            @RequestParam(required = false) String fields) throws HttpMediaTypeNotAcceptableException {
 
         Pageable pageable = createPageable(page, size, sort);
-        PagedResponse<FulfillmentResponse> response = fulfillmentService.listFulfillments(
-                orderId, status, carrier, from, to, pageable);
+        FieldSet fieldSet = FulfillmentFields.parse(fields);
+        if (fieldSet == null && PagedResponseStreamer.shouldStream(pageable)) {
+            return pagedResponseStreamer.<FulfillmentResponse>stream(pageable, rows -> fulfillmentService
+                    .streamFulfillments(orderId, status, carrier, from, to, pageable, rows));
+        }
+        PagedResponse<?> response = fieldSet != null
+                ? fulfillmentService.listFulfillments(fieldSet, orderId, status, carrier, from, to, pageable)
+                : fulfillmentService.listFulfillments(orderId, status, carrier, from, to, pageable);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,39 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.dto.fulfillment.FulfillmentReconciliationResponse;
+import com.fenix.commerce.health.LowPriority;
+import com.fenix.commerce.service.FulfillmentCounterReconciler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin/tenants/{tenantId}/fulfillment-counters")
+@RequiredArgsConstructor
+@LowPriority
+@Tag(name = "Fulfillments", description = "Fulfillment management APIs")
+public class FulfillmentReconciliationController {
+
+    private final FulfillmentCounterReconciler reconciler;
+
+    @PostMapping("/reconcile")
+    @Operation(summary = "Start a background recount of every order's fulfillments for a tenant, repairing drifted counters")
+    public ResponseEntity<FulfillmentReconciliationResponse> reconcile(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciler.requestTenant(tenantId));
+    }
+
+    @GetMapping("/reconciliations/{reconciliationId}")
+    @Operation(summary = "Get a fulfillment counter reconciliation's status and progress")
+    public ResponseEntity<FulfillmentReconciliationResponse> getReconciliation(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId,
+            @Parameter(description = "Reconciliation UUID") @PathVariable UUID reconciliationId) {
+        return ResponseEntity.ok(reconciler.getReconciliation(tenantId, reconciliationId));
+    }
+}
@@ -0,0 +1,79 @@
+package com.fenix.commerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.FieldSet;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentFields;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.health.LowPriority;
+import com.fenix.commerce.service.FulfillmentBulkService;
+import com.fenix.commerce.service.FulfillmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/fulfillments")
+@RequiredArgsConstructor
+@Tag(name = "Fulfillments", description = "Fulfillment management APIs")
+public class FulfillmentSearchController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final FulfillmentService fulfillmentService;
+    private final FulfillmentBulkService fulfillmentBulkService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    @LowPriority
+    @Operation(summary = "Search fulfillments across all orders of a tenant, newest first, with cursor paging")
+    public ResponseEntity<CursorPagedResponse<?>> searchFulfillments(
+            @RequestParam UUID orgId,
+            @RequestParam(required = false) Fulfillment.FulfillmentStatus status,
+            @RequestParam(required = false) String carrier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Comma-separated response fields, e.g. id,orderId,status")
+            @RequestParam(required = false) String fields) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        FieldSet fieldSet = FulfillmentFields.parse(fields);
+        return ResponseEntity.ok(fieldSet != null
+                ? fulfillmentService.searchTenantFulfillments(fieldSet, orgId, status, carrier, from, to, cursor, pageSize)
+                : fulfillmentService.searchTenantFulfillments(orgId, status, carrier, from, to, cursor, pageSize));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Create or replace up to 50,000 fulfillments across orders of a tenant")
+    public ResponseEntity<FulfillmentBulkUpsertResponse> upsertFulfillments(
+            @Valid @RequestBody FulfillmentBulkUpsertRequest request) {
+        return ResponseEntity.ok(fulfillmentBulkService.upsertFulfillments(request));
+    }
+
+    @GetMapping("/export")
+    @LowPriority
+    @Operation(summary = "Export all matching fulfillments of a tenant as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportFulfillments(
+            @RequestParam UUID orgId,
+            @RequestParam(required = false) Fulfillment.FulfillmentStatus status,
+            @RequestParam(required = false) String carrier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        return NdjsonExport.of(objectMapper, "fulfillments.ndjson", cursor -> fulfillmentService
+                .searchTenantFulfillments(orgId, status, carrier, from, to, cursor, NdjsonExport.PAGE_SIZE));
+    }
+}
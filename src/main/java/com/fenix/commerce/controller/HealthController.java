@@ -1,7 +1,16 @@
 package com.fenix.commerce.controller;
 
+import com.fenix.commerce.health.HealthMonitor;
+import com.fenix.commerce.health.HealthSnapshot;
+import com.fenix.commerce.health.HealthStatus;
+import com.fenix.commerce.warmup.JitWarmup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,18 +22,59 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/health")
+@RequiredArgsConstructor
 @Tag(name = "Health", description = "Application health check")
 public class HealthController {
 
+    private final ApplicationAvailability applicationAvailability;
+    private final JitWarmup jitWarmup;
+    private final HealthMonitor healthMonitor;
+
     @GetMapping
-    @Operation(summary = "Check application health")
+    @Operation(summary = "Check application health from the latest dependency probes")
     public ResponseEntity<Map<String, Object>> health() {
+        HealthSnapshot snapshot = healthMonitor.current();
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
+        health.put("status", snapshot.status());
+        health.put("checks", snapshot.checks());
+        health.put("checkedAt", snapshot.checkedAt());
         health.put("timestamp", Instant.now());
         health.put("application", "Fenix Commerce Platform");
 
         health.put("version", "1.0.0");
-        return ResponseEntity.ok(health);
+        return ResponseEntity.status(snapshot.status() == HealthStatus.DOWN
+                ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).body(health);
+    }
+
+    @GetMapping("/liveness")
+    @Operation(summary = "Whether the process should be restarted; ignores dependencies on purpose")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        boolean live = applicationAvailability.getLivenessState() == LivenessState.CORRECT;
+        Map<String, Object> liveness = new HashMap<>();
+        liveness.put("status", live ? "UP" : "DOWN");
+        liveness.put("timestamp", Instant.now());
+        return ResponseEntity.status(live ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(liveness);
+    }
+
+    @GetMapping("/readiness")
+    @Operation(summary = "Whether this instance should receive traffic; 503 until warmed up and while the database is down")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        HealthSnapshot snapshot = healthMonitor.current();
+        String status;
+        if (applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            status = "OUT_OF_SERVICE";
+        } else if (!jitWarmup.isComplete()) {
+            status = "WARMING_UP";
+        } else {
+            // DEGRADED stays in rotation and sheds low-priority requests instead
+            status = snapshot.status().name();
+        }
+        Map<String, Object> readiness = new HashMap<>();
+        readiness.put("status", status);
+        readiness.put("checks", snapshot.checks());
+        readiness.put("checkedAt", snapshot.checkedAt());
+        readiness.put("timestamp", Instant.now());
+        boolean ready = status.equals(HealthStatus.UP.name()) || status.equals(HealthStatus.DEGRADED.name());
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(readiness);
     }
 }
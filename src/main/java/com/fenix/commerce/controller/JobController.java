@@ -0,0 +1,37 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.scheduling.JobRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Background job coordination and run metrics")
+public class JobController {
+
+    private final JobCoordinator jobCoordinator;
+    private final JobRegistry jobRegistry;
+
+    @GetMapping
+    @Operation(summary = "Live instances, lease holders, and run times and lag of the jobs on this instance")
+    public ResponseEntity<Map<String, Object>> jobs() {
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        jobs.put("node", jobCoordinator.getNodeId());
+        jobs.put("members", jobCoordinator.getMembers());
+        jobs.put("leases", jobCoordinator.leases());
+        jobs.put("jobs", jobRegistry.metrics());
+        jobs.put("timestamp", Instant.now());
+        return ResponseEntity.ok(jobs);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fenix.commerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Function;
+
+/**
+ * Streams every page of a keyset-paged search as newline-delimited JSON.
+ * Each page is fetched in its own short read-only transaction, so an export
+ * never pins a connection or grows a persistence context for its duration.
+ */
+final class NdjsonExport {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    static final int PAGE_SIZE = 1000;
+
+    private NdjsonExport() {
+    }
+
+    /**
+     * @param pages fetches the page after the given cursor (null for the first page)
+     */
+    static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, String filename,
+                                                        Function<String, CursorPagedResponse<T>> pages) {
+        StreamingResponseBody body = out -> {
+            String cursor = null;
+            do {
+                CursorPagedResponse<T> page = pages.apply(cursor);
+                for (T row : page.getData()) {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                out.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -1,11 +1,20 @@
 package com.fenix.commerce.controller;
 
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.FieldSet;
 import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.order.CustomerOrderSearchRequest;
 import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderFields;
+import com.fenix.commerce.dto.order.OrderFullResponse;
 import com.fenix.commerce.dto.order.OrderPatchRequest;
 import com.fenix.commerce.dto.order.OrderResponse;
 import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.exception.BusinessLogicException;
+import com.fenix.commerce.health.LowPriority;
 import com.fenix.commerce.service.OrderService;
+import com.fenix.commerce.sharding.ShardProperties;
+import com.fenix.commerce.stream.OrderStreamBroker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,8 +25,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -29,6 +41,9 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderStreamBroker orderStreamBroker;
+    private final PagedResponseStreamer pagedResponseStreamer;
+    private final ShardProperties shardProperties;
 
     @PostMapping
     @Operation(summary = "Create or upsert order")
@@ -37,6 +52,17 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @LowPriority
+    @Operation(summary = "Stream order and fulfillment changes as server-sent events")
+    public SseEmitter streamOrderChanges(
+            @RequestParam UUID orgId,
+            @RequestParam(required = false) UUID websiteId,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) UUID orderId) {
+        return orderStreamBroker.subscribe(orgId, websiteId, status, orderId);
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by ID")
     public ResponseEntity<OrderResponse> getOrderById(
@@ -45,9 +71,18 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{orderId}/full")
+    @Operation(summary = "Get order with fulfillments, tracking and recent tracking events")
+    public ResponseEntity<OrderFullResponse> getOrderFull(
+            @Parameter(description = "Order UUID") @PathVariable UUID orderId) {
+        OrderFullResponse response = orderService.getOrderFull(orderId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
+    @LowPriority
     @Operation(summary = "Get all orders with optional filters")
-    public ResponseEntity<PagedResponse<OrderResponse>> searchOrders(
+    public Object searchOrders(
             @RequestParam(required = false) UUID orgId,
             @RequestParam(required = false) UUID websiteId,
             @RequestParam(required = false) Order.OrderStatus status,
@@ -57,14 +92,27 @@ public class OrderController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
-            @RequestParam(defaultValue = "orderUpdatedAt,desc") String sort) {
+            @RequestParam(defaultValue = "orderUpdatedAt,desc") String sort,
+            @Parameter(description = "Comma-separated response fields, e.g. id,status,orderTotal")
+            @RequestParam(required = false) String fields) throws HttpMediaTypeNotAcceptableException {
 
         Pageable pageable = createPageable(page, size, sort);
-
-        // If orgId is null, fetch all orders
-        PagedResponse<OrderResponse> response;
-        if (orgId == null) {
-            response = orderService.getAllOrders(pageable); // <- create this method in your service
+        FieldSet fieldSet = OrderFields.parse(fields);
+
+        // If orgId is null, fetch all orders; with sharding on they would only come from the default shard
+        PagedResponse<?> response;
+        if (orgId == null && shardProperties.isEnabled()) {
+            throw BusinessLogicException.orgIdRequired();
+        } else if (orgId == null) {
+            response = fieldSet != null
+                    ? orderService.getAllOrders(fieldSet, pageable)
+                    : orderService.getAllOrders(pageable);
+        } else if (fieldSet != null) {
+            response = orderService.searchOrders(
+                    fieldSet, orgId, websiteId, status, financialStatus, fulfillmentStatus, from, to, pageable);
+        } else if (PagedResponseStreamer.shouldStream(pageable)) {
+            return pagedResponseStreamer.<OrderResponse>stream(pageable, rows -> orderService.streamOrders(
+                    orgId, websiteId, status, financialStatus, fulfillmentStatus, from, to, pageable, rows));
         } else {
             response = orderService.searchOrders(
                     orgId, websiteId, status, financialStatus, fulfillmentStatus, from, to, pageable);
@@ -76,19 +124,33 @@ public class OrderController {
 
     @GetMapping("/search")
     @Operation(summary = "Search orders by external order ID or number")
-    public ResponseEntity<PagedResponse<OrderResponse>> searchOrderByExternal(
+    public ResponseEntity<PagedResponse<?>> searchOrderByExternal(
             @RequestParam UUID orgId,
             @RequestParam(required = false) UUID websiteId,
             @RequestParam(required = false) String externalOrderId,
             @RequestParam(required = false) String externalOrderNumber,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Comma-separated response fields, e.g. id,externalOrderId,status")
+            @RequestParam(required = false) String fields) {
 
         Pageable pageable = PageRequest.of(page, size);
-        PagedResponse<OrderResponse> response = orderService.searchByExternalIds(
-                orgId, websiteId, externalOrderId, externalOrderNumber, pageable);
+        FieldSet fieldSet = OrderFields.parse(fields);
+        PagedResponse<?> response = fieldSet != null
+                ? orderService.searchByExternalIds(
+                        fieldSet, orgId, websiteId, externalOrderId, externalOrderNumber, pageable)
+                : orderService.searchByExternalIds(
+                        orgId, websiteId, externalOrderId, externalOrderNumber, pageable);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/by-customer")
+    @Operation(summary = "List a customer's orders by email, newest first, with cursor paging")
+    public ResponseEntity<CursorPagedResponse<OrderResponse>> searchOrdersByCustomer(
+            @Valid @RequestBody CustomerOrderSearchRequest request) {
+        return ResponseEntity.ok(orderService.searchByCustomerEmail(request));
+    }
+
     @PutMapping("/{orderId}")
     @Operation(summary = "Update order (full replace)")
     public ResponseEntity<OrderResponse> updateOrder(
@@ -0,0 +1,32 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.dto.order.OrderLookupRequest;
+import com.fenix.commerce.dto.order.OrderLookupResponse;
+import com.fenix.commerce.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Custom-method endpoint {@code POST /orders:lookup}. It lives outside
+ * {@link OrderController} because a class-level {@code /orders} mapping
+ * would be joined to it with a slash.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Orders", description = "Order management APIs")
+public class OrderLookupController {
+
+    private final OrderService orderService;
+
+    @PostMapping("/orders:lookup")
+    @Operation(summary = "Resolve up to 1000 orders by ID or by (websiteId, externalOrderId) in one call")
+    public ResponseEntity<OrderLookupResponse> lookupOrders(@Valid @RequestBody OrderLookupRequest request) {
+        return ResponseEntity.ok(orderService.lookupOrders(request));
+    }
+}
@@ -0,0 +1,48 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.dto.purge.PurgeJobRequest;
+import com.fenix.commerce.dto.purge.PurgeJobResponse;
+import com.fenix.commerce.service.OrderPurgeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin/tenants/{tenantId}/purges")
+@RequiredArgsConstructor
+@Tag(name = "Orders", description = "Order management APIs")
+public class OrderPurgeController {
+
+    private final OrderPurgeService purgeService;
+
+    @PostMapping
+    @Operation(summary = "Start a background purge of a tenant's orders by status and age")
+    public ResponseEntity<PurgeJobResponse> createPurge(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId,
+            @Valid @RequestBody PurgeJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(purgeService.createJob(tenantId, request));
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get a purge job's status and progress")
+    public ResponseEntity<PurgeJobResponse> getPurge(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId,
+            @Parameter(description = "Purge job UUID") @PathVariable UUID jobId) {
+        return ResponseEntity.ok(purgeService.getJob(tenantId, jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    @Operation(summary = "Cancel a purge job after its current chunk; purged orders stay deleted")
+    public ResponseEntity<PurgeJobResponse> cancelPurge(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId,
+            @Parameter(description = "Purge job UUID") @PathVariable UUID jobId) {
+        return ResponseEntity.ok(purgeService.cancelJob(tenantId, jobId));
+    }
+}
@@ -0,0 +1,123 @@
+package com.fenix.commerce.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fenix.commerce.dto.PagedResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes large pages as a {@link PagedResponse} body whose rows are
+ * serialized as they are read, instead of collecting the page into a list
+ * first. The body is the same as a regular page response, in JSON, CBOR or
+ * Smile as negotiated from {@code Accept}. Rows are read on the async request
+ * thread, inside the service method's own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class PagedResponseStreamer {
+
+    /** Smaller pages are cheap to build and keep going through the regular converters */
+    static final int MIN_STREAMED_PAGE_SIZE = 200;
+
+    @FunctionalInterface
+    interface Rows<T> {
+        /**
+         * Hands every row of the page to {@code sink}
+         *
+         * @return total number of matching rows
+         */
+        long write(Consumer<T> sink);
+    }
+
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+
+    static boolean shouldStream(Pageable pageable) {
+        return pageable.isPaged() && pageable.getPageSize() > MIN_STREAMED_PAGE_SIZE;
+    }
+
+    /**
+     * Returned as a bare body rather than a {@code ResponseEntity}, since the
+     * handler methods also return regular pages and MVC picks the streaming
+     * return value handler from the runtime type only for bare bodies
+     */
+    <T> StreamingResponseBody stream(Pageable pageable, Rows<T> rows) throws HttpMediaTypeNotAcceptableException {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        MediaType contentType = negotiate(attributes.getRequest().getHeader(HttpHeaders.ACCEPT));
+        ObjectMapper objectMapper = converterFor(contentType).getObjectMapper();
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        attributes.getResponse().setContentType(contentType.toString());
+
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("data");
+                long total = rows.write(row -> {
+                    try {
+                        rowWriter.writeValue(generator, row);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                generator.writeEndArray();
+
+                int totalPages = (int) Math.ceil((double) total / pageable.getPageSize());
+                generator.writeNumberField("page", pageable.getPageNumber());
+                generator.writeNumberField("size", pageable.getPageSize());
+                generator.writeNumberField("totalElements", total);
+                generator.writeNumberField("totalPages", totalPages);
+                generator.writeBooleanField("hasNext", pageable.getPageNumber() + 1 < totalPages);
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    private MediaType negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> accepted = accept == null || accept.isBlank()
+                ? List.of(MediaType.ALL)
+                : MediaType.parseMediaTypes(accept);
+        accepted = new ArrayList<>(accepted);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isWildcardType()
+                    || (mediaType.isWildcardSubtype() && mediaType.isCompatibleWith(MediaType.APPLICATION_JSON))) {
+                return MediaType.APPLICATION_JSON;
+            }
+            for (AbstractJackson2HttpMessageConverter converter : converters) {
+                for (MediaType supported : converter.getSupportedMediaTypes(PagedResponse.class)) {
+                    if (!supported.isWildcardSubtype() && supported.isCompatibleWith(mediaType)) {
+                        return supported;
+                    }
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(converters.stream()
+                .flatMap(converter -> converter.getSupportedMediaTypes(PagedResponse.class).stream())
+                .toList());
+    }
+
+    private AbstractJackson2HttpMessageConverter converterFor(MediaType contentType) {
+        return converters.stream()
+                .filter(converter -> converter.canWrite(PagedResponse.class, contentType))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,54 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.sharding.ShardDirectory;
+import com.fenix.commerce.sharding.TenantShardMove;
+import com.fenix.commerce.sharding.TenantShardMoves;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin/shards/tenants")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "fenix.datasource.shards", name = "enabled", havingValue = "true")
+@Tag(name = "Shards", description = "Tenant shard placement")
+public class TenantShardController {
+
+    private final ShardDirectory shardDirectory;
+    private final TenantShardMoves tenantShardMoves;
+
+    @GetMapping("/{tenantId}")
+    @Operation(summary = "Get the shard a tenant lives on")
+    public ResponseEntity<ShardDirectory.Assignment> getAssignment(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId) {
+        return ResponseEntity.ok(shardDirectory.lookup(tenantId));
+    }
+
+    @PutMapping("/{tenantId}")
+    @Operation(summary = "Start a background move of a tenant to another shard; its writes are rejected while it runs")
+    public ResponseEntity<TenantShardMove> moveTenant(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId,
+            @Parameter(description = "Target shard name") @RequestParam String shard) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(tenantShardMoves.request(tenantId, shard));
+    }
+
+    @GetMapping("/{tenantId}/moves/{moveId}")
+    @Operation(summary = "Get a tenant move's status and progress")
+    public ResponseEntity<TenantShardMove> getMove(
+            @Parameter(description = "Tenant UUID") @PathVariable UUID tenantId,
+            @Parameter(description = "Move UUID") @PathVariable UUID moveId) {
+        TenantShardMove move = tenantShardMoves.get(moveId);
+        if (!move.tenantId().equals(tenantId)) {
+            throw ResourceNotFoundException.shardMove(moveId);
+        }
+        return ResponseEntity.ok(move);
+    }
+}
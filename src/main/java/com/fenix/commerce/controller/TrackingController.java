@@ -0,0 +1,60 @@
+package com.fenix.commerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.tracking.TrackingResponse;
+import com.fenix.commerce.entity.Tracking;
+import com.fenix.commerce.health.LowPriority;
+import com.fenix.commerce.service.TrackingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/tracking")
+@RequiredArgsConstructor
+@Tag(name = "Tracking", description = "Shipment tracking APIs")
+public class TrackingController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final TrackingService trackingService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    @LowPriority
+    @Operation(summary = "Search tracking across all fulfillments of a tenant, newest first, with cursor paging")
+    public ResponseEntity<CursorPagedResponse<TrackingResponse>> searchTracking(
+            @RequestParam UUID orgId,
+            @RequestParam(required = false) Tracking.TrackingStatus status,
+            @RequestParam(required = false) String carrier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        return ResponseEntity.ok(trackingService.searchTenantTracking(
+                orgId, status, carrier, from, to, cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+    }
+
+    @GetMapping("/export")
+    @LowPriority
+    @Operation(summary = "Export all matching tracking of a tenant as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportTracking(
+            @RequestParam UUID orgId,
+            @RequestParam(required = false) Tracking.TrackingStatus status,
+            @RequestParam(required = false) String carrier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        return NdjsonExport.of(objectMapper, "tracking.ndjson", cursor -> trackingService
+                .searchTenantTracking(orgId, status, carrier, from, to, cursor, NdjsonExport.PAGE_SIZE));
+    }
+}
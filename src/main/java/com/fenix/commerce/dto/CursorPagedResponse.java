@@ -0,0 +1,23 @@
+package com.fenix.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page from a keyset-paged listing. Pass {@code nextCursor} back to fetch
+ * the following page; there are no page numbers or totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPagedResponse<T> {
+    private List<T> data;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,92 @@
+package com.fenix.commerce.dto;
+
+import com.fenix.commerce.exception.BusinessLogicException;
+import jakarta.persistence.Tuple;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Response fields requested with {@code fields=}, for list endpoints that
+ * return sparse rows. Each field maps to the entity attribute it is read
+ * from, so queries select only those columns. {@code id} is always included.
+ */
+public final class FieldSet {
+
+    private final Map<String, String> attributes;
+
+    private FieldSet(Map<String, String> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * @param fields  comma-separated field names, or null/blank for full responses
+     * @param catalog every supported field name with its entity attribute path, starting with {@code id}
+     * @return null when no fields were requested
+     * @throws BusinessLogicException for unknown field names
+     */
+    public static FieldSet parse(String fields, Map<String, String> catalog) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Map<String, String> selected = new LinkedHashMap<>();
+        selected.put("id", catalog.get("id"));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String attribute = catalog.get(name);
+            if (attribute == null) {
+                throw new BusinessLogicException("Unknown field '" + name + "', expected any of " + catalog.keySet());
+            }
+            selected.put(name, attribute);
+        }
+        return new FieldSet(selected);
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(attributes.keySet());
+    }
+
+    /**
+     * Attributes to select by alias: the requested fields plus any the
+     * caller needs internally, e.g. for a paging cursor
+     */
+    public Map<String, String> selection(Map<String, String> catalog, String... required) {
+        Map<String, String> selection = new LinkedHashMap<>(attributes);
+        for (String name : required) {
+            selection.putIfAbsent(name, catalog.get(name));
+        }
+        return selection;
+    }
+
+    /**
+     * The requested fields of a row selected with {@link #selection}, in request order
+     */
+    public Map<String, Object> toRow(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>(attributes.size() * 2);
+        for (String name : attributes.keySet()) {
+            row.put(name, tuple.get(name));
+        }
+        return row;
+    }
+
+    // Compared by value so equal requests share coalesced loads
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldSet fieldSet && attributes.equals(fieldSet.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return attributes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", attributes.keySet());
+    }
+}
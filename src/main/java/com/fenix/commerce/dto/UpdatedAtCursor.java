@@ -0,0 +1,38 @@
+package com.fenix.commerce.dto;
+
+import com.fenix.commerce.exception.BusinessLogicException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a page sorted by {@code updated_at DESC, id DESC},
+ * encoded as an opaque string.
+ */
+public record UpdatedAtCursor(Instant updatedAt, UUID id) {
+
+    public String encode() {
+        String value = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded position, or null for a null cursor (first page)
+     */
+    public static UpdatedAtCursor decode(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new UpdatedAtCursor(Instant.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BusinessLogicException("Invalid cursor: " + cursor);
+        }
+    }
+}
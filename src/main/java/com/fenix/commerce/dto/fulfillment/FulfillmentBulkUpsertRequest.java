@@ -0,0 +1,55 @@
+package com.fenix.commerce.dto.fulfillment;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fenix.commerce.sharding.TenantScoped;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for upserting a warehouse wave of fulfillments across many orders of
+ * one organization. Orders are addressed by (websiteId, externalOrderId).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FulfillmentBulkUpsertRequest implements TenantScoped {
+
+    public static final int MAX_FULFILLMENTS = 50_000;
+
+    @NotNull(message = "Organization ID is required")
+    private UUID orgId;
+
+    @NotEmpty(message = "At least one fulfillment is required")
+    @Size(max = MAX_FULFILLMENTS, message = "At most " + MAX_FULFILLMENTS + " fulfillments per request")
+    @Builder.Default
+    private List<@Valid @NotNull Item> fulfillments = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotNull(message = "Website ID is required")
+        private UUID websiteId;
+
+        @NotBlank(message = "External order ID is required")
+        @Size(max = 128, message = "External order ID must not exceed 128 characters")
+        private String externalOrderId;
+
+        /** Replaces every field of an existing fulfillment, like PUT */
+        @Valid
+        @NotNull
+        @JsonUnwrapped
+        private FulfillmentCreateRequest fulfillment;
+    }
+}
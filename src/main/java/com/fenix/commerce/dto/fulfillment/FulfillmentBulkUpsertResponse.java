@@ -0,0 +1,26 @@
+package com.fenix.commerce.dto.fulfillment;
+
+import com.fenix.commerce.dto.order.ExternalOrderRef;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FulfillmentBulkUpsertResponse {
+
+    private int created;
+    private int updated;
+
+    /** Orders whose fulfillment status was recomputed */
+    private int ordersUpdated;
+
+    /** Orders that do not exist; their fulfillments were skipped */
+    private List<ExternalOrderRef> unknownOrders;
+}
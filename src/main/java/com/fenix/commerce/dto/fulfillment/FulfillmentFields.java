@@ -0,0 +1,38 @@
+package com.fenix.commerce.dto.fulfillment;
+
+import com.fenix.commerce.dto.FieldSet;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fields of {@link FulfillmentResponse} that can be requested with
+ * {@code fields=} and the {@code Fulfillment} attributes they are read from
+ */
+public final class FulfillmentFields {
+
+    public static final Map<String, String> CATALOG;
+
+    static {
+        Map<String, String> catalog = new LinkedHashMap<>();
+        catalog.put("id", "fulfillmentId");
+        catalog.put("orderId", "order.orderId");
+        catalog.put("externalFulfillmentId", "externalFulfillmentId");
+        catalog.put("status", "fulfillmentStatus");
+        catalog.put("carrier", "carrier");
+        catalog.put("serviceLevel", "serviceLevel");
+        catalog.put("shippedAt", "shippedAt");
+        catalog.put("deliveredAt", "deliveredAt");
+        catalog.put("createdAt", "createdAt");
+        catalog.put("updatedAt", "updatedAt");
+        CATALOG = Collections.unmodifiableMap(catalog);
+    }
+
+    private FulfillmentFields() {
+    }
+
+    public static FieldSet parse(String fields) {
+        return FieldSet.parse(fields, CATALOG);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fenix.commerce.dto.fulfillment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FulfillmentReconciliationResponse {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED
+    }
+
+    private UUID reconciliationId;
+    private UUID tenantId;
+    private Status status;
+
+    /** Keyset position: every order of the tenant up to this id has been checked */
+    private UUID lastOrderId;
+
+    private long ordersChecked;
+    private long ordersRepaired;
+
+    /** Last failure; the reconciliation is retried from its last position on the next poll */
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
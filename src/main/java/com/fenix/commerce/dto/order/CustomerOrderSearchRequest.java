@@ -0,0 +1,36 @@
+package com.fenix.commerce.dto.order;
+
+import com.fenix.commerce.sharding.TenantScoped;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for looking up a customer's orders by email. Sent as a request body so
+ * the address does not end up in URLs and access logs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerOrderSearchRequest implements TenantScoped {
+
+    @NotNull(message = "Organization ID is required")
+    private UUID orgId;
+
+    @NotBlank(message = "Customer email is required")
+    @Size(max = 320, message = "Email must not exceed 320 characters")
+    private String email;
+
+    /** nextCursor of the previous page; omit for the first page */
+    private String cursor;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 200, message = "Size must not exceed 200")
+    @Builder.Default
+    private int size = 50;
+}
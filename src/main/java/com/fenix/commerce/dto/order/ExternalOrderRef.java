@@ -0,0 +1,29 @@
+package com.fenix.commerce.dto.order;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Identifies an order by its store and the id the store's platform gave it,
+ * i.e. the uk_order_external key within a tenant
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExternalOrderRef {
+
+    @NotNull(message = "Website ID is required")
+    private UUID websiteId;
+
+    @NotBlank(message = "External order ID is required")
+    @Size(max = 128, message = "External order ID must not exceed 128 characters")
+    private String externalOrderId;
+}
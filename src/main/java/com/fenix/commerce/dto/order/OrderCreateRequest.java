@@ -1,6 +1,7 @@
 package com.fenix.commerce.dto.order;
 
 import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.sharding.TenantScoped;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderCreateRequest {
+public class OrderCreateRequest implements TenantScoped {
 
     @NotNull(message = "Organization ID is required")
     private UUID orgId;
@@ -0,0 +1,33 @@
+package com.fenix.commerce.dto.order;
+
+import com.fenix.commerce.exception.BusinessLogicException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last order of a page sorted by
+ * {@code order_updated_at DESC, order_id DESC}, encoded as an opaque string.
+ */
+public record OrderCursor(LocalDateTime orderUpdatedAt, UUID orderId) {
+
+    public String encode() {
+        String value = (orderUpdatedAt != null ? orderUpdatedAt.toString() : "") + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            String updatedAt = value.substring(0, separator);
+            return new OrderCursor(updatedAt.isEmpty() ? null : LocalDateTime.parse(updatedAt),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BusinessLogicException("Invalid cursor: " + cursor);
+        }
+    }
+}
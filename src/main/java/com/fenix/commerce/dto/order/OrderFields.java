@@ -0,0 +1,43 @@
+package com.fenix.commerce.dto.order;
+
+import com.fenix.commerce.dto.FieldSet;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fields of {@link OrderResponse} that can be requested with {@code fields=}
+ * and the {@code Order} attributes they are read from. The audit timestamps
+ * are not stored and cannot be requested.
+ */
+public final class OrderFields {
+
+    public static final Map<String, String> CATALOG;
+
+    static {
+        Map<String, String> catalog = new LinkedHashMap<>();
+        catalog.put("id", "orderId");
+        catalog.put("orgId", "tenant.tenantId");
+        catalog.put("websiteId", "store.storeId");
+        catalog.put("externalOrderId", "externalOrderId");
+        catalog.put("externalOrderNumber", "externalOrderNumber");
+        catalog.put("status", "orderStatus");
+        catalog.put("financialStatus", "financialStatus");
+        catalog.put("fulfillmentStatus", "fulfillmentStatus");
+        catalog.put("customerEmail", "customerEmail");
+        catalog.put("orderTotal", "orderTotalAmount");
+        catalog.put("currency", "currency");
+        catalog.put("orderCreatedAt", "orderCreatedAt");
+        catalog.put("orderUpdatedAt", "orderUpdatedAt");
+        catalog.put("ingestedAt", "ingestedAt");
+        CATALOG = Collections.unmodifiableMap(catalog);
+    }
+
+    private OrderFields() {
+    }
+
+    public static FieldSet parse(String fields) {
+        return FieldSet.parse(fields, CATALOG);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fenix.commerce.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fenix.commerce.dto.fulfillment.FulfillmentResponse;
+import com.fenix.commerce.dto.tracking.TrackingEventResponse;
+import com.fenix.commerce.dto.tracking.TrackingResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An order with its fulfillments, their tracking and each tracking's most
+ * recent events, as rendered by the order page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderFullResponse {
+
+    @JsonUnwrapped
+    private OrderResponse order;
+
+    private List<FulfillmentDetails> fulfillments;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FulfillmentDetails {
+
+        @JsonUnwrapped
+        private FulfillmentResponse fulfillment;
+
+        private List<TrackingDetails> tracking;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TrackingDetails {
+
+        @JsonUnwrapped
+        private TrackingResponse tracking;
+
+        /** Newest first */
+        private List<TrackingEventResponse> recentEvents;
+    }
+}
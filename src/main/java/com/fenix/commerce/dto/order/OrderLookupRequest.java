@@ -0,0 +1,37 @@
+package com.fenix.commerce.dto.order;
+
+import com.fenix.commerce.sharding.TenantScoped;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for resolving many orders of one organization at once, by order id
+ * and/or by (websiteId, externalOrderId)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderLookupRequest implements TenantScoped {
+
+    public static final int MAX_KEYS = 1000;
+
+    @NotNull(message = "Organization ID is required")
+    private UUID orgId;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " order IDs per lookup")
+    @Builder.Default
+    private List<@NotNull UUID> orderIds = new ArrayList<>();
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " external orders per lookup")
+    @Builder.Default
+    private List<@Valid @NotNull ExternalOrderRef> externalOrders = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.fenix.commerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of an {@link OrderLookupRequest}. Orders found by id come first,
+ * then orders found by external id, each in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderLookupResponse {
+
+    private List<OrderResponse> orders;
+    private List<UUID> notFoundOrderIds;
+    private List<ExternalOrderRef> notFoundExternalOrders;
+}
@@ -0,0 +1,28 @@
+package com.fenix.commerce.dto.purge;
+
+import com.fenix.commerce.entity.Order;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Which of a tenant's orders to delete. Both criteria are optional; an empty
+ * request purges every order of the tenant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurgeJobRequest {
+
+    /** Only orders in one of these statuses; empty for every status */
+    private Set<Order.OrderStatus> statuses;
+
+    /** Only orders last updated more than this many days ago */
+    @Min(value = 0, message = "Age must not be negative")
+    private Integer olderThanDays;
+}
@@ -0,0 +1,43 @@
+package com.fenix.commerce.dto.purge;
+
+import com.fenix.commerce.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurgeJobResponse {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, CANCELLED
+    }
+
+    private UUID jobId;
+    private UUID tenantId;
+    private Set<Order.OrderStatus> statuses;
+    private LocalDateTime updatedBefore;
+    private Status status;
+
+    /** Keyset position: every matching order up to this id has been purged */
+    private UUID lastOrderId;
+
+    private long ordersDeleted;
+
+    /** Rows deleted across all tables, orders included */
+    private long rowsDeleted;
+
+    /** Last failure; the job is retried from its last position on the next poll */
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,29 @@
+package com.fenix.commerce.dto.tracking;
+
+import com.fenix.commerce.entity.TrackingEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackingEventResponse {
+
+    private UUID id;
+    private UUID trackingId;
+    private LocalDateTime eventTime;
+    private String eventCode;
+    private String description;
+    private String city;
+    private String state;
+    private String country;
+    private String zip;
+    private TrackingEvent.Source source;
+}
@@ -0,0 +1,30 @@
+package com.fenix.commerce.dto.tracking;
+
+import com.fenix.commerce.entity.Tracking;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackingResponse {
+
+    private UUID id;
+    private UUID fulfillmentId;
+    private String trackingNumber;
+    private String trackingUrl;
+    private String carrier;
+    private Tracking.TrackingStatus status;
+    private Boolean isPrimary;
+    private LocalDateTime lastEventAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
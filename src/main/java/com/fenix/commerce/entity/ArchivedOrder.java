@@ -0,0 +1,73 @@
+package com.fenix.commerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+/**
+ * Read-only view of an order moved to the cold archive tier
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    @Column(name = "order_id", columnDefinition = "BINARY(16)", nullable = false, updatable = false)
+    private UUID orderId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "tenant_id", columnDefinition = "BINARY(16)", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "store_id", columnDefinition = "BINARY(16)", nullable = false)
+    private UUID storeId;
+
+    @Column(name = "external_order_id", nullable = false, length = 128)
+    private String externalOrderId;
+
+    @Column(name = "external_order_number", length = 128)
+    private String externalOrderNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private Order.OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "financial_status", nullable = false)
+    private Order.FinancialStatus financialStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "fulfillment_status", nullable = false)
+    private Order.FulfillmentOverallStatus fulfillmentStatus;
+
+    @Column(name = "customer_email", length = 320)
+    private String customerEmail;
+
+    @Column(name = "order_total_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal orderTotalAmount;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "order_created_at")
+    private LocalDateTime orderCreatedAt;
+
+    @Column(name = "order_updated_at")
+    private LocalDateTime orderUpdatedAt;
+
+    @Column(name = "ingested_at", nullable = false)
+    private Instant ingestedAt;
+}
@@ -20,7 +20,13 @@ import java.util.UUID;
                 "external_fulfillment_id" })
 }, indexes = {
         @Index(name = "idx_fulfillments_tenant_order", columnList = "tenant_id, order_id"),
-        @Index(name = "idx_fulfillments_tenant_updated", columnList = "tenant_id, updated_at")
+        @Index(name = "idx_fulfillments_tenant_updated", columnList = "tenant_id, updated_at"),
+        @Index(name = "idx_fulfillments_tenant_status_updated", columnList = "tenant_id, fulfillment_status, updated_at"),
+        @Index(name = "idx_fulfillments_tenant_carrier_status_updated",
+                columnList = "tenant_id, carrier, fulfillment_status, updated_at"),
+        @Index(name = "idx_fulfillments_order_updated", columnList = "order_id, updated_at"),
+        @Index(name = "idx_fulfillments_order_carrier_updated", columnList = "order_id, carrier, updated_at"),
+        @Index(name = "idx_fulfillments_order_status_updated", columnList = "order_id, fulfillment_status, updated_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -0,0 +1,84 @@
+package com.fenix.commerce.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.Map;
+
+
+/**
+ * Number of an order's fulfillments in each status, kept up to date as
+ * fulfillments are written so the order's overall fulfillment status can be
+ * derived without reading them
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class FulfillmentCounts {
+
+    @Column(name = "fulfillment_count_created", nullable = false)
+    private int created;
+
+    @Column(name = "fulfillment_count_shipped", nullable = false)
+    private int shipped;
+
+    @Column(name = "fulfillment_count_delivered", nullable = false)
+    private int delivered;
+
+    @Column(name = "fulfillment_count_cancelled", nullable = false)
+    private int cancelled;
+
+    @Column(name = "fulfillment_count_failed", nullable = false)
+    private int failed;
+
+    @Column(name = "fulfillment_count_unknown", nullable = false)
+    private int unknown;
+
+    public static FulfillmentCounts of(Map<Fulfillment.FulfillmentStatus, ? extends Number> counts) {
+        FulfillmentCounts result = new FulfillmentCounts();
+        counts.forEach((status, count) -> result.add(status, count.intValue()));
+        return result;
+    }
+
+    public void add(Fulfillment.FulfillmentStatus status, int delta) {
+        switch (status) {
+            case CREATED -> created += delta;
+            case SHIPPED -> shipped += delta;
+            case DELIVERED -> delivered += delta;
+            case CANCELLED -> cancelled += delta;
+            case FAILED -> failed += delta;
+            case UNKNOWN -> unknown += delta;
+        }
+    }
+
+    public int total() {
+        return created + shipped + delivered + cancelled + failed + unknown;
+    }
+
+    /**
+     * Cancelled and failed fulfillments do not count towards shipping the
+     * order; it is fulfilled once every other fulfillment has shipped.
+     * Without any fulfillment the overall status is unfulfilled.
+     */
+    public Order.FulfillmentOverallStatus overallStatus() {
+        int inactive = cancelled + failed;
+        int shippedOrDelivered = shipped + delivered;
+        if (total() == 0) {
+            return Order.FulfillmentOverallStatus.UNFULFILLED;
+        }
+        if (inactive == total()) {
+            return Order.FulfillmentOverallStatus.CANCELLED;
+        }
+        if (shippedOrDelivered == total() - inactive) {
+            return Order.FulfillmentOverallStatus.FULFILLED;
+        }
+        return shippedOrDelivered > 0
+                ? Order.FulfillmentOverallStatus.PARTIAL
+                : Order.FulfillmentOverallStatus.UNFULFILLED;
+    }
+}
@@ -1,5 +1,6 @@
 package com.fenix.commerce.entity;
 
+import com.fenix.commerce.util.EmailHash;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
@@ -19,7 +20,12 @@ import java.util.UUID;
 }, indexes = {
         @Index(name = "idx_orders_tenant_updated", columnList = "tenant_id, order_updated_at"),
         @Index(name = "idx_orders_store_updated", columnList = "store_id, order_updated_at"),
-        @Index(name = "idx_orders_tenant_number", columnList = "tenant_id, external_order_number")
+        @Index(name = "idx_orders_tenant_number", columnList = "tenant_id, external_order_number"),
+        @Index(name = "idx_orders_tenant_status_updated", columnList = "tenant_id, order_status, order_updated_at"),
+        @Index(name = "idx_orders_tenant_financial_updated", columnList = "tenant_id, financial_status, order_updated_at"),
+        @Index(name = "idx_orders_tenant_fulfillment_updated", columnList = "tenant_id, fulfillment_status, order_updated_at"),
+        @Index(name = "idx_orders_store_status_updated", columnList = "store_id, order_status, order_updated_at"),
+        @Index(name = "idx_orders_tenant_email_updated", columnList = "tenant_id, customer_email_hash, order_updated_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -61,9 +67,22 @@ public class Order {
     @Column(name = "fulfillment_status", nullable = false)
     private FulfillmentOverallStatus fulfillmentStatus = FulfillmentOverallStatus.UNKNOWN;
 
+    /**
+     * Maintained by the fulfillment services; fulfillmentStatus is derived
+     * from it once non-empty and goes back to UNFULFILLED when it empties
+     */
+    @Embedded
+    @Builder.Default
+    private FulfillmentCounts fulfillmentCounts = new FulfillmentCounts();
+
     @Column(name = "customer_email", length = 320)
     private String customerEmail;
 
+    /** Maintained from customerEmail, see {@link EmailHash} */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "customer_email_hash", columnDefinition = "BINARY(32)")
+    private byte[] customerEmailHash;
+
     @Column(name = "order_total_amount", nullable = false, precision = 12, scale = 2)
     private BigDecimal orderTotalAmount = BigDecimal.ZERO;
 
@@ -88,6 +107,37 @@ public class Order {
         if (ingestedAt == null) {
             ingestedAt = Instant.now();
         }
+        customerEmailHash = EmailHash.of(customerEmail);
+        deriveFulfillmentStatus();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        customerEmailHash = EmailHash.of(customerEmail);
+        deriveFulfillmentStatus();
+    }
+
+    /**
+     * Once the order has fulfillments their statuses win over what the client
+     * sent. Runs before every write; call it to read the status a pending
+     * counter change will produce.
+     */
+    public void deriveFulfillmentStatus() {
+        if (fulfillmentCounts != null && fulfillmentCounts.total() > 0) {
+            fulfillmentStatus = fulfillmentCounts.overallStatus();
+        }
+    }
+
+    /**
+     * Takes a deleted fulfillment out of the counts. The status was derived
+     * from the fulfillments, so an order left without any is unfulfilled
+     * rather than keeping the status of the last one.
+     */
+    public void removeFulfillment(Fulfillment.FulfillmentStatus status) {
+        fulfillmentCounts.add(status, -1);
+        if (fulfillmentCounts.total() == 0) {
+            fulfillmentStatus = FulfillmentOverallStatus.UNFULFILLED;
+        }
     }
 
     public enum OrderStatus {
@@ -17,7 +17,10 @@ import java.util.UUID;
         @UniqueConstraint(name = "uk_tracking_number", columnNames = { "tenant_id", "tracking_number" })
 }, indexes = {
         @Index(name = "idx_tracking_tenant_fulfillment", columnList = "tenant_id, fulfillment_id"),
-        @Index(name = "idx_tracking_tenant_status", columnList = "tenant_id, tracking_status")
+        @Index(name = "idx_tracking_tenant_updated", columnList = "tenant_id, updated_at"),
+        @Index(name = "idx_tracking_tenant_status_updated", columnList = "tenant_id, tracking_status, updated_at"),
+        @Index(name = "idx_tracking_tenant_carrier_status_updated",
+                columnList = "tenant_id, carrier, tracking_status, updated_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
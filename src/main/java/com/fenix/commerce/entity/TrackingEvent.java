@@ -0,0 +1,78 @@
+package com.fenix.commerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+@Entity
+@Table(name = "tracking_events", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_event_hash", columnNames = { "tenant_id", "event_hash" })
+}, indexes = {
+        @Index(name = "idx_events_tenant_tracking_time", columnList = "tenant_id, tracking_id, event_time")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackingEvent {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(name = "tracking_event_id", columnDefinition = "BINARY(16)", nullable = false, updatable = false)
+    private UUID trackingEventId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false, foreignKey = @ForeignKey(name = "fk_events_tenant"))
+    private Tenant tenant;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tracking_id", nullable = false, foreignKey = @ForeignKey(name = "fk_events_tracking"))
+    private Tracking tracking;
+
+    @Column(name = "event_time", nullable = false)
+    private LocalDateTime eventTime;
+
+    @Column(name = "event_code", nullable = false, length = 64)
+    private String eventCode;
+
+    @Column(name = "event_description", length = 512)
+    private String eventDescription;
+
+    @Column(name = "event_city", length = 128)
+    private String eventCity;
+
+    @Column(name = "event_state", length = 128)
+    private String eventState;
+
+    @Column(name = "event_country", length = 128)
+    private String eventCountry;
+
+    @Column(name = "event_zip", length = 32)
+    private String eventZip;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source", nullable = false)
+    @Builder.Default
+    private Source source = Source.OTHER;
+
+    @Column(name = "event_hash", nullable = false, length = 64)
+    private String eventHash;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public enum Source {
+        CARRIER, SHOPIFY, FENIX, OTHER
+    }
+}
@@ -0,0 +1,39 @@
+package com.fenix.commerce.event;
+
+import com.fenix.commerce.entity.Order;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published by the order and fulfillment services inside the transaction
+ * that changed an order or one of its fulfillments. Listeners that act on
+ * it outside the database should wait for the commit.
+ *
+ * @param fulfillmentId set for fulfillment changes only
+ */
+public record OrderChangeEvent(
+        Type type,
+        UUID tenantId,
+        UUID storeId,
+        UUID orderId,
+        UUID fulfillmentId,
+        Order.OrderStatus orderStatus,
+        Order.FulfillmentOverallStatus fulfillmentStatus,
+        Instant occurredAt) {
+
+    public enum Type {
+        ORDER_UPSERTED, ORDER_UPDATED, ORDER_DELETED,
+        FULFILLMENT_CREATED, FULFILLMENT_UPDATED, FULFILLMENT_DELETED
+    }
+
+    public static OrderChangeEvent of(Type type, Order order) {
+        return of(type, order, null);
+    }
+
+    public static OrderChangeEvent of(Type type, Order order, UUID fulfillmentId) {
+        return new OrderChangeEvent(type, order.getTenant().getTenantId(), order.getStore().getStoreId(),
+                order.getOrderId(), fulfillmentId, order.getOrderStatus(), order.getFulfillmentStatus(),
+                Instant.now());
+    }
+}
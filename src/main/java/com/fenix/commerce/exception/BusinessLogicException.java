@@ -18,4 +18,8 @@ public class BusinessLogicException extends RuntimeException {
     public static BusinessLogicException invalidTenant(String message) {
         return new BusinessLogicException("Invalid tenant: " + message);
     }
+
+    public static BusinessLogicException orgIdRequired() {
+        return new BusinessLogicException("orgId is required while tenants are sharded");
+    }
 }
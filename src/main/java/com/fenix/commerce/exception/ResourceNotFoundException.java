@@ -28,4 +28,16 @@ public class ResourceNotFoundException extends RuntimeException {
     public static ResourceNotFoundException tracking(UUID trackingId) {
         return new ResourceNotFoundException("Tracking not found with ID: " + trackingId);
     }
+
+    public static ResourceNotFoundException purgeJob(UUID jobId) {
+        return new ResourceNotFoundException("Purge job not found with ID: " + jobId);
+    }
+
+    public static ResourceNotFoundException shardMove(UUID moveId) {
+        return new ResourceNotFoundException("Shard move not found with ID: " + moveId);
+    }
+
+    public static ResourceNotFoundException fulfillmentReconciliation(UUID reconciliationId) {
+        return new ResourceNotFoundException("Fulfillment reconciliation not found with ID: " + reconciliationId);
+    }
 }
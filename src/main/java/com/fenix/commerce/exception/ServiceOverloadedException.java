@@ -0,0 +1,9 @@
+package com.fenix.commerce.exception;
+
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.fenix.commerce.exception;
+
+import java.util.UUID;
+
+
+public class TenantMovingException extends RuntimeException {
+
+    public TenantMovingException(UUID tenantId) {
+        super("Tenant " + tenantId + " is being moved to another shard, writes are paused");
+    }
+}
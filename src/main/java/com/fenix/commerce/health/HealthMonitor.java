@@ -0,0 +1,299 @@
+package com.fenix.commerce.health;
+
+import com.fenix.commerce.config.CacheConfig;
+import com.fenix.commerce.config.ReadWriteRoutingDataSource;
+import com.fenix.commerce.outbox.OutboxProperties;
+import com.fenix.commerce.sharding.ShardContext;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.sharding.TenantShardRoutingDataSource;
+import com.fenix.commerce.warmup.JitWarmup;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probes the database on every shard, the Hikari pools, the outbox backlog
+ * and the cache warm state on a fixed delay and keeps the latest result, so
+ * load balancer probes only read a field.
+ *
+ * Probes run on their own thread rather than the shared scheduler: a probe
+ * blocked on an unreachable database must not hold up maintenance jobs, and
+ * those jobs must not make the snapshot look stale.
+ */
+@Component
+@Slf4j
+public class HealthMonitor {
+
+    private static final String DEFAULT_SHARD = "default";
+
+    /** Every connection of the shard's pool in use; the probe did not wait for one */
+    private static final String SATURATED = "SATURATED";
+
+    private static final String OUTBOX_DEPTH =
+            "SELECT COALESCE(MAX(outbox_id) - MIN(outbox_id) + 1, 0) FROM order_outbox";
+
+    private final DataSource dataSource;
+    private final ObjectProvider<TenantShardRoutingDataSource> shards;
+    private final ObjectProvider<ReadWriteRoutingDataSource> replicas;
+    private final ShardRouter shardRouter;
+    private final CacheManager cacheManager;
+    private final JitWarmup jitWarmup;
+    private final OutboxProperties outboxProperties;
+    private final HealthProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile HealthSnapshot snapshot =
+            new HealthSnapshot(HealthStatus.DOWN, Map.of("probe", "pending"), Instant.now());
+
+    public HealthMonitor(DataSource dataSource,
+                         ObjectProvider<TenantShardRoutingDataSource> shards,
+                         ObjectProvider<ReadWriteRoutingDataSource> replicas,
+                         ShardRouter shardRouter,
+                         CacheManager cacheManager,
+                         JitWarmup jitWarmup,
+                         OutboxProperties outboxProperties,
+                         HealthProperties properties) {
+        this.dataSource = dataSource;
+        this.shards = shards;
+        this.replicas = replicas;
+        this.shardRouter = shardRouter;
+        this.cacheManager = cacheManager;
+        this.jitWarmup = jitWarmup;
+        this.outboxProperties = outboxProperties;
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, properties.getQueryTimeout().toSeconds()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::probe, 0, properties.getProbeInterval().toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the latest snapshot, reported DOWN once it is older than {@code stale-after}
+     */
+    public HealthSnapshot current() {
+        HealthSnapshot last = snapshot;
+        if (Duration.between(last.checkedAt(), Instant.now()).compareTo(properties.getStaleAfter()) > 0) {
+            Map<String, Object> checks = new LinkedHashMap<>(last.checks());
+            checks.put("stale", true);
+            return new HealthSnapshot(HealthStatus.DOWN, checks, last.checkedAt());
+        }
+        return last;
+    }
+
+    public boolean isShedding() {
+        return properties.isShedLowPriority() && current().status() != HealthStatus.UP;
+    }
+
+    void probe() {
+        try {
+            Map<String, Object> checks = new LinkedHashMap<>();
+            Map<String, String> database = new LinkedHashMap<>();
+            HealthStatus status = probeDatabase(database);
+            checks.put("database", database);
+            status = status.worst(probePools(checks));
+            status = status.worst(probeOutbox(checks, database));
+            probeCache(checks);
+
+            HealthStatus previous = snapshot.status();
+            snapshot = new HealthSnapshot(status, checks, Instant.now());
+            if (status != previous) {
+                log.warn("Health changed from {} to {}: {}", previous, status, checks);
+            }
+        } catch (RuntimeException ex) {
+            // Keep the schedule alive; the snapshot goes stale if this repeats
+            log.error("Health probe failed", ex);
+        }
+    }
+
+    /**
+     * DOWN when the default shard is unreachable, since it holds the shard
+     * directory; another unreachable shard only affects its own tenants.
+     *
+     * The probe borrows from the pool it judges, so an exhausted pool is
+     * reported SATURATED (DEGRADED) instead of waiting out the connection
+     * timeout and then reading as an outage: the database is answering the
+     * requests that hold the connections.
+     */
+    private HealthStatus probeDatabase(Map<String, String> database) {
+        TenantShardRoutingDataSource routing = shards.getIfAvailable();
+        String defaultShard = routing != null ? routing.getDefaultShard() : DEFAULT_SHARD;
+        HealthStatus[] status = { HealthStatus.UP };
+        shardRouter.forEachShard(() -> {
+            String current = ShardContext.current();
+            String shard = current != null ? current : DEFAULT_SHARD;
+            if (isExhausted(poolFor(routing, shard))) {
+                database.put(shard, SATURATED);
+                status[0] = status[0].worst(HealthStatus.DEGRADED);
+                return;
+            }
+            try {
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                database.put(shard, HealthStatus.UP.name());
+            } catch (DataAccessException ex) {
+                if (isPoolTimeout(ex)) {
+                    // Exhausted between the check above and the borrow
+                    database.put(shard, SATURATED);
+                    status[0] = status[0].worst(HealthStatus.DEGRADED);
+                    return;
+                }
+                log.warn("Database probe failed for shard {}: {}", shard, ex.getMessage());
+                database.put(shard, HealthStatus.DOWN.name());
+                status[0] = status[0].worst(shard.equals(defaultShard) ? HealthStatus.DOWN : HealthStatus.DEGRADED);
+            }
+        });
+        return status[0];
+    }
+
+    /**
+     * The pool the probe query borrows from: the shard's own pool, or the
+     * primary behind the read/write router
+     */
+    private HikariDataSource poolFor(TenantShardRoutingDataSource routing, String shard) {
+        if (routing != null) {
+            return unwrap(routing.getShard(shard));
+        }
+        ReadWriteRoutingDataSource readWrite = replicas.getIfAvailable();
+        DataSource primary = readWrite != null ? readWrite.getResolvedDefaultDataSource() : dataSource;
+        return primary != null ? unwrap(primary) : null;
+    }
+
+    private static boolean isExhausted(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+        return mxBean != null
+                && mxBean.getIdleConnections() == 0
+                && mxBean.getTotalConnections() >= pool.getMaximumPoolSize();
+    }
+
+    /**
+     * Hikari's borrow timeout carries the last connection failure as its
+     * cause; without one every connection was healthy but in use.
+     */
+    private static boolean isPoolTimeout(DataAccessException ex) {
+        return ex.getCause() instanceof SQLTransientConnectionException timeout && timeout.getCause() == null;
+    }
+
+    private HealthStatus probePools(Map<String, Object> checks) {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        HealthStatus status = HealthStatus.UP;
+        for (HikariDataSource pool : pools().values()) {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean == null) {
+                // Not started yet: nothing has asked for a connection
+                continue;
+            }
+            int active = mxBean.getActiveConnections();
+            int max = pool.getMaximumPoolSize();
+            pools.put(pool.getPoolName(), Map.of(
+                    "active", active,
+                    "max", max,
+                    "waiting", mxBean.getThreadsAwaitingConnection()));
+            if (active >= max * properties.getPoolSaturation()) {
+                status = HealthStatus.DEGRADED;
+            }
+        }
+        checks.put("pools", pools);
+        return status;
+    }
+
+    /**
+     * Upper bound of the records written by ingest but not yet relayed;
+     * cheap on the primary key, unlike a COUNT over a large backlog. Shards
+     * the database check did not find UP are skipped rather than waited on.
+     */
+    private HealthStatus probeOutbox(Map<String, Object> checks, Map<String, String> database) {
+        AtomicLong depth = new AtomicLong();
+        shardRouter.forEachShard(() -> {
+            String current = ShardContext.current();
+            if (!HealthStatus.UP.name().equals(database.get(current != null ? current : DEFAULT_SHARD))) {
+                return;
+            }
+            try {
+                Long shardDepth = jdbcTemplate.queryForObject(OUTBOX_DEPTH, Long.class);
+                depth.addAndGet(shardDepth != null ? shardDepth : 0);
+            } catch (DataAccessException ex) {
+                // Reported by the database check
+            }
+        });
+        checks.put("outboxBacklog", depth.get());
+        // Without a relay on this instance the backlog is someone else's to drain
+        return outboxProperties.getRelay().isEnabled() && depth.get() > properties.getOutboxBacklog()
+                ? HealthStatus.DEGRADED : HealthStatus.UP;
+    }
+
+    private void probeCache(Map<String, Object> checks) {
+        long entries = 0;
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_DETAILS);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            entries = caffeine.estimatedSize();
+        }
+        checks.put("cache", Map.of("warm", jitWarmup.isComplete(), "orderDetailsEntries", entries));
+    }
+
+    /**
+     * Every Hikari pool behind the application data source, including
+     * shards and read replicas, by pool name.
+     */
+    private Map<String, HikariDataSource> pools() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        addPool(pools, dataSource);
+        shards.ifAvailable(routing -> routing.getShardNames()
+                .forEach(name -> addPool(pools, routing.getShard(name))));
+        replicas.ifAvailable(routing -> routing.getReplicas().values()
+                .forEach(replica -> addPool(pools, replica)));
+        return pools;
+    }
+
+    private static void addPool(Map<String, HikariDataSource> pools, DataSource candidate) {
+        HikariDataSource pool = unwrap(candidate);
+        if (pool != null) {
+            pools.putIfAbsent(pool.getPoolName(), pool);
+        }
+    }
+
+    private static HikariDataSource unwrap(DataSource candidate) {
+        try {
+            if (candidate.isWrapperFor(HikariDataSource.class)) {
+                return candidate.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException ex) {
+            log.debug("Could not unwrap data source {}: {}", candidate, ex.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fenix.commerce.health;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background dependency probes behind the health endpoints
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.health")
+public class HealthProperties {
+
+    private Duration probeInterval = Duration.ofSeconds(5);
+
+    /** A snapshot older than this counts as DOWN; a probe stuck on the database never finishes */
+    private Duration staleAfter = Duration.ofSeconds(30);
+
+    private Duration queryTimeout = Duration.ofSeconds(2);
+
+    /** Active connections / maximum pool size at which a pool counts as saturated */
+    private double poolSaturation = 0.9;
+
+    /** Unpublished outbox records above which the relay counts as falling behind */
+    private long outboxBacklog = 50_000;
+
+    /** Reject {@link LowPriority} requests with 503 while the instance is not UP */
+    private boolean shedLowPriority = true;
+}
@@ -0,0 +1,14 @@
+package com.fenix.commerce.health;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Result of one probe run: the overall status plus the details of each check
+ */
+public record HealthSnapshot(HealthStatus status, Map<String, Object> checks, Instant checkedAt) {
+
+    public HealthSnapshot {
+        checks = Map.copyOf(checks);
+    }
+}
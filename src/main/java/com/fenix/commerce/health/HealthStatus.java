@@ -0,0 +1,18 @@
+package com.fenix.commerce.health;
+
+/**
+ * Ordered from best to worst
+ */
+public enum HealthStatus {
+
+    UP,
+
+    /** Serving, but low-priority traffic is shed */
+    DEGRADED,
+
+    DOWN;
+
+    public HealthStatus worst(HealthStatus other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+}
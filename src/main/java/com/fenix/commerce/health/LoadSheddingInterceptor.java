@@ -0,0 +1,33 @@
+package com.fenix.commerce.health;
+
+import com.fenix.commerce.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Rejects {@link LowPriority} requests while the last health snapshot is
+ * not UP, leaving the remaining capacity to ingest and single-order reads.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    private final HealthMonitor healthMonitor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && isLowPriority(method) && healthMonitor.isShedding()) {
+            throw new ServiceOverloadedException("Instance is degraded, low-priority requests are shed; retry later");
+        }
+        return true;
+    }
+
+    private static boolean isLowPriority(HandlerMethod method) {
+        return method.hasMethodAnnotation(LowPriority.class)
+                || method.getBeanType().isAnnotationPresent(LowPriority.class);
+    }
+}
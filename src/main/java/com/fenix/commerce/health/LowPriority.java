@@ -0,0 +1,16 @@
+package com.fenix.commerce.health;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint, or every endpoint of a controller, whose requests are
+ * rejected with 503 while the instance is degraded: listings, exports and
+ * streams that can wait, unlike ingest and single-order reads.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LowPriority {
+}
@@ -0,0 +1,332 @@
+package com.fenix.commerce.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes keyed POSTs safe to retry. The first request with a given
+ * {@code Idempotency-Key} runs normally and its successful response is
+ * stored; retries get that response replayed without reaching the services.
+ * Keys are scoped to the tenant and endpoint. A duplicate arriving while the
+ * original is still running waits for it, on the same instance through an
+ * in-memory future and across instances through the original's claim in the
+ * store. Failed requests are not stored, since their transaction rolled back
+ * and a retry may succeed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+    private final Map<IdempotencyStore.Key, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || !"POST".equals(request.getMethod())
+                || request.getHeader(properties.getHeader()) == null) {
+            return true;
+        }
+        String path = path(request);
+        return properties.getPaths().stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clientKey = request.getHeader(properties.getHeader());
+        if (clientKey.isBlank() || clientKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    properties.getHeader() + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        byte[] requestHash = sha256(body);
+        String scope = request.getMethod() + " " + path(request) + "\n" + tenant(request, body) + "\n" + clientKey;
+        IdempotencyStore.Key key = new IdempotencyStore.Key(sha256(scope.getBytes(StandardCharsets.UTF_8)));
+        HttpServletRequest bufferedRequest = new BufferedBodyRequest(request, body);
+
+        long deadline = System.nanoTime() + properties.getInFlightWait().toNanos();
+        while (true) {
+            if (replayed(request, response, key, requestHash)) {
+                return;
+            }
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                try {
+                    // The previous owner may have stored its response between our lookup and claiming the key
+                    if (!replayed(request, response, key, requestHash)) {
+                        claimAndExecute(bufferedRequest, response, chain, key, requestHash, deadline);
+                    }
+                } finally {
+                    inFlight.remove(key, mine);
+                    mine.complete(null);
+                }
+                return;
+            }
+            if (!awaitOriginal(running, deadline)) {
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + properties.getHeader() + " is still being processed");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the request once no other instance holds the key, or replays what
+     * the other instance stored. Gives up with 409 at the deadline.
+     */
+    private void claimAndExecute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                                 IdempotencyStore.Key key, byte[] requestHash, long deadline)
+            throws ServletException, IOException {
+        while (!store.claim(key, requestHash)) {
+            if (replayed(request, response, key, requestHash)) {
+                return;
+            }
+            if (System.nanoTime() - deadline > 0 || !pause(properties.getDb().getClaimPollInterval().toMillis())) {
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + properties.getHeader() + " is still being processed");
+                return;
+            }
+        }
+        boolean stored = false;
+        try {
+            stored = execute(request, response, chain, key, requestHash);
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+        }
+    }
+
+    private boolean execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                            IdempotencyStore.Key key, byte[] requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, cachingResponse);
+            int status = cachingResponse.getStatus();
+            if (status >= 200 && status < 300 && cachingResponse.getContentSize() <= properties.getMaxResponseBytes()) {
+                store.save(key, new StoredResponse(requestHash, status, cachingResponse.getContentType(),
+                        cachingResponse.getContentAsByteArray()));
+                return true;
+            }
+            return false;
+        } finally {
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private boolean replayed(HttpServletRequest request, HttpServletResponse response, IdempotencyStore.Key key,
+                             byte[] requestHash) throws IOException {
+        StoredResponse stored = store.find(key);
+        if (stored == null) {
+            return false;
+        }
+        if (!MessageDigest.isEqual(stored.requestHash(), requestHash)) {
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    properties.getHeader() + " was already used for a different request body");
+            return true;
+        }
+        log.debug("Replaying stored response for {} {}", request.getMethod(), request.getRequestURI());
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+        return true;
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean awaitOriginal(CompletableFuture<Void> running, long deadline) {
+        try {
+            running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ex) {
+            return true;
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * The {@code orgId} of the request: order writes carry it in the body,
+     * read in whichever of JSON, CBOR or Smile the {@code Content-Type} names,
+     * other endpoints as a parameter. Empty where the path alone scopes the
+     * key, as an order id does for its fulfillments.
+     */
+    private String tenant(HttpServletRequest request, byte[] body) {
+        String orgId = request.getParameter("orgId");
+        if (orgId != null) {
+            return orgId;
+        }
+        ObjectMapper bodyMapper = bodyMapper(request.getContentType());
+        if (bodyMapper == null || body.length == 0) {
+            return "";
+        }
+        try {
+            JsonNode bodyOrgId = bodyMapper.readTree(body).get("orgId");
+            return bodyOrgId != null && bodyOrgId.isTextual() ? bodyOrgId.asText() : "";
+        } catch (IOException ex) {
+            // Unparseable bodies fail validation downstream and are never stored
+            return "";
+        }
+    }
+
+    private ObjectMapper bodyMapper(String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_JSON;
+        } catch (InvalidMediaTypeException ex) {
+            return null;
+        }
+        return converters.stream()
+                .filter(converter -> converter.canRead(JsonNode.class, mediaType))
+                .map(AbstractJackson2HttpMessageConverter::getObjectMapper)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Lets the body be hashed before the controller reads it
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.fenix.commerce.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for Idempotency-Key handling on retried POST requests
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private String header = "Idempotency-Key";
+
+    /** POST paths, below the context path, that honour the header */
+    private List<String> paths = List.of("/orders", "/orders/*/fulfillments");
+
+    /** How long a completed response is replayed for */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Completed responses kept in memory per instance */
+    private long maxEntries = 100_000;
+
+    /** Larger responses are not stored; their retries run again */
+    private int maxResponseBytes = 256 * 1024;
+
+    /** How long a duplicate waits for the in-flight original before giving up with 409 */
+    private Duration inFlightWait = Duration.ofSeconds(30);
+
+    private Db db = new Db();
+
+    @Data
+    public static class Db {
+
+        /** Also keep responses in the idempotency_keys table so every instance can replay them */
+        private boolean enabled = false;
+
+        private Duration purgeInterval = Duration.ofMinutes(10);
+
+        /**
+         * How long a claim on a running request holds off duplicates on other
+         * instances; keep it above the slowest keyed request, since a claim
+         * that expires mid-request lets a duplicate run
+         */
+        private Duration claimTtl = Duration.ofMinutes(5);
+
+        /** How often a duplicate re-checks a request running on another instance */
+        private Duration claimPollInterval = Duration.ofMillis(200);
+    }
+}
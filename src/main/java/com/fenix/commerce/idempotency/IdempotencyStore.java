@@ -0,0 +1,167 @@
+package com.fenix.commerce.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Completed responses by key hash: a bounded in-memory cache with TTL, backed
+ * by the idempotency_keys table when {@code fenix.idempotency.db.enabled} is
+ * set so retries landing on another instance replay too. The table also
+ * holds the claims of requests still running, so only one instance runs a
+ * key at a time.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private static final String SELECT =
+            "SELECT request_hash, status_code, content_type, response_body FROM idempotency_keys " +
+            "WHERE key_hash = ? AND key_state = 'COMPLETED' AND expires_at > ?";
+
+    private static final String DELETE_EXPIRED_KEY = "DELETE FROM idempotency_keys WHERE key_hash = ? AND expires_at < ?";
+
+    private static final String INSERT_CLAIM =
+            "INSERT INTO idempotency_keys (key_hash, request_hash, key_state, expires_at) VALUES (?, ?, 'IN_PROGRESS', ?)";
+
+    private static final String COMPLETE_CLAIM =
+            "UPDATE idempotency_keys SET key_state = 'COMPLETED', status_code = ?, content_type = ?, response_body = ?, " +
+            "expires_at = ? WHERE key_hash = ? AND key_state = 'IN_PROGRESS'";
+
+    private static final String RELEASE_CLAIM =
+            "DELETE FROM idempotency_keys WHERE key_hash = ? AND key_state = 'IN_PROGRESS'";
+
+    // Claim lost to expiry: the first completion wins, a concurrent one from another instance is dropped
+    private static final String INSERT =
+            "INSERT INTO idempotency_keys (key_hash, request_hash, status_code, content_type, response_body, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE key_hash = key_hash";
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+    private static final String PURGE = "DELETE FROM idempotency_keys WHERE expires_at < ? LIMIT " + PURGE_BATCH_SIZE;
+
+    private final IdempotencyProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Key, StoredResponse> cache;
+
+    public IdempotencyStore(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public StoredResponse find(Key key) {
+        StoredResponse response = cache.getIfPresent(key);
+        if (response != null || !properties.getDb().isEnabled()) {
+            return response;
+        }
+        List<StoredResponse> rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> new StoredResponse(
+                        rs.getBytes("request_hash"), rs.getInt("status_code"), rs.getString("content_type"),
+                        rs.getBytes("response_body")),
+                key.hash(), Timestamp.from(Instant.now()));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        cache.put(key, rows.get(0));
+        return rows.get(0);
+    }
+
+    /**
+     * Claims the key for a request about to run. Always succeeds without the
+     * table; otherwise fails while another instance's claim is live or a
+     * completed response is stored.
+     */
+    public boolean claim(Key key, byte[] requestHash) {
+        if (!properties.getDb().isEnabled()) {
+            return true;
+        }
+        Instant now = Instant.now();
+        try {
+            // Separate statements: the insert's duplicate key must not roll back the cleanup
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update(DELETE_EXPIRED_KEY, key.hash(), Timestamp.from(now)));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_CLAIM, key.hash(),
+                    requestHash, Timestamp.from(now.plus(properties.getDb().getClaimTtl()))));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    /** Drops the claim of a request that ended without a stored response, so a retry can run */
+    public void release(Key key) {
+        if (properties.getDb().isEnabled()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RELEASE_CLAIM, (Object) key.hash()));
+        }
+    }
+
+    /** Stores the response of a request that held the key's claim */
+    public void save(Key key, StoredResponse response) {
+        cache.put(key, response);
+        if (properties.getDb().isEnabled()) {
+            Timestamp expires = Timestamp.from(Instant.now().plus(properties.getTtl()));
+            transactionTemplate.executeWithoutResult(status -> {
+                int completed = jdbcTemplate.update(COMPLETE_CLAIM, response.status(), response.contentType(),
+                        response.body(), expires, key.hash());
+                if (completed == 0) {
+                    jdbcTemplate.update(INSERT, key.hash(), response.requestHash(), response.status(),
+                            response.contentType(), response.body(), expires);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fenix.idempotency.db.purge-interval:PT10M}")
+    public void purgeExpired() {
+        if (!properties.getDb().isEnabled()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        int purged;
+        do {
+            Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(PURGE, now));
+            purged = deleted != null ? deleted : 0;
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } while (purged == PURGE_BATCH_SIZE);
+    }
+
+    /**
+     * SHA-256 of method, path, tenant and client-supplied key, so keys are
+     * only replayed for the tenant and endpoint they were first used on
+     */
+    public record Key(byte[] hash) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Arrays.equals(hash, key.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+
+        @Override
+        public String toString() {
+            return HexFormat.of().formatHex(hash);
+        }
+    }
+}
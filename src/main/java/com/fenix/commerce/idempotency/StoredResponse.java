@@ -0,0 +1,9 @@
+package com.fenix.commerce.idempotency;
+
+/**
+ * A completed response kept for replay
+ *
+ * @param requestHash SHA-256 of the original request body, to reject a key reused for a different request
+ */
+public record StoredResponse(byte[] requestHash, int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,138 @@
+package com.fenix.commerce.invalidation;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decorates local caches so every eviction and clear is also published on
+ * the {@link CacheInvalidationBus}, and applies invalidations from other
+ * instances to the undecorated caches so they are not published again.
+ */
+public class BroadcastingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheInvalidationBus bus;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public BroadcastingCacheManager(CacheManager delegate, CacheInvalidationBus bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+        bus.onRemoteInvalidation(this::apply);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache cache = delegate.getCache(cacheName);
+            return cache != null ? new BroadcastingCache(cache) : null;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    void apply(List<CacheInvalidation> batch) {
+        for (CacheInvalidation invalidation : batch) {
+            Cache cache = delegate.getCache(invalidation.cacheName());
+            if (cache == null) {
+                continue;
+            }
+            if (invalidation.clearsAll()) {
+                cache.invalidate();
+            } else {
+                cache.evict(invalidation.decodedKey());
+            }
+        }
+    }
+
+    private class BroadcastingCache implements Cache {
+
+        private final Cache target;
+
+        BroadcastingCache(Cache target) {
+            this.target = target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return target.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return target.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            target.evict(key);
+            bus.publish(CacheInvalidation.of(getName(), key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            // Another instance may hold the entry even when this one does not
+            boolean present = target.evictIfPresent(key);
+            bus.publish(CacheInvalidation.of(getName(), key));
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+            bus.publish(CacheInvalidation.clear(getName()));
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean present = target.invalidate();
+            bus.publish(CacheInvalidation.clear(getName()));
+            return present;
+        }
+    }
+}
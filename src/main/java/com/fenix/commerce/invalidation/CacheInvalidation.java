@@ -0,0 +1,46 @@
+package com.fenix.commerce.invalidation;
+
+import java.util.UUID;
+
+/**
+ * One entry, or with a null key every entry, of a named local cache to drop.
+ * Keys travel as strings tagged with their type; a key that cannot be
+ * carried that way invalidates the whole cache instead.
+ */
+public record CacheInvalidation(String cacheName, String key) {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    public static CacheInvalidation of(String cacheName, Object key) {
+        String encoded = null;
+        if (key instanceof UUID uuid) {
+            encoded = "u:" + uuid;
+        } else if (key instanceof String string) {
+            encoded = "s:" + string;
+        } else if (key instanceof Long number) {
+            encoded = "l:" + number;
+        }
+        if (encoded == null || encoded.length() > MAX_KEY_LENGTH
+                || encoded.indexOf('\t') >= 0 || encoded.indexOf('\n') >= 0) {
+            return clear(cacheName);
+        }
+        return new CacheInvalidation(cacheName, encoded);
+    }
+
+    public static CacheInvalidation clear(String cacheName) {
+        return new CacheInvalidation(cacheName, null);
+    }
+
+    public boolean clearsAll() {
+        return key == null;
+    }
+
+    public Object decodedKey() {
+        String value = key.substring(2);
+        return switch (key.charAt(0)) {
+            case 'u' -> UUID.fromString(value);
+            case 'l' -> Long.valueOf(value);
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.fenix.commerce.invalidation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects local evictions and sends them to the other instances every
+ * {@code flush-interval}. Within a window repeated keys are sent once, a
+ * clear swallows the keys of its cache, and a cache with more than
+ * {@code max-keys-per-cache} keys is sent as a clear. Batches from other
+ * instances are handed to the registered listeners.
+ *
+ * An entry is stale on another instance for at most the flush interval plus
+ * the broadcaster's delivery delay, or the cache's expiry if a batch is lost.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final InvalidationProperties properties;
+    private final InvalidationBroadcaster broadcaster;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<List<CacheInvalidation>>> listeners = new CopyOnWriteArrayList<>();
+
+    // Keys per cache name; a null set means the whole cache is cleared
+    private Map<String, Set<String>> pending = new HashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CacheInvalidationBus(InvalidationProperties properties, InvalidationBroadcaster broadcaster) {
+        this.properties = properties;
+        this.broadcaster = broadcaster;
+    }
+
+    public boolean isEnabled() {
+        return properties.getType() != InvalidationProperties.Type.NONE;
+    }
+
+    public void publish(CacheInvalidation invalidation) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            if (invalidation.clearsAll()) {
+                pending.put(invalidation.cacheName(), null);
+                return;
+            }
+            if (pending.containsKey(invalidation.cacheName()) && pending.get(invalidation.cacheName()) == null) {
+                return;
+            }
+            Set<String> keys = pending.computeIfAbsent(invalidation.cacheName(), name -> new LinkedHashSet<>());
+            keys.add(invalidation.key());
+            if (keys.size() > properties.getMaxKeysPerCache()) {
+                pending.put(invalidation.cacheName(), null);
+            }
+        }
+    }
+
+    /** Registers a listener for batches published by other instances */
+    public void onRemoteInvalidation(Consumer<List<CacheInvalidation>> listener) {
+        listeners.add(listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        broadcaster.start(nodeId, this::deliver);
+        long interval = properties.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Broadcasting cache invalidations over {} as node {}", properties.getType(), nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        if (isEnabled()) {
+            flush();
+            broadcaster.stop();
+        }
+    }
+
+    void flush() {
+        List<CacheInvalidation> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            broadcaster.publish(batch);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Dropped {} cache invalidations; other instances keep those entries until they expire: {}",
+                    batch.size(), e.getMessage());
+        }
+    }
+
+    synchronized List<CacheInvalidation> drain() {
+        List<CacheInvalidation> batch = new ArrayList<>();
+        pending.forEach((cacheName, keys) -> {
+            if (keys == null) {
+                batch.add(CacheInvalidation.clear(cacheName));
+            } else {
+                keys.forEach(key -> batch.add(new CacheInvalidation(cacheName, key)));
+            }
+        });
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    void deliver(List<CacheInvalidation> batch) {
+        for (Consumer<List<CacheInvalidation>> listener : listeners) {
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply {} remote cache invalidations", batch.size(), e);
+            }
+        }
+    }
+}
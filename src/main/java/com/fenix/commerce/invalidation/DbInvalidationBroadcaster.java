@@ -0,0 +1,137 @@
+package com.fenix.commerce.invalidation;
+
+import com.fenix.commerce.util.IdWatermark;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Shares invalidations through the cache_invalidations table on the default
+ * shard: publishing inserts one row per invalidation and every instance
+ * polls for ids above the highest it has applied.
+ *
+ * Rows can become visible out of id order; the poller waits up to
+ * {@code gap-timeout} for a missing id, see {@link IdWatermark}. Writes run
+ * in transactions of their own, since the prod pool does not auto-commit.
+ */
+@Slf4j
+class DbInvalidationBroadcaster implements InvalidationBroadcaster {
+
+    private static final String INSERT =
+            "INSERT INTO cache_invalidations (origin, cache_name, cache_key) VALUES (?, ?, ?)";
+
+    private static final String SELECT =
+            "SELECT invalidation_id, origin, cache_name, cache_key FROM cache_invalidations " +
+            "WHERE invalidation_id > ? ORDER BY invalidation_id LIMIT ?";
+
+    private static final String MAX_ID = "SELECT COALESCE(MAX(invalidation_id), 0) FROM cache_invalidations";
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+    private static final String PURGE = "DELETE FROM cache_invalidations WHERE created_at < ? LIMIT " + PURGE_BATCH_SIZE;
+
+    private record Row(long id, String origin, CacheInvalidation invalidation) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationProperties.Db properties;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private String nodeId;
+    private Consumer<List<CacheInvalidation>> listener;
+
+    private final IdWatermark watermark = new IdWatermark();
+    private long lastPurgeAt;
+
+    DbInvalidationBroadcaster(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              InvalidationProperties.Db properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start(String nodeId, Consumer<List<CacheInvalidation>> listener) {
+        this.nodeId = nodeId;
+        this.listener = listener;
+        // Local caches start empty, so earlier invalidations do not matter
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID, Long.class);
+        watermark.reset(maxId != null ? maxId : 0);
+        lastPurgeAt = System.nanoTime();
+        long interval = properties.getPollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::pollQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT, batch, properties.getBatchSize(), (ps, invalidation) -> {
+                    ps.setString(1, nodeId);
+                    ps.setString(2, invalidation.cacheName());
+                    ps.setString(3, invalidation.key());
+                }));
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+            if (System.nanoTime() - lastPurgeAt > properties.getRetention().toNanos()) {
+                purge();
+                lastPurgeAt = System.nanoTime();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    synchronized void poll() {
+        List<Row> rows;
+        do {
+            rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> new Row(rs.getLong("invalidation_id"),
+                            rs.getString("origin"),
+                            new CacheInvalidation(rs.getString("cache_name"), rs.getString("cache_key"))),
+                    watermark.get(), properties.getBatchSize());
+
+            List<CacheInvalidation> batch = new ArrayList<>();
+            for (Row row : rows) {
+                if (watermark.add(row.id()) && !nodeId.equals(row.origin())) {
+                    batch.add(row.invalidation());
+                }
+            }
+            if (!batch.isEmpty()) {
+                listener.accept(batch);
+            }
+            watermark.advance(properties.getGapTimeout());
+        } while (rows.size() == properties.getBatchSize() && !watermark.hasGap());
+    }
+
+    void purge() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(properties.getRetention()));
+        int purged;
+        do {
+            // One transaction per batch keeps row locks short
+            Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(PURGE, cutoff));
+            purged = deleted != null ? deleted : 0;
+        } while (purged == PURGE_BATCH_SIZE);
+    }
+}
@@ -0,0 +1,24 @@
+package com.fenix.commerce.invalidation;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries coalesced invalidation batches between instances, selected with
+ * {@code fenix.cache-invalidation.type}. Delivery is at most once; a lost
+ * batch leaves entries stale until they expire.
+ */
+public interface InvalidationBroadcaster {
+
+    /**
+     * Starts delivering batches published by other instances to
+     * {@code listener}. Batches published under {@code nodeId} are not
+     * delivered back.
+     */
+    void start(String nodeId, Consumer<List<CacheInvalidation>> listener) throws IOException;
+
+    void publish(List<CacheInvalidation> batch) throws IOException;
+
+    void stop();
+}
@@ -0,0 +1,45 @@
+package com.fenix.commerce.invalidation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Built-in invalidation broadcasters, selected with
+ * {@code fenix.cache-invalidation.type}. DB needs nothing beyond the
+ * database every instance already shares; MULTICAST delivers in
+ * milliseconds but needs a network that routes multicast between instances.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class InvalidationBroadcasters {
+
+    private final InvalidationProperties properties;
+
+    @Bean
+    public InvalidationBroadcaster invalidationBroadcaster(JdbcTemplate jdbcTemplate,
+                                                           TransactionTemplate transactionTemplate) {
+        return switch (properties.getType()) {
+            case NONE -> new InvalidationBroadcaster() {
+                @Override
+                public void start(String nodeId, Consumer<List<CacheInvalidation>> listener) {
+                }
+
+                @Override
+                public void publish(List<CacheInvalidation> batch) {
+                }
+
+                @Override
+                public void stop() {
+                }
+            };
+            case DB -> new DbInvalidationBroadcaster(jdbcTemplate, transactionTemplate, properties.getDb());
+            case MULTICAST -> new MulticastInvalidationBroadcaster(properties.getMulticast());
+        };
+    }
+}
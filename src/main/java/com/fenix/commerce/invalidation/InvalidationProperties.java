@@ -0,0 +1,63 @@
+package com.fenix.commerce.invalidation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for broadcasting local cache evictions to the other instances
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.cache-invalidation")
+public class InvalidationProperties {
+
+    private Type type = Type.NONE;
+
+    /** Evictions within this window are coalesced and sent as one batch */
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /** More distinct keys of one cache within a window are sent as a single clear */
+    private int maxKeysPerCache = 1000;
+
+    private Db db = new Db();
+
+    private Multicast multicast = new Multicast();
+
+    public enum Type {
+        NONE, DB, MULTICAST
+    }
+
+    @Data
+    public static class Db {
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /** Rows inserted or read per statement */
+        private int batchSize = 1000;
+
+        /**
+         * How long a missing id is waited for before the poller moves past
+         * it. Ids are allocated at insert and become visible at commit, so a
+         * lower id can appear after a higher one.
+         */
+        private Duration gapTimeout = Duration.ofSeconds(10);
+
+        /** Rows older than this are deleted by whichever instance polls */
+        private Duration retention = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Multicast {
+
+        private String group = "239.255.42.99";
+
+        private int port = 45699;
+
+        /** Hops a datagram may travel; 1 keeps it on the local subnet */
+        private int timeToLive = 1;
+
+        /** Interface to join the group on; the system default when unset */
+        private String networkInterface;
+    }
+}
@@ -0,0 +1,134 @@
+package com.fenix.commerce.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends invalidations as UDP datagrams to a multicast group every instance
+ * joins. A datagram is the sender's node id followed by one
+ * {@code cache<TAB>key} line per invalidation, an empty key clearing the
+ * cache, and stays under a typical MTU so it is never fragmented.
+ *
+ * Nothing is retried: a lost datagram leaves the entries stale until they
+ * expire, which is the bound to plan for with this transport.
+ */
+@Slf4j
+class MulticastInvalidationBroadcaster implements InvalidationBroadcaster {
+
+    static final int MAX_DATAGRAM_BYTES = 1400;
+
+    private final InvalidationProperties.Multicast properties;
+
+    private String nodeId;
+    private InetSocketAddress group;
+    private MulticastSocket socket;
+    private Thread receiver;
+
+    MulticastInvalidationBroadcaster(InvalidationProperties.Multicast properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void start(String nodeId, Consumer<List<CacheInvalidation>> listener) throws IOException {
+        this.nodeId = nodeId;
+        group = new InetSocketAddress(InetAddress.getByName(properties.getGroup()), properties.getPort());
+        NetworkInterface networkInterface = properties.getNetworkInterface() != null
+                ? NetworkInterface.getByName(properties.getNetworkInterface())
+                : null;
+
+        socket = new MulticastSocket(properties.getPort());
+        socket.setTimeToLive(properties.getTimeToLive());
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(group, networkInterface);
+
+        receiver = new Thread(() -> receive(listener), "cache-invalidation-receive");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(List<CacheInvalidation> batch) throws IOException {
+        for (byte[] datagram : encode(nodeId, batch)) {
+            socket.send(new DatagramPacket(datagram, datagram.length, group));
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    private void receive(Consumer<List<CacheInvalidation>> listener) {
+        byte[] buffer = new byte[MAX_DATAGRAM_BYTES];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Receiving cache invalidations failed: {}", e.getMessage());
+                }
+                continue;
+            }
+            String text = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8);
+            List<CacheInvalidation> batch = decode(nodeId, text);
+            if (!batch.isEmpty()) {
+                listener.accept(batch);
+            }
+        }
+    }
+
+    static List<byte[]> encode(String nodeId, List<CacheInvalidation> batch) {
+        List<byte[]> datagrams = new ArrayList<>();
+        StringBuilder datagram = new StringBuilder(nodeId).append('\n');
+        int header = datagram.length();
+        for (CacheInvalidation invalidation : batch) {
+            String line = invalidation.cacheName() + '\t' + (invalidation.clearsAll() ? "" : invalidation.key()) + '\n';
+            if (datagram.length() > header
+                    && utf8Length(datagram) + utf8Length(line) > MAX_DATAGRAM_BYTES) {
+                datagrams.add(datagram.toString().getBytes(StandardCharsets.UTF_8));
+                datagram.setLength(header);
+            }
+            datagram.append(line);
+        }
+        if (datagram.length() > header) {
+            datagrams.add(datagram.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return datagrams;
+    }
+
+    static List<CacheInvalidation> decode(String nodeId, String datagram) {
+        String[] lines = datagram.split("\n");
+        if (lines.length < 2 || lines[0].equals(nodeId)) {
+            return List.of();
+        }
+        List<CacheInvalidation> batch = new ArrayList<>(lines.length - 1);
+        for (int i = 1; i < lines.length; i++) {
+            int tab = lines[i].indexOf('\t');
+            if (tab <= 0) {
+                continue;
+            }
+            String key = lines[i].substring(tab + 1);
+            batch.add(new CacheInvalidation(lines[i].substring(0, tab), key.isEmpty() ? null : key));
+        }
+        return batch;
+    }
+
+    private static int utf8Length(CharSequence text) {
+        return text.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fenix.commerce.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statement count and database time accumulated on the current thread, for
+ * one HTTP request (or one background unit of work), broken down by service
+ * method.
+ */
+public final class QueryMetrics {
+
+    private static final ThreadLocal<QueryMetrics> CURRENT = new ThreadLocal<>();
+
+    private final QueryMetrics parent;
+    private final Map<String, MethodStats> perMethod = new LinkedHashMap<>();
+    private int statementCount;
+    private long dbNanos;
+
+    private QueryMetrics(QueryMetrics parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts a new measurement scope on this thread; must be paired with {@link #end()}.
+     */
+    public static QueryMetrics begin() {
+        QueryMetrics metrics = new QueryMetrics(CURRENT.get());
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    public static QueryMetrics current() {
+        return CURRENT.get();
+    }
+
+    public void end() {
+        if (parent != null) {
+            CURRENT.set(parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static void recordStatement(long nanos) {
+        for (QueryMetrics metrics = CURRENT.get(); metrics != null; metrics = metrics.parent) {
+            metrics.statementCount++;
+            metrics.dbNanos += nanos;
+        }
+    }
+
+    void recordMethod(String method, int statements, long nanos) {
+        MethodStats stats = perMethod.computeIfAbsent(method, m -> new MethodStats());
+        stats.calls++;
+        stats.statements += statements;
+        stats.dbNanos += nanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public double getDbMillis() {
+        return dbNanos / 1_000_000.0;
+    }
+
+    public Map<String, MethodStats> getPerMethod() {
+        return Collections.unmodifiableMap(perMethod);
+    }
+
+    public static final class MethodStats {
+        private int calls;
+        private int statements;
+        private long dbNanos;
+
+        public int getCalls() {
+            return calls;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public double getDbMillis() {
+            return dbNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d statements=%d dbMs=%.2f", calls, statements, getDbMillis());
+        }
+    }
+}
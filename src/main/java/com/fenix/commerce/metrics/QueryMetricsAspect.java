@@ -0,0 +1,44 @@
+package com.fenix.commerce.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes statements and DB time to individual service methods. Runs
+ * outside the transaction interceptor so commit-time flushes are included.
+ */
+@Aspect
+@Component
+@Order(0)
+@Slf4j
+public class QueryMetricsAspect {
+
+    @Around("execution(public * com.fenix.commerce.service..*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryMetrics metrics = QueryMetrics.current();
+        boolean ownsScope = metrics == null;
+        if (ownsScope) {
+            metrics = QueryMetrics.begin();
+        }
+
+        int statementsBefore = metrics.getStatementCount();
+        long nanosBefore = metrics.getDbNanos();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                    + "." + joinPoint.getSignature().getName();
+            int statements = metrics.getStatementCount() - statementsBefore;
+            long nanos = metrics.getDbNanos() - nanosBefore;
+            metrics.recordMethod(method, statements, nanos);
+            log.debug("{} issued {} statements in {} ms", method, statements, nanos / 1_000_000.0);
+            if (ownsScope) {
+                metrics.end();
+            }
+        }
+    }
+}
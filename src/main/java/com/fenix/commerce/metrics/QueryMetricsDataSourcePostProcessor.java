@@ -0,0 +1,34 @@
+package com.fenix.commerce.metrics;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's main {@code dataSource} bean in an
+ * {@link InstrumentedDataSource} unless {@code fenix.query-metrics.enabled=false}.
+ */
+@Component
+public class QueryMetricsDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private boolean enabled;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.enabled = Binder.get(environment).bind("fenix.query-metrics.enabled", Boolean.class).orElse(true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource);
+        }
+        return bean;
+    }
+}
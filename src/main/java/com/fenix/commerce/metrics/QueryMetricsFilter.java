@@ -0,0 +1,73 @@
+package com.fenix.commerce.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Opens a {@link QueryMetrics} scope per HTTP request, reports it in a
+ * {@code Server-Timing} header and flags requests over the statement budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@EnableConfigurationProperties(QueryMetricsProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    public static final String BUDGET_EXCEEDED_HEADER = "X-Query-Budget-Exceeded";
+
+    private final QueryMetricsProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryMetrics metrics = QueryMetrics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!response.isCommitted()) {
+                // Bodyless responses (e.g. 204) are still uncommitted here
+                writeHeaders(response, metrics);
+            }
+            if (overBudget(metrics)) {
+                log.warn("Statement budget exceeded: {} {} issued {} statements (budget {}) in {} ms {}",
+                        request.getMethod(), request.getRequestURI(), metrics.getStatementCount(),
+                        properties.getStatementBudget(), String.format(Locale.ROOT, "%.2f", metrics.getDbMillis()),
+                        metrics.getPerMethod());
+            }
+            metrics.end();
+        }
+    }
+
+    void writeHeaders(HttpServletResponse response, QueryMetrics metrics) {
+        if (properties.isServerTimingHeader() && !response.containsHeader(SERVER_TIMING_HEADER)) {
+            response.setHeader(SERVER_TIMING_HEADER, String.format(Locale.ROOT,
+                    "db;dur=%.2f;desc=\"%d statements\"", metrics.getDbMillis(), metrics.getStatementCount()));
+        }
+        if (overBudget(metrics)) {
+            response.setHeader(BUDGET_EXCEEDED_HEADER, "true");
+        }
+    }
+
+    private boolean overBudget(QueryMetrics metrics) {
+        return metrics.getStatementCount() > properties.getStatementBudget();
+    }
+}
@@ -0,0 +1,20 @@
+package com.fenix.commerce.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for per-request statement counting
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.query-metrics")
+public class QueryMetricsProperties {
+
+    private boolean enabled = true;
+
+    /** Requests issuing more statements than this are logged and flagged */
+    private int statementBudget = 25;
+
+    /** Adds a Server-Timing header with the DB time and statement count */
+    private boolean serverTimingHeader = true;
+}
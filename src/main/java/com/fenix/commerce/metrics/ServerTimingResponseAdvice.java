@@ -0,0 +1,40 @@
+package com.fenix.commerce.metrics;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes the query metrics headers just before a response body is
+ * serialized, i.e. after the service call and its transaction completed.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryMetricsFilter queryMetricsFilter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryMetrics metrics = QueryMetrics.current();
+        if (metrics != null && response instanceof ServletServerHttpResponse servletResponse) {
+            HttpServletResponse raw = servletResponse.getServletResponse();
+            queryMetricsFilter.writeHeaders(raw, metrics);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,94 @@
+package com.fenix.commerce.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.util.UuidBytes;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes each order change to the outbox table in the transaction that made
+ * it. Changes are buffered until just before commit and inserted with one
+ * batched statement, after the entity changes are flushed: by then the
+ * order row is locked, so outbox ids follow commit order per order. A
+ * change published outside a transaction is written in one of its own.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxWriter {
+
+    private static final String INSERT =
+            "INSERT INTO order_outbox (tenant_id, order_id, event_type, payload) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+
+    @EventListener
+    public void onOrderChange(OrderChangeEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(event)));
+            return;
+        }
+        pendingWrites().events.add(event);
+    }
+
+    // Synchronizations are suspended with their transaction, so a nested REQUIRES_NEW gets its own buffer
+    private PendingWrites pendingWrites() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingWrites pending) {
+                return pending;
+            }
+        }
+        PendingWrites pending = new PendingWrites();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void insert(List<OrderChangeEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (OrderChangeEvent event : events) {
+            rows.add(new Object[]{
+                    UuidBytes.toBytes(event.tenantId()),
+                    UuidBytes.toBytes(event.orderId()),
+                    event.type().name(),
+                    toJson(event)});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private String toJson(OrderChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private final class PendingWrites implements TransactionSynchronization {
+
+        private final List<OrderChangeEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            insert(events);
+        }
+    }
+}
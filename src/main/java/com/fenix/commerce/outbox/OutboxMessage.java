@@ -0,0 +1,21 @@
+package com.fenix.commerce.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One outbox row as handed to a sink
+ *
+ * @param outboxId increases with commit order for any one order; consumers can use it to drop redeliveries
+ * @param payload  the change event as JSON
+ */
+public record OutboxMessage(
+        long outboxId,
+        UUID tenantId,
+        UUID orderId,
+        String eventType,
+        @JsonRawValue String payload,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,60 @@
+package com.fenix.commerce.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the order change outbox and the relay that publishes it
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.outbox")
+public class OutboxProperties {
+
+    /** Write a change record for every order and fulfillment mutation */
+    private boolean enabled = true;
+
+    private Relay relay = new Relay();
+
+    private Sink sink = new Sink();
+
+    @Data
+    public static class Relay {
+
+        /**
+         * Let this instance relay. Per-order ordering relies on a single reader
+         * per shard: with {@code fenix.scheduler} on, only the lease holder
+         * relays; with it off, enable on exactly one instance. Turning it off
+         * everywhere while the outbox is enabled lets the table grow unbounded.
+         */
+        private boolean enabled = true;
+
+        /** Records read, published and acknowledged together */
+        private int batchSize = 1000;
+
+        /** Batches drained per shard before yielding to the next poll */
+        private int maxBatchesPerPoll = 50;
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Sink {
+
+        private Type type = Type.LOG;
+
+        /** NDJSON file appended to by the FILE sink */
+        private Path file = Path.of("order-events.ndjson");
+
+        /** Endpoint receiving each batch as an NDJSON POST from the HTTP sink */
+        private String url;
+
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public enum Type {
+            LOG, FILE, HTTP
+        }
+    }
+}
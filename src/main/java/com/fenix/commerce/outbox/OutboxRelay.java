@@ -0,0 +1,95 @@
+package com.fenix.commerce.outbox;
+
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the order outbox to the configured sink. Each shard's outbox is
+ * read oldest first in batches; a batch is deleted only after the sink
+ * accepted it, so delivery is at least once and changes to one order are
+ * published in the order they committed. Only the holder of the
+ * {@value #JOB_NAME} lease relays, so there is one reader per shard.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    public static final String JOB_NAME = "outbox-relay";
+
+    private static final String SELECT_BATCH =
+            "SELECT outbox_id, tenant_id, order_id, event_type, payload, created_at FROM order_outbox " +
+            "ORDER BY outbox_id LIMIT :limit";
+
+    // By id list, not range: a lower id may still have been uncommitted when the batch was read
+    private static final String DELETE_BATCH = "DELETE FROM order_outbox WHERE outbox_id IN (:ids)";
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("outbox_id"),
+            UuidBytes.fromBytes(rs.getBytes("tenant_id")),
+            UuidBytes.fromBytes(rs.getBytes("order_id")),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final ShardRouter shardRouter;
+    private final JobCoordinator jobCoordinator;
+
+    @Scheduled(fixedDelayString = "${fenix.outbox.relay.poll-interval:PT1S}")
+    public void relay() {
+        if (properties.getRelay().isEnabled()) {
+            jobCoordinator.runAsLeader(JOB_NAME, () -> shardRouter.forEachShard(this::drain));
+        }
+    }
+
+    /**
+     * Publishes up to {@code max-batches-per-poll} batches from the shard the
+     * caller is routed to. Stops at the first failed batch, which is retried
+     * on the next poll.
+     *
+     * @return number of records published
+     */
+    public long drain() {
+        OutboxProperties.Relay relay = properties.getRelay();
+        long published = 0;
+        for (int i = 0; i < relay.getMaxBatchesPerPoll(); i++) {
+            List<OutboxMessage> batch = jdbcTemplate.query(SELECT_BATCH,
+                    Map.of("limit", relay.getBatchSize()), MESSAGE_MAPPER);
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                sink.publish(batch);
+            } catch (Exception ex) {
+                log.warn("Outbox sink rejected batch starting at id {}, retrying next poll: {}",
+                        batch.get(0).outboxId(), ex.getMessage());
+                break;
+            }
+            List<Long> ids = batch.stream().map(OutboxMessage::outboxId).toList();
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DELETE_BATCH, Map.of("ids", ids)));
+            published += batch.size();
+            if (batch.size() < relay.getBatchSize()) {
+                break;
+            }
+        }
+        if (published > 0) {
+            log.debug("Relayed {} order change events", published);
+        }
+        return published;
+    }
+}
@@ -0,0 +1,17 @@
+package com.fenix.commerce.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of relayed outbox records. A batch counts as delivered once
+ * {@link #publish} returns; if it throws, the whole batch is sent again, so
+ * consumers must tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    /**
+     * @param messages in outbox order, which preserves the order of changes to each order
+     */
+    void publish(List<OutboxMessage> messages) throws IOException;
+}
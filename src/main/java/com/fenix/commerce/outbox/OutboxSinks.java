@@ -0,0 +1,100 @@
+package com.fenix.commerce.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Built-in outbox sinks, selected with {@code fenix.outbox.sink.type}. Each
+ * writes a batch as newline-delimited JSON, one message per line.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxSinks {
+
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    public OutboxSink outboxSink() {
+        OutboxProperties.Sink sink = properties.getSink();
+        return switch (sink.getType()) {
+            case LOG -> messages -> log.info("Relayed {} order change events, last outbox id {}",
+                    messages.size(), messages.get(messages.size() - 1).outboxId());
+            case FILE -> messages -> appendToFile(ndjson(messages));
+            case HTTP -> new HttpSink(sink);
+        };
+    }
+
+    private byte[] ndjson(List<OutboxMessage> messages) throws IOException {
+        StringBuilder body = new StringBuilder(messages.size() * 256);
+        for (OutboxMessage message : messages) {
+            body.append(objectMapper.writeValueAsString(message)).append('\n');
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Forces the batch to disk before acknowledging it. A crash between the
+     * write and the acknowledgement appends the batch twice.
+     */
+    private void appendToFile(byte[] batch) throws IOException {
+        try (FileChannel channel = FileChannel.open(properties.getSink().getFile(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private class HttpSink implements OutboxSink {
+
+        private final HttpClient client;
+        private final URI uri;
+        private final OutboxProperties.Sink sink;
+
+        HttpSink(OutboxProperties.Sink sink) {
+            if (sink.getUrl() == null || sink.getUrl().isBlank()) {
+                throw new IllegalStateException("fenix.outbox.sink.url is required for the HTTP outbox sink");
+            }
+            this.sink = sink;
+            this.uri = URI.create(sink.getUrl());
+            this.client = HttpClient.newBuilder().connectTimeout(sink.getTimeout()).build();
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> messages) throws IOException {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(sink.getTimeout())
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(ndjson(messages)))
+                    .build();
+            HttpResponse<Void> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while publishing outbox batch", ex);
+            }
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Outbox sink " + uri + " answered " + response.statusCode());
+            }
+        }
+    }
+}
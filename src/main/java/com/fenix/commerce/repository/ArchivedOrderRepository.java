@@ -0,0 +1,16 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    List<ArchivedOrder> findByTenantIdAndOrderIdIn(UUID tenantId, Collection<UUID> orderIds);
+}
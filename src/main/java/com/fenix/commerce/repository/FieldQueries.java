@@ -0,0 +1,125 @@
+package com.fenix.commerce.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria queries for the search fragments, selecting whole entities or
+ * only the attributes of a sparse fieldset. Filters are built from the
+ * non-null criteria only, so the SQL carries no {@code ? IS NULL OR ...}
+ * terms and MySQL can pick the index matching the filters present.
+ */
+final class FieldQueries {
+
+    @FunctionalInterface
+    interface Filter<E> {
+        List<Predicate> where(CriteriaBuilder cb, Root<E> root);
+    }
+
+    private FieldQueries() {
+    }
+
+    static <E> Page<E> entityPage(EntityManager entityManager, Class<E> type, Filter<E> filter, Pageable pageable) {
+        List<E> content = entities(entityManager, type, filter, pageable).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, type, filter));
+    }
+
+    /**
+     * Entities matching the filter in the order and window of the pageable;
+     * stream the results to read them as they arrive
+     */
+    static <E> TypedQuery<E> entities(EntityManager entityManager, Class<E> type, Filter<E> filter,
+                                      Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(type);
+        Root<E> root = query.from(type);
+        query.select(root)
+                .where(filter.where(cb, root).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        TypedQuery<E> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return typed;
+    }
+
+    static <E> List<E> entityList(EntityManager entityManager, Class<E> type, Filter<E> filter,
+                                  List<String> descendingOrder, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(type);
+        Root<E> root = query.from(type);
+        query.select(root)
+                .where(filter.where(cb, root).toArray(Predicate[]::new))
+                .orderBy(descendingOrder.stream().map(attribute -> cb.desc(path(root, attribute))).toList());
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    static <E> Page<Tuple> page(EntityManager entityManager, Class<E> type, Map<String, String> selection,
+                                Filter<E> filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(type);
+        query.multiselect(select(root, selection))
+                .where(filter.where(cb, root).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        List<Tuple> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, type, filter));
+    }
+
+    static <E> List<Tuple> list(EntityManager entityManager, Class<E> type, Map<String, String> selection,
+                                Filter<E> filter, List<String> descendingOrder, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(type);
+        query.multiselect(select(root, selection))
+                .where(filter.where(cb, root).toArray(Predicate[]::new))
+                .orderBy(descendingOrder.stream().map(attribute -> cb.desc(path(root, attribute))).toList());
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Resolves a dotted attribute path; the id of a to-one association is read
+     * from the foreign key column without a join
+     */
+    static <T> Path<T> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<T> typed = (Path<T>) path;
+        return typed;
+    }
+
+    private static List<Selection<?>> select(Root<?> root, Map<String, String> selection) {
+        List<Selection<?>> selections = new ArrayList<>(selection.size());
+        selection.forEach((alias, attribute) -> selections.add(path(root, attribute).alias(alias)));
+        return selections;
+    }
+
+    static <E> long count(EntityManager entityManager, Class<E> type, Filter<E> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(type);
+        query.select(cb.count(root)).where(filter.where(cb, root).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Fulfillment;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fulfillment searches returning only selected attributes, keyed by alias
+ */
+public interface FulfillmentFieldQueries {
+
+    /**
+     * Same filters as {@link FulfillmentSearchQueries#searchFulfillments}
+     */
+    Page<Tuple> searchFulfillmentFields(
+            Map<String, String> selection,
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable);
+
+    /**
+     * Same filters and keyset order as {@link FulfillmentSearchQueries#searchTenantFulfillments}
+     */
+    List<Tuple> searchTenantFulfillmentFields(
+            Map<String, String> selection,
+            UUID tenantId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Instant afterUpdatedAt,
+            UUID afterId,
+            int limit);
+}
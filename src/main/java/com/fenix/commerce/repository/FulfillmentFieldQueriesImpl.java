@@ -0,0 +1,50 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Fulfillment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class FulfillmentFieldQueriesImpl implements FulfillmentFieldQueries {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> searchFulfillmentFields(
+            Map<String, String> selection,
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable) {
+
+        return FieldQueries.page(entityManager, Fulfillment.class, selection,
+                FulfillmentSearchQueriesImpl.orderFilter(orderId, status, carrier, from, to), pageable);
+    }
+
+    @Override
+    public List<Tuple> searchTenantFulfillmentFields(
+            Map<String, String> selection,
+            UUID tenantId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Instant afterUpdatedAt,
+            UUID afterId,
+            int limit) {
+
+        return FieldQueries.list(entityManager, Fulfillment.class, selection,
+                FulfillmentSearchQueriesImpl.tenantFilter(tenantId, status, carrier, from, to, afterUpdatedAt, afterId),
+                FulfillmentSearchQueriesImpl.TENANT_ORDER, limit);
+    }
+}
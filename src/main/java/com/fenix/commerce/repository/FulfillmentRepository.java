@@ -8,33 +8,48 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 
 @Repository
-public interface FulfillmentRepository extends JpaRepository<Fulfillment, UUID> {
+public interface FulfillmentRepository extends JpaRepository<Fulfillment, UUID>, FulfillmentSearchQueries,
+        FulfillmentFieldQueries {
 
     Optional<Fulfillment> findByTenantTenantIdAndOrderOrderIdAndExternalFulfillmentId(
             UUID tenantId, UUID orderId, String externalFulfillmentId);
 
     Page<Fulfillment> findByOrderOrderId(UUID orderId, Pageable pageable);
 
+    List<Fulfillment> findByOrderOrderIdOrderByCreatedAt(UUID orderId);
+
     Page<Fulfillment> findByTenantTenantIdAndOrderOrderId(UUID tenantId, UUID orderId, Pageable pageable);
 
-    @Query("SELECT f FROM Fulfillment f WHERE f.order.orderId = :orderId " +
-            "AND (:status IS NULL OR f.fulfillmentStatus = :status) " +
-            "AND (:carrier IS NULL OR f.carrier = :carrier) " +
-            "AND (:from IS NULL OR f.updatedAt >= :from) " +
-            "AND (:to IS NULL OR f.updatedAt <= :to)")
-    Page<Fulfillment> searchFulfillments(
-            @Param("orderId") UUID orderId,
-            @Param("status") Fulfillment.FulfillmentStatus status,
-            @Param("carrier") String carrier,
-            @Param("from") Instant from,
-            @Param("to") Instant to,
-            Pageable pageable);
+    /**
+     * Candidates for a bulk upsert, read through the uk_fulfillment_external
+     * prefix. May return pairs that were not asked for; callers match on
+     * (orderId, externalFulfillmentId).
+     */
+    @Query("SELECT f FROM Fulfillment f WHERE f.tenant.tenantId = :tenantId AND f.order.orderId IN :orderIds " +
+            "AND f.externalFulfillmentId IN :externalFulfillmentIds")
+    List<Fulfillment> findExisting(
+            @Param("tenantId") UUID tenantId,
+            @Param("orderIds") Collection<UUID> orderIds,
+            @Param("externalFulfillmentIds") Collection<String> externalFulfillmentIds);
+
+    @Query("SELECT f.order.orderId AS orderId, f.fulfillmentStatus AS status, COUNT(f) AS count " +
+            "FROM Fulfillment f WHERE f.order.orderId IN :orderIds GROUP BY f.order.orderId, f.fulfillmentStatus")
+    List<StatusCount> countByOrderAndStatus(@Param("orderIds") Collection<UUID> orderIds);
+
+    interface StatusCount {
+        UUID getOrderId();
+
+        Fulfillment.FulfillmentStatus getStatus();
+
+        long getCount();
+    }
 
     @Query("SELECT f FROM Fulfillment f WHERE f.order.orderId = :orderId " +
             "AND f.externalFulfillmentId = :externalFulfillmentId")
@@ -0,0 +1,62 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Fulfillment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Fulfillment searches filtering on the criteria given; null criteria are
+ * left out of the SQL rather than matched with {@code IS NULL OR}, so each
+ * combination can use the index V2 added for it
+ */
+public interface FulfillmentSearchQueries {
+
+    Page<Fulfillment> searchFulfillments(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable);
+
+    /**
+     * {@link #searchFulfillments} as a stream, so callers can write each row
+     * out as it is read; the stream must be closed inside the transaction. The
+     * Integer.MIN_VALUE fetch size makes MySQL Connector/J hand rows over as
+     * they arrive instead of buffering the whole result first.
+     */
+    Stream<Fulfillment> streamFulfillments(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable);
+
+    long countFulfillments(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to);
+
+    /**
+     * Tenant-wide search across orders, keyset-paged by (updatedAt DESC, fulfillmentId DESC).
+     * Pass a null afterUpdatedAt for the first page.
+     */
+    List<Fulfillment> searchTenantFulfillments(
+            UUID tenantId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Instant afterUpdatedAt,
+            UUID afterId,
+            Limit limit);
+}
@@ -0,0 +1,146 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Fulfillment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@RequiredArgsConstructor
+class FulfillmentSearchQueriesImpl implements FulfillmentSearchQueries {
+
+    /** Keyset order of the tenant-wide search */
+    static final List<String> TENANT_ORDER = List.of("updatedAt", "fulfillmentId");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Fulfillment> searchFulfillments(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable) {
+
+        return FieldQueries.entityPage(entityManager, Fulfillment.class,
+                orderFilter(orderId, status, carrier, from, to), pageable);
+    }
+
+    @Override
+    public Stream<Fulfillment> streamFulfillments(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable) {
+
+        return FieldQueries.entities(entityManager, Fulfillment.class,
+                        orderFilter(orderId, status, carrier, from, to), pageable)
+                .setHint(HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .getResultStream();
+    }
+
+    @Override
+    public long countFulfillments(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to) {
+
+        return FieldQueries.count(entityManager, Fulfillment.class, orderFilter(orderId, status, carrier, from, to));
+    }
+
+    @Override
+    public List<Fulfillment> searchTenantFulfillments(
+            UUID tenantId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Instant afterUpdatedAt,
+            UUID afterId,
+            Limit limit) {
+
+        return FieldQueries.entityList(entityManager, Fulfillment.class,
+                tenantFilter(tenantId, status, carrier, from, to, afterUpdatedAt, afterId), TENANT_ORDER, limit.max());
+    }
+
+    /**
+     * The per-order search filters, shared with the sparse fieldset search
+     */
+    static FieldQueries.Filter<Fulfillment> orderFilter(
+            UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to) {
+
+        return (cb, root) -> {
+            List<Predicate> where = new ArrayList<>();
+            where.add(cb.equal(FieldQueries.path(root, "order.orderId"), orderId));
+            where.addAll(filters(cb, root, status, carrier, from, to));
+            return where;
+        };
+    }
+
+    /**
+     * The tenant-wide search filters and keyset position, shared with the
+     * sparse fieldset search
+     */
+    static FieldQueries.Filter<Fulfillment> tenantFilter(
+            UUID tenantId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Instant afterUpdatedAt,
+            UUID afterId) {
+
+        return (cb, root) -> {
+            List<Predicate> where = new ArrayList<>();
+            where.add(cb.equal(FieldQueries.path(root, "tenant.tenantId"), tenantId));
+            where.addAll(filters(cb, root, status, carrier, from, to));
+            if (afterUpdatedAt != null) {
+                where.add(cb.or(
+                        cb.lessThan(root.get("updatedAt"), afterUpdatedAt),
+                        cb.and(cb.equal(root.get("updatedAt"), afterUpdatedAt),
+                                cb.lessThan(root.get("fulfillmentId"), afterId))));
+            }
+            return where;
+        };
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<Fulfillment> root,
+                                           Fulfillment.FulfillmentStatus status, String carrier,
+                                           Instant from, Instant to) {
+        List<Predicate> where = new ArrayList<>();
+        if (status != null) {
+            where.add(cb.equal(root.get("fulfillmentStatus"), status));
+        }
+        if (carrier != null) {
+            where.add(cb.equal(root.get("carrier"), carrier));
+        }
+        if (from != null) {
+            where.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), from));
+        }
+        if (to != null) {
+            where.add(cb.lessThanOrEqualTo(root.get("updatedAt"), to));
+        }
+        return where;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Order;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Order searches returning only selected attributes, keyed by alias
+ */
+public interface OrderFieldQueries {
+
+    /**
+     * Same filters as {@link OrderSearchQueries#searchOrders}; a null tenant
+     * searches all tenants
+     */
+    Page<Tuple> searchOrderFields(
+            Map<String, String> selection,
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable);
+
+    /**
+     * Same filters as {@link OrderRepository#searchByExternalIds}
+     */
+    Page<Tuple> searchByExternalIdFields(
+            Map<String, String> selection,
+            UUID tenantId,
+            UUID storeId,
+            String externalOrderId,
+            String externalOrderNumber,
+            Pageable pageable);
+}
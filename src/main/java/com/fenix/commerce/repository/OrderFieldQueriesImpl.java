@@ -0,0 +1,63 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class OrderFieldQueriesImpl implements OrderFieldQueries {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> searchOrderFields(
+            Map<String, String> selection,
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable) {
+
+        return FieldQueries.page(entityManager, Order.class, selection,
+                OrderSearchQueriesImpl.filter(tenantId, storeId, status, financialStatus, fulfillmentStatus, from, to),
+                pageable);
+    }
+
+    @Override
+    public Page<Tuple> searchByExternalIdFields(
+            Map<String, String> selection,
+            UUID tenantId,
+            UUID storeId,
+            String externalOrderId,
+            String externalOrderNumber,
+            Pageable pageable) {
+
+        return FieldQueries.page(entityManager, Order.class, selection, (cb, root) -> {
+            List<Predicate> where = new ArrayList<>();
+            where.add(cb.equal(FieldQueries.path(root, "tenant.tenantId"), tenantId));
+            if (storeId != null) {
+                where.add(cb.equal(FieldQueries.path(root, "store.storeId"), storeId));
+            }
+            if (externalOrderId != null) {
+                where.add(cb.equal(root.get("externalOrderId"), externalOrderId));
+            }
+            if (externalOrderNumber != null) {
+                where.add(cb.equal(root.get("externalOrderNumber"), externalOrderNumber));
+            }
+            return where;
+        }, pageable);
+    }
+}
@@ -1,20 +1,25 @@
 package com.fenix.commerce.repository;
 
 import com.fenix.commerce.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderSearchQueries, OrderFieldQueries {
 
     Optional<Order> findByTenantTenantIdAndStoreStoreIdAndExternalOrderId(
             UUID tenantId, UUID storeId, String externalOrderId);
@@ -23,23 +28,6 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     Page<Order> findByTenantTenantIdAndStoreStoreId(UUID tenantId, UUID storeId, Pageable pageable);
 
-    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId " +
-            "AND (:storeId IS NULL OR o.store.storeId = :storeId) " +
-            "AND (:status IS NULL OR o.orderStatus = :status) " +
-            "AND (:financialStatus IS NULL OR o.financialStatus = :financialStatus) " +
-            "AND (:fulfillmentStatus IS NULL OR o.fulfillmentStatus = :fulfillmentStatus) " +
-            "AND (:from IS NULL OR o.orderUpdatedAt >= :from) " +
-            "AND (:to IS NULL OR o.orderUpdatedAt <= :to)")
-    Page<Order> searchOrders(
-            @Param("tenantId") UUID tenantId,
-            @Param("storeId") UUID storeId,
-            @Param("status") Order.OrderStatus status,
-            @Param("financialStatus") Order.FinancialStatus financialStatus,
-            @Param("fulfillmentStatus") Order.FulfillmentOverallStatus fulfillmentStatus,
-            @Param("from") LocalDateTime from,
-            @Param("to") LocalDateTime to,
-            Pageable pageable);
-
     @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId " +
             "AND (:storeId IS NULL OR o.store.storeId = :storeId) " +
             "AND (:externalOrderId IS NULL OR o.externalOrderId = :externalOrderId) " +
@@ -51,6 +39,79 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
             @Param("externalOrderNumber") String externalOrderNumber,
             Pageable pageable);
 
+    /*
+     * Multi-get for lookups; callers chunk the id lists to keep the IN lists bounded
+     */
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.orderId IN :orderIds")
+    List<Order> findByTenantAndOrderIds(
+            @Param("tenantId") UUID tenantId,
+            @Param("orderIds") Collection<UUID> orderIds);
+
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.store.storeId = :storeId " +
+            "AND o.externalOrderId IN :externalOrderIds")
+    List<Order> findByStoreAndExternalOrderIds(
+            @Param("tenantId") UUID tenantId,
+            @Param("storeId") UUID storeId,
+            @Param("externalOrderIds") Collection<String> externalOrderIds);
+
+    /*
+     * Row locks serializing writes per order, so an order update writing the
+     * whole row cannot overwrite fulfillment counters changed since it read them
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") UUID orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.store.storeId = :storeId " +
+            "AND o.externalOrderId = :externalOrderId")
+    Optional<Order> findByStoreAndExternalOrderIdForUpdate(
+            @Param("tenantId") UUID tenantId,
+            @Param("storeId") UUID storeId,
+            @Param("externalOrderId") String externalOrderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.store.storeId = :storeId " +
+            "AND o.externalOrderId IN :externalOrderIds")
+    List<Order> findByStoreAndExternalOrderIdsForUpdate(
+            @Param("tenantId") UUID tenantId,
+            @Param("storeId") UUID storeId,
+            @Param("externalOrderIds") Collection<String> externalOrderIds);
+
     boolean existsByTenantTenantIdAndStoreStoreIdAndExternalOrderId(
             UUID tenantId, UUID storeId, String externalOrderId);
+
+    /*
+     * Customer email lookups, keyset-paged by (orderUpdatedAt DESC, orderId DESC)
+     * over idx_orders_tenant_email_updated. MySQL sorts NULL order_updated_at
+     * last in descending order, so those rows form the tail of the listing.
+     */
+
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.customerEmailHash = :emailHash " +
+            "ORDER BY o.orderUpdatedAt DESC, o.orderId DESC")
+    List<Order> findCustomerOrders(
+            @Param("tenantId") UUID tenantId,
+            @Param("emailHash") byte[] emailHash,
+            Limit limit);
+
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.customerEmailHash = :emailHash " +
+            "AND (o.orderUpdatedAt < :updatedAt " +
+            "OR (o.orderUpdatedAt = :updatedAt AND o.orderId < :orderId) " +
+            "OR o.orderUpdatedAt IS NULL) " +
+            "ORDER BY o.orderUpdatedAt DESC, o.orderId DESC")
+    List<Order> findCustomerOrdersAfter(
+            @Param("tenantId") UUID tenantId,
+            @Param("emailHash") byte[] emailHash,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("orderId") UUID orderId,
+            Limit limit);
+
+    @Query("SELECT o FROM Order o WHERE o.tenant.tenantId = :tenantId AND o.customerEmailHash = :emailHash " +
+            "AND o.orderUpdatedAt IS NULL AND o.orderId < :orderId " +
+            "ORDER BY o.orderId DESC")
+    List<Order> findUndatedCustomerOrdersAfter(
+            @Param("tenantId") UUID tenantId,
+            @Param("emailHash") byte[] emailHash,
+            @Param("orderId") UUID orderId,
+            Limit limit);
 }
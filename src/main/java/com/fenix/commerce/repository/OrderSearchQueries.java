@@ -0,0 +1,52 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Order searches filtering on the criteria given; null criteria are left
+ * out of the SQL rather than matched with {@code IS NULL OR}, so each
+ * combination can use the index V2 added for it
+ */
+public interface OrderSearchQueries {
+
+    Page<Order> searchOrders(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable);
+
+    /**
+     * {@link #searchOrders} as a stream, so callers can write each row out
+     * as it is read; the stream must be closed inside the transaction. The
+     * Integer.MIN_VALUE fetch size makes MySQL Connector/J hand rows over as
+     * they arrive instead of buffering the whole result first.
+     */
+    Stream<Order> streamOrders(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable);
+
+    long countOrders(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to);
+}
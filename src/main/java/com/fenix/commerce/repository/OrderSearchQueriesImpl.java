@@ -0,0 +1,108 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@RequiredArgsConstructor
+class OrderSearchQueriesImpl implements OrderSearchQueries {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Order> searchOrders(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable) {
+
+        return FieldQueries.entityPage(entityManager, Order.class,
+                filter(tenantId, storeId, status, financialStatus, fulfillmentStatus, from, to), pageable);
+    }
+
+    @Override
+    public Stream<Order> streamOrders(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable) {
+
+        return FieldQueries.entities(entityManager, Order.class,
+                        filter(tenantId, storeId, status, financialStatus, fulfillmentStatus, from, to), pageable)
+                .setHint(HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .getResultStream();
+    }
+
+    @Override
+    public long countOrders(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        return FieldQueries.count(entityManager, Order.class,
+                filter(tenantId, storeId, status, financialStatus, fulfillmentStatus, from, to));
+    }
+
+    /**
+     * The search filters, shared with the sparse fieldset search; a null
+     * tenant matches all tenants
+     */
+    static FieldQueries.Filter<Order> filter(
+            UUID tenantId,
+            UUID storeId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        return (cb, root) -> {
+            List<Predicate> where = new ArrayList<>();
+            if (tenantId != null) {
+                where.add(cb.equal(FieldQueries.path(root, "tenant.tenantId"), tenantId));
+            }
+            if (storeId != null) {
+                where.add(cb.equal(FieldQueries.path(root, "store.storeId"), storeId));
+            }
+            if (status != null) {
+                where.add(cb.equal(root.get("orderStatus"), status));
+            }
+            if (financialStatus != null) {
+                where.add(cb.equal(root.get("financialStatus"), financialStatus));
+            }
+            if (fulfillmentStatus != null) {
+                where.add(cb.equal(root.get("fulfillmentStatus"), fulfillmentStatus));
+            }
+            if (from != null) {
+                where.add(cb.greaterThanOrEqualTo(root.get("orderUpdatedAt"), from));
+            }
+            if (to != null) {
+                where.add(cb.lessThanOrEqualTo(root.get("orderUpdatedAt"), to));
+            }
+            return where;
+        };
+    }
+}
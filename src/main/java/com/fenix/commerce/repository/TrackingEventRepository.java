@@ -0,0 +1,32 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.TrackingEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+
+@Repository
+public interface TrackingEventRepository extends JpaRepository<TrackingEvent, UUID> {
+
+    /**
+     * The newest {@code perTracking} events of each given tracking, in one
+     * statement, ordered by tracking then newest first. Each partition is a
+     * range scan of idx_events_tenant_tracking_time.
+     */
+    @Query("SELECT e FROM TrackingEvent e WHERE e.trackingEventId IN (" +
+            "SELECT r.id FROM (SELECT te.trackingEventId AS id, ROW_NUMBER() OVER (" +
+            "PARTITION BY te.tracking.trackingId ORDER BY te.eventTime DESC, te.trackingEventId DESC) AS rn " +
+            "FROM TrackingEvent te WHERE te.tenant.tenantId = :tenantId AND te.tracking.trackingId IN :trackingIds) r " +
+            "WHERE r.rn <= :perTracking) " +
+            "ORDER BY e.tracking.trackingId, e.eventTime DESC, e.trackingEventId DESC")
+    List<TrackingEvent> findRecentByTrackingIds(
+            @Param("tenantId") UUID tenantId,
+            @Param("trackingIds") Collection<UUID> trackingIds,
+            @Param("perTracking") int perTracking);
+}
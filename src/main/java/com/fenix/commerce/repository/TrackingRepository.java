@@ -1,6 +1,7 @@
 package com.fenix.commerce.repository;
 
 import com.fenix.commerce.entity.Tracking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,5 +38,31 @@ public interface TrackingRepository extends JpaRepository<Tracking, UUID> {
             @Param("to") Instant to,
             Pageable pageable);
 
+    /**
+     * Tenant-wide search across fulfillments, keyset-paged by (updatedAt DESC, trackingId DESC).
+     * Pass a null afterUpdatedAt for the first page.
+     */
+    @Query("SELECT t FROM Tracking t WHERE t.tenant.tenantId = :tenantId " +
+            "AND (:status IS NULL OR t.trackingStatus = :status) " +
+            "AND (:carrier IS NULL OR t.carrier = :carrier) " +
+            "AND (:from IS NULL OR t.updatedAt >= :from) " +
+            "AND (:to IS NULL OR t.updatedAt <= :to) " +
+            "AND (:afterUpdatedAt IS NULL OR t.updatedAt < :afterUpdatedAt " +
+            "OR (t.updatedAt = :afterUpdatedAt AND t.trackingId < :afterId)) " +
+            "ORDER BY t.updatedAt DESC, t.trackingId DESC")
+    List<Tracking> searchTenantTracking(
+            @Param("tenantId") UUID tenantId,
+            @Param("status") Tracking.TrackingStatus status,
+            @Param("carrier") String carrier,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterUpdatedAt") Instant afterUpdatedAt,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+
+    @Query("SELECT t FROM Tracking t WHERE t.fulfillment.fulfillmentId IN :fulfillmentIds " +
+            "ORDER BY t.isPrimary DESC, t.createdAt")
+    List<Tracking> findByFulfillmentIds(@Param("fulfillmentIds") Collection<UUID> fulfillmentIds);
+
     boolean existsByTenantTenantIdAndTrackingNumber(UUID tenantId, String trackingNumber);
 }
@@ -0,0 +1,274 @@
+package com.fenix.commerce.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coordinates the scheduled jobs of all instances through two tables on the
+ * default shard. A leader job runs only on the instance holding its row in
+ * scheduler_leases; a partitioned job runs everywhere, each instance on the
+ * tenants it owns among the live rows of scheduler_members.
+ *
+ * Leases and memberships are renewed every {@code heartbeat-interval} on a
+ * thread of their own, so a long job run keeps its lease. A node that stops
+ * renewing loses both after {@code lease-ttl} and its work moves to the
+ * others; a node shutting down releases them at once. Expiry is compared
+ * against each instance's clock, which must be synchronised well within the
+ * TTL. A lease is not a fence: a node paused past the TTL may overlap
+ * briefly with its successor, so jobs must tolerate a repeated chunk.
+ *
+ * Every write runs in a transaction: the prod pool does not auto-commit and
+ * rolls back whatever is returned to it uncommitted.
+ */
+@Component
+@Slf4j
+public class JobCoordinator {
+
+    // acquired_at first: MySQL assigns left to right, so owner must still be the old value here
+    private static final String RENEW_OR_TAKE_LEASE =
+            "UPDATE scheduler_leases SET acquired_at = CASE WHEN owner = ? THEN acquired_at ELSE ? END, " +
+            "owner = ?, expires_at = ? WHERE lease_name = ? AND (owner = ? OR expires_at < ?)";
+
+    private static final String INSERT_LEASE =
+            "INSERT INTO scheduler_leases (lease_name, owner, acquired_at, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String RENEW_HELD_LEASE =
+            "UPDATE scheduler_leases SET expires_at = ? WHERE lease_name = ? AND owner = ?";
+
+    private static final String RELEASE_LEASES =
+            "UPDATE scheduler_leases SET expires_at = ? WHERE owner = ?";
+
+    private static final String SELECT_LEASES =
+            "SELECT lease_name, owner, acquired_at, expires_at FROM scheduler_leases ORDER BY lease_name";
+
+    private static final String RENEW_MEMBER = "UPDATE scheduler_members SET expires_at = ? WHERE node_id = ?";
+
+    private static final String INSERT_MEMBER =
+            "INSERT INTO scheduler_members (node_id, started_at, expires_at) VALUES (?, ?, ?)";
+
+    private static final String SELECT_LIVE_MEMBERS =
+            "SELECT node_id FROM scheduler_members WHERE expires_at > ? ORDER BY node_id";
+
+    private static final String DELETE_MEMBER = "DELETE FROM scheduler_members WHERE node_id = ?";
+
+    private static final String DELETE_DEAD_MEMBERS = "DELETE FROM scheduler_members WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRegistry registry;
+    private final SchedulerProperties properties;
+    private final String nodeId;
+
+    private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+    private volatile List<String> members = List.of();
+    // Until then the membership read last may no longer include this node
+    private volatile long membershipValidUntil;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobCoordinator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, JobRegistry registry,
+                          SchedulerProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.properties = properties;
+        this.nodeId = properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Runs {@code work} if this instance holds, or can take, the job's lease
+     *
+     * @return whether the work ran here
+     */
+    public boolean runAsLeader(String job, Runnable work) {
+        if (properties.isEnabled()) {
+            boolean leader;
+            try {
+                leader = acquire(job);
+            } catch (DataAccessException ex) {
+                log.warn("Could not check the {} lease, skipping this run: {}", job, ex.getMessage());
+                leader = false;
+            }
+            if (!leader) {
+                registry.skipped(job, JobRegistry.Mode.LEADER);
+                return false;
+            }
+        }
+        registry.run(job, JobRegistry.Mode.LEADER, work);
+        return true;
+    }
+
+    /**
+     * Runs {@code work} with the tenants this instance owns. Skips the run
+     * when this node's membership could not be renewed, since the others
+     * may already have taken over its tenants.
+     */
+    public void runPartitioned(String job, Consumer<TenantPartition> work) {
+        TenantPartition partition = TenantPartition.everything(nodeId);
+        if (properties.isEnabled()) {
+            if (System.nanoTime() - membershipValidUntil > 0) {
+                try {
+                    heartbeat();
+                } catch (DataAccessException ex) {
+                    log.warn("Could not renew membership, skipping {}: {}", job, ex.getMessage());
+                }
+            }
+            List<String> live = members;
+            if (System.nanoTime() - membershipValidUntil > 0 || !live.contains(nodeId)) {
+                registry.skipped(job, JobRegistry.Mode.PARTITIONED);
+                return;
+            }
+            partition = new TenantPartition(nodeId, live);
+        }
+        TenantPartition owned = partition;
+        registry.run(job, JobRegistry.Mode.PARTITIONED, () -> work.accept(owned));
+    }
+
+    /** Live members as of the last heartbeat */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /** Every lease row: job name to owner, acquisition and expiry */
+    public Map<String, Map<String, Object>> leases() {
+        Map<String, Map<String, Object>> leases = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_LEASES, rs -> {
+            Map<String, Object> lease = new LinkedHashMap<>();
+            lease.put("owner", rs.getString("owner"));
+            lease.put("acquiredAt", rs.getTimestamp("acquired_at").toInstant());
+            lease.put("expiresAt", rs.getTimestamp("expires_at").toInstant());
+            leases.put(rs.getString("lease_name"), lease);
+        });
+        return leases;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getHeartbeatInterval().toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                heartbeat();
+            } catch (DataAccessException ex) {
+                log.warn("Scheduler heartbeat failed: {}", ex.getMessage());
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+        log.info("Coordinating background jobs as {}", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            // Let the other instances take over now rather than after the TTL
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(RELEASE_LEASES, Timestamp.from(Instant.now()), nodeId);
+                jdbcTemplate.update(DELETE_MEMBER, nodeId);
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Could not release leases of {}; they expire after {}", nodeId, properties.getLeaseTtl());
+        }
+    }
+
+    /**
+     * Renews this node's membership and held leases and reads the live
+     * members. Package-private so tests can drive it.
+     */
+    synchronized void heartbeat() {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        Timestamp expires = Timestamp.from(now.plus(properties.getLeaseTtl()));
+
+        List<String> lost = new ArrayList<>();
+        List<String> live = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(RENEW_MEMBER, expires, nodeId) == 0) {
+                jdbcTemplate.update(INSERT_MEMBER, nodeId, Timestamp.from(now), expires);
+            }
+            for (String job : heldLeases) {
+                if (jdbcTemplate.update(RENEW_HELD_LEASE, expires, job, nodeId) == 0) {
+                    lost.add(job);
+                }
+            }
+            jdbcTemplate.update(DELETE_DEAD_MEMBERS, Timestamp.from(now.minus(properties.getLeaseTtl())));
+            return jdbcTemplate.queryForList(SELECT_LIVE_MEMBERS, String.class, Timestamp.from(now));
+        });
+        // Only once committed: a rolled-back renewal must not look like a lost lease
+        for (String job : lost) {
+            heldLeases.remove(job);
+            log.warn("Lost the {} lease to another instance", job);
+        }
+        members = List.copyOf(live);
+        membershipValidUntil = started + properties.getLeaseTtl().toNanos();
+    }
+
+    boolean acquire(String job) {
+        Instant now = Instant.now();
+        Timestamp at = Timestamp.from(now);
+        Timestamp expires = Timestamp.from(now.plus(properties.getLeaseTtl()));
+        boolean acquired = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                jdbcTemplate.update(RENEW_OR_TAKE_LEASE, nodeId, at, nodeId, expires, job, nodeId, at) > 0));
+        if (!acquired) {
+            // Separate transaction, so a duplicate key rolls back nothing else
+            try {
+                acquired = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                        jdbcTemplate.update(INSERT_LEASE, job, nodeId, at, expires) > 0));
+            } catch (DuplicateKeyException ex) {
+                // Held by a live instance
+            }
+        }
+        if (acquired) {
+            if (heldLeases.add(job)) {
+                log.info("Took the {} lease", job);
+            }
+        } else {
+            heldLeases.remove(job);
+        }
+        return acquired;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
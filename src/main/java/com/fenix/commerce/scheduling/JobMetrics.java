@@ -0,0 +1,22 @@
+package com.fenix.commerce.scheduling;
+
+import java.time.Instant;
+
+/**
+ * Run statistics of one job on this instance. {@code lagMillis} is the time
+ * since the last successful run here, null if it never succeeded here.
+ */
+public record JobMetrics(
+        String name,
+        JobRegistry.Mode mode,
+        boolean running,
+        long runs,
+        long failures,
+        long skipped,
+        Instant lastStartedAt,
+        Instant lastSucceededAt,
+        Long lastDurationMillis,
+        Long maxDurationMillis,
+        Long lagMillis,
+        String lastError) {
+}
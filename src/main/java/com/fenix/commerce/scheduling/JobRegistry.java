@@ -0,0 +1,110 @@
+package com.fenix.commerce.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run times, outcomes and lag of every coordinated job on this instance
+ */
+@Component
+public class JobRegistry {
+
+    public enum Mode {
+        /** Runs on the instance holding the job's lease */
+        LEADER,
+        /** Runs on every instance, each on its share of tenants */
+        PARTITIONED
+    }
+
+    private final Map<String, Stats> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code work} and records its duration and outcome; a failure is
+     * recorded and rethrown
+     */
+    public void run(String job, Mode mode, Runnable work) {
+        Stats stats = stats(job, mode);
+        long started = System.nanoTime();
+        stats.started(Instant.now());
+        try {
+            work.run();
+            stats.finished(Duration.ofNanos(System.nanoTime() - started), null);
+        } catch (RuntimeException ex) {
+            stats.finished(Duration.ofNanos(System.nanoTime() - started), ex);
+            throw ex;
+        }
+    }
+
+    /** Records a run this instance left to another one */
+    public void skipped(String job, Mode mode) {
+        stats(job, mode).skipped();
+    }
+
+    public List<JobMetrics> metrics() {
+        Instant now = Instant.now();
+        return jobs.entrySet().stream()
+                .map(entry -> entry.getValue().metrics(entry.getKey(), now))
+                .sorted(Comparator.comparing(JobMetrics::name))
+                .toList();
+    }
+
+    private Stats stats(String job, Mode mode) {
+        return jobs.computeIfAbsent(job, name -> new Stats(mode));
+    }
+
+    private static final class Stats {
+
+        private final Mode mode;
+        private boolean running;
+        private long runs;
+        private long failures;
+        private long skipped;
+        private Instant lastStartedAt;
+        private Instant lastSucceededAt;
+        private Duration lastDuration;
+        private Duration maxDuration;
+        private String lastError;
+
+        Stats(Mode mode) {
+            this.mode = mode;
+        }
+
+        synchronized void started(Instant at) {
+            running = true;
+            lastStartedAt = at;
+        }
+
+        synchronized void finished(Duration duration, RuntimeException failure) {
+            running = false;
+            runs++;
+            lastDuration = duration;
+            if (maxDuration == null || duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+            if (failure != null) {
+                failures++;
+                lastError = String.valueOf(failure.getMessage());
+            } else {
+                lastSucceededAt = Instant.now();
+            }
+        }
+
+        synchronized void skipped() {
+            skipped++;
+        }
+
+        synchronized JobMetrics metrics(String name, Instant now) {
+            return new JobMetrics(name, mode, running, runs, failures, skipped, lastStartedAt, lastSucceededAt,
+                    lastDuration != null ? lastDuration.toMillis() : null,
+                    maxDuration != null ? maxDuration.toMillis() : null,
+                    lastSucceededAt != null ? Duration.between(lastSucceededAt, now).toMillis() : null,
+                    lastError);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.fenix.commerce.scheduling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for coordinating background jobs across instances
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Elect job leaders and split tenants through the scheduler_leases and
+     * scheduler_members tables. Off, every instance with a job enabled runs
+     * all of it.
+     */
+    private boolean enabled = true;
+
+    /** Identifies this instance in the tables; host name plus a random suffix when unset */
+    private String nodeId;
+
+    /** How long a lease or membership lasts without renewal; a crashed node's work moves after this */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /** How often held leases and the membership are renewed; well below the lease TTL */
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+}
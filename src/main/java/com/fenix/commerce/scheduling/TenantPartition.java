@@ -0,0 +1,42 @@
+package com.fenix.commerce.scheduling;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The tenants one instance works on in a partitioned job. Each tenant goes
+ * to the live member with the highest hash of member and tenant id, so a
+ * member joining or leaving moves only its own share of tenants.
+ */
+public record TenantPartition(String nodeId, List<String> members) {
+
+    public static TenantPartition everything(String nodeId) {
+        return new TenantPartition(nodeId, List.of(nodeId));
+    }
+
+    public boolean owns(UUID tenantId) {
+        String owner = null;
+        long best = 0;
+        for (String member : members) {
+            long score = score(member, tenantId);
+            if (owner == null || score > best) {
+                owner = member;
+                best = score;
+            }
+        }
+        return nodeId.equals(owner);
+    }
+
+    private static long score(String member, UUID tenantId) {
+        long hash = member.hashCode() * 0x9E3779B97F4A7C15L
+                ^ tenantId.getMostSignificantBits()
+                ^ Long.rotateLeft(tenantId.getLeastSignificantBits(), 32);
+        // MurmurHash3 finalizer
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,199 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.CacheConfig;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.dto.order.ExternalOrderRef;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.FulfillmentCounts;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.sharding.ShardKey;
+import com.fenix.commerce.util.ExternalIds;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Tenant-level fulfillment upserts for warehouse wave files. Orders are
+ * resolved and locked, existing fulfillments found and order counters
+ * recomputed with set-based queries per chunk of orders instead of per
+ * fulfillment.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FulfillmentBulkService {
+
+    /** Orders per transaction; all fulfillments of an order land in the same chunk */
+    static final int ORDER_CHUNK_SIZE = 500;
+
+    private final FulfillmentRepository fulfillmentRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** An order's fulfillment, by {@link ExternalIds#key} of its external id */
+    private record Key(UUID orderId, String externalFulfillmentKey) {
+    }
+
+    private record Change(OrderChangeEvent.Type type, Fulfillment fulfillment) {
+    }
+
+    /**
+     * Creates or fully replaces every fulfillment in the request, then
+     * recomputes the fulfillment status of each affected order once. Each
+     * chunk of orders commits on its own, so a failure leaves earlier chunks
+     * applied; the request can be replayed since it is an upsert.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, allEntries = true)
+    public FulfillmentBulkUpsertResponse upsertFulfillments(@ShardKey FulfillmentBulkUpsertRequest request) {
+        log.info("Bulk upserting {} fulfillments for org: {}", request.getFulfillments().size(), request.getOrgId());
+
+        // Last occurrence of a fulfillment wins, grouped by the order it belongs to. External ids are
+        // matched like the database does, so ids differing only in case name the same order or fulfillment.
+        Map<ExternalOrderRef, ExternalOrderRef> firstRefs = new HashMap<>();
+        Map<ExternalOrderRef, Map<String, FulfillmentCreateRequest>> byOrder = new LinkedHashMap<>();
+        for (FulfillmentBulkUpsertRequest.Item item : request.getFulfillments()) {
+            ExternalOrderRef ref = new ExternalOrderRef(item.getWebsiteId(), item.getExternalOrderId());
+            byOrder.computeIfAbsent(firstRefs.computeIfAbsent(matchKey(ref), key -> ref), key -> new LinkedHashMap<>())
+                    .put(ExternalIds.key(item.getFulfillment().getExternalFulfillmentId()), item.getFulfillment());
+        }
+
+        List<ExternalOrderRef> refs = new ArrayList<>(byOrder.keySet());
+        FulfillmentBulkUpsertResponse response = FulfillmentBulkUpsertResponse.builder()
+                .unknownOrders(new ArrayList<>())
+                .build();
+        for (int from = 0; from < refs.size(); from += ORDER_CHUNK_SIZE) {
+            List<ExternalOrderRef> chunk = refs.subList(from, Math.min(from + ORDER_CHUNK_SIZE, refs.size()));
+            transactionTemplate.executeWithoutResult(status -> upsertChunk(request.getOrgId(), chunk, byOrder, response));
+        }
+
+        log.info("Bulk upsert for org {}: {} created, {} updated, {} orders recomputed, {} unknown orders",
+                request.getOrgId(), response.getCreated(), response.getUpdated(), response.getOrdersUpdated(),
+                response.getUnknownOrders().size());
+        return response;
+    }
+
+    private void upsertChunk(
+            UUID tenantId,
+            List<ExternalOrderRef> refs,
+            Map<ExternalOrderRef, Map<String, FulfillmentCreateRequest>> byOrder,
+            FulfillmentBulkUpsertResponse response) {
+
+        Map<ExternalOrderRef, Order> orders = resolveOrders(tenantId, refs);
+        refs.stream().filter(ref -> !orders.containsKey(ref)).forEach(response.getUnknownOrders()::add);
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        List<UUID> orderIds = orders.values().stream().map(Order::getOrderId).toList();
+        List<String> externalIds = orders.keySet().stream()
+                .flatMap(ref -> byOrder.get(ref).values().stream())
+                .map(FulfillmentCreateRequest::getExternalFulfillmentId)
+                .distinct()
+                .toList();
+        Map<Key, Fulfillment> existing = fulfillmentRepository.findExisting(tenantId, orderIds, externalIds).stream()
+                .collect(Collectors.toMap(
+                        f -> new Key(f.getOrder().getOrderId(), ExternalIds.key(f.getExternalFulfillmentId())),
+                        f -> f));
+
+        List<Fulfillment> created = new ArrayList<>();
+        List<Change> changes = new ArrayList<>();
+        for (Map.Entry<ExternalOrderRef, Order> entry : orders.entrySet()) {
+            Order order = entry.getValue();
+            for (Map.Entry<String, FulfillmentCreateRequest> requested : byOrder.get(entry.getKey()).entrySet()) {
+                FulfillmentCreateRequest fulfillmentRequest = requested.getValue();
+                Fulfillment fulfillment = existing.get(new Key(order.getOrderId(), requested.getKey()));
+                if (fulfillment == null) {
+                    fulfillment = Fulfillment.builder()
+                            .tenant(order.getTenant())
+                            .order(order)
+                            .externalFulfillmentId(fulfillmentRequest.getExternalFulfillmentId())
+                            .build();
+                    created.add(fulfillment);
+                    changes.add(new Change(OrderChangeEvent.Type.FULFILLMENT_CREATED, fulfillment));
+                } else {
+                    changes.add(new Change(OrderChangeEvent.Type.FULFILLMENT_UPDATED, fulfillment));
+                }
+                FulfillmentService.updateFulfillmentFields(fulfillment, fulfillmentRequest);
+            }
+        }
+        fulfillmentRepository.saveAll(created);
+
+        // The aggregate query flushes the writes above first
+        Map<UUID, Map<Fulfillment.FulfillmentStatus, Long>> counts = new HashMap<>();
+        for (FulfillmentRepository.StatusCount count : fulfillmentRepository.countByOrderAndStatus(orderIds)) {
+            counts.computeIfAbsent(count.getOrderId(), id -> new EnumMap<>(Fulfillment.FulfillmentStatus.class))
+                    .put(count.getStatus(), count.getCount());
+        }
+        // Recounted rather than adjusted, which also repairs any drift on these orders
+        for (Order order : orders.values()) {
+            order.setFulfillmentCounts(FulfillmentCounts.of(counts.getOrDefault(order.getOrderId(), Map.of())));
+            order.deriveFulfillmentStatus();
+        }
+        // The same events as single writes, carrying the recomputed order status
+        for (Change change : changes) {
+            Fulfillment fulfillment = change.fulfillment();
+            eventPublisher.publishEvent(
+                    OrderChangeEvent.of(change.type(), fulfillment.getOrder(), fulfillment.getFulfillmentId()));
+        }
+
+        // Keep the persistence context from growing across chunks when it is request-scoped
+        entityManager.flush();
+        entityManager.clear();
+
+        response.setCreated(response.getCreated() + created.size());
+        response.setUpdated(response.getUpdated() + changes.size() - created.size());
+        response.setOrdersUpdated(response.getOrdersUpdated() + orders.size());
+    }
+
+    /**
+     * @return the orders found, keyed by the requested refs
+     */
+    private Map<ExternalOrderRef, Order> resolveOrders(UUID tenantId, List<ExternalOrderRef> refs) {
+        Map<UUID, List<String>> externalIdsByStore = refs.stream()
+                .collect(Collectors.groupingBy(ExternalOrderRef::getWebsiteId,
+                        Collectors.mapping(ExternalOrderRef::getExternalOrderId, Collectors.toList())));
+        Map<ExternalOrderRef, Order> found = new HashMap<>();
+        externalIdsByStore.forEach((storeId, externalIds) ->
+                orderRepository.findByStoreAndExternalOrderIdsForUpdate(tenantId, storeId, externalIds)
+                        .forEach(order -> found.put(
+                                matchKey(new ExternalOrderRef(storeId, order.getExternalOrderId())), order)));
+        Map<ExternalOrderRef, Order> orders = new HashMap<>();
+        for (ExternalOrderRef ref : refs) {
+            Order order = found.get(matchKey(ref));
+            if (order != null) {
+                orders.put(ref, order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * uk_order_external compares external ids under the column collation
+     */
+    private static ExternalOrderRef matchKey(ExternalOrderRef ref) {
+        return new ExternalOrderRef(ref.getWebsiteId(), ExternalIds.key(ref.getExternalOrderId()));
+    }
+}
@@ -0,0 +1,360 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.FulfillmentReconciliationProperties;
+import com.fenix.commerce.dto.fulfillment.FulfillmentReconciliationResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.FulfillmentCounts;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.sharding.ShardContext;
+import com.fenix.commerce.sharding.ShardKey;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recounts the fulfillments of every order of a tenant and repairs orders
+ * whose fulfillment counters or derived fulfillment status drifted, e.g.
+ * after direct SQL fixes. The tenant's order ids are read in keyset pages;
+ * each page is split recursively on a dedicated fork-join pool, and each
+ * leaf locks and repairs one batch of orders in its own transaction. The
+ * nightly run splits tenants among the live instances.
+ *
+ * Reconciliations requested for one tenant run in the background: the
+ * runner works through a few pages per poll and records the last checked
+ * order id with the running totals after every page, so progress is
+ * visible while it runs and a restarted runner resumes where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FulfillmentCounterReconciler {
+
+    public static final String JOB_NAME = "fulfillment-reconciliation";
+
+    public static final String RUNNER_JOB_NAME = "fulfillment-reconciliation-runner";
+
+    private static final String RUN_COLUMNS =
+            "reconciliation_id, tenant_id, run_status, last_order_id, orders_checked, orders_repaired, last_error, " +
+            "created_at, updated_at, finished_at";
+
+    private static final String INSERT_RUN =
+            "INSERT INTO fulfillment_reconciliations (reconciliation_id, tenant_id, run_status, created_at, " +
+            "updated_at) VALUES (:reconciliationId, :tenantId, :status, :now, :now)";
+
+    private static final String SELECT_RUN =
+            "SELECT " + RUN_COLUMNS + " FROM fulfillment_reconciliations " +
+            "WHERE reconciliation_id = :reconciliationId AND tenant_id = :tenantId";
+
+    private static final String SELECT_ACTIVE_RUNS =
+            "SELECT " + RUN_COLUMNS + " FROM fulfillment_reconciliations " +
+            "WHERE run_status IN ('PENDING', 'RUNNING') ORDER BY created_at";
+
+    private static final String RECORD_PROGRESS =
+            "UPDATE fulfillment_reconciliations SET run_status = 'RUNNING', last_order_id = :lastOrderId, " +
+            "orders_checked = orders_checked + :checked, orders_repaired = orders_repaired + :repaired, " +
+            "last_error = NULL, updated_at = :now WHERE reconciliation_id = :reconciliationId";
+
+    private static final String RECORD_ERROR =
+            "UPDATE fulfillment_reconciliations SET last_error = :error, updated_at = :now " +
+            "WHERE reconciliation_id = :reconciliationId";
+
+    private static final String FINISH =
+            "UPDATE fulfillment_reconciliations SET run_status = 'COMPLETED', updated_at = :now, finished_at = :now " +
+            "WHERE reconciliation_id = :reconciliationId";
+
+    // Keyset over the tenant_id foreign key index, which ends in the order_id primary key
+    private static final String SELECT_PAGE =
+            "SELECT order_id FROM orders WHERE tenant_id = :tenantId AND order_id > :afterOrderId " +
+            "ORDER BY order_id LIMIT :limit";
+
+    private static final String LOCK_COUNTERS =
+            "SELECT order_id, fulfillment_status, fulfillment_count_created, fulfillment_count_shipped, " +
+            "fulfillment_count_delivered, fulfillment_count_cancelled, fulfillment_count_failed, " +
+            "fulfillment_count_unknown FROM orders WHERE order_id IN (:orderIds) FOR UPDATE";
+
+    private static final String COUNT_FULFILLMENTS =
+            "SELECT order_id, fulfillment_status, COUNT(*) FROM fulfillments WHERE order_id IN (:orderIds) " +
+            "GROUP BY order_id, fulfillment_status";
+
+    // An order that never had fulfillments keeps the status its client sent
+    private static final String REPAIR =
+            "UPDATE orders SET fulfillment_count_created = :created, fulfillment_count_shipped = :shipped, " +
+            "fulfillment_count_delivered = :delivered, fulfillment_count_cancelled = :cancelled, " +
+            "fulfillment_count_failed = :failed, fulfillment_count_unknown = :unknown, " +
+            "fulfillment_status = COALESCE(:status, fulfillment_status) WHERE order_id = :orderId";
+
+    private static final byte[] FIRST_ORDER_ID = new byte[16];
+
+    private static final RowMapper<FulfillmentReconciliationResponse> RUN_MAPPER = (rs, rowNum) ->
+            FulfillmentReconciliationResponse.builder()
+                    .reconciliationId(UuidBytes.fromBytes(rs.getBytes("reconciliation_id")))
+                    .tenantId(UuidBytes.fromBytes(rs.getBytes("tenant_id")))
+                    .status(FulfillmentReconciliationResponse.Status.valueOf(rs.getString("run_status")))
+                    .lastOrderId(rs.getBytes("last_order_id") != null
+                            ? UuidBytes.fromBytes(rs.getBytes("last_order_id")) : null)
+                    .ordersChecked(rs.getLong("orders_checked"))
+                    .ordersRepaired(rs.getLong("orders_repaired"))
+                    .lastError(rs.getString("last_error"))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                    .finishedAt(toLocalDateTime(rs.getTimestamp("finished_at")))
+                    .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FulfillmentReconciliationProperties properties;
+    private final ShardRouter shardRouter;
+    private final JobCoordinator jobCoordinator;
+
+    private record Page(byte[] lastOrderId, int ordersChecked, long ordersRepaired) {
+    }
+
+    @Scheduled(cron = "${fenix.fulfillment-reconciliation.cron:0 0 4 * * *}")
+    public void reconcileAllTenants() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AtomicLong repaired = new AtomicLong();
+        jobCoordinator.runPartitioned(JOB_NAME, partition -> shardRouter.forEachShard(() -> {
+            List<UUID> tenantIds = jdbcTemplate.getJdbcTemplate().query("SELECT tenant_id FROM tenant",
+                    (rs, rowNum) -> UuidBytes.fromBytes(rs.getBytes(1)));
+            for (UUID tenantId : tenantIds) {
+                if (partition.owns(tenantId)) {
+                    repaired.addAndGet(reconcileOnCurrentShard(tenantId));
+                }
+            }
+        }));
+        log.info("Fulfillment counter reconciliation repaired {} orders", repaired.get());
+    }
+
+    /**
+     * Records a reconciliation of every order of one tenant for the runner to
+     * pick up, on the tenant's shard
+     */
+    public FulfillmentReconciliationResponse requestTenant(@ShardKey UUID tenantId) {
+        Integer tenants = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tenant WHERE tenant_id = :tenantId",
+                Map.of("tenantId", UuidBytes.toBytes(tenantId)), Integer.class);
+        if (tenants == null || tenants == 0) {
+            throw ResourceNotFoundException.tenant(tenantId);
+        }
+
+        UUID reconciliationId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_RUN, new MapSqlParameterSource()
+                .addValue("reconciliationId", UuidBytes.toBytes(reconciliationId))
+                .addValue("tenantId", UuidBytes.toBytes(tenantId))
+                .addValue("status", FulfillmentReconciliationResponse.Status.PENDING.name())
+                .addValue("now", LocalDateTime.now())));
+        log.info("Requested fulfillment counter reconciliation {} for tenant {}", reconciliationId, tenantId);
+        return getReconciliation(tenantId, reconciliationId);
+    }
+
+    public FulfillmentReconciliationResponse getReconciliation(@ShardKey UUID tenantId, UUID reconciliationId) {
+        return jdbcTemplate.query(SELECT_RUN, new MapSqlParameterSource()
+                        .addValue("reconciliationId", UuidBytes.toBytes(reconciliationId))
+                        .addValue("tenantId", UuidBytes.toBytes(tenantId)), RUN_MAPPER).stream()
+                .findFirst()
+                .orElseThrow(() -> ResourceNotFoundException.fulfillmentReconciliation(reconciliationId));
+    }
+
+    @Scheduled(fixedDelayString = "${fenix.fulfillment-reconciliation.runner.poll-interval:PT5S}")
+    public void runRequested() {
+        if (!properties.getRunner().isEnabled()) {
+            return;
+        }
+        jobCoordinator.runPartitioned(RUNNER_JOB_NAME, partition -> shardRouter.forEachShard(() -> {
+            for (FulfillmentReconciliationResponse run : jdbcTemplate.query(SELECT_ACTIVE_RUNS, Map.of(), RUN_MAPPER)) {
+                if (partition.owns(run.getTenantId())) {
+                    runRequest(run);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Works through up to {@code max-pages-per-poll} pages of one requested
+     * reconciliation on the shard the caller is routed to. A failed page is
+     * retried from the last recorded position on the next poll.
+     */
+    private void runRequest(FulfillmentReconciliationResponse run) {
+        byte[] reconciliationId = UuidBytes.toBytes(run.getReconciliationId());
+        byte[] afterOrderId = run.getLastOrderId() != null ? UuidBytes.toBytes(run.getLastOrderId()) : FIRST_ORDER_ID;
+        ForkJoinPool pool = newPool();
+        try {
+            for (int i = 0; i < properties.getRunner().getMaxPagesPerPoll(); i++) {
+                Page page;
+                try {
+                    page = reconcilePage(pool, run.getTenantId(), afterOrderId);
+                } catch (DataAccessException ex) {
+                    log.warn("Fulfillment counter reconciliation {} failed after order {}, retrying next poll: {}",
+                            run.getReconciliationId(), UuidBytes.fromBytes(afterOrderId), ex.getMessage());
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RECORD_ERROR,
+                            new MapSqlParameterSource()
+                                    .addValue("reconciliationId", reconciliationId)
+                                    .addValue("error", StringUtils.truncate(String.valueOf(ex.getMessage()), 1024))
+                                    .addValue("now", LocalDateTime.now())));
+                    return;
+                }
+                if (page.ordersChecked() > 0) {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RECORD_PROGRESS,
+                            new MapSqlParameterSource()
+                                    .addValue("reconciliationId", reconciliationId)
+                                    .addValue("lastOrderId", page.lastOrderId())
+                                    .addValue("checked", page.ordersChecked())
+                                    .addValue("repaired", page.ordersRepaired())
+                                    .addValue("now", LocalDateTime.now())));
+                }
+                if (page.ordersChecked() < properties.getPageSize()) {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(FINISH,
+                            new MapSqlParameterSource()
+                                    .addValue("reconciliationId", reconciliationId)
+                                    .addValue("now", LocalDateTime.now())));
+                    log.info("Fulfillment counter reconciliation {} for tenant {} completed",
+                            run.getReconciliationId(), run.getTenantId());
+                    return;
+                }
+                afterOrderId = page.lastOrderId();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return orders repaired
+     */
+    private long reconcileOnCurrentShard(UUID tenantId) {
+        ForkJoinPool pool = newPool();
+        try {
+            long checked = 0;
+            long repaired = 0;
+            Page page = new Page(FIRST_ORDER_ID, 0, 0);
+            do {
+                page = reconcilePage(pool, tenantId, page.lastOrderId());
+                checked += page.ordersChecked();
+                repaired += page.ordersRepaired();
+            } while (page.ordersChecked() == properties.getPageSize());
+            if (repaired > 0) {
+                log.warn("Repaired fulfillment counters of {} of {} orders for tenant {}", repaired, checked, tenantId);
+            }
+            return repaired;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reads the next page of the tenant's order ids and forks its batches on
+     * the pool; the page is done once every batch has committed
+     */
+    private Page reconcilePage(ForkJoinPool pool, UUID tenantId, byte[] afterOrderId) {
+        List<byte[]> orderIds = jdbcTemplate.query(SELECT_PAGE, new MapSqlParameterSource()
+                .addValue("tenantId", UuidBytes.toBytes(tenantId))
+                .addValue("afterOrderId", afterOrderId)
+                .addValue("limit", properties.getPageSize()), (rs, rowNum) -> rs.getBytes(1));
+        if (orderIds.isEmpty()) {
+            return new Page(afterOrderId, 0, 0);
+        }
+        long repaired = pool.invoke(new ReconcileTask(ShardContext.current(), orderIds));
+        return new Page(orderIds.get(orderIds.size() - 1), orderIds.size(), repaired);
+    }
+
+    private ForkJoinPool newPool() {
+        return new ForkJoinPool(Math.max(1, properties.getParallelism()));
+    }
+
+    private final class ReconcileTask extends RecursiveTask<Long> {
+
+        private final String shard;
+        private final List<byte[]> orderIds;
+
+        ReconcileTask(String shard, List<byte[]> orderIds) {
+            this.shard = shard;
+            this.orderIds = orderIds;
+        }
+
+        @Override
+        protected Long compute() {
+            if (orderIds.size() <= properties.getBatchSize()) {
+                // Pool threads do not inherit the caller's shard
+                return ShardContext.callOn(shard, () -> transactionTemplate.execute(status -> reconcileBatch(orderIds)));
+            }
+            int middle = orderIds.size() / 2;
+            ReconcileTask left = new ReconcileTask(shard, orderIds.subList(0, middle));
+            ReconcileTask right = new ReconcileTask(shard, orderIds.subList(middle, orderIds.size()));
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+
+    private long reconcileBatch(List<byte[]> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", orderIds);
+
+        Map<ByteBuffer, FulfillmentCounts> stored = new HashMap<>();
+        Map<ByteBuffer, String> storedStatus = new HashMap<>();
+        jdbcTemplate.query(LOCK_COUNTERS, params, rs -> {
+            ByteBuffer orderId = ByteBuffer.wrap(rs.getBytes(1));
+            storedStatus.put(orderId, rs.getString(2));
+            stored.put(orderId, new FulfillmentCounts(rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6),
+                    rs.getInt(7), rs.getInt(8)));
+        });
+
+        Map<ByteBuffer, Map<Fulfillment.FulfillmentStatus, Long>> actual = new HashMap<>();
+        jdbcTemplate.query(COUNT_FULFILLMENTS, params, rs -> {
+            actual.computeIfAbsent(ByteBuffer.wrap(rs.getBytes(1)),
+                            id -> new EnumMap<>(Fulfillment.FulfillmentStatus.class))
+                    .put(Fulfillment.FulfillmentStatus.valueOf(rs.getString(2)), rs.getLong(3));
+        });
+
+        List<MapSqlParameterSource> repairs = new ArrayList<>();
+        stored.forEach((orderId, counts) -> {
+            FulfillmentCounts expected = FulfillmentCounts.of(actual.getOrDefault(orderId, Map.of()));
+            // Counted fulfillments that are gone leave the order unfulfilled, as deleting them would
+            Order.FulfillmentOverallStatus status = expected.total() > 0 ? expected.overallStatus()
+                    : counts.total() > 0 ? Order.FulfillmentOverallStatus.UNFULFILLED : null;
+            boolean statusDrifted = status != null && !status.name().equals(storedStatus.get(orderId));
+            if (!expected.equals(counts) || statusDrifted) {
+                repairs.add(new MapSqlParameterSource()
+                        .addValue("orderId", orderId.array())
+                        .addValue("created", expected.getCreated())
+                        .addValue("shipped", expected.getShipped())
+                        .addValue("delivered", expected.getDelivered())
+                        .addValue("cancelled", expected.getCancelled())
+                        .addValue("failed", expected.getFailed())
+                        .addValue("unknown", expected.getUnknown())
+                        .addValue("status", status != null ? status.name() : null));
+            }
+        });
+        if (!repairs.isEmpty()) {
+            jdbcTemplate.batchUpdate(REPAIR, repairs.toArray(MapSqlParameterSource[]::new));
+        }
+        return repairs.size();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,23 +1,42 @@
 package com.fenix.commerce.service;
 
+import com.fenix.commerce.coalescing.Coalesced;
+import com.fenix.commerce.config.CacheConfig;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.FieldSet;
 import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.UpdatedAtCursor;
 import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentFields;
 import com.fenix.commerce.dto.fulfillment.FulfillmentPatchRequest;
 import com.fenix.commerce.dto.fulfillment.FulfillmentResponse;
 import com.fenix.commerce.entity.Fulfillment;
 import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
 import com.fenix.commerce.exception.ResourceNotFoundException;
 import com.fenix.commerce.repository.FulfillmentRepository;
 import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.sharding.ShardKey;
+import com.fenix.commerce.util.StreamedPages;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 @Service
@@ -28,14 +47,18 @@ public class FulfillmentService {
 
     private final FulfillmentRepository fulfillmentRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Transactional
-    public FulfillmentResponse createFulfillment(UUID orderId, FulfillmentCreateRequest request) {
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    public FulfillmentResponse createFulfillment(
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
+            FulfillmentCreateRequest request) {
         log.info("Creating fulfillment for order ID: {}", orderId);
 
-        // Validate order exists
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> ResourceNotFoundException.order(orderId));
+        // Validate order exists; locked so its fulfillment counters stay exact
+        Order order = lockOrder(orderId);
 
         // Check if fulfillment already exists (prevent duplicates)
         boolean exists = fulfillmentRepository.existsByTenantTenantIdAndOrderOrderIdAndExternalFulfillmentId(
@@ -60,13 +83,18 @@ public class FulfillmentService {
                 .build();
 
         fulfillment = fulfillmentRepository.save(fulfillment);
+        order.getFulfillmentCounts().add(fulfillment.getFulfillmentStatus(), 1);
+        publishChange(OrderChangeEvent.Type.FULFILLMENT_CREATED, order, fulfillment);
         log.info("Successfully created fulfillment with ID: {}", fulfillment.getFulfillmentId());
 
         return mapToResponse(fulfillment);
     }
 
 
-    public FulfillmentResponse getFulfillmentById(UUID orderId, UUID fulfillmentId) {
+    @Coalesced
+    public FulfillmentResponse getFulfillmentById(
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
+            UUID fulfillmentId) {
         log.debug("Fetching fulfillment with ID: {}", fulfillmentId);
 
         Fulfillment fulfillment = fulfillmentRepository.findById(fulfillmentId)
@@ -80,8 +108,9 @@ public class FulfillmentService {
         return mapToResponse(fulfillment);
     }
 
+    @Coalesced
     public PagedResponse<FulfillmentResponse> listFulfillments(
-            UUID orderId,
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
             Fulfillment.FulfillmentStatus status,
             String carrier,
             Instant from,
@@ -101,11 +130,77 @@ public class FulfillmentService {
         return mapToPagedResponse(fulfillmentPage);
     }
 
+    /**
+     * {@link #listFulfillments} handing each fulfillment to {@code rows} as it
+     * is read instead of building the page
+     *
+     * @return total number of matching fulfillments
+     */
+    public long streamFulfillments(
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable,
+            Consumer<FulfillmentResponse> rows) {
+
+        log.debug("Streaming fulfillments for order: {}", orderId);
+
+        if (!orderRepository.existsById(orderId)) {
+            throw ResourceNotFoundException.order(orderId);
+        }
+
+        long written = 0;
+        try (Stream<Fulfillment> fulfillments = fulfillmentRepository.streamFulfillments(
+                orderId, status, carrier, from, to, pageable)) {
+            for (Iterator<Fulfillment> it = fulfillments.iterator(); it.hasNext(); written++) {
+                Fulfillment fulfillment = it.next();
+                rows.accept(mapToResponse(fulfillment));
+                entityManager.detach(fulfillment);
+            }
+        }
+        return StreamedPages.total(pageable, written,
+                () -> fulfillmentRepository.countFulfillments(orderId, status, carrier, from, to));
+    }
+
+    /**
+     * {@link #listFulfillments} selecting only the requested fields
+     */
+    @Coalesced
+    public PagedResponse<Map<String, Object>> listFulfillments(
+            FieldSet fields,
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            Pageable pageable) {
+
+        log.debug("Listing fulfillment fields {} for order: {}", fields, orderId);
+
+        if (!orderRepository.existsById(orderId)) {
+            throw ResourceNotFoundException.order(orderId);
+        }
+
+        Page<Tuple> rows = fulfillmentRepository.searchFulfillmentFields(
+                fields.selection(FulfillmentFields.CATALOG), orderId, status, carrier, from, to, pageable);
+
+        return PagedResponse.<Map<String, Object>>builder()
+                .data(rows.getContent().stream().map(fields::toRow).toList())
+                .page(rows.getNumber())
+                .size(rows.getSize())
+                .totalElements(rows.getTotalElements())
+                .totalPages(rows.getTotalPages())
+                .hasNext(rows.hasNext())
+                .build();
+    }
+
     /**
      * Search by external fulfillment ID
      */
     public PagedResponse<FulfillmentResponse> searchByExternalId(
-            UUID orderId,
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
             String externalFulfillmentId,
             Pageable pageable) {
 
@@ -117,17 +212,87 @@ public class FulfillmentService {
         return mapToPagedResponse(fulfillmentPage);
     }
 
+    /**
+     * Search fulfillments across all orders of a tenant, keyset-paged newest first
+     */
+    public CursorPagedResponse<FulfillmentResponse> searchTenantFulfillments(
+            @ShardKey UUID orgId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            String cursor,
+            int size) {
+
+        log.debug("Searching fulfillments for org: {}", orgId);
+
+        UpdatedAtCursor after = UpdatedAtCursor.decode(cursor);
+        List<Fulfillment> fulfillments = fulfillmentRepository.searchTenantFulfillments(
+                orgId, status, carrier, from, to,
+                after != null ? after.updatedAt() : null, after != null ? after.id() : null,
+                Limit.of(size + 1));
+
+        boolean hasNext = fulfillments.size() > size;
+        if (hasNext) {
+            fulfillments = fulfillments.subList(0, size);
+        }
+        Fulfillment last = hasNext ? fulfillments.get(size - 1) : null;
+        return CursorPagedResponse.<FulfillmentResponse>builder()
+                .data(fulfillments.stream().map(FulfillmentService::mapToResponse).toList())
+                .size(size)
+                .nextCursor(hasNext ? new UpdatedAtCursor(last.getUpdatedAt(), last.getFulfillmentId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * {@link #searchTenantFulfillments} selecting only the requested fields;
+     * the cursor columns are read even when not requested
+     */
+    public CursorPagedResponse<Map<String, Object>> searchTenantFulfillments(
+            FieldSet fields,
+            @ShardKey UUID orgId,
+            Fulfillment.FulfillmentStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            String cursor,
+            int size) {
+
+        log.debug("Searching fulfillment fields {} for org: {}", fields, orgId);
+
+        UpdatedAtCursor after = UpdatedAtCursor.decode(cursor);
+        List<Tuple> rows = fulfillmentRepository.searchTenantFulfillmentFields(
+                fields.selection(FulfillmentFields.CATALOG, "updatedAt"), orgId, status, carrier, from, to,
+                after != null ? after.updatedAt() : null, after != null ? after.id() : null, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+        Tuple last = hasNext ? rows.get(size - 1) : null;
+        return CursorPagedResponse.<Map<String, Object>>builder()
+                .data(rows.stream().map(fields::toRow).toList())
+                .size(size)
+                .nextCursor(hasNext ? new UpdatedAtCursor(last.get("updatedAt", Instant.class),
+                        last.get("id", UUID.class)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
     /**
      * Update fulfillment (full update)
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
     public FulfillmentResponse updateFulfillment(
-            UUID orderId,
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
             UUID fulfillmentId,
             FulfillmentCreateRequest request) {
 
         log.info("Updating fulfillment with ID: {}", fulfillmentId);
 
+        Order order = lockOrder(orderId);
         Fulfillment fulfillment = fulfillmentRepository.findById(fulfillmentId)
                 .orElseThrow(() -> ResourceNotFoundException.fulfillment(fulfillmentId));
 
@@ -135,8 +300,11 @@ public class FulfillmentService {
             throw new IllegalArgumentException("Fulfillment does not belong to the specified order");
         }
 
+        Fulfillment.FulfillmentStatus previousStatus = fulfillment.getFulfillmentStatus();
         updateFulfillmentFields(fulfillment, request);
+        countStatusChange(order, previousStatus, fulfillment.getFulfillmentStatus());
         fulfillment = fulfillmentRepository.save(fulfillment);
+        publishChange(OrderChangeEvent.Type.FULFILLMENT_UPDATED, order, fulfillment);
 
         return mapToResponse(fulfillment);
     }
@@ -145,13 +313,15 @@ public class FulfillmentService {
      * Patch fulfillment (partial update)
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
     public FulfillmentResponse patchFulfillment(
-            UUID orderId,
+            @ShardKey(ShardKey.Type.ORDER) UUID orderId,
             UUID fulfillmentId,
             FulfillmentPatchRequest request) {
 
         log.info("Patching fulfillment with ID: {}", fulfillmentId);
 
+        Order order = lockOrder(orderId);
         Fulfillment fulfillment = fulfillmentRepository.findById(fulfillmentId)
                 .orElseThrow(() -> ResourceNotFoundException.fulfillment(fulfillmentId));
 
@@ -159,8 +329,11 @@ public class FulfillmentService {
             throw new IllegalArgumentException("Fulfillment does not belong to the specified order");
         }
 
+        Fulfillment.FulfillmentStatus previousStatus = fulfillment.getFulfillmentStatus();
         patchFulfillmentFields(fulfillment, request);
+        countStatusChange(order, previousStatus, fulfillment.getFulfillmentStatus());
         fulfillment = fulfillmentRepository.save(fulfillment);
+        publishChange(OrderChangeEvent.Type.FULFILLMENT_UPDATED, order, fulfillment);
 
         return mapToResponse(fulfillment);
     }
@@ -169,9 +342,11 @@ public class FulfillmentService {
      * Delete fulfillment
      */
     @Transactional
-    public void deleteFulfillment(UUID orderId, UUID fulfillmentId) {
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    public void deleteFulfillment(@ShardKey(ShardKey.Type.ORDER) UUID orderId, UUID fulfillmentId) {
         log.info("Deleting fulfillment with ID: {}", fulfillmentId);
 
+        Order order = lockOrder(orderId);
         Fulfillment fulfillment = fulfillmentRepository.findById(fulfillmentId)
                 .orElseThrow(() -> ResourceNotFoundException.fulfillment(fulfillmentId));
 
@@ -179,13 +354,33 @@ public class FulfillmentService {
             throw new IllegalArgumentException("Fulfillment does not belong to the specified order");
         }
 
-        fulfillmentRepository.deleteById(fulfillmentId);
+        fulfillmentRepository.delete(fulfillment);
+        order.removeFulfillment(fulfillment.getFulfillmentStatus());
+        publishChange(OrderChangeEvent.Type.FULFILLMENT_DELETED, order, fulfillment);
         log.info("Successfully deleted fulfillment with ID: {}", fulfillmentId);
     }
 
     // Helper methods
 
-    private void updateFulfillmentFields(Fulfillment fulfillment, FulfillmentCreateRequest request) {
+    private Order lockOrder(UUID orderId) {
+        return orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> ResourceNotFoundException.order(orderId));
+    }
+
+    private void publishChange(OrderChangeEvent.Type type, Order order, Fulfillment fulfillment) {
+        order.deriveFulfillmentStatus();
+        eventPublisher.publishEvent(OrderChangeEvent.of(type, order, fulfillment.getFulfillmentId()));
+    }
+
+    private static void countStatusChange(
+            Order order, Fulfillment.FulfillmentStatus previous, Fulfillment.FulfillmentStatus current) {
+        if (previous != current) {
+            order.getFulfillmentCounts().add(previous, -1);
+            order.getFulfillmentCounts().add(current, 1);
+        }
+    }
+
+    static void updateFulfillmentFields(Fulfillment fulfillment, FulfillmentCreateRequest request) {
         fulfillment.setFulfillmentStatus(
                 request.getStatus() != null ? request.getStatus() : Fulfillment.FulfillmentStatus.UNKNOWN);
         fulfillment.setCarrier(request.getCarrier());
@@ -212,7 +407,7 @@ public class FulfillmentService {
         }
     }
 
-    private FulfillmentResponse mapToResponse(Fulfillment fulfillment) {
+    static FulfillmentResponse mapToResponse(Fulfillment fulfillment) {
         return FulfillmentResponse.builder()
                 .id(fulfillment.getFulfillmentId())
                 .orderId(fulfillment.getOrder().getOrderId())
@@ -230,7 +425,7 @@ public class FulfillmentService {
     private PagedResponse<FulfillmentResponse> mapToPagedResponse(Page<Fulfillment> fulfillmentPage) {
         return PagedResponse.<FulfillmentResponse>builder()
                 .data(fulfillmentPage.getContent().stream()
-                        .map(this::mapToResponse)
+                        .map(FulfillmentService::mapToResponse)
                         .toList())
                 .page(fulfillmentPage.getNumber())
                 .size(fulfillmentPage.getSize())
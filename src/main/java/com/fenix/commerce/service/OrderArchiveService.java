@@ -0,0 +1,122 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.ArchiveProperties;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves closed/cancelled orders past the configured age, together with their
+ * items, fulfillments, tracking and tracking events, into the compressed
+ * *_archive tables. Each batch is copied and deleted in its own transaction.
+ * The nightly run splits tenants among the live instances.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveService {
+
+    public static final String JOB_NAME = "order-archive";
+
+    private static final String SELECT_ELIGIBLE =
+            "SELECT order_id FROM orders WHERE tenant_id = :tenantId AND order_status IN (:statuses) " +
+            "AND order_updated_at < :cutoff LIMIT :limit";
+
+    // Children first: deleting the orders cascades to every hot child table
+    private static final List<String> MOVE_STATEMENTS = List.of(
+            "INSERT INTO tracking_events_archive SELECT :archivedAt, te.* FROM tracking_events te " +
+                    "JOIN tracking t ON t.tracking_id = te.tracking_id " +
+                    "JOIN fulfillments f ON f.fulfillment_id = t.fulfillment_id WHERE f.order_id IN (:orderIds)",
+            "INSERT INTO tracking_archive SELECT :archivedAt, t.* FROM tracking t " +
+                    "JOIN fulfillments f ON f.fulfillment_id = t.fulfillment_id WHERE f.order_id IN (:orderIds)",
+            "INSERT INTO fulfillments_archive SELECT :archivedAt, f.* FROM fulfillments f " +
+                    "WHERE f.order_id IN (:orderIds)",
+            "INSERT INTO order_items_archive SELECT :archivedAt, i.* FROM order_items i " +
+                    "WHERE i.order_id IN (:orderIds)",
+            "INSERT INTO orders_archive SELECT :archivedAt, o.* FROM orders o WHERE o.order_id IN (:orderIds)",
+            "DELETE FROM orders WHERE order_id IN (:orderIds)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final ShardRouter shardRouter;
+    private final JobCoordinator jobCoordinator;
+
+    @Scheduled(cron = "${fenix.archive.cron:0 30 2 * * *}")
+    public void archiveEligibleOrders() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(properties.getAfterMonths());
+        AtomicLong total = new AtomicLong();
+        jobCoordinator.runPartitioned(JOB_NAME, partition -> shardRouter.forEachShard(() -> {
+            List<UUID> tenantIds = jdbcTemplate.getJdbcTemplate().query("SELECT tenant_id FROM tenant",
+                    (rs, rowNum) -> UuidBytes.fromBytes(rs.getBytes(1)));
+            for (UUID tenantId : tenantIds) {
+                if (partition.owns(tenantId)) {
+                    total.addAndGet(archiveTenant(tenantId, cutoff));
+                }
+            }
+        }));
+        log.info("Archived {} orders last updated before {}", total.get(), cutoff);
+    }
+
+    /**
+     * Archives all eligible orders of one tenant in batches, on the shard the
+     * caller is routed to
+     *
+     * @return number of orders archived
+     */
+    public long archiveTenant(UUID tenantId, LocalDateTime cutoff) {
+        List<String> statuses = properties.getStatuses().stream().map(Enum::name).toList();
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource selectParams = new MapSqlParameterSource()
+                .addValue("tenantId", UuidBytes.toBytes(tenantId))
+                .addValue("statuses", statuses)
+                .addValue("cutoff", cutoff)
+                .addValue("limit", properties.getBatchSize());
+
+        long archived = 0;
+        while (true) {
+            List<byte[]> orderIds = jdbcTemplate.query(SELECT_ELIGIBLE, selectParams,
+                    (rs, rowNum) -> rs.getBytes(1));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            moveBatch(orderIds);
+            archived += orderIds.size();
+            if (orderIds.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.debug("Archived {} orders for tenant {}", archived, tenantId);
+        }
+        return archived;
+    }
+
+    private void moveBatch(List<byte[]> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("orderIds", orderIds)
+                .addValue("archivedAt", LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String statement : MOVE_STATEMENTS) {
+                jdbcTemplate.update(statement, params);
+            }
+        });
+    }
+}
@@ -0,0 +1,286 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.purge.PurgeJobRequest;
+import com.fenix.commerce.dto.purge.PurgeJobResponse;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.health.HealthMonitor;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.sharding.ShardKey;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Retention purges: deletes a tenant's orders matching a status and age
+ * policy in the background. A job walks the tenant's orders in order_id
+ * order, deletes each chunk through {@link OrderPurger} and records the last
+ * purged id and running totals in the transaction that deletes the chunk's
+ * orders, so progress is visible while it runs and a restarted runner
+ * resumes exactly where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPurgeService {
+
+    public static final String JOB_NAME = "purge-runner";
+
+    private static final String JOB_COLUMNS =
+            "purge_job_id, tenant_id, order_statuses, updated_before, job_status, last_order_id, orders_deleted, " +
+            "rows_deleted, last_error, created_at, updated_at, finished_at";
+
+    private static final String INSERT_JOB =
+            "INSERT INTO purge_jobs (purge_job_id, tenant_id, order_statuses, updated_before, job_status, " +
+            "created_at, updated_at) VALUES (:jobId, :tenantId, :statuses, :updatedBefore, :status, :now, :now)";
+
+    private static final String SELECT_JOB =
+            "SELECT " + JOB_COLUMNS + " FROM purge_jobs WHERE purge_job_id = :jobId AND tenant_id = :tenantId";
+
+    private static final String SELECT_ACTIVE_JOBS =
+            "SELECT " + JOB_COLUMNS + " FROM purge_jobs WHERE job_status IN ('PENDING', 'RUNNING') ORDER BY created_at";
+
+    private static final String SELECT_STATUS = "SELECT job_status FROM purge_jobs WHERE purge_job_id = :jobId";
+
+    private static final String RECORD_PROGRESS =
+            "UPDATE purge_jobs SET job_status = CASE WHEN job_status = 'PENDING' THEN 'RUNNING' ELSE job_status END, " +
+            "last_order_id = :lastOrderId, orders_deleted = orders_deleted + :orders, " +
+            "rows_deleted = rows_deleted + :rows, last_error = NULL, updated_at = :now WHERE purge_job_id = :jobId";
+
+    private static final String RECORD_ERROR =
+            "UPDATE purge_jobs SET last_error = :error, updated_at = :now WHERE purge_job_id = :jobId";
+
+    private static final String FINISH =
+            "UPDATE purge_jobs SET job_status = :status, updated_at = :now, finished_at = :now " +
+            "WHERE purge_job_id = :jobId AND job_status IN ('PENDING', 'RUNNING')";
+
+    // Keyset over the tenant_id foreign key index, which ends in the order_id primary key
+    private static final String SELECT_CHUNK =
+            "SELECT order_id, store_id, order_status, fulfillment_status FROM orders " +
+            "WHERE tenant_id = :tenantId AND order_id > :afterOrderId";
+
+    private static final byte[] FIRST_ORDER_ID = new byte[16];
+
+    private static final RowMapper<PurgeJobResponse> JOB_MAPPER = (rs, rowNum) -> PurgeJobResponse.builder()
+            .jobId(UuidBytes.fromBytes(rs.getBytes("purge_job_id")))
+            .tenantId(UuidBytes.fromBytes(rs.getBytes("tenant_id")))
+            .statuses(parseStatuses(rs.getString("order_statuses")))
+            .updatedBefore(toLocalDateTime(rs.getTimestamp("updated_before")))
+            .status(PurgeJobResponse.Status.valueOf(rs.getString("job_status")))
+            .lastOrderId(rs.getBytes("last_order_id") != null ? UuidBytes.fromBytes(rs.getBytes("last_order_id")) : null)
+            .ordersDeleted(rs.getLong("orders_deleted"))
+            .rowsDeleted(rs.getLong("rows_deleted"))
+            .lastError(rs.getString("last_error"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .finishedAt(toLocalDateTime(rs.getTimestamp("finished_at")))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPurger orderPurger;
+    private final PurgeProperties properties;
+    private final ShardRouter shardRouter;
+    private final HealthMonitor healthMonitor;
+    private final JobCoordinator jobCoordinator;
+
+    private record Chunk(byte[] lastOrderId, int orders, long rows) {
+    }
+
+    /**
+     * Records a purge job for the runner to pick up, on the tenant's shard
+     */
+    public PurgeJobResponse createJob(@ShardKey UUID tenantId, PurgeJobRequest request) {
+        Integer tenants = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tenant WHERE tenant_id = :tenantId",
+                Map.of("tenantId", UuidBytes.toBytes(tenantId)), Integer.class);
+        if (tenants == null || tenants == 0) {
+            throw ResourceNotFoundException.tenant(tenantId);
+        }
+
+        UUID jobId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        // Fixed at creation, so a job resumed days later still deletes what was asked for
+        LocalDateTime updatedBefore = request.getOlderThanDays() != null
+                ? now.minusDays(request.getOlderThanDays()) : null;
+        String statuses = request.getStatuses() == null || request.getStatuses().isEmpty() ? null
+                : request.getStatuses().stream().map(Enum::name).sorted().collect(Collectors.joining(","));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_JOB, new MapSqlParameterSource()
+                .addValue("jobId", UuidBytes.toBytes(jobId))
+                .addValue("tenantId", UuidBytes.toBytes(tenantId))
+                .addValue("statuses", statuses)
+                .addValue("updatedBefore", updatedBefore)
+                .addValue("status", PurgeJobResponse.Status.PENDING.name())
+                .addValue("now", now)));
+        log.info("Created purge job {} for tenant {}: statuses {}, updated before {}",
+                jobId, tenantId, statuses != null ? statuses : "any", updatedBefore);
+        return getJob(tenantId, jobId);
+    }
+
+    public PurgeJobResponse getJob(@ShardKey UUID tenantId, UUID jobId) {
+        return jdbcTemplate.query(SELECT_JOB, jobParams(tenantId, jobId), JOB_MAPPER).stream()
+                .findFirst()
+                .orElseThrow(() -> ResourceNotFoundException.purgeJob(jobId));
+    }
+
+    /**
+     * Stops a pending or running job after its current chunk; orders already
+     * purged stay deleted
+     */
+    public PurgeJobResponse cancelJob(@ShardKey UUID tenantId, UUID jobId) {
+        PurgeJobResponse job = getJob(tenantId, jobId);
+        finish(jobId, PurgeJobResponse.Status.CANCELLED);
+        log.info("Cancelled purge job {} for tenant {}", jobId, job.getTenantId());
+        return getJob(tenantId, jobId);
+    }
+
+    @Scheduled(fixedDelayString = "${fenix.purge.runner.poll-interval:PT5S}")
+    public void runJobs() {
+        if (!properties.getRunner().isEnabled()) {
+            return;
+        }
+        if (healthMonitor.isShedding()) {
+            log.debug("Instance is degraded, purge jobs wait for the next poll");
+            return;
+        }
+        jobCoordinator.runPartitioned(JOB_NAME, partition -> shardRouter.forEachShard(() -> {
+            for (PurgeJobResponse job : jdbcTemplate.query(SELECT_ACTIVE_JOBS, Map.of(), JOB_MAPPER)) {
+                if (partition.owns(job.getTenantId())) {
+                    runJob(job);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Works through up to {@code max-chunks-per-poll} chunks of one job on
+     * the shard the caller is routed to. A failed chunk is retried from the
+     * job's last position on the next poll.
+     */
+    void runJob(PurgeJobResponse job) {
+        byte[] afterOrderId = job.getLastOrderId() != null ? UuidBytes.toBytes(job.getLastOrderId()) : FIRST_ORDER_ID;
+        for (int i = 0; i < properties.getRunner().getMaxChunksPerPoll(); i++) {
+            Chunk chunk;
+            try {
+                chunk = purgeChunk(job, afterOrderId);
+            } catch (DataAccessException ex) {
+                log.warn("Purge job {} failed after order {}, retrying next poll: {}",
+                        job.getJobId(), UuidBytes.fromBytes(afterOrderId), ex.getMessage());
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RECORD_ERROR,
+                        new MapSqlParameterSource()
+                                .addValue("jobId", UuidBytes.toBytes(job.getJobId()))
+                                .addValue("error", StringUtils.truncate(String.valueOf(ex.getMessage()), 1024))
+                                .addValue("now", LocalDateTime.now())));
+                return;
+            }
+            if (chunk.orders() == 0) {
+                finish(job.getJobId(), PurgeJobResponse.Status.COMPLETED);
+                log.info("Purge job {} for tenant {} completed", job.getJobId(), job.getTenantId());
+                return;
+            }
+
+            afterOrderId = chunk.lastOrderId();
+            log.debug("Purge job {} deleted {} orders ({} rows)", job.getJobId(), chunk.orders(), chunk.rows());
+
+            String status = jdbcTemplate.queryForObject(SELECT_STATUS,
+                    Map.of("jobId", UuidBytes.toBytes(job.getJobId())), String.class);
+            if (!PurgeJobResponse.Status.RUNNING.name().equals(status)) {
+                return;
+            }
+            pause();
+        }
+    }
+
+    private Chunk purgeChunk(PurgeJobResponse job, byte[] afterOrderId) {
+        StringBuilder sql = new StringBuilder(SELECT_CHUNK);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tenantId", UuidBytes.toBytes(job.getTenantId()))
+                .addValue("afterOrderId", afterOrderId)
+                .addValue("limit", properties.getOrderChunkSize());
+        if (!job.getStatuses().isEmpty()) {
+            sql.append(" AND order_status IN (:statuses)");
+            params.addValue("statuses", job.getStatuses().stream().map(Enum::name).toList());
+        }
+        if (job.getUpdatedBefore() != null) {
+            sql.append(" AND order_updated_at < :updatedBefore");
+            params.addValue("updatedBefore", job.getUpdatedBefore());
+        }
+        sql.append(" ORDER BY order_id LIMIT :limit");
+
+        byte[][] lastOrderId = new byte[1][];
+        List<OrderChangeEvent> deletions = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            lastOrderId[0] = rs.getBytes("order_id");
+            String fulfillmentStatus = rs.getString("fulfillment_status");
+            return new OrderChangeEvent(OrderChangeEvent.Type.ORDER_DELETED, job.getTenantId(),
+                    UuidBytes.fromBytes(rs.getBytes("store_id")), UuidBytes.fromBytes(lastOrderId[0]), null,
+                    Order.OrderStatus.valueOf(rs.getString("order_status")),
+                    fulfillmentStatus != null ? Order.FulfillmentOverallStatus.valueOf(fulfillmentStatus) : null,
+                    Instant.now());
+        });
+        if (deletions.isEmpty()) {
+            return new Chunk(afterOrderId, 0, 0);
+        }
+        long rows = orderPurger.deleteOrders(deletions, deleted -> jdbcTemplate.update(RECORD_PROGRESS,
+                new MapSqlParameterSource()
+                        .addValue("jobId", UuidBytes.toBytes(job.getJobId()))
+                        .addValue("lastOrderId", lastOrderId[0])
+                        .addValue("orders", deletions.size())
+                        .addValue("rows", deleted)
+                        .addValue("now", LocalDateTime.now())));
+        return new Chunk(lastOrderId[0], deletions.size(), rows);
+    }
+
+    private void finish(UUID jobId, PurgeJobResponse.Status status) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(FINISH, new MapSqlParameterSource()
+                .addValue("jobId", UuidBytes.toBytes(jobId))
+                .addValue("status", status.name())
+                .addValue("now", LocalDateTime.now())));
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MapSqlParameterSource jobParams(UUID tenantId, UUID jobId) {
+        return new MapSqlParameterSource()
+                .addValue("jobId", UuidBytes.toBytes(jobId))
+                .addValue("tenantId", UuidBytes.toBytes(tenantId));
+    }
+
+    private static Set<Order.OrderStatus> parseStatuses(String statuses) {
+        Set<Order.OrderStatus> parsed = EnumSet.noneOf(Order.OrderStatus.class);
+        if (StringUtils.hasText(statuses)) {
+            Arrays.stream(statuses.split(",")).map(Order.OrderStatus::valueOf).forEach(parsed::add);
+        }
+        return parsed;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.CacheConfig;
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Deletes orders bottom-up instead of through ON DELETE CASCADE: tracking
+ * events, tracking, fulfillments and items go first in chunks of
+ * {@code row-chunk-size}, each in its own short transaction, and the orders
+ * last. Locks stay short and undo logs small however many children an order
+ * has. A failure part-way leaves the orders in place with fewer children, so
+ * the deletion can simply be repeated.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderPurger {
+
+    private record ChildTable(String selectIds, String deleteByIds) {
+    }
+
+    // Deepest first, so no delete cascades further down
+    private static final List<ChildTable> CHILD_TABLES = List.of(
+            new ChildTable(
+                    "SELECT te.tracking_event_id FROM tracking_events te " +
+                    "JOIN tracking t ON t.tracking_id = te.tracking_id " +
+                    "JOIN fulfillments f ON f.fulfillment_id = t.fulfillment_id " +
+                    "WHERE f.order_id IN (:orderIds) LIMIT :limit",
+                    "DELETE FROM tracking_events WHERE tracking_event_id IN (:ids)"),
+            new ChildTable(
+                    "SELECT t.tracking_id FROM tracking t JOIN fulfillments f ON f.fulfillment_id = t.fulfillment_id " +
+                    "WHERE f.order_id IN (:orderIds) LIMIT :limit",
+                    "DELETE FROM tracking WHERE tracking_id IN (:ids)"),
+            new ChildTable(
+                    "SELECT fulfillment_id FROM fulfillments WHERE order_id IN (:orderIds) LIMIT :limit",
+                    "DELETE FROM fulfillments WHERE fulfillment_id IN (:ids)"),
+            new ChildTable(
+                    "SELECT order_item_id FROM order_items WHERE order_id IN (:orderIds) LIMIT :limit",
+                    "DELETE FROM order_items WHERE order_item_id IN (:ids)"));
+
+    private static final String DELETE_ORDERS = "DELETE FROM orders WHERE order_id IN (:orderIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final PurgeProperties properties;
+
+    /**
+     * Deletes the orders of the given ORDER_DELETED events with all their
+     * children, on the shard the caller is routed to. The events are
+     * published in the transaction that deletes the orders.
+     *
+     * @return rows deleted across all tables, orders included
+     */
+    public long deleteOrders(List<OrderChangeEvent> deletions) {
+        return deleteOrders(deletions, rows -> { });
+    }
+
+    /**
+     * As {@link #deleteOrders(List)}, calling {@code onOrdersDeleted} with
+     * the rows deleted inside the transaction that deletes the orders, so
+     * the caller can record the deletion atomically with it
+     */
+    public long deleteOrders(List<OrderChangeEvent> deletions, LongConsumer onOrdersDeleted) {
+        if (deletions.isEmpty()) {
+            return 0;
+        }
+        int rowChunkSize = properties.getRowChunkSize();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("orderIds", deletions.stream().map(deletion -> UuidBytes.toBytes(deletion.orderId())).toList())
+                .addValue("limit", rowChunkSize);
+
+        long rows = 0;
+        for (ChildTable table : CHILD_TABLES) {
+            while (true) {
+                List<byte[]> ids = jdbcTemplate.query(table.selectIds(), params, (rs, rowNum) -> rs.getBytes(1));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                rows += transactionTemplate.execute(status ->
+                        jdbcTemplate.update(table.deleteByIds(), Map.of("ids", ids)));
+                if (ids.size() < rowChunkSize) {
+                    break;
+                }
+            }
+        }
+
+        CacheManager caches = cacheManager.getIfAvailable();
+        Cache cache = caches != null ? caches.getCache(CacheConfig.ORDER_DETAILS) : null;
+        long childRows = rows;
+        return childRows + transactionTemplate.execute(status -> {
+            int deleted = jdbcTemplate.update(DELETE_ORDERS, params);
+            for (OrderChangeEvent deletion : deletions) {
+                eventPublisher.publishEvent(deletion);
+                if (cache != null) {
+                    cache.evict(deletion.orderId());
+                }
+            }
+            onOrdersDeleted.accept(childRows + deleted);
+            return deleted;
+        });
+    }
+}
@@ -1,27 +1,70 @@
 package com.fenix.commerce.service;
 
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.FieldSet;
 import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.order.CustomerOrderSearchRequest;
+import com.fenix.commerce.dto.order.ExternalOrderRef;
 import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.coalescing.Coalesced;
+import com.fenix.commerce.config.CacheConfig;
+import com.fenix.commerce.dto.order.OrderCursor;
+import com.fenix.commerce.dto.order.OrderFields;
+import com.fenix.commerce.dto.order.OrderFullResponse;
+import com.fenix.commerce.dto.order.OrderLookupRequest;
+import com.fenix.commerce.dto.order.OrderLookupResponse;
 import com.fenix.commerce.dto.order.OrderPatchRequest;
 import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.dto.tracking.TrackingEventResponse;
+import com.fenix.commerce.entity.ArchivedOrder;
+import com.fenix.commerce.entity.Fulfillment;
 import com.fenix.commerce.entity.Order;
 import com.fenix.commerce.entity.Store;
 import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.entity.Tracking;
+import com.fenix.commerce.entity.TrackingEvent;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.exception.BusinessLogicException;
 import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.repository.ArchivedOrderRepository;
+import com.fenix.commerce.repository.FulfillmentRepository;
 import com.fenix.commerce.repository.OrderRepository;
 import com.fenix.commerce.repository.StoreRepository;
 import com.fenix.commerce.repository.TenantRepository;
+import com.fenix.commerce.repository.TrackingEventRepository;
+import com.fenix.commerce.repository.TrackingRepository;
+import com.fenix.commerce.sharding.ShardKey;
+import com.fenix.commerce.util.EmailHash;
+import com.fenix.commerce.util.ExternalIds;
+import com.fenix.commerce.util.StreamedPages;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer for Order operations
@@ -35,20 +78,32 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final TenantRepository tenantRepository;
     private final StoreRepository storeRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final FulfillmentRepository fulfillmentRepository;
+    private final TrackingRepository trackingRepository;
+    private final TrackingEventRepository trackingEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final OrderPurger orderPurger;
+
+    /** Events returned per tracking by {@link #getOrderFull} */
+    static final int RECENT_EVENTS_PER_TRACKING = 10;
+
+    /** Keys per IN list in {@link #lookupOrders} */
+    static final int LOOKUP_CHUNK_SIZE = 500;
 
 
 @Transactional
-public OrderResponse createOrder(OrderCreateRequest request) {
+@CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#result.id")
+public OrderResponse createOrder(@ShardKey OrderCreateRequest request) {
     log.info("Creating/upserting order with external ID: {}", request.getExternalOrderId());
 
     // 1️⃣ Validate tenant exists
-    System.out.print(" tenant : "+tenantRepository.findById(request.getOrgId()));
     Tenant tenant = tenantRepository.findById(request.getOrgId())
             .orElseThrow(() -> ResourceNotFoundException.tenant(request.getOrgId()));
 
 
     // 2️⃣ Validate store exists and belongs to tenant
-    System.out.print(" store : "+storeRepository.findById(request.getWebsiteId()));
     Store store = storeRepository.findById(request.getWebsiteId())
             .orElseThrow(() -> ResourceNotFoundException.store(request.getWebsiteId()));
 
@@ -57,9 +112,9 @@ public OrderResponse createOrder(OrderCreateRequest request) {
         throw new IllegalArgumentException("Store does not belong to the specified organization");
     }
 
-    // 3️⃣ Check if order exists (upsert)
+    // 3️⃣ Check if order exists (upsert), locked so concurrent fulfillment counter writes are not lost
     Order order = orderRepository
-            .findByTenantTenantIdAndStoreStoreIdAndExternalOrderId(
+            .findByStoreAndExternalOrderIdForUpdate(
                     request.getOrgId(), request.getWebsiteId(), request.getExternalOrderId())
             .orElse(Order.builder()
                     .tenant(tenant)
@@ -82,6 +137,7 @@ public OrderResponse createOrder(OrderCreateRequest request) {
     // 5️⃣ Save order
     order = orderRepository.save(order);
     log.info("Successfully saved order with ID: {}", order.getOrderId());
+    eventPublisher.publishEvent(OrderChangeEvent.of(OrderChangeEvent.Type.ORDER_UPSERTED, order));
 
     return mapToResponse(order);
 }
@@ -92,17 +148,80 @@ public OrderResponse createOrder(OrderCreateRequest request) {
         return mapToPagedResponse(orderPage);
     }
 
+    /**
+     * {@link #getAllOrders} reading only the requested fields
+     */
+    public PagedResponse<Map<String, Object>> getAllOrders(FieldSet fields, Pageable pageable) {
+        Page<Tuple> rows = orderRepository.searchOrderFields(fields.selection(OrderFields.CATALOG),
+                null, null, null, null, null, null, null, pageable);
+        return mapToPagedRows(rows, fields);
+    }
+
 
-    public OrderResponse getOrderById(UUID orderId) {
+    @Coalesced
+    public OrderResponse getOrderById(@ShardKey(ShardKey.Type.ORDER) UUID orderId) {
         log.debug("Fetching order with ID: {}", orderId);
-        Order order = orderRepository.findById(orderId)
+        return orderRepository.findById(orderId)
+                .map(this::mapToResponse)
+                // Old closed/cancelled orders live in the archive tier
+                .or(() -> archivedOrderRepository.findById(orderId).map(this::mapArchivedToResponse))
                 .orElseThrow(() -> ResourceNotFoundException.order(orderId));
-        return mapToResponse(order);
+    }
+
+
+    /**
+     * The order with its fulfillments, their tracking and each tracking's most
+     * recent events, in at most four set-based queries however many
+     * fulfillments and tracking numbers the order has. Archived orders are
+     * returned without their children.
+     */
+    @Coalesced
+    @Cacheable(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    public OrderFullResponse getOrderFull(@ShardKey(ShardKey.Type.ORDER) UUID orderId) {
+        log.debug("Fetching full order with ID: {}", orderId);
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            return archivedOrderRepository.findById(orderId)
+                    .map(archived -> OrderFullResponse.builder()
+                            .order(mapArchivedToResponse(archived))
+                            .fulfillments(List.of())
+                            .build())
+                    .orElseThrow(() -> ResourceNotFoundException.order(orderId));
+        }
+
+        List<Fulfillment> fulfillments = fulfillmentRepository.findByOrderOrderIdOrderByCreatedAt(orderId);
+        List<Tracking> trackings = fulfillments.isEmpty() ? List.of()
+                : trackingRepository.findByFulfillmentIds(
+                        fulfillments.stream().map(Fulfillment::getFulfillmentId).toList());
+        List<TrackingEvent> events = trackings.isEmpty() ? List.of()
+                : trackingEventRepository.findRecentByTrackingIds(order.getTenant().getTenantId(),
+                        trackings.stream().map(Tracking::getTrackingId).toList(), RECENT_EVENTS_PER_TRACKING);
+
+        // Stitch the levels together by id; the associations are never traversed
+        Map<UUID, List<TrackingEventResponse>> eventsByTracking = events.stream()
+                .collect(Collectors.groupingBy(event -> event.getTracking().getTrackingId(),
+                        Collectors.mapping(TrackingService::mapEventToResponse, Collectors.toList())));
+        Map<UUID, List<OrderFullResponse.TrackingDetails>> trackingByFulfillment = trackings.stream()
+                .collect(Collectors.groupingBy(tracking -> tracking.getFulfillment().getFulfillmentId(),
+                        Collectors.mapping(tracking -> OrderFullResponse.TrackingDetails.builder()
+                                .tracking(TrackingService.mapToResponse(tracking))
+                                .recentEvents(eventsByTracking.getOrDefault(tracking.getTrackingId(), List.of()))
+                                .build(), Collectors.toList())));
+
+        return OrderFullResponse.builder()
+                .order(mapToResponse(order))
+                .fulfillments(fulfillments.stream()
+                        .map(fulfillment -> OrderFullResponse.FulfillmentDetails.builder()
+                                .fulfillment(FulfillmentService.mapToResponse(fulfillment))
+                                .tracking(trackingByFulfillment.getOrDefault(fulfillment.getFulfillmentId(), List.of()))
+                                .build())
+                        .toList())
+                .build();
     }
 
 
     public PagedResponse<OrderResponse> searchOrders(
-            UUID orgId,
+            @ShardKey UUID orgId,
             UUID websiteId,
             Order.OrderStatus status,
             Order.FinancialStatus financialStatus,
@@ -120,8 +239,43 @@ public OrderResponse createOrder(OrderCreateRequest request) {
     }
 
 
+    /**
+     * {@link #searchOrders} handing each order to {@code rows} as it is read
+     * instead of building the page; loaded orders are detached as they go, so
+     * memory stays flat however large the page is
+     *
+     * @return total number of matching orders
+     */
+    public long streamOrders(
+            @ShardKey UUID orgId,
+            UUID websiteId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable,
+            Consumer<OrderResponse> rows) {
+
+        log.debug("Streaming orders for org: {}, store: {}", orgId, websiteId);
+
+        long written = 0;
+        try (Stream<Order> orders = orderRepository.streamOrders(
+                orgId, websiteId, status, financialStatus, fulfillmentStatus, from, to, pageable)) {
+            for (Iterator<Order> it = orders.iterator(); it.hasNext(); written++) {
+                Order order = it.next();
+                rows.accept(mapToResponse(order));
+                entityManager.detach(order);
+            }
+        }
+        return StreamedPages.total(pageable, written, () -> orderRepository.countOrders(
+                orgId, websiteId, status, financialStatus, fulfillmentStatus, from, to));
+    }
+
+
+    @Coalesced
     public PagedResponse<OrderResponse> searchByExternalIds(
-            UUID orgId,
+            @ShardKey UUID orgId,
             UUID websiteId,
             String externalOrderId,
             String externalOrderNumber,
@@ -136,44 +290,195 @@ public OrderResponse createOrder(OrderCreateRequest request) {
     }
 
 
+    /**
+     * {@link #searchOrders} selecting only the requested fields
+     */
+    public PagedResponse<Map<String, Object>> searchOrders(
+            FieldSet fields,
+            @ShardKey UUID orgId,
+            UUID websiteId,
+            Order.OrderStatus status,
+            Order.FinancialStatus financialStatus,
+            Order.FulfillmentOverallStatus fulfillmentStatus,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable) {
+
+        log.debug("Searching order fields {} for org: {}, store: {}", fields, orgId, websiteId);
+
+        Page<Tuple> rows = orderRepository.searchOrderFields(fields.selection(OrderFields.CATALOG),
+                orgId, websiteId, status, financialStatus, fulfillmentStatus, from, to, pageable);
+
+        return mapToPagedRows(rows, fields);
+    }
+
+
+    /**
+     * {@link #searchByExternalIds} selecting only the requested fields
+     */
+    @Coalesced
+    public PagedResponse<Map<String, Object>> searchByExternalIds(
+            FieldSet fields,
+            @ShardKey UUID orgId,
+            UUID websiteId,
+            String externalOrderId,
+            String externalOrderNumber,
+            Pageable pageable) {
+
+        log.debug("Searching order fields {} by external IDs", fields);
+
+        Page<Tuple> rows = orderRepository.searchByExternalIdFields(fields.selection(OrderFields.CATALOG),
+                orgId, websiteId, externalOrderId, externalOrderNumber, pageable);
+
+        return mapToPagedRows(rows, fields);
+    }
+
+
+    /**
+     * Orders of one customer, newest first, keyset-paged so every page is a
+     * single index range scan regardless of how deep the caller pages
+     */
+    public CursorPagedResponse<OrderResponse> searchByCustomerEmail(@ShardKey CustomerOrderSearchRequest request) {
+        log.debug("Searching orders by customer email for org: {}", request.getOrgId());
+
+        byte[] emailHash = EmailHash.of(request.getEmail());
+        Limit limit = Limit.of(request.getSize() + 1);
+        List<Order> orders;
+        if (request.getCursor() == null) {
+            orders = orderRepository.findCustomerOrders(request.getOrgId(), emailHash, limit);
+        } else {
+            OrderCursor cursor = OrderCursor.decode(request.getCursor());
+            orders = cursor.orderUpdatedAt() != null
+                    ? orderRepository.findCustomerOrdersAfter(
+                            request.getOrgId(), emailHash, cursor.orderUpdatedAt(), cursor.orderId(), limit)
+                    : orderRepository.findUndatedCustomerOrdersAfter(
+                            request.getOrgId(), emailHash, cursor.orderId(), limit);
+        }
+
+        boolean hasNext = orders.size() > request.getSize();
+        if (hasNext) {
+            orders = orders.subList(0, request.getSize());
+        }
+        Order last = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+        return CursorPagedResponse.<OrderResponse>builder()
+                .data(orders.stream().map(this::mapToResponse).toList())
+                .size(request.getSize())
+                .nextCursor(hasNext ? new OrderCursor(last.getOrderUpdatedAt(), last.getOrderId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+
+    /**
+     * Resolves up to {@link OrderLookupRequest#MAX_KEYS} orders of one
+     * organization in a single transaction, with chunked IN queries against
+     * the primary key and uk_order_external (one query per store and chunk).
+     * Order ids missing from the hot tables are also looked up in the archive.
+     */
+    public OrderLookupResponse lookupOrders(@ShardKey OrderLookupRequest request) {
+        List<UUID> orderIds = request.getOrderIds().stream().distinct().toList();
+        // Refs that differ only in case or accents name the same order
+        Map<ExternalOrderRef, ExternalOrderRef> distinctExternalOrders = new LinkedHashMap<>();
+        request.getExternalOrders().forEach(ref -> distinctExternalOrders.putIfAbsent(matchKey(ref), ref));
+        List<ExternalOrderRef> externalOrders = List.copyOf(distinctExternalOrders.values());
+        if (orderIds.size() + externalOrders.size() > OrderLookupRequest.MAX_KEYS) {
+            throw new BusinessLogicException("At most " + OrderLookupRequest.MAX_KEYS + " orders per lookup");
+        }
+        log.debug("Looking up {} order IDs and {} external orders for org: {}",
+                orderIds.size(), externalOrders.size(), request.getOrgId());
+
+        Map<UUID, OrderResponse> byId = new HashMap<>();
+        for (List<UUID> chunk : chunks(orderIds)) {
+            orderRepository.findByTenantAndOrderIds(request.getOrgId(), chunk)
+                    .forEach(order -> byId.put(order.getOrderId(), mapToResponse(order)));
+        }
+        List<UUID> notInHotTables = orderIds.stream().filter(id -> !byId.containsKey(id)).toList();
+        for (List<UUID> chunk : chunks(notInHotTables)) {
+            archivedOrderRepository.findByTenantIdAndOrderIdIn(request.getOrgId(), chunk)
+                    .forEach(order -> byId.put(order.getOrderId(), mapArchivedToResponse(order)));
+        }
+
+        Map<ExternalOrderRef, OrderResponse> byExternal = new HashMap<>();
+        Map<UUID, List<String>> externalIdsByStore = externalOrders.stream()
+                .collect(Collectors.groupingBy(ExternalOrderRef::getWebsiteId,
+                        Collectors.mapping(ExternalOrderRef::getExternalOrderId,
+                                Collectors.toList())));
+        externalIdsByStore.forEach((storeId, externalIds) -> {
+            for (List<String> chunk : chunks(externalIds)) {
+                orderRepository.findByStoreAndExternalOrderIds(request.getOrgId(), storeId, chunk)
+                        .forEach(order -> byExternal.put(
+                                matchKey(new ExternalOrderRef(storeId, order.getExternalOrderId())),
+                                mapToResponse(order)));
+            }
+        });
+
+        List<OrderResponse> found = new ArrayList<>(byId.size() + byExternal.size());
+        orderIds.stream().map(byId::get).filter(Objects::nonNull).forEach(found::add);
+        externalOrders.stream().map(ref -> byExternal.get(matchKey(ref))).filter(Objects::nonNull).forEach(found::add);
+        return OrderLookupResponse.builder()
+                .orders(found)
+                .notFoundOrderIds(orderIds.stream().filter(id -> !byId.containsKey(id)).toList())
+                .notFoundExternalOrders(externalOrders.stream()
+                        .filter(ref -> !byExternal.containsKey(matchKey(ref)))
+                        .toList())
+                .build();
+    }
+
+    /**
+     * uk_order_external compares external ids under the column collation
+     */
+    private static ExternalOrderRef matchKey(ExternalOrderRef ref) {
+        return new ExternalOrderRef(ref.getWebsiteId(), ExternalIds.key(ref.getExternalOrderId()));
+    }
+
+
     @Transactional
-    public OrderResponse updateOrder(UUID orderId, OrderCreateRequest request) {
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    public OrderResponse updateOrder(@ShardKey(ShardKey.Type.ORDER) UUID orderId, OrderCreateRequest request) {
         log.info("Updating order with ID: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> ResourceNotFoundException.order(orderId));
 
         updateOrderFields(order, request);
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangeEvent.of(OrderChangeEvent.Type.ORDER_UPDATED, order));
 
         return mapToResponse(order);
     }
 
 
     @Transactional
-    public OrderResponse patchOrder(UUID orderId, OrderPatchRequest request) {
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    public OrderResponse patchOrder(@ShardKey(ShardKey.Type.ORDER) UUID orderId, OrderPatchRequest request) {
         log.info("Patching order with ID: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> ResourceNotFoundException.order(orderId));
 
         patchOrderFields(order, request);
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangeEvent.of(OrderChangeEvent.Type.ORDER_UPDATED, order));
 
         return mapToResponse(order);
     }
 
 
-    @Transactional
-    public void deleteOrder(UUID orderId) {
+    /**
+     * Deletes the order and everything below it in short chunked transactions
+     * rather than one cascading delete, so an order with many fulfillments
+     * and tracking events does not hold long locks.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    public void deleteOrder(@ShardKey(ShardKey.Type.ORDER) UUID orderId) {
         log.info("Deleting order with ID: {}", orderId);
 
-        if (!orderRepository.existsById(orderId)) {
-            throw ResourceNotFoundException.order(orderId);
-        }
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> ResourceNotFoundException.order(orderId));
 
-        orderRepository.deleteById(orderId);
-        log.info("Successfully deleted order with ID: {}", orderId);
+        long rows = orderPurger.deleteOrders(List.of(OrderChangeEvent.of(OrderChangeEvent.Type.ORDER_DELETED, order)));
+        log.info("Successfully deleted order with ID: {} ({} rows)", orderId, rows);
     }
 
     // Helper methods
@@ -242,6 +547,35 @@ public OrderResponse createOrder(OrderCreateRequest request) {
                 .build();
     }
 
+    private OrderResponse mapArchivedToResponse(ArchivedOrder order) {
+        return OrderResponse.builder()
+                .id(order.getOrderId())
+                .orgId(order.getTenantId())
+                .websiteId(order.getStoreId())
+                .externalOrderId(order.getExternalOrderId())
+                .externalOrderNumber(order.getExternalOrderNumber())
+                .status(order.getOrderStatus())
+                .financialStatus(order.getFinancialStatus())
+                .fulfillmentStatus(order.getFulfillmentStatus())
+                .customerEmail(order.getCustomerEmail())
+                .orderTotal(order.getOrderTotalAmount())
+                .currency(order.getCurrency())
+                .orderCreatedAt(order.getOrderCreatedAt())
+                .orderUpdatedAt(order.getOrderUpdatedAt())
+                .ingestedAt(order.getIngestedAt())
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> keys) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(keys.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, keys.size())));
+        }
+        return chunks;
+    }
+
     private PagedResponse<OrderResponse> mapToPagedResponse(Page<Order> orderPage) {
         return PagedResponse.<OrderResponse>builder()
                 .data(orderPage.getContent().stream()
@@ -254,4 +588,15 @@ public OrderResponse createOrder(OrderCreateRequest request) {
                 .hasNext(orderPage.hasNext())
                 .build();
     }
+
+    private static PagedResponse<Map<String, Object>> mapToPagedRows(Page<Tuple> rows, FieldSet fields) {
+        return PagedResponse.<Map<String, Object>>builder()
+                .data(rows.getContent().stream().map(fields::toRow).toList())
+                .page(rows.getNumber())
+                .size(rows.getSize())
+                .totalElements(rows.getTotalElements())
+                .totalPages(rows.getTotalPages())
+                .hasNext(rows.hasNext())
+                .build();
+    }
 }
@@ -0,0 +1,128 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.ArchiveProperties;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the archive tables' monthly RANGE COLUMNS(archived_at) partitions
+ * rotating: splits the catch-all {@code p_future} partition so the current
+ * month and the configured number of months ahead always have their own
+ * partition, and drops whole partitions once they pass the retention window.
+ * Only the holder of the {@value #JOB_NAME} lease rotates, so instances never
+ * reorganise the same table at once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    public static final String JOB_NAME = "archive-partitions";
+
+    private static final List<String> PARTITIONED_TABLES = List.of(
+            "orders_archive", "order_items_archive", "fulfillments_archive", "tracking_archive",
+            "tracking_events_archive");
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArchiveProperties properties;
+    private final ShardRouter shardRouter;
+    private final JobCoordinator jobCoordinator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (properties.isEnabled()) {
+            jobCoordinator.runAsLeader(JOB_NAME, this::rotatePartitions);
+        }
+    }
+
+    @Scheduled(cron = "${fenix.archive.partitions.cron:0 0 1 * * *}")
+    public void scheduledRotation() {
+        if (properties.isEnabled()) {
+            jobCoordinator.runAsLeader(JOB_NAME, this::rotatePartitions);
+        }
+    }
+
+    public void rotatePartitions() {
+        shardRouter.forEachShard(this::rotateShardPartitions);
+    }
+
+    private void rotateShardPartitions() {
+        YearMonth current = YearMonth.now();
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                List<String> existing = partitionNames(table);
+                createAhead(table, existing, current);
+                dropExpired(table, existing, current);
+            } catch (RuntimeException ex) {
+                log.error("Partition maintenance failed for table {}", table, ex);
+            }
+        }
+    }
+
+    private void createAhead(String table, List<String> existing, YearMonth current) {
+        StringBuilder partitions = new StringBuilder();
+        for (int i = 0; i <= properties.getPartitions().getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = month.format(PARTITION_NAME);
+            if (!existing.contains(name) && !coveredByLaterPartition(existing, month)) {
+                partitions.append("PARTITION ").append(name)
+                        .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+            }
+        }
+        if (partitions.isEmpty()) {
+            return;
+        }
+        // p_future is normally empty, so reorganizing it is a metadata-only change
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                + partitions + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+        log.info("Added monthly partitions to {}: {}", table, partitions);
+    }
+
+    private void dropExpired(String table, List<String> existing, YearMonth current) {
+        int retentionMonths = properties.getPartitions().getRetentionMonths();
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> expired = existing.stream()
+                .filter(name -> !name.equals(FUTURE_PARTITION))
+                .filter(name -> YearMonth.parse(name, PARTITION_NAME).isBefore(oldestKept))
+                .toList();
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+            log.info("Dropped expired partitions from {}: {}", table, expired);
+        }
+    }
+
+    /**
+     * Partitions must be added in ascending order, so a month older than an
+     * existing monthly partition cannot get its own partition any more.
+     */
+    private boolean coveredByLaterPartition(List<String> existing, YearMonth month) {
+        return existing.stream()
+                .filter(name -> !name.equals(FUTURE_PARTITION))
+                .anyMatch(name -> YearMonth.parse(name, PARTITION_NAME).isAfter(month));
+    }
+
+    private List<String> partitionNames(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+                "ORDER BY partition_ordinal_position",
+                String.class, table);
+    }
+}
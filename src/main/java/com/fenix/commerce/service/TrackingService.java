@@ -0,0 +1,94 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.UpdatedAtCursor;
+import com.fenix.commerce.dto.tracking.TrackingEventResponse;
+import com.fenix.commerce.dto.tracking.TrackingResponse;
+import com.fenix.commerce.entity.Tracking;
+import com.fenix.commerce.entity.TrackingEvent;
+import com.fenix.commerce.repository.TrackingRepository;
+import com.fenix.commerce.sharding.ShardKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service layer for Tracking operations
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TrackingService {
+
+    private final TrackingRepository trackingRepository;
+
+    /**
+     * Search tracking across all fulfillments of a tenant, keyset-paged newest first
+     */
+    public CursorPagedResponse<TrackingResponse> searchTenantTracking(
+            @ShardKey UUID orgId,
+            Tracking.TrackingStatus status,
+            String carrier,
+            Instant from,
+            Instant to,
+            String cursor,
+            int size) {
+
+        log.debug("Searching tracking for org: {}", orgId);
+
+        UpdatedAtCursor after = UpdatedAtCursor.decode(cursor);
+        List<Tracking> trackings = trackingRepository.searchTenantTracking(
+                orgId, status, carrier, from, to,
+                after != null ? after.updatedAt() : null, after != null ? after.id() : null,
+                Limit.of(size + 1));
+
+        boolean hasNext = trackings.size() > size;
+        if (hasNext) {
+            trackings = trackings.subList(0, size);
+        }
+        Tracking last = hasNext ? trackings.get(size - 1) : null;
+        return CursorPagedResponse.<TrackingResponse>builder()
+                .data(trackings.stream().map(TrackingService::mapToResponse).toList())
+                .size(size)
+                .nextCursor(hasNext ? new UpdatedAtCursor(last.getUpdatedAt(), last.getTrackingId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    static TrackingResponse mapToResponse(Tracking tracking) {
+        return TrackingResponse.builder()
+                .id(tracking.getTrackingId())
+                .fulfillmentId(tracking.getFulfillment().getFulfillmentId())
+                .trackingNumber(tracking.getTrackingNumber())
+                .trackingUrl(tracking.getTrackingUrl())
+                .carrier(tracking.getCarrier())
+                .status(tracking.getTrackingStatus())
+                .isPrimary(tracking.getIsPrimary())
+                .lastEventAt(tracking.getLastEventAt())
+                .createdAt(tracking.getCreatedAt())
+                .updatedAt(tracking.getUpdatedAt())
+                .build();
+    }
+
+    static TrackingEventResponse mapEventToResponse(TrackingEvent event) {
+        return TrackingEventResponse.builder()
+                .id(event.getTrackingEventId())
+                .trackingId(event.getTracking().getTrackingId())
+                .eventTime(event.getEventTime())
+                .eventCode(event.getEventCode())
+                .description(event.getEventDescription())
+                .city(event.getEventCity())
+                .state(event.getEventState())
+                .country(event.getEventCountry())
+                .zip(event.getEventZip())
+                .source(event.getSource())
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.fenix.commerce.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread's database work is routed to. Unset
+ * means the default shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT_SHARD.get();
+    }
+
+    /**
+     * @return the previously routed shard, to be passed to {@link #restore(String)}
+     */
+    public static String set(String shard) {
+        String previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        return previous;
+    }
+
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} routed to {@code shard}, restoring the previous shard
+     * afterwards. A null shard runs the work with the current routing.
+     */
+    public static <T> T callOn(String shard, Supplier<T> work) {
+        if (shard == null) {
+            return work.get();
+        }
+        String previous = set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runOn(String shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spreads tenants over several databases, routed through the tenant-to-shard
+ * directory. Enabled with {@code fenix.datasource.shards.enabled=true};
+ * read replica routing is switched off while sharding is on.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardProperties.class)
+@ConditionalOnProperty(prefix = "fenix.datasource.shards", name = "enabled", havingValue = "true")
+@Slf4j
+public class ShardDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource defaultShardDataSource(DataSourceProperties dataSourceProperties,
+                                                   ShardProperties properties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(properties.getDefaultShard());
+        return dataSource;
+    }
+
+    @Bean
+    public TenantShardRoutingDataSource tenantShardRoutingDataSource(HikariDataSource defaultShardDataSource,
+                                                                     ShardProperties properties) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(properties.getDefaultShard(), defaultShardDataSource);
+        for (ShardProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize() != null
+                    ? shard.getMaximumPoolSize() : defaultShardDataSource.getMaximumPoolSize());
+            dataSource.setAutoCommit(defaultShardDataSource.isAutoCommit());
+            dataSource.setDataSourceProperties(defaultShardDataSource.getDataSourceProperties());
+            shards.put(shard.getName(), dataSource);
+        }
+        log.info("Routing tenants over shards {}", shards.keySet());
+        return new TenantShardRoutingDataSource(properties.getDefaultShard(), shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(TenantShardRoutingDataSource tenantShardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(tenantShardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(HikariDataSource defaultShardDataSource, ShardProperties properties) {
+        return new ShardDirectory(new JdbcTemplate(defaultShardDataSource),
+                defaultShardTransactions(defaultShardDataSource), properties.getDefaultShard());
+    }
+
+    @Bean
+    public ShardResolver shardResolver(ShardDirectory shardDirectory,
+                                       TenantShardRoutingDataSource tenantShardRoutingDataSource,
+                                       ShardProperties properties) {
+        return new ShardResolver(shardDirectory, tenantShardRoutingDataSource, properties.getOrderCacheSize());
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardResolver shardResolver) {
+        return new ShardRoutingAspect(shardResolver);
+    }
+
+    @Bean
+    public TenantShardMover tenantShardMover(ShardDirectory shardDirectory,
+                                             TenantShardRoutingDataSource tenantShardRoutingDataSource,
+                                             ShardProperties properties) {
+        return new TenantShardMover(shardDirectory, tenantShardRoutingDataSource, properties);
+    }
+
+    @Bean
+    public TenantShardMoves tenantShardMoves(HikariDataSource defaultShardDataSource, ShardDirectory shardDirectory,
+                                             TenantShardMover tenantShardMover,
+                                             TenantShardRoutingDataSource tenantShardRoutingDataSource,
+                                             ShardProperties properties, JobCoordinator jobCoordinator) {
+        return new TenantShardMoves(new JdbcTemplate(defaultShardDataSource),
+                defaultShardTransactions(defaultShardDataSource), shardDirectory, tenantShardMover,
+                tenantShardRoutingDataSource, properties, jobCoordinator);
+    }
+
+    /**
+     * Transactions on the default shard's own pool, for the directory and
+     * move tables that are never routed by tenant
+     */
+    private static TransactionTemplate defaultShardTransactions(DataSource defaultShardDataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(defaultShardDataSource));
+    }
+
+    /**
+     * Applies the same migrations to every shard, not just the default one
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(TenantShardRoutingDataSource tenantShardRoutingDataSource) {
+        return flyway -> {
+            for (String shard : tenantShardRoutingDataSource.getShardNames()) {
+                log.info("Migrating shard {}", shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(tenantShardRoutingDataSource.getShard(shard))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
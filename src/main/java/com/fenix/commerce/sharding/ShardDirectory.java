@@ -0,0 +1,83 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.util.UuidBytes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tenant-to-shard directory kept in the {@code tenant_shard} table of the
+ * default shard and cached in memory. Tenants without a row live on the
+ * default shard. Writes run in transactions of their own, since the prod
+ * pool does not auto-commit.
+ */
+@Slf4j
+public class ShardDirectory {
+
+    public enum Status {
+        ACTIVE,
+        /** Being copied to another shard: reads are served, writes are rejected */
+        MOVING
+    }
+
+    public record Assignment(String shard, Status status) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Assignment defaultAssignment;
+    private volatile Map<UUID, Assignment> assignments = new ConcurrentHashMap<>();
+
+    public ShardDirectory(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, String defaultShard) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultAssignment = new Assignment(defaultShard, Status.ACTIVE);
+    }
+
+    public Assignment lookup(UUID tenantId) {
+        Map<UUID, Assignment> current = assignments;
+        Assignment assignment = current.get(tenantId);
+        if (assignment == null) {
+            // Unassigned tenants are cached too, the next refresh drops them again
+            assignment = load(tenantId);
+            current.putIfAbsent(tenantId, assignment);
+        }
+        return assignment;
+    }
+
+    public void assign(UUID tenantId, String shard, Status status) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                "INSERT INTO tenant_shard (tenant_id, shard_name, status) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE shard_name = VALUES(shard_name), status = VALUES(status)",
+                UuidBytes.toBytes(tenantId), shard, status.name()));
+        assignments.put(tenantId, new Assignment(shard, status));
+        log.info("Tenant {} assigned to shard {} ({})", tenantId, shard, status);
+    }
+
+    @Scheduled(fixedDelayString = "${fenix.datasource.shards.directory-refresh-interval:PT5S}")
+    public void refresh() {
+        Map<UUID, Assignment> loaded = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT tenant_id, shard_name, status FROM tenant_shard", rs -> {
+            loaded.put(UuidBytes.fromBytes(rs.getBytes(1)),
+                    new Assignment(rs.getString(2), Status.valueOf(rs.getString(3))));
+        });
+        assignments = loaded;
+    }
+
+    /**
+     * Reads the tenant's assignment from the table, bypassing the cache
+     */
+    public Assignment load(UUID tenantId) {
+        List<Assignment> rows = jdbcTemplate.query(
+                "SELECT shard_name, status FROM tenant_shard WHERE tenant_id = ?",
+                (rs, rowNum) -> new Assignment(rs.getString(1), Status.valueOf(rs.getString(2))),
+                (Object) UuidBytes.toBytes(tenantId));
+        return rows.isEmpty() ? defaultAssignment : rows.get(0);
+    }
+}
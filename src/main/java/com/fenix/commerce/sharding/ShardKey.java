@@ -0,0 +1,27 @@
+package com.fenix.commerce.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the service method parameter that decides which shard the call runs
+ * on. The parameter is either a {@link java.util.UUID} or a
+ * {@link TenantScoped} request.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+
+    Type value() default Type.TENANT;
+
+    enum Type {
+        /** The parameter is a tenant (orgId) */
+        TENANT,
+        /** The parameter is an order id; the order's tenant is resolved first */
+        ORDER
+    }
+}
@@ -0,0 +1,55 @@
+package com.fenix.commerce.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for spreading tenants over several MySQL databases. The database
+ * configured under {@code spring.datasource} is the default shard and also
+ * holds the tenant-to-shard directory.
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.datasource.shards")
+public class ShardProperties {
+
+    private boolean enabled = false;
+
+    /** Name of the shard backed by spring.datasource; tenants missing from the directory live here */
+    private String defaultShard = "shard0";
+
+    private List<Shard> shards = new ArrayList<>();
+
+    private Duration directoryRefreshInterval = Duration.ofSeconds(5);
+
+    /** How long a tenant move waits after freezing writes so every node has seen the freeze */
+    private Duration moveDrainTime = Duration.ofSeconds(15);
+
+    /** Rows copied per batch when moving a tenant between shards */
+    private int moveBatchSize = 1000;
+
+    /** How often the instance holding the tenant-shard-moves lease looks for requested moves */
+    private Duration movePollInterval = Duration.ofSeconds(5);
+
+    /**
+     * A running move whose progress is older than this is taken over, e.g.
+     * after its instance crashed; must exceed move-drain-time
+     */
+    private Duration moveStaleAfter = Duration.ofMinutes(2);
+
+    /** Order id to tenant mappings remembered for routing order-scoped calls */
+    private int orderCacheSize = 100_000;
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        /** Defaults to the default shard pool's size */
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,63 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.util.UuidBytes;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the shard for a tenant, or for an order by first finding the
+ * order's tenant. Order lookups probe every shard by primary key once and
+ * then remember the owning tenant.
+ */
+public class ShardResolver {
+
+    private static final String ORDER_TENANT =
+            "SELECT tenant_id FROM orders WHERE order_id = ? " +
+            "UNION ALL SELECT tenant_id FROM orders_archive WHERE order_id = ? LIMIT 1";
+
+    private final ShardDirectory directory;
+    private final Map<String, JdbcTemplate> shardTemplates = new LinkedHashMap<>();
+    private final Map<UUID, UUID> orderTenants;
+
+    public ShardResolver(ShardDirectory directory, TenantShardRoutingDataSource shards, int orderCacheSize) {
+        this.directory = directory;
+        for (String name : shards.getShardNames()) {
+            shardTemplates.put(name, new JdbcTemplate(shards.getShard(name)));
+        }
+        this.orderTenants = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UUID> eldest) {
+                return size() > orderCacheSize;
+            }
+        });
+    }
+
+    public ShardDirectory.Assignment forTenant(UUID tenantId) {
+        return directory.lookup(tenantId);
+    }
+
+    /**
+     * @return the order's tenant, or null when no shard has the order
+     */
+    public UUID tenantForOrder(UUID orderId) {
+        UUID tenantId = orderTenants.get(orderId);
+        if (tenantId != null) {
+            return tenantId;
+        }
+        byte[] id = UuidBytes.toBytes(orderId);
+        for (JdbcTemplate shard : shardTemplates.values()) {
+            List<byte[]> rows = shard.query(ORDER_TENANT, (rs, rowNum) -> rs.getBytes(1), id, id);
+            if (!rows.isEmpty()) {
+                tenantId = UuidBytes.fromBytes(rows.get(0));
+                orderTenants.put(orderId, tenantId);
+                return tenantId;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fenix.commerce.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs tenant-independent maintenance work on every shard, or just once
+ * against the single database when sharding is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardRouter {
+
+    private final ObjectProvider<TenantShardRoutingDataSource> shards;
+
+    public void forEachShard(Runnable work) {
+        TenantShardRoutingDataSource routing = shards.getIfAvailable();
+        if (routing == null) {
+            work.run();
+            return;
+        }
+        for (String shard : routing.getShardNames()) {
+            ShardContext.runOn(shard, work);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.exception.TenantMovingException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes service calls to the shard of the tenant named by their
+ * {@link ShardKey} parameter. Runs outside the transaction interceptor so
+ * the shard is fixed before the transaction's connection is fetched.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+
+    private final ShardResolver resolver;
+    private final Map<Method, Optional<Route>> routes = new ConcurrentHashMap<>();
+
+    private record Route(int parameterIndex, ShardKey.Type type, boolean readOnly) {
+    }
+
+    @Around("execution(public * com.fenix.commerce.service..*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Route route = routes.computeIfAbsent(method, ShardRoutingAspect::findRoute).orElse(null);
+        if (route == null) {
+            return joinPoint.proceed();
+        }
+
+        UUID tenantId = tenantOf(route, joinPoint.getArgs()[route.parameterIndex()]);
+        if (tenantId == null) {
+            // Unknown order: let the service report it as not found
+            return joinPoint.proceed();
+        }
+        ShardDirectory.Assignment assignment = resolver.forTenant(tenantId);
+        if (!route.readOnly() && assignment.status() == ShardDirectory.Status.MOVING) {
+            throw new TenantMovingException(tenantId);
+        }
+
+        String current = ShardContext.current();
+        if (current != null && !current.equals(assignment.shard())
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot route to shard " + assignment.shard()
+                    + " inside a transaction on shard " + current);
+        }
+        String previous = ShardContext.set(assignment.shard());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private UUID tenantOf(Route route, Object key) {
+        if (key instanceof TenantScoped request) {
+            return request.getOrgId();
+        }
+        if (!(key instanceof UUID id)) {
+            return null;
+        }
+        return route.type() == ShardKey.Type.ORDER ? resolver.tenantForOrder(id) : id;
+    }
+
+    private static Optional<Route> findRoute(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    return Optional.of(new Route(i, shardKey.value(), isReadOnly(method)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isReadOnly(Method method) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Transactional.class);
+        }
+        return transactional != null && transactional.readOnly();
+    }
+}
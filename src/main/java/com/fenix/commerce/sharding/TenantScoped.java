@@ -0,0 +1,11 @@
+package com.fenix.commerce.sharding;
+
+import java.util.UUID;
+
+/**
+ * A request that names the tenant it belongs to
+ */
+public interface TenantScoped {
+
+    UUID getOrgId();
+}
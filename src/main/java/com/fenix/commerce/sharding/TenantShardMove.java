@@ -0,0 +1,27 @@
+package com.fenix.commerce.sharding;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A requested tenant move and its progress
+ *
+ * @param rowsCopied rows committed on the target so far; starts over if the move is taken over after a crash
+ * @param lastError  why a FAILED move failed; the tenant is then ACTIVE on the source shard
+ */
+public record TenantShardMove(
+        UUID moveId,
+        UUID tenantId,
+        String sourceShard,
+        String targetShard,
+        Status status,
+        long rowsCopied,
+        String lastError,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime finishedAt) {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,236 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * Moves a tenant's rows from its current shard to another one while the
+ * application keeps running. The tenant stays readable on the source shard
+ * throughout; its writes are rejected with 503 from the moment it is marked
+ * {@link ShardDirectory.Status#MOVING} until the directory points at the
+ * target shard. Moves are run in the background by {@link TenantShardMoves}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TenantShardMover {
+
+    /**
+     * @param generatedKey the key is an auto-increment id, assigned afresh on the target so it cannot
+     *                     collide with the target's own rows
+     */
+    private record TenantTable(String name, List<String> key, boolean generatedKey) {
+
+        TenantTable(String name, List<String> key) {
+            this(name, key, false);
+        }
+    }
+
+    /** Every table holding tenant rows, parents before children */
+    private static final List<TenantTable> TENANT_TABLES = List.of(
+            new TenantTable("tenant", List.of("tenant_id")),
+            new TenantTable("store", List.of("store_id")),
+            new TenantTable("orders", List.of("order_id")),
+            new TenantTable("order_items", List.of("order_item_id")),
+            new TenantTable("fulfillments", List.of("fulfillment_id")),
+            new TenantTable("tracking", List.of("tracking_id")),
+            new TenantTable("tracking_events", List.of("tracking_event_id")),
+            new TenantTable("purge_jobs", List.of("purge_job_id")),
+            new TenantTable("fulfillment_reconciliations", List.of("reconciliation_id")),
+            // Copied in id order, so changes to one order keep their relative order on the target
+            new TenantTable("order_outbox", List.of("outbox_id"), true),
+            new TenantTable("orders_archive", List.of("order_id", "archived_at")),
+            new TenantTable("order_items_archive", List.of("order_item_id", "archived_at")),
+            new TenantTable("fulfillments_archive", List.of("fulfillment_id", "archived_at")),
+            new TenantTable("tracking_archive", List.of("tracking_id", "archived_at")),
+            new TenantTable("tracking_events_archive", List.of("tracking_event_id", "archived_at")));
+
+    private final ShardDirectory directory;
+    private final TenantShardRoutingDataSource shards;
+    private final ShardProperties properties;
+
+    /**
+     * Moves the tenant from {@code sourceShard} to {@code targetShard}. Can be
+     * called again for a move cut short by a crash: the tenant is then still
+     * MOVING on the source, and the target's partial copy is cleared before
+     * copying again.
+     *
+     * @param onRowsCopied called with the size of every batch committed on the target
+     * @return rows copied
+     * @throws IllegalStateException if the move failed; the tenant is then ACTIVE on the source again
+     */
+    public long moveTenant(UUID tenantId, String sourceShard, String targetShard, LongConsumer onRowsCopied) {
+        DataSource target = shards.getShard(targetShard);
+        DataSource source = shards.getShard(sourceShard);
+        byte[] tenant = UuidBytes.toBytes(tenantId);
+        ShardDirectory.Assignment current = directory.load(tenantId);
+        if (current.shard().equals(targetShard) && current.status() == ShardDirectory.Status.ACTIVE) {
+            // Repointed before a crash; at most the source copy is left
+            deleteSourceRows(source, sourceShard, tenantId, tenant);
+            return 0;
+        }
+        if (!current.shard().equals(sourceShard)) {
+            throw new IllegalStateException("Tenant " + tenantId + " is on shard " + current.shard()
+                    + ", not " + sourceShard);
+        }
+
+        log.info("Moving tenant {} from shard {} to shard {}", tenantId, sourceShard, targetShard);
+        if (current.status() != ShardDirectory.Status.MOVING) {
+            directory.assign(tenantId, sourceShard, ShardDirectory.Status.MOVING);
+        }
+        long rows;
+        try {
+            // Let every node pick up the freeze and in-flight writes finish
+            Thread.sleep(properties.getMoveDrainTime().toMillis());
+            deleteTenantRows(target, tenant);
+            rows = copyTenantRows(source, target, tenant, onRowsCopied);
+            directory.assign(tenantId, targetShard, ShardDirectory.Status.ACTIVE);
+            log.info("Moved tenant {} to shard {} ({} rows)", tenantId, targetShard, rows);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            directory.assign(tenantId, sourceShard, ShardDirectory.Status.ACTIVE);
+            throw new IllegalStateException("Interrupted while moving tenant " + tenantId, ex);
+        } catch (SQLException | RuntimeException ex) {
+            directory.assign(tenantId, sourceShard, ShardDirectory.Status.ACTIVE);
+            throw new IllegalStateException("Moving tenant " + tenantId + " to shard " + targetShard + " failed", ex);
+        }
+
+        deleteSourceRows(source, sourceShard, tenantId, tenant);
+        return rows;
+    }
+
+    private void deleteSourceRows(DataSource source, String sourceShard, UUID tenantId, byte[] tenant) {
+        try {
+            deleteTenantRows(source, tenant);
+        } catch (SQLException ex) {
+            // Routing already follows the directory, the stale copy is only wasted space
+            log.warn("Could not remove tenant {} from shard {}: {}", tenantId, sourceShard, ex.getMessage());
+        }
+    }
+
+    private long copyTenantRows(DataSource source, DataSource target, byte[] tenant, LongConsumer onRowsCopied)
+            throws SQLException {
+        long copied = 0;
+        try (Connection from = source.getConnection(); Connection to = target.getConnection()) {
+            to.setAutoCommit(false);
+            for (TenantTable table : TENANT_TABLES) {
+                copied += copyTable(from, to, table, tenant, onRowsCopied);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Copies one table in keyset-paged batches, committing on the target after
+     * every batch so a large tenant never builds one huge transaction.
+     */
+    private long copyTable(Connection from, Connection to, TenantTable table, byte[] tenant,
+                           LongConsumer onRowsCopied) throws SQLException {
+        String keyColumns = String.join(", ", table.key());
+        String keyParams = String.join(", ", table.key().stream().map(column -> "?").toList());
+        String firstPage = "SELECT * FROM " + table.name() + " WHERE tenant_id = ? ORDER BY " + keyColumns
+                + " LIMIT " + properties.getMoveBatchSize();
+        String nextPage = "SELECT * FROM " + table.name() + " WHERE tenant_id = ? AND (" + keyColumns + ") > ("
+                + keyParams + ") ORDER BY " + keyColumns + " LIMIT " + properties.getMoveBatchSize();
+
+        long copied = 0;
+        List<Object> lastKey = null;
+        while (true) {
+            try (PreparedStatement select = from.prepareStatement(lastKey == null ? firstPage : nextPage)) {
+                select.setBytes(1, tenant);
+                if (lastKey != null) {
+                    for (int i = 0; i < lastKey.size(); i++) {
+                        select.setObject(i + 2, lastKey.get(i));
+                    }
+                }
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    PreparedStatement insert = null;
+                    List<Integer> columns = null;
+                    try {
+                        while (rs.next()) {
+                            if (insert == null) {
+                                columns = copiedColumns(table, rs.getMetaData());
+                                insert = to.prepareStatement(insertStatement(table.name(), rs.getMetaData(), columns));
+                            }
+                            for (int i = 0; i < columns.size(); i++) {
+                                insert.setObject(i + 1, rs.getObject(columns.get(i)));
+                            }
+                            insert.addBatch();
+                            lastKey = new ArrayList<>();
+                            for (String column : table.key()) {
+                                lastKey.add(rs.getObject(column));
+                            }
+                            rows++;
+                        }
+                        if (insert != null) {
+                            insert.executeBatch();
+                        }
+                    } finally {
+                        if (insert != null) {
+                            insert.close();
+                        }
+                    }
+                }
+                to.commit();
+                onRowsCopied.accept(rows);
+                copied += rows;
+                if (rows < properties.getMoveBatchSize()) {
+                    return copied;
+                }
+            }
+        }
+    }
+
+    /** Indexes of the result columns to insert: all but a generated key */
+    private static List<Integer> copiedColumns(TenantTable table, ResultSetMetaData metaData) throws SQLException {
+        List<Integer> copied = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (!table.generatedKey() || !table.key().contains(metaData.getColumnName(i).toLowerCase(Locale.ROOT))) {
+                copied.add(i);
+            }
+        }
+        return copied;
+    }
+
+    private static String insertStatement(String table, ResultSetMetaData metaData, List<Integer> copied)
+            throws SQLException {
+        List<String> columns = new ArrayList<>();
+        for (int i : copied) {
+            columns.add(metaData.getColumnName(i));
+        }
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", columns.stream().map(column -> "?").toList()) + ")";
+    }
+
+    /**
+     * Deletes children before parents, in batches to keep lock times short
+     */
+    private void deleteTenantRows(DataSource shard, byte[] tenant) throws SQLException {
+        try (Connection connection = shard.getConnection()) {
+            connection.setAutoCommit(true);
+            for (int t = TENANT_TABLES.size() - 1; t >= 0; t--) {
+                try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + TENANT_TABLES.get(t).name()
+                        + " WHERE tenant_id = ? LIMIT " + properties.getMoveBatchSize())) {
+                    delete.setBytes(1, tenant);
+                    int deleted;
+                    do {
+                        deleted = delete.executeUpdate();
+                    } while (deleted > 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.exception.BusinessLogicException;
+import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.util.UuidBytes;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tenant moves in the background. A request records a PENDING move in
+ * the tenant_shard_moves table on the default shard; the instance holding
+ * the {@value #JOB_NAME} lease claims it and runs it through the
+ * {@link TenantShardMover}, recording progress after every copied batch.
+ *
+ * A RUNNING move whose progress is older than {@code move-stale-after} is
+ * claimed again and resumed, so a crash mid-move does not leave the tenant
+ * MOVING for good. Moves run on their own thread: a copy takes minutes and
+ * must not hold up the shared scheduler.
+ */
+@Slf4j
+public class TenantShardMoves {
+
+    public static final String JOB_NAME = "tenant-shard-moves";
+
+    private static final String MOVE_COLUMNS =
+            "move_id, tenant_id, source_shard, target_shard, move_status, rows_copied, last_error, " +
+            "created_at, updated_at, finished_at";
+
+    private static final String INSERT =
+            "INSERT INTO tenant_shard_moves (move_id, tenant_id, source_shard, target_shard, move_status, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, 'PENDING', ?, ?)";
+
+    private static final String SELECT = "SELECT " + MOVE_COLUMNS + " FROM tenant_shard_moves WHERE move_id = ?";
+
+    private static final String COUNT_ACTIVE_FOR_TENANT =
+            "SELECT COUNT(*) FROM tenant_shard_moves WHERE tenant_id = ? AND move_status IN ('PENDING', 'RUNNING')";
+
+    private static final String SELECT_RUNNABLE =
+            "SELECT " + MOVE_COLUMNS + " FROM tenant_shard_moves WHERE move_status = 'PENDING' " +
+            "OR (move_status = 'RUNNING' AND updated_at < ?) ORDER BY created_at";
+
+    // Conditional on what was read, so only one instance claims a move
+    private static final String CLAIM =
+            "UPDATE tenant_shard_moves SET move_status = 'RUNNING', owner = ?, rows_copied = 0, updated_at = ? " +
+            "WHERE move_id = ? AND move_status = ? AND updated_at = ?";
+
+    private static final String RECORD_PROGRESS =
+            "UPDATE tenant_shard_moves SET rows_copied = rows_copied + ?, updated_at = ? WHERE move_id = ?";
+
+    private static final String FINISH =
+            "UPDATE tenant_shard_moves SET move_status = ?, last_error = ?, updated_at = ?, finished_at = ? " +
+            "WHERE move_id = ?";
+
+    private static final RowMapper<TenantShardMove> MOVE_MAPPER = (rs, rowNum) -> new TenantShardMove(
+            UuidBytes.fromBytes(rs.getBytes("move_id")),
+            UuidBytes.fromBytes(rs.getBytes("tenant_id")),
+            rs.getString("source_shard"),
+            rs.getString("target_shard"),
+            TenantShardMove.Status.valueOf(rs.getString("move_status")),
+            rs.getLong("rows_copied"),
+            rs.getString("last_error"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            toLocalDateTime(rs.getTimestamp("finished_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory directory;
+    private final TenantShardMover mover;
+    private final TenantShardRoutingDataSource shards;
+    private final ShardProperties properties;
+    private final JobCoordinator jobCoordinator;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tenant-shard-moves");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TenantShardMoves(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ShardDirectory directory, TenantShardMover mover, TenantShardRoutingDataSource shards,
+                            ShardProperties properties, JobCoordinator jobCoordinator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.directory = directory;
+        this.mover = mover;
+        this.shards = shards;
+        this.properties = properties;
+        this.jobCoordinator = jobCoordinator;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getMovePollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records a move of the tenant to {@code targetShard} for the runner to pick up
+     *
+     * @throws BusinessLogicException if the shard is unknown, the tenant already lives there or is being moved
+     */
+    public TenantShardMove request(UUID tenantId, String targetShard) {
+        if (!shards.getShardNames().contains(targetShard)) {
+            throw new BusinessLogicException("Unknown shard: " + targetShard);
+        }
+        ShardDirectory.Assignment current = directory.load(tenantId);
+        Integer active = jdbcTemplate.queryForObject(COUNT_ACTIVE_FOR_TENANT, Integer.class,
+                (Object) UuidBytes.toBytes(tenantId));
+        if (current.status() == ShardDirectory.Status.MOVING || (active != null && active > 0)) {
+            throw new BusinessLogicException("Tenant " + tenantId + " is already being moved");
+        }
+        if (current.shard().equals(targetShard)) {
+            throw new BusinessLogicException("Tenant " + tenantId + " already lives on shard " + targetShard);
+        }
+
+        UUID moveId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(INSERT, UuidBytes.toBytes(moveId),
+                UuidBytes.toBytes(tenantId), current.shard(), targetShard, now, now));
+        log.info("Requested move {} of tenant {} from shard {} to shard {}",
+                moveId, tenantId, current.shard(), targetShard);
+        return get(moveId);
+    }
+
+    public TenantShardMove get(UUID moveId) {
+        return jdbcTemplate.query(SELECT, MOVE_MAPPER, (Object) UuidBytes.toBytes(moveId)).stream()
+                .findFirst()
+                .orElseThrow(() -> ResourceNotFoundException.shardMove(moveId));
+    }
+
+    private void poll() {
+        try {
+            jobCoordinator.runAsLeader(JOB_NAME, this::runMoves);
+        } catch (RuntimeException ex) {
+            // Keep the schedule alive; the move is claimed again once it goes stale
+            log.error("Running tenant shard moves failed", ex);
+        }
+    }
+
+    /**
+     * Runs every pending move and every running move that went stale, oldest
+     * first. Package-private so tests can drive it.
+     */
+    void runMoves() {
+        Timestamp staleBefore = Timestamp.valueOf(LocalDateTime.now().minus(properties.getMoveStaleAfter()));
+        for (TenantShardMove move : jdbcTemplate.query(SELECT_RUNNABLE, MOVE_MAPPER, staleBefore)) {
+            if (claim(move)) {
+                run(move);
+            }
+        }
+    }
+
+    private boolean claim(TenantShardMove move) {
+        Integer claimed = transactionTemplate.execute(tx -> jdbcTemplate.update(CLAIM, jobCoordinator.getNodeId(),
+                LocalDateTime.now(), UuidBytes.toBytes(move.moveId()), move.status().name(), move.updatedAt()));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+        if (move.status() == TenantShardMove.Status.RUNNING) {
+            log.warn("Resuming move {} of tenant {}, last progress at {}", move.moveId(), move.tenantId(),
+                    move.updatedAt());
+        }
+        return true;
+    }
+
+    private void run(TenantShardMove move) {
+        try {
+            mover.moveTenant(move.tenantId(), move.sourceShard(), move.targetShard(), rows ->
+                    transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(RECORD_PROGRESS, rows,
+                            LocalDateTime.now(), UuidBytes.toBytes(move.moveId()))));
+            finish(move.moveId(), TenantShardMove.Status.COMPLETED, null);
+        } catch (IllegalStateException ex) {
+            log.warn("Move {} of tenant {} failed: {}", move.moveId(), move.tenantId(), ex.getMessage());
+            String cause = ex.getCause() != null ? ex.getMessage() + ": " + ex.getCause().getMessage() : ex.getMessage();
+            finish(move.moveId(), TenantShardMove.Status.FAILED, StringUtils.truncate(cause, 1024));
+        }
+    }
+
+    private void finish(UUID moveId, TenantShardMove.Status status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(FINISH, status.name(), error, now, now,
+                UuidBytes.toBytes(moveId)));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.fenix.commerce.sharding;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each connection request to the shard in {@link ShardContext}, or to
+ * the default shard when none is set.
+ *
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched after the shard has been chosen.
+ */
+public class TenantShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final String defaultShard;
+    private final Map<String, DataSource> shards;
+
+    public TenantShardRoutingDataSource(String defaultShard, Map<String, DataSource> shards) {
+        if (!shards.containsKey(defaultShard)) {
+            throw new IllegalArgumentException("Default shard " + defaultShard + " is not configured");
+        }
+        this.defaultShard = defaultShard;
+        this.shards = new LinkedHashMap<>(shards);
+
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(defaultShard));
+        // Fail instead of silently writing a tenant's rows to the default shard
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = ShardContext.current();
+        return shard != null ? shard : defaultShard;
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public List<String> getShardNames() {
+        return List.copyOf(shards.keySet());
+    }
+
+    public DataSource getShard(String name) {
+        DataSource shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown shard: " + name);
+        }
+        return shard;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+            // The default shard is a container-managed bean and closed by Spring
+            if (!shard.getKey().equals(defaultShard) && shard.getValue() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.fenix.commerce.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.exception.ServiceOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed order changes out to open server-sent event streams.
+ *
+ * Streams are async requests, so an idle subscriber costs a queue and an
+ * emitter but no thread. Committing threads only serialize the event once
+ * and offer it to matching subscribers; a small pool writes to the sockets.
+ * A subscriber whose queue overflows is disconnected rather than allowed to
+ * hold events for everyone else; clients resync with a GET on reconnect.
+ *
+ * Changes committed on this instance are also handed to the
+ * {@link OrderStreamFanout}, which delivers other instances' changes back
+ * here, so a stream sees every change whichever instance it is open on.
+ */
+@Component
+@Slf4j
+public class OrderStreamBroker implements DisposableBean {
+
+    private final OrderStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final OrderStreamFanout fanout;
+    private final Map<UUID, Set<OrderStreamSubscriber>> subscribersByTenant = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService delivery;
+
+    public OrderStreamBroker(OrderStreamProperties properties, ObjectMapper objectMapper, OrderStreamFanout fanout) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.fanout = fanout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Each subscriber has at most one drain task queued, so the queue is bounded by the subscriber limit
+        this.delivery = new ThreadPoolExecutor(properties.getDeliveryThreads(), properties.getDeliveryThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "order-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Opens a stream of the tenant's order changes, optionally narrowed to a
+     * store, an order status or a single order
+     *
+     * @throws ServiceOverloadedException when this instance already holds the maximum number of streams
+     */
+    public SseEmitter subscribe(UUID tenantId, UUID storeId, Order.OrderStatus status, UUID orderId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        register(new OrderStreamSubscriber(emitter, tenantId, storeId, status, orderId, properties.getBufferSize()));
+        return emitter;
+    }
+
+    void register(OrderStreamSubscriber subscriber) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceOverloadedException("Too many open order streams, retry later");
+        }
+        SseEmitter emitter = subscriber.emitter();
+        UUID tenantId = subscriber.tenantId();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        subscribersByTenant.compute(tenantId, (id, subscribers) -> {
+            Set<OrderStreamSubscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+
+        // Flushes the response headers so clients and proxies see the stream is open
+        enqueue(subscriber, SseEmitter.event().comment("connected"));
+        log.debug("Opened order stream for tenant {} ({} open)", tenantId, subscriberCount.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        fanout.start(this::deliver);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent event) {
+        fanout.publish(event);
+        deliver(event);
+    }
+
+    /**
+     * Offers a committed change, from this instance or another, to the
+     * matching subscribers on this instance
+     */
+    void deliver(OrderChangeEvent event) {
+        Set<OrderStreamSubscriber> subscribers = subscribersByTenant.get(event.tenantId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            log.error("Could not serialize order change event for order {}", event.orderId(), ex);
+            return;
+        }
+        for (OrderStreamSubscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                enqueue(subscriber, SseEmitter.event()
+                        .name(event.type().name())
+                        .data(data, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections from being closed by proxies and detects
+     * clients that went away without closing
+     */
+    @Scheduled(fixedDelayString = "${fenix.stream.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        subscribersByTenant.values().forEach(subscribers -> subscribers.forEach(subscriber ->
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void enqueue(OrderStreamSubscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.offer(event)) {
+            if (!subscriber.isClosed()) {
+                log.info("Dropping slow order stream subscriber for tenant {}", subscriber.tenantId());
+                disconnect(subscriber);
+            }
+            return;
+        }
+        if (subscriber.claimDrain()) {
+            try {
+                delivery.execute(() -> {
+                    if (!subscriber.drain()) {
+                        disconnect(subscriber);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(OrderStreamSubscriber subscriber) {
+        remove(subscriber);
+        try {
+            subscriber.emitter().complete();
+        } catch (RuntimeException ex) {
+            log.debug("Order stream already closed: {}", ex.getMessage());
+        }
+    }
+
+    private void remove(OrderStreamSubscriber subscriber) {
+        subscriber.close();
+        // Per-key compute so an empty set is never dropped while a new subscriber is being added to it
+        subscribersByTenant.computeIfPresent(subscriber.tenantId(), (id, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        subscribersByTenant.values().forEach(subscribers -> subscribers.forEach(this::disconnect));
+        delivery.shutdownNow();
+        fanout.stop();
+    }
+}
@@ -0,0 +1,177 @@
+package com.fenix.commerce.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.util.IdWatermark;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Shares committed order changes with the other instances through the
+ * order_stream_events table on the default shard, so a stream sees changes
+ * committed on any instance. Changes are buffered and inserted in batches
+ * every {@code poll-interval}; every instance polls for ids above the last
+ * one it read and skips its own.
+ *
+ * Delivery is at most once, like the local streams: a change dropped here is
+ * picked up by the client's resync on reconnect.
+ */
+@Component
+@Slf4j
+public class OrderStreamFanout {
+
+    private static final String INSERT = "INSERT INTO order_stream_events (origin, payload) VALUES (?, ?)";
+
+    private static final String SELECT =
+            "SELECT event_id, origin, payload FROM order_stream_events " +
+            "WHERE event_id > ? ORDER BY event_id LIMIT ?";
+
+    private static final String MAX_ID = "SELECT COALESCE(MAX(event_id), 0) FROM order_stream_events";
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+    private static final String PURGE = "DELETE FROM order_stream_events WHERE created_at < ? LIMIT " + PURGE_BATCH_SIZE;
+
+    private record Row(long id, String origin, String payload) {
+    }
+
+    private final OrderStreamProperties.Fanout properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<OrderChangeEvent> pending;
+    private final IdWatermark watermark = new IdWatermark();
+
+    // Runs without a shard bound, so every statement goes to the default shard
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Consumer<OrderChangeEvent> listener;
+    private long lastPurgeAt;
+
+    public OrderStreamFanout(OrderStreamProperties properties, JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.properties = properties.getFanout();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.pending = new LinkedBlockingQueue<>(this.properties.getMaxPending());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Starts writing published changes and handing other instances' changes
+     * to {@code listener}
+     */
+    void start(Consumer<OrderChangeEvent> listener) {
+        if (!isEnabled()) {
+            return;
+        }
+        this.listener = listener;
+        // Streams opened from now on only want changes from now on
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID, Long.class);
+        watermark.reset(maxId != null ? maxId : 0);
+        lastPurgeAt = System.nanoTime();
+        long interval = properties.getPollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::runQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Sharing order stream events with other instances as node {}", nodeId);
+    }
+
+    /**
+     * Queues a committed change for the other instances
+     */
+    void publish(OrderChangeEvent event) {
+        if (isEnabled() && !pending.offer(event)) {
+            log.warn("Order stream fan-out is {} changes behind; order {} reaches this instance's streams only",
+                    properties.getMaxPending(), event.orderId());
+        }
+    }
+
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private void runQuietly() {
+        try {
+            flush();
+            poll();
+            if (System.nanoTime() - lastPurgeAt > properties.getRetention().toNanos()) {
+                purge();
+                lastPurgeAt = System.nanoTime();
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Order stream fan-out failed: {}", ex.getMessage());
+        }
+    }
+
+    void flush() {
+        List<OrderChangeEvent> batch = new ArrayList<>();
+        while (pending.drainTo(batch, properties.getBatchSize()) > 0) {
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (OrderChangeEvent event : batch) {
+                try {
+                    rows.add(new Object[]{ nodeId, objectMapper.writeValueAsString(event) });
+                } catch (JsonProcessingException ex) {
+                    log.error("Could not serialize order change event for order {}", event.orderId(), ex);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, rows));
+            batch.clear();
+        }
+    }
+
+    synchronized void poll() {
+        List<Row> rows;
+        do {
+            rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> new Row(rs.getLong("event_id"),
+                            rs.getString("origin"), rs.getString("payload")),
+                    watermark.get(), properties.getBatchSize());
+            for (Row row : rows) {
+                if (watermark.add(row.id()) && !nodeId.equals(row.origin())) {
+                    deliver(row);
+                }
+            }
+            watermark.advance(properties.getGapTimeout());
+        } while (rows.size() == properties.getBatchSize() && !watermark.hasGap());
+    }
+
+    private void deliver(Row row) {
+        try {
+            listener.accept(objectMapper.readValue(row.payload(), OrderChangeEvent.class));
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Skipping order stream event {}: {}", row.id(), ex.getMessage());
+        }
+    }
+
+    void purge() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(properties.getRetention()));
+        int purged;
+        do {
+            // One transaction per batch keeps row locks short
+            Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(PURGE, cutoff));
+            purged = deleted != null ? deleted : 0;
+        } while (purged == PURGE_BATCH_SIZE);
+    }
+}
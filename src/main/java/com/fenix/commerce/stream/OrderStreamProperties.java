@@ -0,0 +1,56 @@
+package com.fenix.commerce.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the server-sent order change stream
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.stream")
+public class OrderStreamProperties {
+
+    /** Open streams per instance; further subscriptions are rejected with 503 */
+    private int maxSubscribers = 10_000;
+
+    /** Events queued per subscriber before it is dropped as a slow consumer */
+    private int bufferSize = 256;
+
+    /** Threads writing queued events to subscribers */
+    private int deliveryThreads = 4;
+
+    /** Clients reconnect after this; EventSource does so automatically */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    private Fanout fanout = new Fanout();
+
+    /**
+     * Sharing committed changes with the other instances through the
+     * order_stream_events table, so a stream sees changes committed anywhere
+     */
+    @Data
+    public static class Fanout {
+
+        /** Off only for a single instance, whose streams see every change anyway */
+        private boolean enabled = true;
+
+        /** Changes are written and other instances' changes read this often */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /** Rows inserted or read per statement */
+        private int batchSize = 1000;
+
+        /** Changes waiting to be written; beyond this they reach local streams only */
+        private int maxPending = 100_000;
+
+        /** How long a missing id is waited for before the poller moves past it */
+        private Duration gapTimeout = Duration.ofSeconds(10);
+
+        /** Rows older than this are deleted by whichever instance polls */
+        private Duration retention = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fenix.commerce.stream;
+
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open stream: its filter, a bounded queue of pending events and the
+ * emitter they are written to. Holds no thread while idle; a delivery thread
+ * drains the queue only when something was offered.
+ */
+final class OrderStreamSubscriber {
+
+    private final SseEmitter emitter;
+    private final UUID tenantId;
+    private final UUID storeId;
+    private final Order.OrderStatus status;
+    private final UUID orderId;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    OrderStreamSubscriber(SseEmitter emitter, UUID tenantId, UUID storeId, Order.OrderStatus status, UUID orderId,
+                          int bufferSize) {
+        this.emitter = emitter;
+        this.tenantId = tenantId;
+        this.storeId = storeId;
+        this.status = status;
+        this.orderId = orderId;
+        this.pending = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    UUID tenantId() {
+        return tenantId;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean matches(OrderChangeEvent event) {
+        return (storeId == null || storeId.equals(event.storeId()))
+                && (status == null || status == event.orderStatus())
+                && (orderId == null || orderId.equals(event.orderId()));
+    }
+
+    /**
+     * @return false when the queue is full, i.e. the subscriber is too slow
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        return !closed && pending.offer(event);
+    }
+
+    /**
+     * Claims the right to drain; the caller must then run {@link #drain()}
+     */
+    boolean claimDrain() {
+        return !closed && draining.compareAndSet(false, true);
+    }
+
+    /**
+     * Writes everything queued. Returns false if the connection failed and
+     * the subscriber should be removed.
+     */
+    boolean drain() {
+        try {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    emitter.send(event);
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the release would otherwise wait for the next one
+                if (closed || pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return true;
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            draining.set(false);
+            close();
+            return false;
+        }
+    }
+
+    void close() {
+        closed = true;
+        pending.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package com.fenix.commerce.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * SHA-256 of a trimmed, lower-cased customer email. Orders are indexed and
+ * looked up by this hash so raw addresses never have to be indexed.
+ *
+ * Existing orders were hashed with this class too, by the V5_1 migration:
+ * SQL TRIM and LOWER do not strip or fold the same characters as Java.
+ */
+public final class EmailHash {
+
+    private EmailHash() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the 32-byte hash, or null for a missing or blank email
+     */
+    public static byte[] of(String email) {
+        String normalized = normalize(email);
+        if (normalized == null || normalized.isEmpty()) {
+            return null;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.fenix.commerce.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Matching keys for the ids a store's platform assigns (external order and
+ * fulfillment ids). Their columns use the utf8mb4_0900_ai_ci collation, so
+ * a query for "SHOP-1001" also returns "shop-1001"; rows from such a query
+ * must be matched back to the requested ids ignoring case and accents too,
+ * not with {@link String#equals}.
+ */
+public final class ExternalIds {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private ExternalIds() {
+    }
+
+    /**
+     * @return the id with accents stripped and case folded; equal for ids the collation treats as equal
+     */
+    public static String key(String externalId) {
+        if (externalId == null) {
+            return null;
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(externalId, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,63 @@
+package com.fenix.commerce.util;
+
+import java.time.Duration;
+import java.util.TreeSet;
+
+/**
+ * Read position in an append-only table polled by auto-increment id.
+ *
+ * Ids are allocated at insert but become visible at commit, so a row can
+ * appear below rows already read. Ids above the first missing one are
+ * remembered, and the watermark only moves past a gap once it has been open
+ * for the given timeout. Not thread-safe; pollers hold their own lock.
+ */
+public final class IdWatermark {
+
+    // Every id up to the watermark has been read or given up on
+    private long watermark;
+    private final TreeSet<Long> readAboveWatermark = new TreeSet<>();
+    private long gapOpenedAt;
+
+    /** Starts reading after {@code id}, forgetting everything read so far */
+    public void reset(long id) {
+        watermark = id;
+        readAboveWatermark.clear();
+        gapOpenedAt = 0;
+    }
+
+    /** The id to poll above */
+    public long get() {
+        return watermark;
+    }
+
+    /**
+     * @return false if the id was already read
+     */
+    public boolean add(long id) {
+        return id > watermark && readAboveWatermark.add(id);
+    }
+
+    /** True while an id below one already read has not shown up */
+    public boolean hasGap() {
+        return !readAboveWatermark.isEmpty();
+    }
+
+    /** Moves over the ids read without a gap, and past a gap open longer than {@code gapTimeout} */
+    public void advance(Duration gapTimeout) {
+        while (readAboveWatermark.remove(watermark + 1)) {
+            watermark++;
+        }
+        if (readAboveWatermark.isEmpty()) {
+            gapOpenedAt = 0;
+            return;
+        }
+        long now = System.nanoTime();
+        if (gapOpenedAt == 0) {
+            gapOpenedAt = now;
+        } else if (now - gapOpenedAt > gapTimeout.toNanos()) {
+            watermark = readAboveWatermark.first() - 1;
+            gapOpenedAt = 0;
+            advance(gapTimeout);
+        }
+    }
+}
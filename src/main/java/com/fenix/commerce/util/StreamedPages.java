@@ -0,0 +1,35 @@
+package com.fenix.commerce.util;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for pages whose rows were streamed rather than collected
+ */
+public final class StreamedPages {
+
+    private StreamedPages() {
+    }
+
+    /**
+     * Total number of matching rows, running the count query only when the
+     * streamed page does not already show it, as
+     * {@link PageableExecutionUtils#getPage} does for collected pages
+     *
+     * @param rows number of rows the page held
+     */
+    public static long total(Pageable pageable, long rows, LongSupplier count) {
+        if (pageable.isUnpaged() || pageable.getOffset() == 0) {
+            if (pageable.isUnpaged() || pageable.getPageSize() > rows) {
+                return rows;
+            }
+            return count.getAsLong();
+        }
+        if (rows != 0 && pageable.getPageSize() > rows) {
+            return pageable.getOffset() + rows;
+        }
+        return count.getAsLong();
+    }
+}
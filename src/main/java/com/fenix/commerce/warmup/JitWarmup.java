@@ -0,0 +1,187 @@
+package com.fenix.commerce.warmup;
+
+import com.fenix.commerce.util.UuidBytes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drives the hot read endpoints over loopback once the application has
+ * started, so the request path is JIT-compiled before the instance reports
+ * ready. The paths are filled in with recently updated orders, so the
+ * requests find rows and compile the mapping and serialization code rather
+ * than only the not-found path. Runs in rounds until the mean request
+ * latency stops improving or the time budget runs out, and logs the time to
+ * the first request and to steady state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JitWarmup {
+
+    private static final String SELECT_TENANTS = "SELECT tenant_id FROM tenant LIMIT ?";
+
+    // Reads idx_orders_tenant_updated backwards
+    private static final String SELECT_RECENT_ORDERS =
+            "SELECT order_id FROM orders WHERE tenant_id = ? ORDER BY order_updated_at DESC LIMIT ?";
+
+    private final WarmupProperties properties;
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicBoolean complete = new AtomicBoolean();
+
+    /**
+     * @return true once the warm-up has finished, or when it is disabled
+     */
+    public boolean isComplete() {
+        return !properties.isEnabled() || complete.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "jit-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void run() {
+        long readyAtMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            complete.set(true);
+            return;
+        }
+        String base = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+        List<URI> uris = new ArrayList<>();
+        for (Sample sample : sampleOrders()) {
+            for (String path : properties.getPaths()) {
+                uris.add(URI.create(base + path
+                        .replace("{orgId}", sample.orgId().toString())
+                        .replace("{orderId}", sample.orderId().toString())));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "jit-warmup-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+        try {
+            long firstRequestNanos = send(client, uris.get(0));
+            double previousMean = Double.MAX_VALUE;
+            double mean = firstRequestNanos;
+            int stable = 0;
+            long requests = 1;
+            while (stable < properties.getStableRounds() && System.nanoTime() < deadline) {
+                mean = round(client, uris, executor);
+                requests += properties.getRequestsPerRound();
+                stable = Math.abs(mean - previousMean) <= previousMean * properties.getTolerance() ? stable + 1 : 0;
+                previousMean = mean;
+            }
+            log.info("Warm-up finished: ready {} ms after JVM start, first request took {} ms, "
+                            + "{} after {} requests in {} ms, mean latency now {} ms",
+                    readyAtMillis, millis(firstRequestNanos),
+                    stable >= properties.getStableRounds() ? "steady state" : "timed out", requests,
+                    millis(System.nanoTime() - start), millis((long) mean));
+        } catch (IOException ex) {
+            log.warn("Warm-up skipped, {} is not reachable: {}", base, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            complete.set(true);
+        }
+    }
+
+    record Sample(UUID orgId, UUID orderId) {
+    }
+
+    /**
+     * The most recently updated orders of the first tenants, up to
+     * {@code sample-size}; a single random pair when there are none yet, so
+     * an empty database still warms the request path
+     */
+    List<Sample> sampleOrders() {
+        List<Sample> samples = new ArrayList<>();
+        try {
+            int sampleSize = Math.max(1, properties.getSampleSize());
+            List<UUID> tenantIds = jdbcTemplate.query(SELECT_TENANTS,
+                    (rs, rowNum) -> UuidBytes.fromBytes(rs.getBytes(1)), sampleSize);
+            int perTenant = Math.max(1, sampleSize / Math.max(1, tenantIds.size()));
+            for (UUID tenantId : tenantIds) {
+                if (samples.size() >= sampleSize) {
+                    break;
+                }
+                jdbcTemplate.query(SELECT_RECENT_ORDERS, rs -> {
+                    samples.add(new Sample(tenantId, UuidBytes.fromBytes(rs.getBytes(1))));
+                }, UuidBytes.toBytes(tenantId), Math.min(perTenant, sampleSize - samples.size()));
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Warm-up could not sample orders, using random ids: {}", ex.getMessage());
+        }
+        if (samples.isEmpty()) {
+            samples.add(new Sample(UUID.randomUUID(), UUID.randomUUID()));
+        }
+        return samples;
+    }
+
+    /**
+     * @return mean latency of the round's requests in nanoseconds
+     */
+    private double round(HttpClient client, List<URI> uris, ExecutorService executor)
+            throws IOException, InterruptedException {
+        List<Future<Long>> results = new ArrayList<>(properties.getRequestsPerRound());
+        for (int i = 0; i < properties.getRequestsPerRound(); i++) {
+            URI uri = uris.get(i % uris.size());
+            results.add(executor.submit(() -> send(client, uri)));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            try {
+                total += result.get();
+            } catch (ExecutionException ex) {
+                throw ex.getCause() instanceof IOException io ? io : new IOException(ex.getCause());
+            }
+        }
+        return (double) total / results.size();
+    }
+
+    private static long send(HttpClient client, URI uri) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        // Error statuses (e.g. for an order deleted since it was sampled) still exercise the request path
+        client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+        return System.nanoTime() - start;
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
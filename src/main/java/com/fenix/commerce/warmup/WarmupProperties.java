@@ -0,0 +1,47 @@
+package com.fenix.commerce.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the JIT warm-up pass that runs before the instance reports ready
+ */
+@Data
+@ConfigurationProperties(prefix = "fenix.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * GET paths below the context path; {@code {orgId}} and {@code {orderId}}
+     * are replaced with the ids of recently updated orders, so the requests
+     * run the same queries and serialization as real traffic
+     */
+    private List<String> paths = new ArrayList<>(List.of(
+            "/orders?orgId={orgId}",
+            "/orders/search?orgId={orgId}&externalOrderId=warmup",
+            "/orders/{orderId}",
+            "/orders/{orderId}/full",
+            "/orders/{orderId}/fulfillments",
+            "/fulfillments?orgId={orgId}"));
+
+    /** Recently updated orders sampled for the paths; random ids are used while there are none */
+    private int sampleSize = 50;
+
+    private int requestsPerRound = 200;
+
+    private int concurrency = 4;
+
+    /** Round mean latency within this fraction of the previous round counts as stable */
+    private double tolerance = 0.1;
+
+    /** Consecutive stable rounds after which throughput is taken as steady */
+    private int stableRounds = 3;
+
+    /** Readiness is reported after this long even if latency has not settled */
+    private Duration timeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,94 @@
+package db.migration;
+
+import com.fenix.commerce.util.EmailHash;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fills the customer_email_hash column added in V5 on orders and
+ * orders_archive. Hashes are computed by {@link EmailHash}, the same code
+ * that hashes lookups and new orders: SQL TRIM only strips spaces and LOWER
+ * follows the column collation, so a SQL backfill could store hashes no
+ * lookup matches. Rows are walked in primary key order, {@value #BATCH_SIZE}
+ * per transaction, so the backfill never locks a whole table.
+ */
+public class V5_1__BackfillCustomerEmailHash extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 1000;
+
+    /**
+     * One table's keyset walk. Selected rows are {@code customer_email}
+     * followed by the key columns; the update binds the hash followed by the
+     * same key columns.
+     */
+    private record Table(String select, String update, Object[] firstRow, Function<Object[], Object[]> after) {
+    }
+
+    private static final Table ORDERS = new Table(
+            "SELECT customer_email, order_id FROM orders WHERE order_id > ? ORDER BY order_id LIMIT " + BATCH_SIZE,
+            "UPDATE orders SET customer_email_hash = ? WHERE order_id = ?",
+            new Object[] { null, new byte[16] },
+            row -> new Object[] { row[1] });
+
+    // An order archived more than once has a row per archived_at
+    private static final Table ORDERS_ARCHIVE = new Table(
+            "SELECT customer_email, order_id, archived_at FROM orders_archive " +
+            "WHERE order_id > ? OR (order_id = ? AND archived_at > ?) ORDER BY order_id, archived_at LIMIT " + BATCH_SIZE,
+            "UPDATE orders_archive SET customer_email_hash = ? WHERE order_id = ? AND archived_at = ?",
+            new Object[] { null, new byte[16], new Timestamp(0) },
+            row -> new Object[] { row[1], row[1], row[2] });
+
+    /** Commits after every batch, which Flyway's migration transaction would not allow */
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            backfill(connection, jdbcTemplate, ORDERS);
+            backfill(connection, jdbcTemplate, ORDERS_ARCHIVE);
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void backfill(Connection connection, JdbcTemplate jdbcTemplate, Table table) throws SQLException {
+        Object[] afterRow = table.firstRow();
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(table.select(), (rs, rowNum) -> {
+                Object[] row = new Object[rs.getMetaData().getColumnCount()];
+                row[0] = EmailHash.of(rs.getString(1));
+                for (int i = 1; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                return row;
+            }, table.after().apply(afterRow));
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<Object[]> updates = rows.stream().filter(row -> row[0] != null).toList();
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(table.update(), updates);
+            }
+            connection.commit();
+            afterRow = rows.get(rows.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package db.migration;
+
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.FulfillmentCounts;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the fulfillment counters added in V7 from the fulfillments table.
+ * Orders are walked in order_id order, one range of {@value #BATCH_SIZE}
+ * ids per transaction, so the backfill never locks the whole orders table
+ * or builds one huge undo log. Orders without fulfillments keep zero
+ * counters and the status their client sent.
+ */
+public class V7_1__BackfillFulfillmentCounters extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_RANGE =
+            "SELECT order_id FROM orders WHERE order_id > ? ORDER BY order_id LIMIT " + BATCH_SIZE;
+
+    // Ranges over the order_id foreign key index
+    private static final String COUNT_FULFILLMENTS =
+            "SELECT order_id, fulfillment_status, COUNT(*) FROM fulfillments WHERE order_id > ? AND order_id <= ? " +
+            "GROUP BY order_id, fulfillment_status";
+
+    private static final String UPDATE_COUNTERS =
+            "UPDATE orders SET fulfillment_count_created = ?, fulfillment_count_shipped = ?, " +
+            "fulfillment_count_delivered = ?, fulfillment_count_cancelled = ?, fulfillment_count_failed = ?, " +
+            "fulfillment_count_unknown = ?, fulfillment_status = ? WHERE order_id = ?";
+
+    /** Commits after every range, which Flyway's migration transaction would not allow */
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            byte[] afterOrderId = new byte[16];
+            while (true) {
+                List<byte[]> orderIds = jdbcTemplate.query(SELECT_RANGE, (rs, rowNum) -> rs.getBytes(1),
+                        (Object) afterOrderId);
+                if (orderIds.isEmpty()) {
+                    return;
+                }
+                byte[] lastOrderId = orderIds.get(orderIds.size() - 1);
+                backfillRange(jdbcTemplate, afterOrderId, lastOrderId);
+                connection.commit();
+                afterOrderId = lastOrderId;
+            }
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void backfillRange(JdbcTemplate jdbcTemplate, byte[] afterOrderId, byte[] lastOrderId) {
+        Map<ByteBuffer, FulfillmentCounts> counts = new HashMap<>();
+        jdbcTemplate.query(COUNT_FULFILLMENTS, rs -> {
+            counts.computeIfAbsent(ByteBuffer.wrap(rs.getBytes(1)), id -> new FulfillmentCounts())
+                    .add(Fulfillment.FulfillmentStatus.valueOf(rs.getString(2)), rs.getInt(3));
+        }, afterOrderId, lastOrderId);
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> updates = new ArrayList<>(counts.size());
+        counts.forEach((orderId, order) -> updates.add(new Object[] {
+                order.getCreated(), order.getShipped(), order.getDelivered(), order.getCancelled(),
+                order.getFailed(), order.getUnknown(), order.overallStatus().name(), orderId.array() }));
+        jdbcTemplate.batchUpdate(UPDATE_COUNTERS, updates);
+    }
+}
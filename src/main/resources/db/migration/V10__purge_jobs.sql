@@ -0,0 +1,29 @@
+-- ============================================================
+-- V10: resumable order purge jobs
+--
+-- One row per purge request, on the tenant's shard. The runner walks the
+-- tenant's orders in order_id order (the tenant_id foreign key index) and
+-- records the last purged order_id after every chunk, so a restarted
+-- runner continues where the previous one stopped.
+-- ============================================================
+
+CREATE TABLE purge_jobs (
+  purge_job_id    BINARY(16)     NOT NULL,
+  tenant_id       BINARY(16)     NOT NULL,
+  -- Comma-separated order statuses; NULL purges every status
+  order_statuses  VARCHAR(255)   NULL,
+  -- Only orders last updated before this; NULL ignores age
+  updated_before  DATETIME(6)    NULL,
+  job_status      VARCHAR(16)    NOT NULL,
+  last_order_id   BINARY(16)     NULL,
+  orders_deleted  BIGINT         NOT NULL DEFAULT 0,
+  rows_deleted    BIGINT         NOT NULL DEFAULT 0,
+  last_error      VARCHAR(1024)  NULL,
+  created_at      DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  updated_at      DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  finished_at     DATETIME(6)    NULL,
+
+  PRIMARY KEY (purge_job_id),
+  KEY idx_purge_jobs_status_created (job_status, created_at),
+  KEY idx_purge_jobs_tenant_created (tenant_id, created_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,21 @@
+-- ============================================================
+-- V11: cluster-wide cache invalidations
+--
+-- Append-only log read by the DB invalidation broadcaster on the default
+-- shard. Every instance polls for ids above the last one it applied and
+-- skips its own rows by origin; rows past the retention are deleted by
+-- whichever instance polls.
+-- ============================================================
+
+CREATE TABLE cache_invalidations (
+  invalidation_id  BIGINT        NOT NULL AUTO_INCREMENT,
+  -- Node id of the publishing instance, random per start
+  origin           CHAR(36)      NOT NULL,
+  cache_name       VARCHAR(64)   NOT NULL,
+  -- Type-tagged key; NULL clears the whole cache
+  cache_key        VARCHAR(255)  NULL,
+  created_at       DATETIME(6)   NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  PRIMARY KEY (invalidation_id),
+  KEY idx_cache_invalidations_created (created_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,26 @@
+-- ============================================================
+-- V12: background job coordination
+--
+-- Both tables live on the default shard. A lease row names the instance
+-- running a leader job until expires_at; any instance may take it over
+-- once it has expired. A member row is renewed by every live instance and
+-- partitioned jobs split tenants among the unexpired ones.
+-- ============================================================
+
+CREATE TABLE scheduler_leases (
+  lease_name   VARCHAR(64)   NOT NULL,
+  owner        VARCHAR(128)  NOT NULL,
+  acquired_at  DATETIME(6)   NOT NULL,
+  expires_at   DATETIME(6)   NOT NULL,
+
+  PRIMARY KEY (lease_name)
+) ENGINE=InnoDB;
+
+CREATE TABLE scheduler_members (
+  node_id      VARCHAR(128)  NOT NULL,
+  started_at   DATETIME(6)   NOT NULL,
+  expires_at   DATETIME(6)   NOT NULL,
+
+  PRIMARY KEY (node_id),
+  KEY idx_scheduler_members_expires (expires_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,14 @@
+-- ============================================================
+-- V13: in-flight claims for Idempotency-Key requests
+--
+-- An instance inserts an IN_PROGRESS row before running a keyed POST, so a
+-- duplicate landing on another instance waits for it instead of running
+-- the request again. The row becomes COMPLETED with the response, or is
+-- deleted if the request fails. A claim left by a crashed instance is
+-- taken over once its expires_at passes.
+-- ============================================================
+
+ALTER TABLE idempotency_keys
+  ADD COLUMN key_state VARCHAR(16) NOT NULL DEFAULT 'COMPLETED' AFTER request_hash,
+  MODIFY status_code SMALLINT NULL,
+  MODIFY response_body MEDIUMBLOB NULL;
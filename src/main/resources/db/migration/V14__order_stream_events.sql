@@ -0,0 +1,21 @@
+-- ============================================================
+-- V14: order stream fan-out
+--
+-- Committed order changes shared between instances, so a stream sees the
+-- changes committed on every instance, not only its own. Append-only on the
+-- default shard like cache_invalidations: every instance polls for ids
+-- above the last one it read and skips its own rows by origin; rows past
+-- the retention are deleted by whichever instance polls.
+-- ============================================================
+
+CREATE TABLE order_stream_events (
+  event_id    BIGINT         NOT NULL AUTO_INCREMENT,
+  -- Node id of the publishing instance, random per start
+  origin      CHAR(36)       NOT NULL,
+  -- OrderChangeEvent as JSON
+  payload     VARCHAR(1024)  NOT NULL,
+  created_at  DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  PRIMARY KEY (event_id),
+  KEY idx_order_stream_events_created (created_at)
+) ENGINE=InnoDB;
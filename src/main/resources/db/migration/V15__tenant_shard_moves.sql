@@ -0,0 +1,28 @@
+-- ============================================================
+-- V15: background tenant shard moves
+--
+-- One row per requested move, read from the default shard only. The
+-- runner claims a PENDING move, records progress after every copied batch
+-- and takes over a RUNNING move whose updated_at stopped advancing, so a
+-- move cut short by a crash is finished instead of leaving the tenant
+-- MOVING for good.
+-- ============================================================
+
+CREATE TABLE tenant_shard_moves (
+  move_id       BINARY(16)     NOT NULL,
+  tenant_id     BINARY(16)     NOT NULL,
+  source_shard  VARCHAR(64)    NOT NULL,
+  target_shard  VARCHAR(64)    NOT NULL,
+  move_status   VARCHAR(16)    NOT NULL,
+  -- Node id of the instance running the move
+  owner         VARCHAR(128)   NULL,
+  rows_copied   BIGINT         NOT NULL DEFAULT 0,
+  last_error    VARCHAR(1024)  NULL,
+  created_at    DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  updated_at    DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  finished_at   DATETIME(6)    NULL,
+
+  PRIMARY KEY (move_id),
+  KEY idx_tenant_shard_moves_status_created (move_status, created_at),
+  KEY idx_tenant_shard_moves_tenant_created (tenant_id, created_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,25 @@
+-- ============================================================
+-- V16: requested fulfillment counter reconciliations
+--
+-- One row per admin request, on the tenant's shard. The runner walks the
+-- tenant's orders in order_id order one page at a time and records the
+-- last checked order_id with the running totals after every page, so a
+-- restarted runner continues where the previous one stopped.
+-- ============================================================
+
+CREATE TABLE fulfillment_reconciliations (
+  reconciliation_id  BINARY(16)     NOT NULL,
+  tenant_id          BINARY(16)     NOT NULL,
+  run_status         VARCHAR(16)    NOT NULL,
+  last_order_id      BINARY(16)     NULL,
+  orders_checked     BIGINT         NOT NULL DEFAULT 0,
+  orders_repaired    BIGINT         NOT NULL DEFAULT 0,
+  last_error         VARCHAR(1024)  NULL,
+  created_at         DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  updated_at         DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  finished_at        DATETIME(6)    NULL,
+
+  PRIMARY KEY (reconciliation_id),
+  KEY idx_fulfillment_reconciliations_status_created (run_status, created_at),
+  KEY idx_fulfillment_reconciliations_tenant_created (tenant_id, created_at)
+) ENGINE=InnoDB;
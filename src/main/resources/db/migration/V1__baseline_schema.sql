@@ -1,20 +1,12 @@
-# Fenix Commerce Database Schema
-
-This file contains the complete database schema for the Fenix Commerce Platform.
+-- ============================================================
+-- V1: baseline schema for the Fenix Commerce Platform
+-- Databases created before migrations were introduced are baselined at this version.
+-- ============================================================
 
 SET sql_mode = 'STRICT_TRANS_TABLES,ERROR_FOR_DIVISION_BY_ZERO,NO_ENGINE_SUBSTITUTION';
 SET time_zone = '+00:00';
 
 
-DROP TABLE IF EXISTS tracking_events;
-DROP TABLE IF EXISTS tracking;
-DROP TABLE IF EXISTS fulfillments;
-DROP TABLE IF EXISTS order_items;
-DROP TABLE IF EXISTS orders;
-DROP TABLE IF EXISTS store;
-DROP TABLE IF EXISTS tenant;
-
-
 CREATE TABLE tenant (
   tenant_id BINARY(16) NOT NULL,
   tenant_name VARCHAR(255) NOT NULL,
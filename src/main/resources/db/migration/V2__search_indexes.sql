@@ -0,0 +1,22 @@
+-- ============================================================
+-- V2: composite indexes for the order and fulfillment search filters
+--
+-- OrderRepository.searchOrders always filters on tenant (optionally store),
+-- then on one of the status columns, and ranges/sorts on order_updated_at.
+-- Putting the equality column before order_updated_at lets MySQL walk the
+-- index in sort order and stop at the page limit instead of filtering rows.
+-- ============================================================
+
+ALTER TABLE orders
+  ADD KEY idx_orders_tenant_status_updated (tenant_id, order_status, order_updated_at),
+  ADD KEY idx_orders_tenant_financial_updated (tenant_id, financial_status, order_updated_at),
+  ADD KEY idx_orders_tenant_fulfillment_updated (tenant_id, fulfillment_status, order_updated_at),
+  ADD KEY idx_orders_store_status_updated (store_id, order_status, order_updated_at);
+
+-- FulfillmentRepository.searchFulfillments filters on order_id (plus carrier
+-- or status) and sorts on updated_at. idx_fulfillments_order_updated also
+-- serves the fk_fulfillments_order foreign key.
+ALTER TABLE fulfillments
+  ADD KEY idx_fulfillments_order_updated (order_id, updated_at),
+  ADD KEY idx_fulfillments_order_carrier_updated (order_id, carrier, updated_at),
+  ADD KEY idx_fulfillments_order_status_updated (order_id, fulfillment_status, updated_at);
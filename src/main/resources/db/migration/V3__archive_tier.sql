@@ -0,0 +1,73 @@
+-- ============================================================
+-- V3: cold archive tier for closed/cancelled orders
+--
+-- Archive tables mirror their hot table (CREATE TABLE ... LIKE drops the
+-- foreign keys) with archived_at prepended, so rows can be copied with
+-- INSERT ... SELECT ?, t.*. Any column added to a hot table must be added
+-- to its archive table in the same migration, in the same position.
+--
+-- Rows are stored compressed and range-partitioned by archive month.
+-- PartitionMaintenanceService splits p_future into monthly partitions
+-- ahead of time and drops partitions past the retention window.
+-- ============================================================
+
+CREATE TABLE orders_archive LIKE orders;
+ALTER TABLE orders_archive
+  ADD COLUMN archived_at DATETIME NOT NULL FIRST,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (order_id, archived_at),
+  DROP INDEX uk_order_external,
+  DROP INDEX idx_orders_store_updated,
+  DROP INDEX idx_orders_tenant_number,
+  DROP INDEX idx_orders_tenant_status_updated,
+  DROP INDEX idx_orders_tenant_financial_updated,
+  DROP INDEX idx_orders_tenant_fulfillment_updated,
+  DROP INDEX idx_orders_store_status_updated,
+  ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+ALTER TABLE orders_archive
+  PARTITION BY RANGE COLUMNS(archived_at) (PARTITION p_future VALUES LESS THAN (MAXVALUE));
+
+CREATE TABLE order_items_archive LIKE order_items;
+ALTER TABLE order_items_archive
+  ADD COLUMN archived_at DATETIME NOT NULL FIRST,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (order_item_id, archived_at),
+  DROP INDEX uk_order_line,
+  DROP INDEX idx_items_sku,
+  ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+ALTER TABLE order_items_archive
+  PARTITION BY RANGE COLUMNS(archived_at) (PARTITION p_future VALUES LESS THAN (MAXVALUE));
+
+CREATE TABLE fulfillments_archive LIKE fulfillments;
+ALTER TABLE fulfillments_archive
+  ADD COLUMN archived_at DATETIME NOT NULL FIRST,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (fulfillment_id, archived_at),
+  DROP INDEX uk_fulfillment_external,
+  DROP INDEX idx_fulfillments_tenant_updated,
+  DROP INDEX idx_fulfillments_order_carrier_updated,
+  DROP INDEX idx_fulfillments_order_status_updated,
+  ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+ALTER TABLE fulfillments_archive
+  PARTITION BY RANGE COLUMNS(archived_at) (PARTITION p_future VALUES LESS THAN (MAXVALUE));
+
+CREATE TABLE tracking_archive LIKE tracking;
+ALTER TABLE tracking_archive
+  ADD COLUMN archived_at DATETIME NOT NULL FIRST,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (tracking_id, archived_at),
+  DROP INDEX uk_tracking_number,
+  DROP INDEX idx_tracking_tenant_status,
+  ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+ALTER TABLE tracking_archive
+  PARTITION BY RANGE COLUMNS(archived_at) (PARTITION p_future VALUES LESS THAN (MAXVALUE));
+
+CREATE TABLE tracking_events_archive LIKE tracking_events;
+ALTER TABLE tracking_events_archive
+  ADD COLUMN archived_at DATETIME NOT NULL FIRST,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (tracking_event_id, archived_at),
+  DROP INDEX uk_event_hash,
+  ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+ALTER TABLE tracking_events_archive
+  PARTITION BY RANGE COLUMNS(archived_at) (PARTITION p_future VALUES LESS THAN (MAXVALUE));
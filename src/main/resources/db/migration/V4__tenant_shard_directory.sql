@@ -0,0 +1,15 @@
+-- ============================================================
+-- V4: tenant-to-shard directory
+--
+-- Only the default shard's copy is read; the table exists on every shard
+-- because all shards run the same migrations. Tenants without a row live
+-- on the default shard.
+-- ============================================================
+
+CREATE TABLE tenant_shard (
+  tenant_id BINARY(16) NOT NULL,
+  shard_name VARCHAR(64) NOT NULL,
+  status ENUM('ACTIVE','MOVING') NOT NULL DEFAULT 'ACTIVE',
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (tenant_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
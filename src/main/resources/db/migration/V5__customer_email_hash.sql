@@ -0,0 +1,19 @@
+-- ============================================================
+-- V5: hashed customer email lookup
+--
+-- Orders are looked up by SHA-256 of the trimmed, lower-cased email
+-- (see EmailHash), so the raw address is never indexed. InnoDB appends
+-- order_id to the index, which gives the keyset order
+-- (order_updated_at DESC, order_id DESC) straight from the index.
+-- V5_1 hashes the emails of existing orders through EmailHash itself, so
+-- the stored hashes match the ones lookups compute.
+-- ============================================================
+
+ALTER TABLE orders
+  ADD COLUMN customer_email_hash BINARY(32) NULL AFTER customer_email,
+  ADD KEY idx_orders_tenant_email_updated (tenant_id, customer_email_hash, order_updated_at),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Keep the archive column layout identical for INSERT ... SELECT ?, o.*
+ALTER TABLE orders_archive
+  ADD COLUMN customer_email_hash BINARY(32) NULL AFTER customer_email;
@@ -0,0 +1,22 @@
+-- ============================================================
+-- V6: tenant-wide fulfillment and tracking search
+--
+-- The tenant-wide searches filter on tenant plus optional status and/or
+-- carrier and walk updated_at newest first, keyset-paged on
+-- (updated_at, id). InnoDB appends the primary key to every secondary
+-- index, so each index below yields rows already in keyset order.
+-- idx_fulfillments_tenant_updated (V1) serves the unfiltered case.
+-- ============================================================
+
+ALTER TABLE fulfillments
+  ADD KEY idx_fulfillments_tenant_status_updated (tenant_id, fulfillment_status, updated_at),
+  ADD KEY idx_fulfillments_tenant_carrier_status_updated (tenant_id, carrier, fulfillment_status, updated_at),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- idx_tracking_tenant_status is a prefix of the new status index and is dropped
+ALTER TABLE tracking
+  ADD KEY idx_tracking_tenant_updated (tenant_id, updated_at),
+  ADD KEY idx_tracking_tenant_status_updated (tenant_id, tracking_status, updated_at),
+  ADD KEY idx_tracking_tenant_carrier_status_updated (tenant_id, carrier, tracking_status, updated_at),
+  DROP INDEX idx_tracking_tenant_status,
+  ALGORITHM=INPLACE, LOCK=NONE;
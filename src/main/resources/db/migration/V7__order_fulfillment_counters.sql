@@ -0,0 +1,26 @@
+-- ============================================================
+-- V7: per-order fulfillment counters
+--
+-- The fulfillment services keep one counter per fulfillment status on the
+-- order row, so the overall fulfillment status is derived without reading
+-- the order's fulfillments. The reconciliation job repairs any drift.
+-- V7_1 fills the counters of existing orders, one order id range at a time.
+-- ============================================================
+
+ALTER TABLE orders
+  ADD COLUMN fulfillment_count_created INT NOT NULL DEFAULT 0 AFTER fulfillment_status,
+  ADD COLUMN fulfillment_count_shipped INT NOT NULL DEFAULT 0 AFTER fulfillment_count_created,
+  ADD COLUMN fulfillment_count_delivered INT NOT NULL DEFAULT 0 AFTER fulfillment_count_shipped,
+  ADD COLUMN fulfillment_count_cancelled INT NOT NULL DEFAULT 0 AFTER fulfillment_count_delivered,
+  ADD COLUMN fulfillment_count_failed INT NOT NULL DEFAULT 0 AFTER fulfillment_count_cancelled,
+  ADD COLUMN fulfillment_count_unknown INT NOT NULL DEFAULT 0 AFTER fulfillment_count_failed,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Keep the archive column layout identical for INSERT ... SELECT ?, o.*
+ALTER TABLE orders_archive
+  ADD COLUMN fulfillment_count_created INT NOT NULL DEFAULT 0 AFTER fulfillment_status,
+  ADD COLUMN fulfillment_count_shipped INT NOT NULL DEFAULT 0 AFTER fulfillment_count_created,
+  ADD COLUMN fulfillment_count_delivered INT NOT NULL DEFAULT 0 AFTER fulfillment_count_shipped,
+  ADD COLUMN fulfillment_count_cancelled INT NOT NULL DEFAULT 0 AFTER fulfillment_count_delivered,
+  ADD COLUMN fulfillment_count_failed INT NOT NULL DEFAULT 0 AFTER fulfillment_count_cancelled,
+  ADD COLUMN fulfillment_count_unknown INT NOT NULL DEFAULT 0 AFTER fulfillment_count_failed;
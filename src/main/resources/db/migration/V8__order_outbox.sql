@@ -0,0 +1,18 @@
+-- ============================================================
+-- V8: transactional outbox for order change events
+--
+-- Order and fulfillment writes insert one row per change in the same
+-- transaction. The relay publishes rows in outbox_id order and deletes them
+-- once the sink acknowledged the batch, so the table stays small.
+-- ============================================================
+
+CREATE TABLE order_outbox (
+  outbox_id      BIGINT       NOT NULL AUTO_INCREMENT,
+  tenant_id      BINARY(16)   NOT NULL,
+  order_id       BINARY(16)   NOT NULL,
+  event_type     VARCHAR(32)  NOT NULL,
+  payload        JSON         NOT NULL,
+  created_at     DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  PRIMARY KEY (outbox_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,18 @@
+-- ============================================================
+-- V9: replay store for Idempotency-Key requests
+--
+-- Only used with fenix.idempotency.db.enabled. Rows hold the completed
+-- response of a keyed POST until expires_at; a scheduled job purges them.
+-- ============================================================
+
+CREATE TABLE idempotency_keys (
+  key_hash       BINARY(32)    NOT NULL,
+  request_hash   BINARY(32)    NOT NULL,
+  status_code    SMALLINT      NOT NULL,
+  content_type   VARCHAR(255)  NULL,
+  response_body  MEDIUMBLOB    NOT NULL,
+  expires_at     DATETIME(6)   NOT NULL,
+
+  PRIMARY KEY (key_hash),
+  KEY idx_idempotency_keys_expires (expires_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,229 @@
+package com.fenix.commerce.benchmark;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.repository.StoreRepository;
+import com.fenix.commerce.repository.TenantRepository;
+import com.fenix.commerce.service.FulfillmentBulkService;
+import com.fenix.commerce.service.OrderPurger;
+import com.fenix.commerce.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares order ingest, bulk fulfillment upserts and order searches through
+ * the services under the default Hibernate and driver settings against the
+ * prod profile's (JDBC batching, ordered inserts, fetch size, statement
+ * caching and batch rewriting).
+ *
+ * Each run migrates the target database and leaves a tenant of its own in
+ * it, so point it at a throwaway schema:
+ * <pre>
+ * mvn test -Dtest=JdbcTuningBenchmark -Dfenix.bench.jdbc-url=jdbc:mysql://localhost:3306/fenix_bench \
+ *     -Dfenix.bench.username=username -Dfenix.bench.password=password
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "fenix.bench.jdbc-url", matches = ".+")
+class JdbcTuningBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("fenix.bench.orders", 2_000);
+    private static final int FULFILLMENTS_PER_ORDER = 3;
+    private static final int SEARCHES = Integer.getInteger("fenix.bench.searches", 2_000);
+    private static final int PAGE_SIZE = 50;
+
+    private final String url = System.getProperty("fenix.bench.jdbc-url");
+    private final String username = System.getProperty("fenix.bench.username", "username");
+    private final String password = System.getProperty("fenix.bench.password", "password");
+
+    /**
+     * The services and what they need from Spring Boot, without the web
+     * layer and background jobs
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class, FlywayAutoConfiguration.class })
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    @EnableJpaAuditing
+    @EnableConfigurationProperties(PurgeProperties.class)
+    @Import({ OrderService.class, OrderPurger.class, FulfillmentBulkService.class })
+    static class Services {
+    }
+
+    @Test
+    void compareDefaultAndProdSettings() {
+        Result baseline = run(null);
+        Result tuned = run("prod");
+
+        System.out.printf("%-10s %14s %16s %14s%n", "", "orders/s", "fulfillments/s", "searches/s");
+        print("default", baseline);
+        print("prod", tuned);
+        System.out.printf("%-10s %13.2fx %15.2fx %13.2fx%n", "gain",
+                tuned.ordersPerSecond / baseline.ordersPerSecond,
+                tuned.fulfillmentsPerSecond / baseline.fulfillmentsPerSecond,
+                tuned.searchesPerSecond / baseline.searchesPerSecond);
+    }
+
+    private Result run(String profile) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.defer-datasource-initialization=false",
+                "--spring.sql.init.mode=never",
+                "--spring.flyway.enabled=true"));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Services.class).web(WebApplicationType.NONE);
+        if (profile != null) {
+            builder.profiles(profile);
+        } else {
+            // The test configuration turns auto-commit off like prod does
+            args.add("--spring.datasource.hikari.auto-commit=true");
+        }
+        try (ConfigurableApplicationContext context = builder.run(args.toArray(String[]::new))) {
+            Store store = newStore(context);
+            UUID tenantId = store.getTenant().getTenantId();
+            OrderService orderService = context.getBean(OrderService.class);
+
+            long start = System.nanoTime();
+            List<String> externalOrderIds = ingestOrders(orderService, store);
+            double orders = ORDERS / seconds(start);
+            assertEquals(ORDERS, context.getBean(OrderRepository.class).countOrders(
+                    tenantId, null, null, null, null, null, null));
+
+            start = System.nanoTime();
+            FulfillmentBulkUpsertResponse upserted = context.getBean(FulfillmentBulkService.class)
+                    .upsertFulfillments(fulfillments(store, externalOrderIds));
+            double fulfillments = ORDERS * FULFILLMENTS_PER_ORDER / seconds(start);
+            assertEquals(ORDERS * FULFILLMENTS_PER_ORDER, upserted.getCreated());
+            assertEquals(ORDERS, upserted.getOrdersUpdated());
+
+            start = System.nanoTime();
+            search(orderService, tenantId);
+            double searches = SEARCHES / seconds(start);
+
+            return new Result(orders, fulfillments, searches);
+        }
+    }
+
+    private static Store newStore(ConfigurableApplicationContext context) {
+        return context.getBean(TransactionTemplate.class).execute(status -> {
+            Tenant tenant = context.getBean(TenantRepository.class).save(Tenant.builder()
+                    .tenantName("Benchmark " + UUID.randomUUID())
+                    .status(Tenant.TenantStatus.ACTIVE)
+                    .build());
+            return context.getBean(StoreRepository.class).save(Store.builder()
+                    .tenant(tenant)
+                    .storeCode("BENCH-" + UUID.randomUUID())
+                    .storeName("Benchmark Store")
+                    .platform(Store.Platform.SHOPIFY)
+                    .status(Store.StoreStatus.ACTIVE)
+                    .build());
+        });
+    }
+
+    private static List<String> ingestOrders(OrderService orderService, Store store) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> externalOrderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            String externalOrderId = "BENCH-" + i;
+            orderService.createOrder(OrderCreateRequest.builder()
+                    .orgId(store.getTenant().getTenantId())
+                    .websiteId(store.getStoreId())
+                    .externalOrderId(externalOrderId)
+                    .status(Order.OrderStatus.CREATED)
+                    .financialStatus(Order.FinancialStatus.PAID)
+                    .orderTotal(BigDecimal.valueOf(i % 500))
+                    .currency("USD")
+                    .orderUpdatedAt(now.minusMinutes(i))
+                    .build());
+            externalOrderIds.add(externalOrderId);
+        }
+        return externalOrderIds;
+    }
+
+    private static FulfillmentBulkUpsertRequest fulfillments(Store store, List<String> externalOrderIds) {
+        List<FulfillmentBulkUpsertRequest.Item> items = new ArrayList<>();
+        for (String externalOrderId : externalOrderIds) {
+            for (int f = 0; f < FULFILLMENTS_PER_ORDER; f++) {
+                items.add(FulfillmentBulkUpsertRequest.Item.builder()
+                        .websiteId(store.getStoreId())
+                        .externalOrderId(externalOrderId)
+                        .fulfillment(FulfillmentCreateRequest.builder()
+                                .externalFulfillmentId(externalOrderId + "-F" + f)
+                                .status(f == 0 ? Fulfillment.FulfillmentStatus.DELIVERED
+                                        : Fulfillment.FulfillmentStatus.SHIPPED)
+                                .carrier("UPS")
+                                .build())
+                        .build());
+            }
+        }
+        return FulfillmentBulkUpsertRequest.builder()
+                .orgId(store.getTenant().getTenantId())
+                .fulfillments(items)
+                .build();
+    }
+
+    private static void search(OrderService orderService, UUID tenantId) {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        PageRequest page = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "orderUpdatedAt"));
+        for (int i = 0; i < SEARCHES; i++) {
+            PagedResponse<OrderResponse> response = orderService.searchOrders(
+                    tenantId, null, Order.OrderStatus.CREATED, null, null, from, null, page);
+            assertEquals(Math.min(PAGE_SIZE, ORDERS), response.getData().size());
+            assertEquals(ORDERS, response.getTotalElements());
+        }
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-10s %14.0f %16.0f %14.0f%n", name,
+                result.ordersPerSecond, result.fulfillmentsPerSecond, result.searchesPerSecond);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    private record Result(double ordersPerSecond, double fulfillmentsPerSecond, double searchesPerSecond) {
+    }
+}
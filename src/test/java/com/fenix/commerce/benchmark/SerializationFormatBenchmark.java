@@ -0,0 +1,159 @@
+package com.fenix.commerce.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.config.BinaryFormatConfig;
+import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares payload size and write/parse throughput of JSON, CBOR and Smile
+ * for a single order request and a 50-row order page, using the same mappers
+ * the HTTP converters are built with.
+ * <pre>
+ * mvn test -Dtest=SerializationFormatBenchmark -Dfenix.bench.serialization=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "fenix.bench.serialization", matches = "true")
+class SerializationFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("fenix.bench.warmup", 20_000);
+    private static final int ITERATIONS = Integer.getInteger("fenix.bench.iterations", 100_000);
+    private static final int PAGE_SIZE = 50;
+
+    private static final TypeReference<PagedResponse<OrderResponse>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Test
+    void compareJsonCborAndSmile() throws IOException {
+        BinaryFormatConfig config = new BinaryFormatConfig();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper());
+        mappers.put("smile", config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper());
+
+        OrderCreateRequest request = request();
+        PagedResponse<OrderResponse> page = page();
+
+        System.out.printf("%-7s %10s %12s %12s %10s %12s %12s%n", "",
+                "req bytes", "req write/s", "req parse/s", "page bytes", "page write/s", "page parse/s");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            Result single = run(mapper, request, OrderCreateRequest.class, ITERATIONS);
+            Result paged = run(mapper, page, PAGE_TYPE, ITERATIONS / PAGE_SIZE);
+            System.out.printf("%-7s %10d %12.0f %12.0f %10d %12.0f %12.0f%n", entry.getKey(),
+                    single.bytes, single.writesPerSecond, single.parsesPerSecond,
+                    paged.bytes, paged.writesPerSecond, paged.parsesPerSecond);
+        }
+    }
+
+    private Result run(ObjectMapper mapper, Object value, Class<?> type, int iterations) throws IOException {
+        return run(mapper, value, mapper.constructType(type), iterations);
+    }
+
+    private Result run(ObjectMapper mapper, Object value, TypeReference<?> type, int iterations) throws IOException {
+        return run(mapper, value, mapper.constructType(type), iterations);
+    }
+
+    private Result run(ObjectMapper mapper, Object value, JavaType type,
+                       int iterations) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(value);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(value), type);
+        }
+
+        // Every result is checked below, so neither loop can be optimized away
+        long written = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            written += mapper.writeValueAsBytes(value).length;
+        }
+        double writes = iterations / seconds(start);
+
+        Object parsed = null;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            parsed = mapper.readValue(bytes, type);
+        }
+        double parses = iterations / seconds(start);
+
+        assertEquals((long) bytes.length * iterations, written);
+        assertArrayEquals(bytes, mapper.writeValueAsBytes(parsed));
+        return new Result(bytes.length, writes, parses);
+    }
+
+    private static OrderCreateRequest request() {
+        return OrderCreateRequest.builder()
+                .orgId(UUID.randomUUID())
+                .websiteId(UUID.randomUUID())
+                .externalOrderId("SHOP-1000234567")
+                .externalOrderNumber("#100234")
+                .status(Order.OrderStatus.CREATED)
+                .financialStatus(Order.FinancialStatus.PAID)
+                .fulfillmentStatus(Order.FulfillmentOverallStatus.UNFULFILLED)
+                .customerEmail("jane.doe@example.com")
+                .orderTotal(new BigDecimal("249.90"))
+                .currency("USD")
+                .orderCreatedAt(LocalDateTime.of(2026, 3, 14, 9, 26, 53))
+                .orderUpdatedAt(LocalDateTime.of(2026, 3, 14, 9, 30, 0))
+                .build();
+    }
+
+    private static PagedResponse<OrderResponse> page() {
+        UUID orgId = UUID.randomUUID();
+        UUID websiteId = UUID.randomUUID();
+        LocalDateTime updated = LocalDateTime.of(2026, 3, 14, 9, 30, 0);
+        List<OrderResponse> orders = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> OrderResponse.builder()
+                        .id(UUID.randomUUID())
+                        .orgId(orgId)
+                        .websiteId(websiteId)
+                        .externalOrderId("SHOP-" + (1000234567 + i))
+                        .externalOrderNumber("#" + (100234 + i))
+                        .status(Order.OrderStatus.CREATED)
+                        .financialStatus(Order.FinancialStatus.PAID)
+                        .fulfillmentStatus(Order.FulfillmentOverallStatus.UNFULFILLED)
+                        .customerEmail("customer" + i + "@example.com")
+                        .orderTotal(BigDecimal.valueOf(1000 + i * 37L, 2))
+                        .currency("USD")
+                        .orderCreatedAt(updated.minusMinutes(i + 5))
+                        .orderUpdatedAt(updated.minusMinutes(i))
+                        .ingestedAt(Instant.parse("2026-03-14T09:30:01Z"))
+                        .build())
+                .toList();
+        return PagedResponse.<OrderResponse>builder()
+                .data(orders)
+                .page(0)
+                .size(PAGE_SIZE)
+                .totalElements(10_000)
+                .totalPages(10_000 / PAGE_SIZE)
+                .hasNext(true)
+                .build();
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    private record Result(int bytes, double writesPerSecond, double parsesPerSecond) {
+    }
+}
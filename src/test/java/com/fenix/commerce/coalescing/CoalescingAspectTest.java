@@ -0,0 +1,106 @@
+package com.fenix.commerce.coalescing;
+
+import com.fenix.commerce.config.ClientWriteTracker;
+import com.fenix.commerce.sharding.ShardContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Coalescing only joins calls that would read from the same database
+ */
+class CoalescingAspectTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(2);
+    private final ClientWriteTracker writeTracker = new ClientWriteTracker(Duration.ofMinutes(1), 100, Clock.systemUTC());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private Reads reads;
+
+    @BeforeEach
+    void setUp() {
+        CoalescingProperties properties = new CoalescingProperties();
+        properties.setMaxWait(Duration.ofSeconds(5));
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("writeTracker", writeTracker));
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reads());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CoalescingAspect(properties, beans.getBeanProvider(ClientWriteTracker.class)));
+        reads = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void sameCallOnSameShard_SharesOneLoad() throws Exception {
+        assertEquals(1, loadsOf(call("client-a", "shard0"), call("client-b", "shard0")));
+    }
+
+    @Test
+    void sameCallOnAnotherShard_RunsItsOwnLoad() throws Exception {
+        assertEquals(2, loadsOf(call("client-a", "shard0"), call("client-b", "shard1")));
+    }
+
+    @Test
+    void clientPinnedToPrimary_RunsItsOwnLoad() throws Exception {
+        writeTracker.recordWrite("client-b");
+
+        assertEquals(2, loadsOf(call("client-a", "shard0"), call("client-b", "shard0")));
+    }
+
+    private Runnable call(String client, String shard) {
+        return () -> {
+            ClientWriteTracker.setCurrentClient(client);
+            try {
+                ShardContext.runOn(shard, () -> reads.order("order-1"));
+            } finally {
+                ClientWriteTracker.clearCurrentClient();
+            }
+        };
+    }
+
+    private int loadsOf(Runnable first, Runnable second) throws Exception {
+        Future<?> running = pool.submit(first);
+        while (loads.get() == 0) {
+            Thread.sleep(5);
+        }
+        Future<?> duplicate = pool.submit(second);
+        // Let the duplicate join the first load, if it is going to
+        Thread.sleep(100);
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        duplicate.get(5, TimeUnit.SECONDS);
+        return loads.get();
+    }
+
+    class Reads {
+
+        @Coalesced
+        public String order(String orderId) {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return orderId;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.fenix.commerce.coalescing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsWithSameKey_ShareOneLoad() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> calls = callConcurrently(coalescer, "order-1", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return result;
+        });
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            assertSame(result, call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void failedLoad_IsRethrownToWaitingCallersAndNotRemembered() throws Throwable {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> calls = callConcurrently(coalescer, "order-2", () -> {
+            loads.incrementAndGet();
+            release.await();
+            throw new IllegalStateException("not found");
+        });
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            Exception ex = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertEquals(IllegalStateException.class, ex.getCause().getClass());
+        }
+        assertEquals(1, loads.get());
+        assertEquals("fresh", coalescer.execute("order-2", () -> "fresh"));
+    }
+
+    @Test
+    void waitBeyondMaxWait_RunsOwnLoad() throws Throwable {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMillis(20));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> slow = pool.submit(() -> {
+            try {
+                return coalescer.execute("order-3", () -> {
+                    started.countDown();
+                    release.await();
+                    return "slow";
+                });
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        assertEquals("own", coalescer.execute("order-3", () -> "own"));
+        release.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+    }
+
+    private List<Future<Object>> callConcurrently(RequestCoalescer coalescer, String key, RequestCoalescer.Load load)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        List<Future<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(pool.submit(() -> {
+                ready.countDown();
+                try {
+                    return coalescer.execute(key, load);
+                } catch (Exception ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+        ready.await(5, TimeUnit.SECONDS);
+        // Let every caller reach the in-flight map before the load is released
+        Thread.sleep(100);
+        return calls;
+    }
+}
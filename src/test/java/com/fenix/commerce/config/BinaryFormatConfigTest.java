@@ -0,0 +1,136 @@
+package com.fenix.commerce.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fenix.commerce.controller.OrderController;
+import com.fenix.commerce.controller.PagedResponseStreamer;
+import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.service.OrderService;
+import com.fenix.commerce.sharding.ShardProperties;
+import com.fenix.commerce.stream.OrderStreamBroker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BinaryFormatConfigTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final BinaryFormatConfig config = new BinaryFormatConfig();
+
+    private MappingJackson2HttpMessageConverter json;
+    private MappingJackson2CborHttpMessageConverter cbor;
+    private MappingJackson2SmileHttpMessageConverter smile;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        json = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new OrderController(orderService, mock(OrderStreamBroker.class),
+                        new PagedResponseStreamer(List.of(json, cbor, smile)), new ShardProperties()))
+                .setMessageConverters(json, cbor, smile)
+                .build();
+    }
+
+    @Test
+    void acceptsCborRequestAndAnswersInSmile() throws Exception {
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .orgId(UUID.randomUUID())
+                .websiteId(UUID.randomUUID())
+                .externalOrderId("EXT-1")
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("149.90"))
+                .currency("USD")
+                .orderUpdatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5))
+                .build();
+        OrderResponse expected = response(request.getOrgId());
+        when(orderService.createOrder(eq(request))).thenReturn(expected);
+
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(SMILE)
+                        .content(cbor.getObjectMapper().writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+
+        assertEquals(expected, smile.getObjectMapper()
+                .readValue(result.getResponse().getContentAsByteArray(), OrderResponse.class));
+    }
+
+    @Test
+    void pagedResponseInCborIsSmallerThanJson() throws Exception {
+        UUID orgId = UUID.randomUUID();
+        List<OrderResponse> orders = IntStream.range(0, 50)
+                .mapToObj(i -> response(orgId))
+                .toList();
+        PagedResponse<OrderResponse> page = PagedResponse.<OrderResponse>builder()
+                .data(orders).page(0).size(50).totalElements(50).totalPages(1).build();
+        when(orderService.searchOrders(eq(orgId), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(page);
+
+        byte[] cborBody = body(orgId, MediaType.APPLICATION_CBOR);
+        byte[] jsonBody = body(orgId, MediaType.APPLICATION_JSON);
+
+        PagedResponse<OrderResponse> decoded = cbor.getObjectMapper().readValue(cborBody, new TypeReference<>() {
+        });
+        assertEquals(page, decoded);
+        assertTrue(cborBody.length < jsonBody.length,
+                () -> "CBOR " + cborBody.length + " bytes, JSON " + jsonBody.length + " bytes");
+    }
+
+    private byte[] body(UUID orgId, MediaType mediaType) throws Exception {
+        return mockMvc.perform(get("/orders").param("orgId", orgId.toString()).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private static OrderResponse response(UUID orgId) {
+        return OrderResponse.builder()
+                .id(UUID.randomUUID())
+                .orgId(orgId)
+                .websiteId(UUID.randomUUID())
+                .externalOrderId("EXT-1")
+                .status(Order.OrderStatus.CREATED)
+                .financialStatus(Order.FinancialStatus.PAID)
+                .fulfillmentStatus(Order.FulfillmentOverallStatus.UNFULFILLED)
+                .orderTotal(new BigDecimal("149.90"))
+                .currency("USD")
+                .orderUpdatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5))
+                .ingestedAt(Instant.parse("2026-01-02T03:04:06Z"))
+                .build();
+    }
+}
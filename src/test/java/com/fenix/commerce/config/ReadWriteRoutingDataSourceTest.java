@@ -0,0 +1,163 @@
+package com.fenix.commerce.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Uses two in-memory databases as stand-ins for a primary and a read replica
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private MutableClock clock;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTx;
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = namedDatabase("primary");
+        DataSource replica = namedDatabase("replica");
+
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        ClientWriteTracker tracker = new ClientWriteTracker(Duration.ofSeconds(5), 100, clock);
+        routingDataSource = new ReadWriteRoutingDataSource(primary, Map.of("replica", replica), tracker);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        readWriteTx = new TransactionTemplate(txManager);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientWriteTracker.clearCurrentClient();
+    }
+
+    @Test
+    void readOnlyTransaction_GoesToReplica() {
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransaction_GoesToPrimary() {
+        assertEquals("primary", readWriteTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readAfterOwnWrite_StaysOnPrimaryUntilWindowExpires() {
+        ClientWriteTracker.setCurrentClient("client-a");
+        readWriteTx.execute(status -> currentNode());
+
+        assertEquals("primary", readOnlyTx.execute(status -> currentNode()));
+
+        ClientWriteTracker.setCurrentClient("client-b");
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+
+        clock.advance(Duration.ofSeconds(6));
+        ClientWriteTracker.setCurrentClient("client-a");
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void filter_TracksOnlyClientsNamingThemselves() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter("X-Client-Id");
+        MockHttpServletRequest named = new MockHttpServletRequest();
+        named.addHeader("X-Client-Id", "client-a");
+        // Clients behind the same load balancer share its address
+        MockHttpServletRequest anonymous = new MockHttpServletRequest();
+        anonymous.setRemoteAddr("10.0.0.1");
+
+        filter.doFilter(named, new MockHttpServletResponse(), (request, response) -> {
+            readWriteTx.execute(status -> currentNode());
+            assertEquals("primary", readOnlyTx.execute(status -> currentNode()));
+        });
+        filter.doFilter(anonymous, new MockHttpServletResponse(), (request, response) -> {
+            readWriteTx.execute(status -> currentNode());
+            assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+        });
+        filter.doFilter(anonymous, new MockHttpServletResponse(), (request, response) ->
+                assertEquals("replica", readOnlyTx.execute(status -> currentNode())));
+    }
+
+    @Test
+    void rolledBackWrite_DoesNotPinClientToPrimary() {
+        ClientWriteTracker.setCurrentClient("client-a");
+        readWriteTx.execute(status -> {
+            currentNode();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void laggingReplica_FallsBackToPrimary() {
+        routingDataSource.markLagging("replica", true);
+        assertEquals("primary", readOnlyTx.execute(status -> currentNode()));
+
+        routingDataSource.markLagging("replica", false);
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource namedDatabase(String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + "-routing;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
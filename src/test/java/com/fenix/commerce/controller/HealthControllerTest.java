@@ -0,0 +1,72 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.health.HealthMonitor;
+import com.fenix.commerce.health.HealthSnapshot;
+import com.fenix.commerce.health.HealthStatus;
+import com.fenix.commerce.warmup.JitWarmup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The readiness gate: warm-up first, then the latest probe result
+ */
+class HealthControllerTest {
+
+    private final ApplicationAvailability availability = mock(ApplicationAvailability.class);
+    private final JitWarmup jitWarmup = mock(JitWarmup.class);
+    private final HealthMonitor healthMonitor = mock(HealthMonitor.class);
+    private final HealthController controller = new HealthController(availability, jitWarmup, healthMonitor);
+
+    @BeforeEach
+    void setUp() {
+        when(availability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        when(jitWarmup.isComplete()).thenReturn(true);
+        probed(HealthStatus.UP);
+    }
+
+    @Test
+    void readiness_WarmingUp_Unavailable() {
+        when(jitWarmup.isComplete()).thenReturn(false);
+
+        assertReadiness(HttpStatus.SERVICE_UNAVAILABLE, "WARMING_UP");
+    }
+
+    @Test
+    void readiness_WarmedUp_FollowsTheLatestProbe() {
+        assertReadiness(HttpStatus.OK, "UP");
+
+        probed(HealthStatus.DEGRADED);
+        assertReadiness(HttpStatus.OK, "DEGRADED");
+
+        probed(HealthStatus.DOWN);
+        assertReadiness(HttpStatus.SERVICE_UNAVAILABLE, "DOWN");
+    }
+
+    @Test
+    void readiness_RefusingTraffic_OutOfServiceEvenWhenWarm() {
+        when(availability.getReadinessState()).thenReturn(ReadinessState.REFUSING_TRAFFIC);
+
+        assertReadiness(HttpStatus.SERVICE_UNAVAILABLE, "OUT_OF_SERVICE");
+    }
+
+    private void probed(HealthStatus status) {
+        when(healthMonitor.current()).thenReturn(new HealthSnapshot(status, Map.of(), Instant.now()));
+    }
+
+    private void assertReadiness(HttpStatus expectedStatus, String expectedBody) {
+        ResponseEntity<Map<String, Object>> response = controller.readiness();
+        assertEquals(expectedStatus, response.getStatusCode());
+        assertEquals(expectedBody, response.getBody().get("status"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.fenix.commerce.controller;
+
+import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.exception.GlobalExceptionHandler;
+import com.fenix.commerce.service.OrderService;
+import com.fenix.commerce.sharding.ShardProperties;
+import com.fenix.commerce.stream.OrderStreamBroker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Order listings without an orgId, which only the default shard could answer
+ */
+class OrderControllerTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final ShardProperties shardProperties = new ShardProperties();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new OrderController(orderService, mock(OrderStreamBroker.class),
+                        new PagedResponseStreamer(List.of()), shardProperties))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(orderService.getAllOrders(any(Pageable.class))).thenReturn(
+                PagedResponse.<OrderResponse>builder().data(List.of()).build());
+    }
+
+    @Test
+    void searchOrders_WithoutOrgId_ListsAllOrdersWhenUnsharded() throws Exception {
+        mockMvc.perform(get("/orders"))
+                .andExpect(status().isOk());
+        verify(orderService).getAllOrders(any(Pageable.class));
+    }
+
+    @Test
+    void searchOrders_WithoutOrgId_RejectedWhenSharded() throws Exception {
+        shardProperties.setEnabled(true);
+
+        mockMvc.perform(get("/orders"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("orgId is required while tenants are sharded"));
+        mockMvc.perform(get("/orders").param("fields", "id,status"))
+                .andExpect(status().isBadRequest());
+        verify(orderService, never()).getAllOrders(any(Pageable.class));
+        verify(orderService, never()).getAllOrders(any(), any(Pageable.class));
+    }
+}
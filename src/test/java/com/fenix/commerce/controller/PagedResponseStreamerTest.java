@@ -0,0 +1,115 @@
+package com.fenix.commerce.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.config.BinaryFormatConfig;
+import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.service.OrderService;
+import com.fenix.commerce.sharding.ShardProperties;
+import com.fenix.commerce.stream.OrderStreamBroker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PagedResponseStreamerTest {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final UUID orgId = UUID.randomUUID();
+    private final List<OrderResponse> orders = IntStream.range(0, PAGE_SIZE)
+            .mapToObj(i -> OrderResponse.builder()
+                    .id(UUID.randomUUID())
+                    .orgId(orgId)
+                    .externalOrderId("EXT-" + i)
+                    .status(Order.OrderStatus.CREATED)
+                    .build())
+            .toList();
+
+    private MappingJackson2HttpMessageConverter json;
+    private MappingJackson2CborHttpMessageConverter cbor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        json = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        cbor = new BinaryFormatConfig().cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new OrderController(orderService, mock(OrderStreamBroker.class),
+                        new PagedResponseStreamer(List.of(json, cbor)), new ShardProperties()))
+                .setMessageConverters(json, cbor)
+                .build();
+
+        when(orderService.streamOrders(eq(orgId), any(), any(), any(), any(), any(), any(), any(Pageable.class),
+                any())).thenAnswer(invocation -> {
+                    Consumer<OrderResponse> rows = invocation.getArgument(8);
+                    orders.forEach(rows);
+                    return 1_200L;
+                });
+    }
+
+    @Test
+    void largePageIsStreamedWithTheRegularPageShape() throws Exception {
+        PagedResponse<OrderResponse> page = read(MediaType.APPLICATION_JSON, json.getObjectMapper());
+
+        assertEquals(PagedResponse.<OrderResponse>builder()
+                .data(orders)
+                .page(1)
+                .size(PAGE_SIZE)
+                .totalElements(1_200)
+                .totalPages(3)
+                .hasNext(true)
+                .build(), page);
+        verify(orderService, never()).searchOrders(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void streamedPageFollowsNegotiatedFormat() throws Exception {
+        PagedResponse<OrderResponse> page = read(MediaType.APPLICATION_CBOR, cbor.getObjectMapper());
+
+        assertEquals(orders, page.getData());
+    }
+
+    private PagedResponse<OrderResponse> read(MediaType mediaType, ObjectMapper mapper) throws Exception {
+        MvcResult started = mockMvc.perform(get("/orders")
+                        .param("orgId", orgId.toString())
+                        .param("page", "1")
+                        .param("size", String.valueOf(PAGE_SIZE))
+                        .accept(mediaType))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+        return mapper.readValue(body, new TypeReference<>() {
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package com.fenix.commerce.health;
+
+import com.fenix.commerce.config.ReadWriteRoutingDataSource;
+import com.fenix.commerce.outbox.OutboxProperties;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.sharding.TenantShardRoutingDataSource;
+import com.fenix.commerce.support.TestDatabases;
+import com.fenix.commerce.warmup.JitWarmup;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+
+class HealthMonitorTest {
+
+    private final HealthProperties properties = new HealthProperties();
+    private final List<Connection> held = new ArrayList<>();
+
+    private HikariDataSource dataSource;
+    private HealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("health", true);
+        // Long enough that a probe waiting for a connection would fail the timeout assertion
+        dataSource.setConnectionTimeout(Duration.ofSeconds(30).toMillis());
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        ObjectProvider<TenantShardRoutingDataSource> shards = beans.getBeanProvider(TenantShardRoutingDataSource.class);
+        ObjectProvider<ReadWriteRoutingDataSource> replicas = beans.getBeanProvider(ReadWriteRoutingDataSource.class);
+        monitor = new HealthMonitor(dataSource, shards, replicas, new ShardRouter(shards),
+                new ConcurrentMapCacheManager(), mock(JitWarmup.class), new OutboxProperties(), properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Connection connection : held) {
+            connection.close();
+        }
+        monitor.stop();
+        dataSource.close();
+    }
+
+    @Test
+    void reachableDatabaseIsUp() {
+        monitor.probe();
+
+        HealthSnapshot snapshot = monitor.current();
+        assertThat(snapshot.status()).isEqualTo(HealthStatus.UP);
+        assertThat(snapshot.checks().get("database")).isEqualTo(Map.of("default", "UP"));
+    }
+
+    @Test
+    void unreachableDefaultShardIsDown() {
+        monitor.probe();
+        dataSource.close();
+
+        monitor.probe();
+
+        HealthSnapshot snapshot = monitor.current();
+        assertThat(snapshot.status()).isEqualTo(HealthStatus.DOWN);
+        assertThat(snapshot.checks().get("database")).isEqualTo(Map.of("default", "DOWN"));
+    }
+
+    @Test
+    void exhaustedPoolIsDegradedWithoutWaitingForAConnection() throws Exception {
+        holdConnections(dataSource.getMaximumPoolSize());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), monitor::probe);
+
+        HealthSnapshot snapshot = monitor.current();
+        assertThat(snapshot.status()).isEqualTo(HealthStatus.DEGRADED);
+        assertThat(snapshot.checks().get("database")).isEqualTo(Map.of("default", "SATURATED"));
+    }
+
+    @Test
+    void poolAboveSaturationIsDegraded() throws Exception {
+        properties.setPoolSaturation(0.5);
+        holdConnections(dataSource.getMaximumPoolSize() / 2);
+
+        monitor.probe();
+
+        HealthSnapshot snapshot = monitor.current();
+        assertThat(snapshot.status()).isEqualTo(HealthStatus.DEGRADED);
+        assertThat(snapshot.checks().get("database")).isEqualTo(Map.of("default", "UP"));
+    }
+
+    @Test
+    void outboxBacklogAboveThresholdIsDegraded() {
+        properties.setOutboxBacklog(1);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO order_outbox (tenant_id, order_id, event_type, payload) "
+                    + "VALUES (RANDOM_UUID(), RANDOM_UUID(), 'ORDER_CREATED', '{}')");
+        }
+
+        monitor.probe();
+
+        HealthSnapshot snapshot = monitor.current();
+        assertThat(snapshot.status()).isEqualTo(HealthStatus.DEGRADED);
+        assertThat(snapshot.checks().get("outboxBacklog")).isEqualTo(3L);
+    }
+
+    @Test
+    void staleSnapshotIsDown() throws Exception {
+        properties.setStaleAfter(Duration.ofMillis(50));
+        monitor.probe();
+        assertThat(monitor.current().status()).isEqualTo(HealthStatus.UP);
+
+        Thread.sleep(100);
+
+        HealthSnapshot snapshot = monitor.current();
+        assertThat(snapshot.status()).isEqualTo(HealthStatus.DOWN);
+        assertThat(snapshot.checks()).containsEntry("stale", true);
+        assertThat(monitor.isShedding()).isTrue();
+    }
+
+    private void holdConnections(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            held.add(dataSource.getConnection());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.fenix.commerce.health;
+
+import com.fenix.commerce.controller.OrderController;
+import com.fenix.commerce.controller.PagedResponseStreamer;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.exception.GlobalExceptionHandler;
+import com.fenix.commerce.service.OrderService;
+import com.fenix.commerce.sharding.ShardProperties;
+import com.fenix.commerce.stream.OrderStreamBroker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LoadSheddingInterceptorTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final HealthMonitor healthMonitor = mock(HealthMonitor.class);
+    private final UUID orgId = UUID.randomUUID();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new OrderController(orderService, mock(OrderStreamBroker.class),
+                        new PagedResponseStreamer(List.of()), new ShardProperties()))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new LoadSheddingInterceptor(healthMonitor))
+                .build();
+    }
+
+    @Test
+    void lowPriorityRequestIsShedWhileDegraded() throws Exception {
+        when(healthMonitor.isShedding()).thenReturn(true);
+
+        mockMvc.perform(get("/orders").param("orgId", orgId.toString()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        verify(orderService, never()).searchOrders(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void singleOrderReadIsServedWhileDegraded() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        when(healthMonitor.isShedding()).thenReturn(true);
+        when(orderService.getOrderById(orderId)).thenReturn(OrderResponse.builder().id(orderId).build());
+
+        mockMvc.perform(get("/orders/{orderId}", orderId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void lowPriorityRequestIsServedWhileUp() throws Exception {
+        when(healthMonitor.isShedding()).thenReturn(false);
+
+        mockMvc.perform(get("/orders").param("orgId", orgId.toString()))
+                .andExpect(status().isOk());
+        verify(orderService).searchOrders(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,234 @@
+package com.fenix.commerce.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.config.BinaryFormatConfig;
+import com.fenix.commerce.support.TestDatabases;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdempotencyFilterTest {
+
+    private static final List<AbstractJackson2HttpMessageConverter> CONVERTERS = List.of(
+            new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+            new BinaryFormatConfig().cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()),
+            new BinaryFormatConfig().smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()));
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final IdempotencyFilter filter = new IdempotencyFilter(properties,
+            new IdempotencyStore(properties, null, null), new ObjectMapper().findAndRegisterModules(), CONVERTERS);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retry_ReplaysStoredResponseWithoutRunningAgain() throws Exception {
+        FilterChain chain = createdChain(null);
+
+        MockHttpServletResponse first = post("key-1", "{\"externalOrderId\":\"A\"}", chain);
+        MockHttpServletResponse retry = post("key-1", "{\"externalOrderId\":\"A\"}", chain);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void reusedKeyWithDifferentBody_IsRejected() throws Exception {
+        FilterChain chain = createdChain(null);
+
+        post("key-2", "{\"externalOrderId\":\"A\"}", chain);
+        MockHttpServletResponse reused = post("key-2", "{\"externalOrderId\":\"B\"}", chain);
+
+        assertEquals(1, executions.get());
+        assertEquals(422, reused.getStatus());
+    }
+
+    @Test
+    void sameKeyFromAnotherTenant_RunsSeparately() throws Exception {
+        FilterChain chain = createdChain(null);
+
+        MockHttpServletResponse first = post("key-5", "{\"orgId\":\"tenant-a\"}", chain);
+        MockHttpServletResponse second = post("key-5", "{\"orgId\":\"tenant-b\"}", chain);
+
+        assertEquals(2, executions.get());
+        assertEquals(201, second.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "application/cbor", "application/x-jackson-smile" })
+    void sameKeyFromAnotherTenant_InBinaryBody_RunsSeparately(String contentType) throws Exception {
+        FilterChain chain = createdChain(null);
+        ObjectMapper mapper = CONVERTERS.stream()
+                .filter(converter -> converter.getSupportedMediaTypes().get(0).toString().equals(contentType))
+                .findFirst().orElseThrow().getObjectMapper();
+
+        post("key-6", contentType, mapper.writeValueAsBytes(Map.of("orgId", "tenant-a")), chain);
+        MockHttpServletResponse other =
+                post("key-6", contentType, mapper.writeValueAsBytes(Map.of("orgId", "tenant-b")), chain);
+        MockHttpServletResponse retry =
+                post("key-6", contentType, mapper.writeValueAsBytes(Map.of("orgId", "tenant-b")), chain);
+
+        assertEquals(2, executions.get());
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void failedResponse_IsNotStored() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        post("key-3", "{}", failing);
+        post("key-3", "{}", failing);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicate_WaitsForOriginal() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = createdChain(release);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> original = pool.submit(() -> post("key-4", "{}", chain));
+            while (executions.get() == 0) {
+                Thread.sleep(5);
+            }
+            Future<MockHttpServletResponse> duplicate = pool.submit(() -> post("key-4", "{}", chain));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(201, original.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals("true", duplicate.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals(1, executions.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicateOnAnotherInstance_WaitsForOriginalClaim() throws Exception {
+        try (HikariDataSource dataSource = TestDatabases.h2("idempotency", false)) {
+            IdempotencyFilter instanceA = sharedTableFilter(dataSource);
+            IdempotencyFilter instanceB = sharedTableFilter(dataSource);
+            CountDownLatch release = new CountDownLatch(1);
+            FilterChain chain = createdChain(release);
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                Future<MockHttpServletResponse> original = pool.submit(() -> post(instanceA, "key-6", "{}", chain));
+                while (executions.get() == 0) {
+                    Thread.sleep(5);
+                }
+                Future<MockHttpServletResponse> duplicate = pool.submit(() -> post(instanceB, "key-6", "{}", chain));
+                Thread.sleep(100);
+                release.countDown();
+
+                assertEquals(201, original.get(5, TimeUnit.SECONDS).getStatus());
+                assertEquals("true", duplicate.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+                assertEquals(1, executions.get());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void failedRequest_ReleasesClaimForRetryElsewhere() throws Exception {
+        try (HikariDataSource dataSource = TestDatabases.h2("idempotency", false)) {
+            FilterChain failing = (request, response) -> {
+                executions.incrementAndGet();
+                ((HttpServletResponse) response).setStatus(503);
+            };
+
+            post(sharedTableFilter(dataSource), "key-7", "{}", failing);
+            MockHttpServletResponse retry = post(sharedTableFilter(dataSource), "key-7", "{}", createdChain(null));
+
+            assertEquals(201, retry.getStatus());
+            assertEquals(2, executions.get());
+        }
+    }
+
+    /** One instance's filter, with the idempotency_keys table shared with the others */
+    private static IdempotencyFilter sharedTableFilter(HikariDataSource dataSource) {
+        IdempotencyProperties shared = new IdempotencyProperties();
+        shared.getDb().setEnabled(true);
+        shared.getDb().setClaimPollInterval(Duration.ofMillis(10));
+        IdempotencyStore store = new IdempotencyStore(shared, new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        return new IdempotencyFilter(shared, store, new ObjectMapper().findAndRegisterModules(), CONVERTERS);
+    }
+
+    private FilterChain createdChain(CountDownLatch release) {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setContentType("application/json");
+            http.getWriter().write("{\"execution\":" + execution + ",\"echo\":" + (body.isEmpty() ? "null" : body) + "}");
+        };
+    }
+
+    private MockHttpServletResponse post(String key, String body, FilterChain chain) throws Exception {
+        return post(filter, key, body, chain);
+    }
+
+    private MockHttpServletResponse post(String key, String contentType, byte[] body, FilterChain chain)
+            throws Exception {
+        return post(filter, key, contentType, body, chain);
+    }
+
+    private static MockHttpServletResponse post(IdempotencyFilter filter, String key, String body, FilterChain chain)
+            throws Exception {
+        return post(filter, key, "application/json", body.getBytes(StandardCharsets.UTF_8), chain);
+    }
+
+    private static MockHttpServletResponse post(IdempotencyFilter filter, String key, String contentType, byte[] body,
+                                                FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.setContextPath("/api");
+        request.addHeader("Idempotency-Key", key);
+        request.setContentType(contentType);
+        request.setContent(body);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,124 @@
+package com.fenix.commerce.invalidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coalescing of local evictions and application of remote ones
+ */
+class CacheInvalidationBusTest {
+
+    private final List<List<CacheInvalidation>> published = new ArrayList<>();
+    private InvalidationProperties properties;
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InvalidationProperties();
+        properties.setType(InvalidationProperties.Type.DB);
+        properties.setMaxKeysPerCache(3);
+        bus = new CacheInvalidationBus(properties, new InvalidationBroadcaster() {
+            @Override
+            public void start(String nodeId, Consumer<List<CacheInvalidation>> listener) {
+            }
+
+            @Override
+            public void publish(List<CacheInvalidation> batch) {
+                published.add(batch);
+            }
+
+            @Override
+            public void stop() {
+            }
+        });
+    }
+
+    @Test
+    void evictionsWithinAWindowAreCoalesced() {
+        UUID orderId = UUID.randomUUID();
+        bus.publish(CacheInvalidation.of("orders", orderId));
+        bus.publish(CacheInvalidation.of("orders", orderId));
+        bus.publish(CacheInvalidation.of("stores", "S-1"));
+        bus.publish(CacheInvalidation.clear("stores"));
+        bus.publish(CacheInvalidation.of("stores", "S-2"));
+
+        bus.flush();
+        bus.flush();
+
+        assertEquals(1, published.size());
+        List<CacheInvalidation> batch = published.get(0);
+        assertEquals(2, batch.size());
+        assertTrue(batch.contains(CacheInvalidation.of("orders", orderId)));
+        assertTrue(batch.contains(CacheInvalidation.clear("stores")));
+    }
+
+    @Test
+    void tooManyKeysForOneCacheBecomeAClear() {
+        for (int i = 0; i < 4; i++) {
+            bus.publish(CacheInvalidation.of("orders", UUID.randomUUID()));
+        }
+
+        assertEquals(List.of(CacheInvalidation.clear("orders")), bus.drain());
+    }
+
+    @Test
+    void localEvictionsArePublishedAndRemoteOnesAreNot() {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager("orders");
+        BroadcastingCacheManager cacheManager = new BroadcastingCacheManager(caffeine, bus);
+        Cache cache = cacheManager.getCache("orders");
+        UUID local = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        cache.put(local, "local");
+        cache.put(remote, "remote");
+
+        cache.evict(local);
+        bus.deliver(List.of(CacheInvalidation.of("orders", remote), CacheInvalidation.clear("unknown")));
+
+        assertNull(cache.get(local));
+        assertNull(cache.get(remote));
+        assertEquals(List.of(CacheInvalidation.of("orders", local)), bus.drain());
+    }
+
+    @Test
+    void unsupportedKeysClearTheCache() {
+        CacheInvalidation invalidation = CacheInvalidation.of("orders", List.of(1, 2));
+
+        assertTrue(invalidation.clearsAll());
+        UUID orderId = UUID.randomUUID();
+        assertEquals(orderId, CacheInvalidation.of("orders", orderId).decodedKey());
+    }
+
+    @Test
+    void multicastDatagramsSplitBelowTheLimitAndSkipTheSender() {
+        List<CacheInvalidation> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(CacheInvalidation.of("orders", UUID.randomUUID()));
+        }
+        batch.add(CacheInvalidation.clear("stores"));
+
+        List<byte[]> datagrams = MulticastInvalidationBroadcaster.encode("node-a", batch);
+
+        assertTrue(datagrams.size() > 1);
+        List<CacheInvalidation> received = new ArrayList<>();
+        for (byte[] datagram : datagrams) {
+            assertTrue(datagram.length <= MulticastInvalidationBroadcaster.MAX_DATAGRAM_BYTES);
+            String text = new String(datagram, StandardCharsets.UTF_8);
+            assertTrue(MulticastInvalidationBroadcaster.decode("node-a", text).isEmpty());
+            received.addAll(MulticastInvalidationBroadcaster.decode("node-b", text));
+        }
+        assertEquals(batch, received);
+        assertTrue(received.get(received.size() - 1).clearsAll());
+    }
+}
@@ -0,0 +1,110 @@
+package com.fenix.commerce.invalidation;
+
+import com.fenix.commerce.support.TestDatabases;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Polling the cache_invalidations table, including ids that become visible
+ * out of order, on a pool that does not auto-commit like the prod one
+ */
+class DbInvalidationBroadcasterTest {
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private InvalidationProperties.Db properties;
+    private final List<CacheInvalidation> received = new ArrayList<>();
+    private DbInvalidationBroadcaster node;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("invalidations", false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO cache_invalidations (origin, cache_name, cache_key) VALUES ('old', 'orders', 's:before-start')"));
+
+        properties = new InvalidationProperties.Db();
+        // Polls are driven by the test
+        properties.setPollInterval(Duration.ofHours(1));
+        node = new DbInvalidationBroadcaster(jdbcTemplate, transactionTemplate, properties);
+        node.start("node-b", received::addAll);
+    }
+
+    @AfterEach
+    void tearDown() {
+        node.stop();
+        dataSource.close();
+    }
+
+    @Test
+    void appliesOtherNodesInvalidationsOnce() {
+        DbInvalidationBroadcaster other = new DbInvalidationBroadcaster(jdbcTemplate, transactionTemplate, properties);
+        other.start("node-a", batch -> { });
+        other.publish(List.of(CacheInvalidation.of("orders", "a1"), CacheInvalidation.clear("stores")));
+        node.publish(List.of(CacheInvalidation.of("orders", "own")));
+        other.stop();
+
+        node.poll();
+        node.poll();
+
+        assertEquals(List.of(CacheInvalidation.of("orders", "a1"), CacheInvalidation.clear("stores")), received);
+    }
+
+    @Test
+    void waitsForIdsCommittedOutOfOrder() {
+        insert(3, "third");
+        node.poll();
+        insert(2, "second");
+        node.poll();
+        node.poll();
+
+        assertEquals(List.of(CacheInvalidation.of("orders", "third"), CacheInvalidation.of("orders", "second")),
+                received);
+    }
+
+    @Test
+    void movesPastAGapAfterTheTimeout() {
+        properties.setGapTimeout(Duration.ZERO);
+        insert(3, "third");
+        node.poll();
+        node.poll();
+        insert(4, "fourth");
+        insert(2, "too-late");
+        node.poll();
+
+        assertEquals(List.of(CacheInvalidation.of("orders", "third"), CacheInvalidation.of("orders", "fourth")),
+                received);
+    }
+
+    @Test
+    void purgeCommitsDeletionOfRowsPastRetention() throws InterruptedException {
+        properties.setRetention(Duration.ZERO);
+        node.publish(List.of(CacheInvalidation.of("orders", "recent")));
+        Thread.sleep(5);
+
+        node.purge();
+
+        Integer left = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class));
+        assertEquals(0, left);
+    }
+
+    private void insert(long id, String key) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO cache_invalidations (invalidation_id, origin, cache_name, cache_key) " +
+                "VALUES (?, 'node-a', 'orders', ?)", id, "s:" + key));
+    }
+}
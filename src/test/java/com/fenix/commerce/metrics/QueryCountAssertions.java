@@ -0,0 +1,35 @@
+package com.fenix.commerce.metrics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test helper for pinning the number of JDBC statements a code path issues.
+ * Requires the data source to be wrapped in an {@link InstrumentedDataSource}.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertStatementCount(int expected, Supplier<T> action) {
+        QueryMetrics metrics = QueryMetrics.begin();
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            metrics.end();
+        }
+        assertEquals(expected, metrics.getStatementCount(),
+                () -> "Unexpected number of statements, per method: " + metrics.getPerMethod());
+        return result;
+    }
+
+    public static void assertStatementCount(int expected, Runnable action) {
+        assertStatementCount(expected, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
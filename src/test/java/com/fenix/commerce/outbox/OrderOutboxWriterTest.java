@@ -0,0 +1,164 @@
+package com.fenix.commerce.outbox;
+
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.service.FulfillmentBulkService;
+import com.fenix.commerce.support.TestData;
+import com.fenix.commerce.util.UuidBytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The outbox row commits or rolls back together with the order change it
+ * records
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderOutboxWriter.class, FulfillmentBulkService.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnableConfigurationProperties(OutboxProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderOutboxWriterTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FulfillmentBulkService fulfillmentBulkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+    }
+
+    @Test
+    void committedChange_WritesOutboxRow() {
+        UUID orderId = transactionTemplate.execute(status -> saveOrder("EXT-COMMIT"));
+
+        assertTrue(orderRepository.existsById(orderId));
+        assertEquals(1, outboxRows(orderId));
+    }
+
+    @Test
+    void rolledBackChange_LeavesNeitherOrderNorOutboxRow() {
+        UUID orderId = transactionTemplate.execute(status -> {
+            UUID saved = saveOrder("EXT-ROLLBACK");
+            status.setRollbackOnly();
+            return saved;
+        });
+
+        assertFalse(orderRepository.existsById(orderId));
+        assertEquals(0, outboxRows(orderId));
+    }
+
+    @Test
+    void changeOutsideTransaction_IsCommittedOnItsOwn() {
+        UUID orderId = UUID.randomUUID();
+        eventPublisher.publishEvent(new OrderChangeEvent(OrderChangeEvent.Type.ORDER_DELETED,
+                store.getTenant().getTenantId(), store.getStoreId(), orderId, null, Order.OrderStatus.CLOSED, null,
+                Instant.now()));
+
+        assertEquals(1, outboxRows(orderId));
+    }
+
+    @Test
+    void bulkUpsert_WritesARowPerFulfillment() {
+        UUID orderId = transactionTemplate.execute(status -> saveOrder("EXT-BULK"));
+
+        fulfillmentBulkService.upsertFulfillments(bulkRequest(
+                bulkItem("FUL-1", Fulfillment.FulfillmentStatus.SHIPPED),
+                bulkItem("FUL-2", Fulfillment.FulfillmentStatus.CREATED)));
+        fulfillmentBulkService.upsertFulfillments(bulkRequest(
+                bulkItem("FUL-1", Fulfillment.FulfillmentStatus.DELIVERED)));
+
+        assertEquals(List.of("ORDER_UPSERTED", "FULFILLMENT_CREATED", "FULFILLMENT_CREATED", "FULFILLMENT_UPDATED"),
+                eventTypes(orderId));
+    }
+
+    private FulfillmentBulkUpsertRequest bulkRequest(FulfillmentBulkUpsertRequest.Item... items) {
+        return FulfillmentBulkUpsertRequest.builder()
+                .orgId(store.getTenant().getTenantId())
+                .fulfillments(List.of(items))
+                .build();
+    }
+
+    private FulfillmentBulkUpsertRequest.Item bulkItem(String externalFulfillmentId,
+            Fulfillment.FulfillmentStatus status) {
+        return FulfillmentBulkUpsertRequest.Item.builder()
+                .websiteId(store.getStoreId())
+                .externalOrderId("EXT-BULK")
+                .fulfillment(FulfillmentCreateRequest.builder()
+                        .externalFulfillmentId(externalFulfillmentId)
+                        .status(status)
+                        .build())
+                .build();
+    }
+
+    private UUID saveOrder(String externalOrderId) {
+        Order order = orderRepository.save(Order.builder()
+                .tenant(store.getTenant())
+                .store(store)
+                .externalOrderId(externalOrderId)
+                .orderStatus(Order.OrderStatus.CREATED)
+                .financialStatus(Order.FinancialStatus.PAID)
+                .fulfillmentStatus(Order.FulfillmentOverallStatus.UNFULFILLED)
+                .orderTotalAmount(BigDecimal.TEN)
+                .orderUpdatedAt(LocalDateTime.now())
+                .ingestedAt(Instant.now())
+                .build());
+        eventPublisher.publishEvent(OrderChangeEvent.of(OrderChangeEvent.Type.ORDER_UPSERTED, order));
+        return order.getOrderId();
+    }
+
+    private List<String> eventTypes(UUID orderId) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                "SELECT event_type FROM order_outbox WHERE order_id = ? ORDER BY outbox_id", String.class,
+                (Object) UuidBytes.toBytes(orderId)));
+    }
+
+    private int outboxRows(UUID orderId) {
+        // Read in a transaction of its own, so only committed rows count
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_outbox WHERE order_id = ?", Integer.class,
+                (Object) UuidBytes.toBytes(orderId)));
+    }
+}
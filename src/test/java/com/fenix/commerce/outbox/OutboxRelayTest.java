@@ -0,0 +1,97 @@
+package com.fenix.commerce.outbox;
+
+import com.fenix.commerce.support.TestDatabases;
+import com.fenix.commerce.util.UuidBytes;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutboxRelayTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final List<List<OutboxMessage>> published = new ArrayList<>();
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OutboxProperties properties;
+    private boolean sinkDown;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("outbox", false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        properties = new OutboxProperties();
+        properties.getRelay().setBatchSize(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void drain_PublishesInOutboxOrderInBatchesAndDeletesAcknowledged() {
+        List<UUID> orderIds = insert(7);
+
+        long relayed = relay().drain();
+
+        assertEquals(7, relayed);
+        assertEquals(List.of(3, 3, 1), published.stream().map(List::size).toList());
+        assertEquals(orderIds, published.stream().flatMap(List::stream).map(OutboxMessage::orderId).toList());
+        assertEquals(0, remaining());
+    }
+
+    @Test
+    void drain_KeepsRejectedBatchForRedelivery() {
+        List<UUID> orderIds = insert(4);
+        sinkDown = true;
+
+        assertEquals(0, relay().drain());
+        assertEquals(4, remaining());
+
+        sinkDown = false;
+        assertEquals(4, relay().drain());
+        assertEquals(orderIds, published.stream().flatMap(List::stream).map(OutboxMessage::orderId).toList());
+    }
+
+    private OutboxRelay relay() {
+        OutboxSink sink = messages -> {
+            if (sinkDown) {
+                throw new IOException("sink unavailable");
+            }
+            published.add(messages);
+        };
+        return new OutboxRelay(new NamedParameterJdbcTemplate(jdbcTemplate), transactionTemplate, sink, properties,
+                null, null);
+    }
+
+    private List<UUID> insert(int count) {
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO order_outbox (tenant_id, order_id, event_type, payload) VALUES (?, ?, ?, ?)",
+                    UuidBytes.toBytes(tenantId), UuidBytes.toBytes(orderId), "ORDER_UPDATED", "{}"));
+        }
+        return orderIds;
+    }
+
+    private int remaining() {
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox", Integer.class));
+    }
+}
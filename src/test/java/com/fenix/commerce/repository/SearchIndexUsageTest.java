@@ -0,0 +1,352 @@
+package com.fenix.commerce.repository;
+
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.util.EmailHash;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Migrates a scratch MySQL database, loads a workload shaped like production
+ * (many stores, skewed status distributions), runs each search filter
+ * combination through the repositories and checks with EXPLAIN that the SQL
+ * Hibernate generated for it picks its dedicated index.
+ *
+ * The target database is wiped, so point it at a throwaway schema:
+ * <pre>
+ * mvn test -Dtest=SearchIndexUsageTest -Dfenix.it.jdbc-url=jdbc:mysql://localhost:3306/fenix_it \
+ *     -Dfenix.it.username=username -Dfenix.it.password=password
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "fenix.it.jdbc-url", matches = ".+")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchIndexUsageTest {
+
+    private static final int STORES = 20;
+    private static final int ORDERS = 40_000;
+    private static final int FULFILLMENTS_PER_ORDER = 3;
+    private static final int ORDERS_WITH_FULFILLMENTS = 2_000;
+    private static final List<String> CARRIERS = List.of("UPS", "FEDEX", "USPS", "DHL");
+
+    private static final PageRequest ORDER_PAGE = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "orderUpdatedAt"));
+    private static final PageRequest FULFILLMENT_PAGE = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "updatedAt"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CapturedStatements capturedStatements;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID[] storeIds = new UUID[STORES];
+    private UUID sampleOrderId;
+
+    @DynamicPropertySource
+    static void scratchDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("fenix.it.jdbc-url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("fenix.it.username", "username"));
+        registry.add("spring.datasource.password", () -> System.getProperty("fenix.it.password", "password"));
+        registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+    }
+
+    @TestConfiguration
+    static class ScratchDatabaseConfig {
+
+        @Bean
+        static CapturedStatements capturedStatements() {
+            return new CapturedStatements();
+        }
+
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @BeforeAll
+    void loadWorkload() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            insertTenantAndStores(connection);
+            insertOrdersAndFulfillments(connection);
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE orders, fulfillments");
+            }
+        }
+    }
+
+    Stream<Arguments> workload() {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        return Stream.of(
+                Arguments.of("idx_orders_tenant_status_updated", (Runnable) () -> orderRepository.searchOrders(
+                        tenantId, null, Order.OrderStatus.CANCELLED, null, null, from, null, ORDER_PAGE)),
+                Arguments.of("idx_orders_tenant_financial_updated", (Runnable) () -> orderRepository.searchOrders(
+                        tenantId, null, null, Order.FinancialStatus.REFUNDED, null, from, null, ORDER_PAGE)),
+                Arguments.of("idx_orders_tenant_fulfillment_updated", (Runnable) () -> orderRepository.searchOrders(
+                        tenantId, null, null, null, Order.FulfillmentOverallStatus.PARTIAL, null, null, ORDER_PAGE)),
+                Arguments.of("idx_orders_store_status_updated", (Runnable) () -> orderRepository.searchOrders(
+                        tenantId, storeIds[0], Order.OrderStatus.CANCELLED, null, null, null, null, ORDER_PAGE)),
+                Arguments.of("idx_orders_tenant_email_updated", (Runnable) () -> orderRepository.findCustomerOrders(
+                        tenantId, EmailHash.of(customerEmail(7)), Limit.of(51))),
+                Arguments.of("idx_fulfillments_tenant_status_updated",
+                        (Runnable) () -> fulfillmentRepository.searchTenantFulfillments(tenantId,
+                                Fulfillment.FulfillmentStatus.DELIVERED, null, null, null, null, null, Limit.of(51))),
+                Arguments.of("idx_fulfillments_tenant_carrier_status_updated",
+                        (Runnable) () -> fulfillmentRepository.searchTenantFulfillments(tenantId,
+                                Fulfillment.FulfillmentStatus.SHIPPED, "DHL", null, null, null, null, Limit.of(51))),
+                Arguments.of("idx_fulfillments_order_updated", (Runnable) () -> fulfillmentRepository.searchFulfillments(
+                        sampleOrderId, null, null, null, null, FULFILLMENT_PAGE)),
+                Arguments.of("idx_fulfillments_order_carrier_updated",
+                        (Runnable) () -> fulfillmentRepository.searchFulfillments(
+                                sampleOrderId, null, "UPS", null, null, FULFILLMENT_PAGE)),
+                Arguments.of("idx_fulfillments_order_status_updated",
+                        (Runnable) () -> fulfillmentRepository.searchFulfillments(
+                                sampleOrderId, Fulfillment.FulfillmentStatus.SHIPPED, null, null, null,
+                                FULFILLMENT_PAGE)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("workload")
+    void searchUsesIndex(String expectedIndex, Runnable search) throws SQLException {
+        capturedStatements.clear();
+        transactionTemplate.executeWithoutResult(status -> search.run());
+        // The search itself; a page may be followed by its count query
+        CapturedStatements.Executed query = capturedStatements.executed().get(0);
+        assertFalse(query.sql().toLowerCase().contains(" is null"), () -> "Unused filter in: " + query.sql());
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (int i = 0; i < query.params().size(); i++) {
+                explain.setObject(i + 1, query.params().get(i));
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                assertEquals(expectedIndex, rs.getString("key"), () -> "Plan for: " + query.sql());
+            }
+        }
+    }
+
+    private void insertTenantAndStores(Connection connection) throws SQLException {
+        try (PreparedStatement tenant = connection.prepareStatement(
+                "INSERT INTO tenant (tenant_id, tenant_name) VALUES (?, ?)")) {
+            tenant.setBytes(1, bytes(tenantId));
+            tenant.setString(2, "Workload tenant");
+            tenant.executeUpdate();
+        }
+        try (PreparedStatement store = connection.prepareStatement(
+                "INSERT INTO store (store_id, tenant_id, store_code, store_name) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < STORES; i++) {
+                storeIds[i] = UUID.randomUUID();
+                store.setBytes(1, bytes(storeIds[i]));
+                store.setBytes(2, bytes(tenantId));
+                store.setString(3, "STORE-" + i);
+                store.setString(4, "Store " + i);
+                store.addBatch();
+            }
+            store.executeBatch();
+        }
+    }
+
+    private void insertOrdersAndFulfillments(Connection connection) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement order = connection.prepareStatement(
+                "INSERT INTO orders (order_id, tenant_id, store_id, external_order_id, order_status, "
+                        + "financial_status, fulfillment_status, order_updated_at, customer_email, customer_email_hash) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement fulfillment = connection.prepareStatement(
+                "INSERT INTO fulfillments (fulfillment_id, tenant_id, order_id, external_fulfillment_id, "
+                        + "fulfillment_status, carrier) VALUES (?, ?, ?, ?, ?, ?)")) {
+
+            for (int i = 0; i < ORDERS; i++) {
+                UUID orderId = UUID.randomUUID();
+                order.setBytes(1, bytes(orderId));
+                order.setBytes(2, bytes(tenantId));
+                order.setBytes(3, bytes(storeIds[i % STORES]));
+                order.setString(4, "EXT-" + i);
+                // Skewed like real traffic: the statuses ops filter on are the rare ones
+                order.setString(5, i % 50 == 0 ? "CANCELLED" : i % 3 == 0 ? "CLOSED" : "CREATED");
+                order.setString(6, i % 40 == 0 ? "REFUNDED" : "PAID");
+                order.setString(7, i % 30 == 0 ? "PARTIAL" : i % 2 == 0 ? "FULFILLED" : "UNFULFILLED");
+                order.setTimestamp(8, Timestamp.valueOf(now.minusMinutes(i * 7L)));
+                // A few thousand customers with a handful of orders each
+                order.setString(9, customerEmail(i % 5_000));
+                order.setBytes(10, EmailHash.of(customerEmail(i % 5_000)));
+                order.addBatch();
+
+                if (i < ORDERS_WITH_FULFILLMENTS) {
+                    if (i == 0) {
+                        sampleOrderId = orderId;
+                    }
+                    for (int f = 0; f < FULFILLMENTS_PER_ORDER; f++) {
+                        fulfillment.setBytes(1, bytes(UUID.randomUUID()));
+                        fulfillment.setBytes(2, bytes(tenantId));
+                        fulfillment.setBytes(3, bytes(orderId));
+                        fulfillment.setString(4, "FUL-" + i + "-" + f);
+                        fulfillment.setString(5, f == 0 ? "DELIVERED" : "SHIPPED");
+                        fulfillment.setString(6, CARRIERS.get((i + f) % CARRIERS.size()));
+                        fulfillment.addBatch();
+                    }
+                }
+                if (i % 1000 == 999) {
+                    order.executeBatch();
+                    fulfillment.executeBatch();
+                }
+            }
+            order.executeBatch();
+            fulfillment.executeBatch();
+        }
+    }
+
+    private static String customerEmail(int customer) {
+        return "customer" + customer + "@example.com";
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Records the SQL and bound parameters of every query run through the
+     * {@code dataSource} bean, so the test can EXPLAIN exactly what
+     * Hibernate sent
+     */
+    static class CapturedStatements implements BeanPostProcessor {
+
+        record Executed(String sql, List<Object> params) {
+        }
+
+        private final List<Executed> executed = new CopyOnWriteArrayList<>();
+
+        List<Executed> executed() {
+            return List.copyOf(executed);
+        }
+
+        void clear() {
+            executed.clear();
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource target) {
+                return new DelegatingDataSource(target) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return wrap(obtainTargetDataSource().getConnection());
+                    }
+
+                    @Override
+                    public Connection getConnection(String username, String password) throws SQLException {
+                        return wrap(obtainTargetDataSource().getConnection(username, password));
+                    }
+                };
+            }
+            return bean;
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement
+                                && method.getName().equals("prepareStatement")) {
+                            return wrap(statement, (String) args[0], (Connection) proxy);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql, Connection connection) {
+            Map<Integer, Object> params = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            params.put(index, name.equals("setNull") ? null : args[1]);
+                        } else if (name.equals("clearParameters")) {
+                            params.clear();
+                        } else if (name.equals("executeQuery") && args == null) {
+                            executed.add(new Executed(sql, new ArrayList<>(params.values())));
+                        } else if (name.equals("getConnection")) {
+                            return connection;
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
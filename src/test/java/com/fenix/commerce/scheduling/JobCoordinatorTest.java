@@ -0,0 +1,176 @@
+package com.fenix.commerce.scheduling;
+
+import com.fenix.commerce.support.TestDatabases;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lease election, failover and tenant partitioning between two instances
+ * sharing the scheduler tables, on a pool that does not auto-commit like
+ * the prod one
+ */
+class JobCoordinatorTest {
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final List<JobCoordinator> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("scheduler", false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(JobCoordinator::stop);
+        dataSource.close();
+    }
+
+    @Test
+    void onlyTheLeaseHolderRunsALeaderJob() {
+        JobCoordinator a = node("a", Duration.ofMinutes(1));
+        JobCoordinator b = node("b", Duration.ofMinutes(1));
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(a.runAsLeader("relay", runs::incrementAndGet));
+        assertFalse(b.runAsLeader("relay", runs::incrementAndGet));
+        assertTrue(a.runAsLeader("relay", runs::incrementAndGet));
+
+        assertEquals(2, runs.get());
+        assertEquals("a", a.leases().get("relay").get("owner"));
+    }
+
+    @Test
+    void leasesAndMembershipAreCommitted() {
+        JobCoordinator a = node("a", Duration.ofMinutes(1));
+        assertTrue(a.runAsLeader("relay", () -> { }));
+        a.heartbeat();
+
+        // Whatever was not committed was rolled back when the connection went back to the pool
+        assertEquals(List.of("a"), committed("SELECT owner FROM scheduler_leases"));
+        assertEquals(List.of("a"), committed("SELECT node_id FROM scheduler_members"));
+
+        a.stop();
+
+        assertEquals(List.of(), committed("SELECT node_id FROM scheduler_members"));
+    }
+
+    @Test
+    void expiredLeaseFailsOver() throws InterruptedException {
+        JobCoordinator a = node("a", Duration.ofMillis(50));
+        JobCoordinator b = node("b", Duration.ofMillis(50));
+        assertTrue(a.runAsLeader("relay", () -> { }));
+
+        // a stops renewing, as if it crashed
+        Thread.sleep(100);
+
+        assertTrue(b.runAsLeader("relay", () -> { }));
+        assertFalse(a.runAsLeader("relay", () -> { }));
+    }
+
+    @Test
+    void stoppedNodeReleasesItsLeaseAtOnce() {
+        JobCoordinator a = node("a", Duration.ofMinutes(1));
+        JobCoordinator b = node("b", Duration.ofMinutes(1));
+        assertTrue(a.runAsLeader("relay", () -> { }));
+
+        a.stop();
+
+        assertTrue(b.runAsLeader("relay", () -> { }));
+    }
+
+    @Test
+    void tenantsAreSplitAmongLiveMembers() {
+        JobCoordinator a = node("a", Duration.ofMinutes(1));
+        JobCoordinator b = node("b", Duration.ofMinutes(1));
+        a.heartbeat();
+        b.heartbeat();
+        a.heartbeat();
+        List<UUID> tenants = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tenants.add(UUID.randomUUID());
+        }
+
+        TenantPartition partitionA = partition(a);
+        TenantPartition partitionB = partition(b);
+        long ownedByA = tenants.stream().filter(partitionA::owns).count();
+        long ownedByB = tenants.stream().filter(partitionB::owns).count();
+
+        assertEquals(1000, ownedByA + ownedByB);
+        tenants.forEach(tenant -> assertTrue(partitionA.owns(tenant) ^ partitionB.owns(tenant)));
+        assertTrue(ownedByA > 400 && ownedByB > 400, ownedByA + " / " + ownedByB);
+
+        b.stop();
+        a.heartbeat();
+        TenantPartition alone = partition(a);
+        assertTrue(tenants.stream().allMatch(alone::owns));
+    }
+
+    @Test
+    void registryRecordsRunsFailuresAndSkips() {
+        JobRegistry registry = new JobRegistry();
+        JobCoordinator leader = new JobCoordinator(jdbcTemplate, transactionTemplate, registry,
+                properties("a", Duration.ofMinutes(1)));
+        nodes.add(leader);
+        JobCoordinator other = node("b", Duration.ofMinutes(1));
+
+        assertTrue(leader.runAsLeader("rollup", () -> { }));
+        assertThrows(IllegalStateException.class, () -> leader.runAsLeader("rollup", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertFalse(other.runAsLeader("rollup", () -> { }));
+
+        JobMetrics metrics = registry.metrics().get(0);
+        assertEquals("rollup", metrics.name());
+        assertEquals(JobRegistry.Mode.LEADER, metrics.mode());
+        assertEquals(2, metrics.runs());
+        assertEquals(1, metrics.failures());
+        assertEquals("boom", metrics.lastError());
+        assertNotNull(metrics.lagMillis());
+    }
+
+    private TenantPartition partition(JobCoordinator node) {
+        AtomicReference<TenantPartition> partition = new AtomicReference<>();
+        node.runPartitioned("archive", partition::set);
+        return partition.get();
+    }
+
+    private List<String> committed(String sql) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForList(sql, String.class));
+    }
+
+    private JobCoordinator node(String nodeId, Duration leaseTtl) {
+        JobCoordinator node = new JobCoordinator(jdbcTemplate, transactionTemplate, new JobRegistry(),
+                properties(nodeId, leaseTtl));
+        nodes.add(node);
+        return node;
+    }
+
+    private static SchedulerProperties properties(String nodeId, Duration leaseTtl) {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.setNodeId(nodeId);
+        properties.setLeaseTtl(leaseTtl);
+        return properties;
+    }
+}
@@ -0,0 +1,113 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.order.CustomerOrderSearchRequest;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Customer email search: case and whitespace insensitive matching and a
+ * keyset cursor walking every order once, orders without an update time
+ * included
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderService.class, OrderPurger.class, QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerOrderSearchTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void searchByCustomerEmail_WalksEveryOrderOncePageByPage() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            OrderCreateRequest request = orderRequest("EXT-C" + i);
+            request.setCustomerEmail(i % 2 == 0 ? "Jane.Doe@Example.com" : "jane.doe@example.com");
+            // Two orders share a timestamp to exercise the order_id tie-break
+            request.setOrderUpdatedAt(now.minusMinutes(i == 2 ? 1 : i));
+            created.add(orderService.createOrder(request).getId());
+        }
+        // Orders whose client never sent an update time sort after the dated ones
+        Set<UUID> undated = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            OrderCreateRequest request = orderRequest("EXT-U" + i);
+            request.setCustomerEmail("jane.doe@example.com");
+            UUID orderId = orderService.createOrder(request).getId();
+            orderService.updateOrder(orderId, request);
+            undated.add(orderId);
+        }
+        created.addAll(undated);
+        orderService.createOrder(orderRequest("EXT-OTHER"));
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CustomerOrderSearchRequest request = CustomerOrderSearchRequest.builder()
+                    .orgId(tenant.getTenantId())
+                    .email("  JANE.DOE@example.com ")
+                    .cursor(cursor)
+                    .size(3)
+                    .build();
+            // One index range scan per page, no count query
+            CursorPagedResponse<OrderResponse> page =
+                    assertStatementCount(1, () -> orderService.searchByCustomerEmail(request));
+            page.getData().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(created, new HashSet<>(seen));
+        assertEquals(created.size(), seen.size());
+        assertEquals(undated, new HashSet<>(seen.subList(seen.size() - undated.size(), seen.size())));
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentBulkUpsertResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.dto.order.ExternalOrderRef;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fenix.commerce.entity.Fulfillment.FulfillmentStatus.CANCELLED;
+import static com.fenix.commerce.entity.Fulfillment.FulfillmentStatus.CREATED;
+import static com.fenix.commerce.entity.Fulfillment.FulfillmentStatus.DELIVERED;
+import static com.fenix.commerce.entity.Fulfillment.FulfillmentStatus.FAILED;
+import static com.fenix.commerce.entity.Fulfillment.FulfillmentStatus.SHIPPED;
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tenant-level bulk fulfillment upsert: set-based statements per chunk,
+ * creates versus updates, order status recounts and collation-insensitive
+ * matching
+ */
+@DataJpaTest(properties = {
+        // Same JDBC batching as the prod profile, so batched writes count once
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import({ TestData.class, OrderService.class, OrderPurger.class, FulfillmentBulkService.class,
+        QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FulfillmentBulkServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentBulkService fulfillmentBulkService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void upsertFulfillments_UsesSetBasedQueriesPerChunk() {
+        List<Fulfillment.FulfillmentStatus[]> waves = List.of(
+                new Fulfillment.FulfillmentStatus[] { SHIPPED, DELIVERED, SHIPPED },
+                new Fulfillment.FulfillmentStatus[] { SHIPPED, CREATED, CANCELLED },
+                new Fulfillment.FulfillmentStatus[] { CREATED, CREATED, CREATED },
+                new Fulfillment.FulfillmentStatus[] { CANCELLED, FAILED, CANCELLED });
+        List<UUID> orderIds = new ArrayList<>();
+        List<FulfillmentBulkUpsertRequest.Item> items = new ArrayList<>();
+        for (int o = 0; o < waves.size(); o++) {
+            orderIds.add(orderService.createOrder(orderRequest("EXT-B" + o)).getId());
+            for (int f = 0; f < 3; f++) {
+                items.add(bulkItem("EXT-B" + o, "FUL-" + f, waves.get(o)[f]));
+            }
+        }
+        // Already stored from an earlier wave: replaced, not duplicated
+        Order firstOrder = new Order();
+        firstOrder.setOrderId(orderIds.get(0));
+        fulfillmentRepository.save(Fulfillment.builder()
+                .tenant(tenant)
+                .order(firstOrder)
+                .externalFulfillmentId("FUL-0")
+                .fulfillmentStatus(CREATED)
+                .build());
+        items.add(bulkItem("EXT-UNKNOWN", "FUL-0", SHIPPED));
+
+        FulfillmentBulkUpsertRequest request = FulfillmentBulkUpsertRequest.builder()
+                .orgId(tenant.getTenantId())
+                .fulfillments(items)
+                .build();
+        // orders + existing fulfillments + insert batch + update batch + status counts + order update batch
+        FulfillmentBulkUpsertResponse response =
+                assertStatementCount(6, () -> fulfillmentBulkService.upsertFulfillments(request));
+
+        assertEquals(11, response.getCreated());
+        assertEquals(1, response.getUpdated());
+        assertEquals(4, response.getOrdersUpdated());
+        assertEquals(List.of(new ExternalOrderRef(store.getStoreId(), "EXT-UNKNOWN")), response.getUnknownOrders());
+        assertEquals(List.of(Order.FulfillmentOverallStatus.FULFILLED, Order.FulfillmentOverallStatus.PARTIAL,
+                        Order.FulfillmentOverallStatus.UNFULFILLED, Order.FulfillmentOverallStatus.CANCELLED),
+                orderIds.stream().map(id -> orderRepository.findById(id).orElseThrow().getFulfillmentStatus()).toList());
+        assertEquals(3, fulfillmentRepository.findByOrderOrderIdOrderByCreatedAt(orderIds.get(0)).size());
+    }
+
+    @Test
+    void upsertFulfillments_MatchesExternalIdsIgnoringCase() {
+        UUID orderId = orderService.createOrder(orderRequest("EXT-C0")).getId();
+        Order order = new Order();
+        order.setOrderId(orderId);
+        fulfillmentRepository.save(Fulfillment.builder()
+                .tenant(tenant)
+                .order(order)
+                .externalFulfillmentId("FUL-0")
+                .fulfillmentStatus(CREATED)
+                .build());
+
+        FulfillmentBulkUpsertRequest request = FulfillmentBulkUpsertRequest.builder()
+                .orgId(tenant.getTenantId())
+                .fulfillments(List.of(
+                        bulkItem("ext-c0", "ful-0", SHIPPED),
+                        bulkItem("EXT-C0", "FUL-1", CREATED),
+                        bulkItem("Ext-C0", "Ful-1", DELIVERED)))
+                .build();
+        FulfillmentBulkUpsertResponse response = fulfillmentBulkService.upsertFulfillments(request);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getOrdersUpdated());
+        assertEquals(List.of(), response.getUnknownOrders());
+        assertEquals(Order.FulfillmentOverallStatus.FULFILLED,
+                orderRepository.findById(orderId).orElseThrow().getFulfillmentStatus());
+        assertEquals(2, fulfillmentRepository.findByOrderOrderIdOrderByCreatedAt(orderId).size());
+    }
+
+    private FulfillmentBulkUpsertRequest.Item bulkItem(
+            String externalOrderId, String externalFulfillmentId, Fulfillment.FulfillmentStatus status) {
+        return FulfillmentBulkUpsertRequest.Item.builder()
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .fulfillment(FulfillmentCreateRequest.builder()
+                        .externalFulfillmentId(externalFulfillmentId)
+                        .status(status)
+                        .carrier("UPS")
+                        .build())
+                .build();
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
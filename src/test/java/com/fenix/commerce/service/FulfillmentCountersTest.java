@@ -0,0 +1,242 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.FulfillmentReconciliationProperties;
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.fulfillment.FulfillmentCreateRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentPatchRequest;
+import com.fenix.commerce.dto.fulfillment.FulfillmentReconciliationResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentResponse;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.FulfillmentCounts;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.scheduling.JobRegistry;
+import com.fenix.commerce.scheduling.SchedulerProperties;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.support.TestData;
+import com.fenix.commerce.util.UuidBytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Per-order fulfillment counters as kept by the fulfillment service and
+ * repaired by the reconciliation job
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderService.class, OrderPurger.class, FulfillmentService.class,
+        FulfillmentCounterReconciler.class, ShardRouter.class, JobCoordinator.class, JobRegistry.class })
+@EnableConfigurationProperties({ FulfillmentReconciliationProperties.class, SchedulerProperties.class,
+        PurgeProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FulfillmentCountersTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    @Autowired
+    private FulfillmentCounterReconciler reconciler;
+
+    @Autowired
+    private FulfillmentReconciliationProperties properties;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void fulfillmentWrites_KeepCountersAndDerivedStatus() {
+        UUID orderId = newOrder("EXT-1");
+
+        FulfillmentResponse first = fulfillmentService.createFulfillment(
+                orderId, fulfillment("FUL-1", Fulfillment.FulfillmentStatus.SHIPPED));
+        fulfillmentService.createFulfillment(orderId, fulfillment("FUL-2", Fulfillment.FulfillmentStatus.CREATED));
+        assertEquals(new FulfillmentCounts(1, 1, 0, 0, 0, 0), counts(orderId));
+        assertEquals(Order.FulfillmentOverallStatus.PARTIAL, status(orderId));
+
+        fulfillmentService.patchFulfillment(orderId, first.getId(), FulfillmentPatchRequest.builder()
+                .status(Fulfillment.FulfillmentStatus.DELIVERED)
+                .build());
+        assertEquals(new FulfillmentCounts(1, 0, 1, 0, 0, 0), counts(orderId));
+
+        UUID secondId = fulfillmentService.listFulfillments(orderId, Fulfillment.FulfillmentStatus.CREATED, null,
+                null, null, PageRequest.of(0, 1)).getData().get(0).getId();
+        fulfillmentService.deleteFulfillment(orderId, secondId);
+        assertEquals(new FulfillmentCounts(0, 0, 1, 0, 0, 0), counts(orderId));
+        assertEquals(Order.FulfillmentOverallStatus.FULFILLED, status(orderId));
+
+        // The status came from the fulfillments, not the client
+        fulfillmentService.deleteFulfillment(orderId, first.getId());
+        assertEquals(new FulfillmentCounts(0, 0, 0, 0, 0, 0), counts(orderId));
+        assertEquals(Order.FulfillmentOverallStatus.UNFULFILLED, status(orderId));
+    }
+
+    @Test
+    void updateOrder_WhileAFulfillmentIsCreated_KeepsTheNewCount() throws Exception {
+        UUID orderId = newOrder("EXT-U");
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<FulfillmentResponse> created = transactionTemplate.execute(tx -> {
+                orderService.updateOrder(orderId, OrderCreateRequest.builder()
+                        .orgId(tenant.getTenantId())
+                        .websiteId(store.getStoreId())
+                        .externalOrderId("EXT-U")
+                        .currency("EUR")
+                        .build());
+                // Created before the update commits; it waits for the order's row lock
+                Future<FulfillmentResponse> fulfillment = pool.submit(() -> fulfillmentService.createFulfillment(
+                        orderId, fulfillment("FUL-U", Fulfillment.FulfillmentStatus.SHIPPED)));
+                try {
+                    fulfillment.get(300, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException expected) {
+                    // Still blocked
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return fulfillment;
+            });
+            created.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(new FulfillmentCounts(0, 1, 0, 0, 0, 0), counts(orderId));
+        assertEquals("EUR", orderRepository.findById(orderId).orElseThrow().getCurrency());
+    }
+
+    @Test
+    void requestedReconciliation_RepairsDriftedOrdersPageByPageInParallelBatches() {
+        properties.setPageSize(3);
+        properties.setBatchSize(2);
+        properties.setParallelism(3);
+        properties.getRunner().setMaxPagesPerPoll(2);
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            UUID orderId = newOrder("EXT-R" + i);
+            fulfillmentService.createFulfillment(orderId, fulfillment("FUL-" + i, Fulfillment.FulfillmentStatus.SHIPPED));
+            orderIds.add(orderId);
+        }
+        // Out-of-band writes the counters never saw
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.update("UPDATE fulfillments SET fulfillment_status = 'CANCELLED' WHERE order_id = ?",
+                    (Object) UuidBytes.toBytes(orderIds.get(1)));
+            jdbcTemplate.update("UPDATE orders SET fulfillment_count_shipped = 5 WHERE order_id = ?",
+                    (Object) UuidBytes.toBytes(orderIds.get(4)));
+            jdbcTemplate.update("DELETE FROM fulfillments WHERE order_id = ?",
+                    (Object) UuidBytes.toBytes(orderIds.get(6)));
+        });
+
+        FulfillmentReconciliationResponse requested = reconciler.requestTenant(tenant.getTenantId());
+        assertEquals(FulfillmentReconciliationResponse.Status.PENDING, requested.getStatus());
+
+        // Two pages of three this poll, the last order on the next
+        reconciler.runRequested();
+        FulfillmentReconciliationResponse running = reconciliation(requested);
+        assertEquals(FulfillmentReconciliationResponse.Status.RUNNING, running.getStatus());
+        assertEquals(6, running.getOrdersChecked());
+        assertNotNull(running.getLastOrderId());
+
+        reconciler.runRequested();
+        FulfillmentReconciliationResponse completed = reconciliation(requested);
+        assertEquals(FulfillmentReconciliationResponse.Status.COMPLETED, completed.getStatus());
+        assertEquals(7, completed.getOrdersChecked());
+        assertEquals(3, completed.getOrdersRepaired());
+        assertNotNull(completed.getFinishedAt());
+        assertEquals(new FulfillmentCounts(0, 0, 0, 1, 0, 0), counts(orderIds.get(1)));
+        assertEquals(Order.FulfillmentOverallStatus.CANCELLED, status(orderIds.get(1)));
+        assertEquals(new FulfillmentCounts(0, 1, 0, 0, 0, 0), counts(orderIds.get(4)));
+        assertEquals(new FulfillmentCounts(0, 0, 0, 0, 0, 0), counts(orderIds.get(6)));
+        assertEquals(Order.FulfillmentOverallStatus.UNFULFILLED, status(orderIds.get(6)));
+
+        FulfillmentReconciliationResponse again = reconciler.requestTenant(tenant.getTenantId());
+        reconciler.runRequested();
+        reconciler.runRequested();
+        assertEquals(0, reconciliation(again).getOrdersRepaired());
+        assertEquals(FulfillmentReconciliationResponse.Status.COMPLETED, reconciliation(again).getStatus());
+    }
+
+    @Test
+    void requestTenant_UnknownTenant_NotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> reconciler.requestTenant(UUID.randomUUID()));
+    }
+
+    private FulfillmentReconciliationResponse reconciliation(FulfillmentReconciliationResponse requested) {
+        return reconciler.getReconciliation(tenant.getTenantId(), requested.getReconciliationId());
+    }
+
+    private UUID newOrder(String externalOrderId) {
+        return orderRepository.save(Order.builder()
+                .tenant(tenant)
+                .store(store)
+                .externalOrderId(externalOrderId)
+                .orderStatus(Order.OrderStatus.CREATED)
+                .financialStatus(Order.FinancialStatus.PAID)
+                .fulfillmentStatus(Order.FulfillmentOverallStatus.UNFULFILLED)
+                .orderTotalAmount(BigDecimal.TEN)
+                .ingestedAt(Instant.now())
+                .build()).getOrderId();
+    }
+
+    private static FulfillmentCreateRequest fulfillment(String externalId, Fulfillment.FulfillmentStatus status) {
+        return FulfillmentCreateRequest.builder()
+                .externalFulfillmentId(externalId)
+                .status(status)
+                .build();
+    }
+
+    private FulfillmentCounts counts(UUID orderId) {
+        return orderRepository.findById(orderId).orElseThrow().getFulfillmentCounts();
+    }
+
+    private Order.FulfillmentOverallStatus status(UUID orderId) {
+        return orderRepository.findById(orderId).orElseThrow().getFulfillmentStatus();
+    }
+}
@@ -0,0 +1,141 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderFullResponse;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.dto.tracking.TrackingEventResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.entity.Tracking;
+import com.fenix.commerce.entity.TrackingEvent;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.repository.TrackingEventRepository;
+import com.fenix.commerce.repository.TrackingRepository;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The order 360 view assembled from a fixed number of set-based queries
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderService.class, OrderPurger.class, QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderFullTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private TrackingRepository trackingRepository;
+
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void getOrderFull_UsesFixedNumberOfQueries() {
+        OrderResponse order = orderService.createOrder(orderRequest("EXT-FULL"));
+        Order orderRef = new Order();
+        orderRef.setOrderId(order.getId());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Tracking firstTracking = null;
+        for (int f = 0; f < 3; f++) {
+            Fulfillment fulfillment = fulfillmentRepository.save(Fulfillment.builder()
+                    .tenant(tenant)
+                    .order(orderRef)
+                    .externalFulfillmentId("FUL-" + f)
+                    .fulfillmentStatus(Fulfillment.FulfillmentStatus.SHIPPED)
+                    .build());
+            for (int t = 0; t < 2; t++) {
+                Tracking tracking = trackingRepository.save(Tracking.builder()
+                        .tenant(tenant)
+                        .fulfillment(fulfillment)
+                        .trackingNumber("TRK-" + f + "-" + t)
+                        .trackingStatus(Tracking.TrackingStatus.IN_TRANSIT)
+                        .isPrimary(t == 0)
+                        .build());
+                if (firstTracking == null) {
+                    firstTracking = tracking;
+                }
+                for (int e = 0; e < OrderService.RECENT_EVENTS_PER_TRACKING + 2; e++) {
+                    trackingEventRepository.save(TrackingEvent.builder()
+                            .tenant(tenant)
+                            .tracking(tracking)
+                            .eventTime(now.minusHours(e))
+                            .eventCode("SCAN")
+                            .source(TrackingEvent.Source.CARRIER)
+                            .eventHash(tracking.getTrackingNumber() + "-" + e)
+                            .build());
+                }
+            }
+        }
+
+        // order + fulfillments + tracking + recent events, independent of fan-out
+        OrderFullResponse full = assertStatementCount(4, () -> orderService.getOrderFull(order.getId()));
+
+        assertEquals(order.getId(), full.getOrder().getId());
+        assertEquals(3, full.getFulfillments().size());
+        for (OrderFullResponse.FulfillmentDetails fulfillment : full.getFulfillments()) {
+            assertEquals(2, fulfillment.getTracking().size());
+            for (OrderFullResponse.TrackingDetails tracking : fulfillment.getTracking()) {
+                List<TrackingEventResponse> events = tracking.getRecentEvents();
+                assertEquals(OrderService.RECENT_EVENTS_PER_TRACKING, events.size());
+                assertEquals(now, events.get(0).getEventTime());
+                events.forEach(event -> assertEquals(tracking.getTracking().getId(), event.getTrackingId()));
+            }
+        }
+    }
+
+    @Test
+    void getOrderFull_WithoutFulfillmentsSkipsChildQueries() {
+        OrderResponse order = orderService.createOrder(orderRequest("EXT-EMPTY"));
+
+        OrderFullResponse full = assertStatementCount(2, () -> orderService.getOrderFull(order.getId()));
+
+        assertEquals(List.of(), full.getFulfillments());
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.order.ExternalOrderRef;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderLookupRequest;
+import com.fenix.commerce.dto.order.OrderLookupResponse;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Multi-get by order id and external id: chunking, input order, misses and
+ * collation-insensitive external id matching
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderService.class, OrderPurger.class, QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderLookupTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void lookupOrders_ResolvesChunkedKeysInInputOrder() {
+        List<UUID> created = new ArrayList<>();
+        List<ExternalOrderRef> externalOrders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            created.add(orderService.createOrder(orderRequest("EXT-L" + i)).getId());
+            externalOrders.add(new ExternalOrderRef(store.getStoreId(), "EXT-L" + i));
+        }
+        ExternalOrderRef missingRef =
+                new ExternalOrderRef(store.getStoreId(), "EXT-MISSING");
+        externalOrders.add(0, missingRef);
+
+        // One id past a full IN list, mostly misses, with the last order alone in the second chunk
+        List<UUID> missingIds = new ArrayList<>();
+        for (int i = 0; i < OrderService.LOOKUP_CHUNK_SIZE - 3; i++) {
+            missingIds.add(UUID.randomUUID());
+        }
+        List<UUID> orderIds = new ArrayList<>(missingIds);
+        orderIds.add(0, created.get(3));
+        orderIds.add(100, created.get(1));
+        orderIds.add(400, created.get(2));
+        orderIds.add(created.get(0));
+        assertEquals(OrderService.LOOKUP_CHUNK_SIZE + 1, orderIds.size());
+
+        OrderLookupRequest request = OrderLookupRequest.builder()
+                .orgId(tenant.getTenantId())
+                .orderIds(orderIds)
+                .externalOrders(externalOrders)
+                .build();
+        // two chunks of hot ids + archive fallback for the misses + one store's external ids
+        OrderLookupResponse response = assertStatementCount(4, () -> orderService.lookupOrders(request));
+
+        List<UUID> expected = new ArrayList<>(List.of(created.get(3), created.get(1), created.get(2), created.get(0)));
+        expected.addAll(created);
+        assertEquals(expected, response.getOrders().stream().map(OrderResponse::getId).toList());
+        assertEquals(missingIds, response.getNotFoundOrderIds());
+        assertEquals(List.of(missingRef), response.getNotFoundExternalOrders());
+    }
+
+    @Test
+    void lookupOrders_MatchesExternalIdsIgnoringCase() {
+        UUID orderId = orderService.createOrder(orderRequest("Shop-Ext-1")).getId();
+
+        OrderLookupRequest request = OrderLookupRequest.builder()
+                .orgId(tenant.getTenantId())
+                .externalOrders(List.of(
+                        new ExternalOrderRef(store.getStoreId(), "SHOP-EXT-1"),
+                        new ExternalOrderRef(store.getStoreId(), "shop-ext-1")))
+                .build();
+        OrderLookupResponse response = orderService.lookupOrders(request);
+
+        assertEquals(List.of(orderId), response.getOrders().stream().map(OrderResponse::getId).toList());
+        assertEquals(List.of(), response.getNotFoundExternalOrders());
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
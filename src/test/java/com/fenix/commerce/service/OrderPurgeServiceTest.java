@@ -0,0 +1,208 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.purge.PurgeJobRequest;
+import com.fenix.commerce.dto.purge.PurgeJobResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.entity.Tracking;
+import com.fenix.commerce.entity.TrackingEvent;
+import com.fenix.commerce.health.HealthMonitor;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.repository.OrderRepository;
+import com.fenix.commerce.repository.TrackingEventRepository;
+import com.fenix.commerce.repository.TrackingRepository;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.scheduling.JobRegistry;
+import com.fenix.commerce.scheduling.SchedulerProperties;
+import com.fenix.commerce.sharding.ShardRouter;
+import com.fenix.commerce.support.TestData;
+import com.fenix.commerce.util.UuidBytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Policy-driven purge jobs: bottom-up chunked deletion, progress across
+ * polls and cancellation
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderPurgeService.class, OrderPurger.class, ShardRouter.class, JobCoordinator.class, JobRegistry.class })
+@EnableConfigurationProperties({ PurgeProperties.class, SchedulerProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPurgeServiceTest {
+
+    @Autowired
+    private OrderPurgeService purgeService;
+
+    @Autowired
+    private PurgeProperties properties;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private TrackingRepository trackingRepository;
+
+    @Autowired
+    private TrackingEventRepository trackingEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private HealthMonitor healthMonitor;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        properties.setOrderChunkSize(2);
+        properties.setRowChunkSize(3);
+        properties.setPause(Duration.ZERO);
+        properties.getRunner().setEnabled(true);
+        properties.getRunner().setMaxChunksPerPoll(2);
+
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void purgeJob_DeletesMatchingOrdersBottomUpAcrossPolls() {
+        LocalDateTime old = LocalDateTime.now().minusDays(100);
+        List<UUID> purged = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            purged.add(newOrderWithChildren("EXT-P" + i, Order.OrderStatus.CANCELLED, old));
+        }
+        UUID recent = newOrderWithChildren("EXT-RECENT", Order.OrderStatus.CANCELLED, LocalDateTime.now());
+        UUID closed = newOrderWithChildren("EXT-CLOSED", Order.OrderStatus.CLOSED, old);
+
+        PurgeJobResponse job = purgeService.createJob(tenant.getTenantId(), PurgeJobRequest.builder()
+                .statuses(Set.of(Order.OrderStatus.CANCELLED))
+                .olderThanDays(30)
+                .build());
+        assertEquals(PurgeJobResponse.Status.PENDING, job.getStatus());
+
+        // Two chunks of two orders per poll
+        purgeService.runJobs();
+        PurgeJobResponse progress = purgeService.getJob(tenant.getTenantId(), job.getJobId());
+        assertEquals(PurgeJobResponse.Status.RUNNING, progress.getStatus());
+        assertEquals(4, progress.getOrdersDeleted());
+
+        purgeService.runJobs();
+        PurgeJobResponse done = purgeService.getJob(tenant.getTenantId(), job.getJobId());
+        assertEquals(PurgeJobResponse.Status.COMPLETED, done.getStatus());
+        assertEquals(5, done.getOrdersDeleted());
+        // Per order: 2 items, 2 fulfillments, 2 tracking, 4 tracking events and the order itself
+        assertEquals(5 * 11, done.getRowsDeleted());
+
+        purged.forEach(orderId -> assertEquals(0, rowsOf(orderId)));
+        assertEquals(11, rowsOf(recent));
+        assertEquals(11, rowsOf(closed));
+    }
+
+    @Test
+    void cancelledJob_IsNotRun() {
+        UUID orderId = newOrderWithChildren("EXT-C", Order.OrderStatus.CANCELLED, LocalDateTime.now());
+        PurgeJobResponse job = purgeService.createJob(tenant.getTenantId(), new PurgeJobRequest());
+
+        PurgeJobResponse cancelled = purgeService.cancelJob(tenant.getTenantId(), job.getJobId());
+        purgeService.runJobs();
+
+        assertEquals(PurgeJobResponse.Status.CANCELLED, cancelled.getStatus());
+        assertEquals(0, purgeService.getJob(tenant.getTenantId(), job.getJobId()).getOrdersDeleted());
+        assertEquals(11, rowsOf(orderId));
+    }
+
+    private UUID newOrderWithChildren(String externalOrderId, Order.OrderStatus status, LocalDateTime updatedAt) {
+        Order order = orderRepository.save(Order.builder()
+                .tenant(tenant)
+                .store(store)
+                .externalOrderId(externalOrderId)
+                .orderStatus(status)
+                .financialStatus(Order.FinancialStatus.PAID)
+                .fulfillmentStatus(Order.FulfillmentOverallStatus.FULFILLED)
+                .orderTotalAmount(BigDecimal.TEN)
+                .orderUpdatedAt(updatedAt)
+                .ingestedAt(Instant.now())
+                .build());
+        for (int i = 0; i < 2; i++) {
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                    "INSERT INTO order_items (order_item_id, tenant_id, order_id) VALUES (?, ?, ?)",
+                    UuidBytes.toBytes(UUID.randomUUID()), UuidBytes.toBytes(tenant.getTenantId()),
+                    UuidBytes.toBytes(order.getOrderId())));
+            Fulfillment fulfillment = fulfillmentRepository.save(Fulfillment.builder()
+                    .tenant(tenant)
+                    .order(order)
+                    .externalFulfillmentId(externalOrderId + "-FUL-" + i)
+                    .fulfillmentStatus(Fulfillment.FulfillmentStatus.DELIVERED)
+                    .build());
+            Tracking tracking = trackingRepository.save(Tracking.builder()
+                    .tenant(tenant)
+                    .fulfillment(fulfillment)
+                    .trackingNumber(externalOrderId + "-TRK-" + i)
+                    .trackingStatus(Tracking.TrackingStatus.DELIVERED)
+                    .isPrimary(true)
+                    .build());
+            for (int e = 0; e < 2; e++) {
+                trackingEventRepository.save(TrackingEvent.builder()
+                        .tenant(tenant)
+                        .tracking(tracking)
+                        .eventTime(LocalDateTime.now().minusHours(e))
+                        .eventCode("SCAN")
+                        .source(TrackingEvent.Source.CARRIER)
+                        .eventHash(tracking.getTrackingNumber() + "-" + e)
+                        .build());
+            }
+        }
+        return order.getOrderId();
+    }
+
+    /** Rows of the order and everything below it */
+    private long rowsOf(UUID orderId) {
+        Object id = UuidBytes.toBytes(orderId);
+        return count("SELECT COUNT(*) FROM orders WHERE order_id = ?", id)
+                + count("SELECT COUNT(*) FROM order_items WHERE order_id = ?", id)
+                + count("SELECT COUNT(*) FROM fulfillments WHERE order_id = ?", id)
+                + count("SELECT COUNT(*) FROM tracking t JOIN fulfillments f ON f.fulfillment_id = t.fulfillment_id "
+                        + "WHERE f.order_id = ?", id)
+                + count("SELECT COUNT(*) FROM tracking_events te JOIN tracking t ON t.tracking_id = te.tracking_id "
+                        + "JOIN fulfillments f ON f.fulfillment_id = t.fulfillment_id WHERE f.order_id = ?", id);
+    }
+
+    private long count(String sql, Object orderId) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, orderId);
+        return count != null ? count : 0;
+    }
+}
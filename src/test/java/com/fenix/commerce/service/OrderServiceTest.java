@@ -2,10 +2,13 @@ package com.fenix.commerce.service;
 
 import com.fenix.commerce.dto.order.OrderCreateRequest;
 import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.ArchivedOrder;
 import com.fenix.commerce.entity.Order;
 import com.fenix.commerce.entity.Store;
 import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.event.OrderChangeEvent;
 import com.fenix.commerce.exception.ResourceNotFoundException;
+import com.fenix.commerce.repository.ArchivedOrderRepository;
 import com.fenix.commerce.repository.OrderRepository;
 import com.fenix.commerce.repository.StoreRepository;
 import com.fenix.commerce.repository.TenantRepository;
@@ -15,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -22,6 +26,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -39,6 +44,15 @@ class OrderServiceTest {
     @Mock
     private StoreRepository storeRepository;
 
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderPurger orderPurger;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -103,7 +117,7 @@ class OrderServiceTest {
 
         when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
         when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
-        when(orderRepository.findByTenantTenantIdAndStoreStoreIdAndExternalOrderId(
+        when(orderRepository.findByStoreAndExternalOrderIdForUpdate(
                 tenantId, storeId, "EXT-12345")).thenReturn(Optional.empty());
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
@@ -148,10 +162,32 @@ class OrderServiceTest {
         assertEquals("EXT-12345", response.getExternalOrderId());
     }
 
+    @Test
+    void getOrderById_Archived_ReturnsArchivedOrder() {
+        // Arrange
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findById(orderId)).thenReturn(Optional.of(ArchivedOrder.builder()
+                .orderId(orderId)
+                .tenantId(tenantId)
+                .storeId(storeId)
+                .externalOrderId("EXT-12345")
+                .orderStatus(Order.OrderStatus.CLOSED)
+                .build()));
+
+        // Act
+        OrderResponse response = orderService.getOrderById(orderId);
+
+        // Assert
+        assertEquals(orderId, response.getId());
+        assertEquals(tenantId, response.getOrgId());
+        assertEquals(Order.OrderStatus.CLOSED, response.getStatus());
+    }
+
     @Test
     void getOrderById_NotFound_ThrowsException() {
         // Arrange
         when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(orderId));
@@ -160,23 +196,24 @@ class OrderServiceTest {
     @Test
     void deleteOrder_Success() {
         // Arrange
-        when(orderRepository.existsById(orderId)).thenReturn(true);
-        doNothing().when(orderRepository).deleteById(orderId);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
 
         // Act
         orderService.deleteOrder(orderId);
 
         // Assert
-        verify(orderRepository, times(1)).deleteById(orderId);
+        verify(orderPurger, times(1)).deleteOrders(argThat(deletions -> deletions.size() == 1
+                && deletions.get(0).type() == OrderChangeEvent.Type.ORDER_DELETED
+                && deletions.get(0).orderId().equals(orderId)));
     }
 
     @Test
     void deleteOrder_NotFound_ThrowsException() {
         // Arrange
-        when(orderRepository.existsById(orderId)).thenReturn(false);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> orderService.deleteOrder(orderId));
-        verify(orderRepository, never()).deleteById(any());
+        verify(orderPurger, never()).deleteOrders(any());
     }
 }
@@ -0,0 +1,131 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.support.StreamingFetchSizes;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements issued by hot service paths so N+1
+ * regressions fail the build instead of surfacing in production.
+ */
+@DataJpaTest(properties = {
+        // Same JDBC batching as the prod profile, so batched writes count once
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import({ TestData.class, StreamingFetchSizes.class, OrderService.class, OrderPurger.class, FulfillmentService.class,
+        QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServiceQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void createOrder_IssuesLookupsAndSingleInsert() {
+        // tenant + store + upsert lookup + insert
+        assertStatementCount(4, () -> orderService.createOrder(orderRequest("EXT-1")));
+    }
+
+    @Test
+    void searchOrders_DoesNotLoadAssociationsPerRow() {
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(orderRequest("EXT-" + i));
+        }
+
+        // page query + count query, regardless of page size
+        assertStatementCount(2, () -> orderService.searchOrders(tenant.getTenantId(), null, null, null, null,
+                null, null, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "orderUpdatedAt"))));
+    }
+
+    @Test
+    void streamOrders_WritesRowsWithoutLoadingAssociations() {
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(orderRequest("EXT-ST" + i));
+        }
+
+        List<OrderResponse> rows = new ArrayList<>();
+        // streamed page query + count query
+        long total = assertStatementCount(2, () -> orderService.streamOrders(tenant.getTenantId(), null, null, null,
+                null, null, null, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "orderUpdatedAt")), rows::add));
+
+        assertEquals(5, total);
+        assertEquals(2, rows.size());
+        assertEquals(store.getStoreId(), rows.get(0).getWebsiteId());
+    }
+
+    @Test
+    void listFulfillments_DoesNotLoadOrderPerRow() {
+        OrderResponse order = orderService.createOrder(orderRequest("EXT-F"));
+        Order orderRef = new Order();
+        orderRef.setOrderId(order.getId());
+        for (int i = 0; i < 5; i++) {
+            fulfillmentRepository.save(Fulfillment.builder()
+                    .tenant(tenant)
+                    .order(orderRef)
+                    .externalFulfillmentId("FUL-" + i)
+                    .fulfillmentStatus(Fulfillment.FulfillmentStatus.SHIPPED)
+                    .build());
+        }
+
+        // order existence check + page query + count query
+        assertStatementCount(3, () -> fulfillmentService.listFulfillments(order.getId(), null, null, null, null,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "updatedAt"))));
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.FieldSet;
+import com.fenix.commerce.dto.PagedResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentFields;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderFields;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.fenix.commerce.entity.Fulfillment.FulfillmentStatus.SHIPPED;
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sparse fieldsets: only the requested columns are read and returned
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderService.class, OrderPurger.class, FulfillmentService.class,
+        QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SparseFieldsetTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void searchOrders_WithFieldsReturnsOnlyRequestedFields() {
+        for (int i = 0; i < 3; i++) {
+            orderService.createOrder(orderRequest("EXT-S" + i));
+        }
+
+        PagedResponse<Map<String, Object>> page = assertStatementCount(2, () -> orderService.searchOrders(
+                OrderFields.parse("status,websiteId"), tenant.getTenantId(), null, null, null, null, null, null,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "orderUpdatedAt"))));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getData().size());
+        Map<String, Object> row = page.getData().get(0);
+        assertEquals(List.of("id", "status", "websiteId"), List.copyOf(row.keySet()));
+        assertEquals(Order.OrderStatus.CREATED, row.get("status"));
+        assertEquals(store.getStoreId(), row.get("websiteId"));
+    }
+
+    @Test
+    void searchTenantFulfillments_WithFieldsPagesWithoutRequestingCursorFields() {
+        OrderResponse order = orderService.createOrder(orderRequest("EXT-SF"));
+        Order orderRef = new Order();
+        orderRef.setOrderId(order.getId());
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(fulfillmentRepository.save(Fulfillment.builder()
+                    .tenant(tenant)
+                    .order(orderRef)
+                    .externalFulfillmentId("FUL-S" + i)
+                    .carrier("DHL")
+                    .fulfillmentStatus(SHIPPED)
+                    .build()).getFulfillmentId());
+        }
+
+        FieldSet fields = FulfillmentFields.parse("carrier");
+        Set<Object> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            CursorPagedResponse<Map<String, Object>> page = assertStatementCount(1, () -> fulfillmentService
+                    .searchTenantFulfillments(fields, tenant.getTenantId(), null, "DHL", null, null, after, 2));
+            page.getData().forEach(row -> {
+                assertEquals(Set.of("id", "carrier"), row.keySet());
+                seen.add(row.get("id"));
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(created, seen);
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
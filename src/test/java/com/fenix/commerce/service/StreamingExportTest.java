@@ -0,0 +1,126 @@
+package com.fenix.commerce.service;
+
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.dto.fulfillment.FulfillmentResponse;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.support.StreamingFetchSizes;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The streaming exports against the real repositories: every matching row
+ * reaches the consumer, and the query asks the driver to stream its rows
+ * rather than buffer them
+ */
+@DataJpaTest
+@Import({ TestData.class, StreamingFetchSizes.class, OrderService.class, OrderPurger.class, FulfillmentService.class,
+        FulfillmentBulkService.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StreamingExportTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private StreamingFetchSizes streamingFetchSizes;
+
+    @Autowired
+    private TestData testData;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        streamingFetchSizes.clear();
+    }
+
+    @Test
+    void streamOrders_StreamsEveryMatchingOrder() {
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(orderService.createOrder(orderRequest("EXT-" + i)).getId());
+        }
+
+        List<OrderResponse> rows = new ArrayList<>();
+        long total = orderService.streamOrders(store.getTenant().getTenantId(), null, null, null, null, null, null,
+                PageRequest.of(0, 10, Sort.by("orderUpdatedAt")), rows::add);
+
+        assertEquals(5, total);
+        assertEquals(created, new HashSet<>(rows.stream().map(OrderResponse::getId).toList()));
+        assertStreamed("orders");
+    }
+
+    @Test
+    void streamFulfillments_StreamsEveryFulfillmentOfTheOrder() {
+        OrderResponse order = orderService.createOrder(orderRequest("EXT-F"));
+        Order orderRef = new Order();
+        orderRef.setOrderId(order.getId());
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(fulfillmentRepository.save(Fulfillment.builder()
+                    .tenant(store.getTenant())
+                    .order(orderRef)
+                    .externalFulfillmentId("FUL-" + i)
+                    .carrier("DHL")
+                    .fulfillmentStatus(Fulfillment.FulfillmentStatus.SHIPPED)
+                    .build()).getFulfillmentId());
+        }
+
+        List<FulfillmentResponse> rows = new ArrayList<>();
+        long total = fulfillmentService.streamFulfillments(order.getId(), null, null, null, null,
+                PageRequest.of(0, 10), rows::add);
+
+        assertEquals(3, total);
+        assertEquals(created, new HashSet<>(rows.stream().map(FulfillmentResponse::getId).toList()));
+        assertStreamed("fulfillments");
+    }
+
+    private void assertStreamed(String table) {
+        List<String> streamed = streamingFetchSizes.streamedQueries();
+        assertEquals(1, streamed.size(), () -> "Queries asking to stream: " + streamed);
+        assertTrue(streamed.get(0).contains(" from " + table + " "), streamed.get(0));
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(store.getTenant().getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
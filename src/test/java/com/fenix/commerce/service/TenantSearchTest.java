@@ -0,0 +1,229 @@
+package com.fenix.commerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fenix.commerce.config.PurgeProperties;
+import com.fenix.commerce.controller.TrackingController;
+import com.fenix.commerce.dto.CursorPagedResponse;
+import com.fenix.commerce.dto.fulfillment.FulfillmentResponse;
+import com.fenix.commerce.dto.order.OrderCreateRequest;
+import com.fenix.commerce.dto.order.OrderResponse;
+import com.fenix.commerce.dto.tracking.TrackingResponse;
+import com.fenix.commerce.entity.Fulfillment;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.entity.Tracking;
+import com.fenix.commerce.metrics.QueryMetricsDataSourcePostProcessor;
+import com.fenix.commerce.repository.FulfillmentRepository;
+import com.fenix.commerce.repository.TrackingRepository;
+import com.fenix.commerce.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.fenix.commerce.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tenant-wide fulfillment and tracking search across orders with keyset
+ * paging, and the NDJSON export walking the same pages
+ */
+@DataJpaTest
+@Import({ TestData.class, OrderService.class, OrderPurger.class, FulfillmentService.class, TrackingService.class,
+        QueryMetricsDataSourcePostProcessor.class })
+@EnableConfigurationProperties(PurgeProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TenantSearchTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    @Autowired
+    private TrackingService trackingService;
+
+    @Autowired
+    private FulfillmentRepository fulfillmentRepository;
+
+    @Autowired
+    private TrackingRepository trackingRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Tenant tenant;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = testData.newStore();
+        tenant = store.getTenant();
+    }
+
+    @Test
+    void searchTenantFulfillments_PagesAcrossOrdersOneStatementPerPage() {
+        Set<UUID> shipped = new HashSet<>();
+        for (int o = 0; o < 3; o++) {
+            OrderResponse order = orderService.createOrder(orderRequest("EXT-T" + o));
+            Order orderRef = new Order();
+            orderRef.setOrderId(order.getId());
+            for (int i = 0; i < 3; i++) {
+                Fulfillment fulfillment = fulfillmentRepository.save(Fulfillment.builder()
+                        .tenant(tenant)
+                        .order(orderRef)
+                        .externalFulfillmentId("FUL-" + o + "-" + i)
+                        .carrier("UPS")
+                        .fulfillmentStatus(i == 0 ? Fulfillment.FulfillmentStatus.DELIVERED
+                                : Fulfillment.FulfillmentStatus.SHIPPED)
+                        .build());
+                if (i > 0) {
+                    shipped.add(fulfillment.getFulfillmentId());
+                }
+            }
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            CursorPagedResponse<FulfillmentResponse> page = assertStatementCount(1, () -> fulfillmentService
+                    .searchTenantFulfillments(tenant.getTenantId(), Fulfillment.FulfillmentStatus.SHIPPED, "UPS",
+                            null, null, after, 4));
+            page.getData().forEach(fulfillment -> seen.add(fulfillment.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(shipped, seen);
+    }
+
+    @Test
+    void searchTenantTracking_PagesAcrossFulfillmentsOneStatementPerPage() {
+        Set<UUID> inTransit = newTracking();
+
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            CursorPagedResponse<TrackingResponse> page = assertStatementCount(1, () -> trackingService
+                    .searchTenantTracking(tenant.getTenantId(), Tracking.TrackingStatus.IN_TRANSIT, "UPS",
+                            null, null, after, 4));
+            page.getData().forEach(tracking -> seen.add(tracking.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(inTransit, seen);
+    }
+
+    @Test
+    void exportTracking_WritesEveryMatchingTrackingAsNdjson() throws Exception {
+        Set<UUID> inTransit = newTracking();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new TrackingController(trackingService, objectMapper))
+                .build();
+
+        MvcResult started = mockMvc.perform(get("/tracking/export")
+                        .param("orgId", tenant.getTenantId().toString())
+                        .param("status", "IN_TRANSIT")
+                        .param("carrier", "UPS"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Set<UUID> exported = new HashSet<>();
+        for (String line : body.split("\n")) {
+            exported.add(objectMapper.readValue(line, TrackingResponse.class).getId());
+        }
+        assertEquals(inTransit, exported);
+        assertEquals(inTransit.size(), body.split("\n").length);
+    }
+
+    /**
+     * Three tracking numbers on each of three orders' fulfillments, plus one
+     * on another tenant; returns the tenant's UPS ones in transit
+     */
+    private Set<UUID> newTracking() {
+        Set<UUID> inTransit = new HashSet<>();
+        for (int o = 0; o < 3; o++) {
+            Fulfillment fulfillment = newFulfillment(tenant, orderService.createOrder(orderRequest("EXT-K" + o)));
+            for (int i = 0; i < 3; i++) {
+                Tracking tracking = trackingRepository.save(Tracking.builder()
+                        .tenant(tenant)
+                        .fulfillment(fulfillment)
+                        .trackingNumber("TRK-" + o + "-" + i)
+                        .carrier("UPS")
+                        .trackingStatus(i == 0 ? Tracking.TrackingStatus.DELIVERED
+                                : Tracking.TrackingStatus.IN_TRANSIT)
+                        .isPrimary(i == 0)
+                        .build());
+                if (i > 0) {
+                    inTransit.add(tracking.getTrackingId());
+                }
+            }
+        }
+
+        Store otherStore = testData.newStore();
+        OrderResponse otherOrder = orderService.createOrder(OrderCreateRequest.builder()
+                .orgId(otherStore.getTenant().getTenantId())
+                .websiteId(otherStore.getStoreId())
+                .externalOrderId("EXT-K0")
+                .build());
+        trackingRepository.save(Tracking.builder()
+                .tenant(otherStore.getTenant())
+                .fulfillment(newFulfillment(otherStore.getTenant(), otherOrder))
+                .trackingNumber("TRK-OTHER")
+                .carrier("UPS")
+                .trackingStatus(Tracking.TrackingStatus.IN_TRANSIT)
+                .isPrimary(true)
+                .build());
+        return inTransit;
+    }
+
+    private Fulfillment newFulfillment(Tenant owner, OrderResponse order) {
+        Order orderRef = new Order();
+        orderRef.setOrderId(order.getId());
+        return fulfillmentRepository.save(Fulfillment.builder()
+                .tenant(owner)
+                .order(orderRef)
+                .externalFulfillmentId("FUL-" + order.getExternalOrderId())
+                .carrier("UPS")
+                .fulfillmentStatus(Fulfillment.FulfillmentStatus.SHIPPED)
+                .build());
+    }
+
+    private OrderCreateRequest orderRequest(String externalOrderId) {
+        return OrderCreateRequest.builder()
+                .orgId(tenant.getTenantId())
+                .websiteId(store.getStoreId())
+                .externalOrderId(externalOrderId)
+                .status(Order.OrderStatus.CREATED)
+                .orderTotal(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+}
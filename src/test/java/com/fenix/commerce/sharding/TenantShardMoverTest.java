@@ -0,0 +1,293 @@
+package com.fenix.commerce.sharding;
+
+import com.fenix.commerce.exception.BusinessLogicException;
+import com.fenix.commerce.scheduling.JobCoordinator;
+import com.fenix.commerce.scheduling.JobRegistry;
+import com.fenix.commerce.scheduling.SchedulerProperties;
+import com.fenix.commerce.util.UuidBytes;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Uses two in-memory databases as stand-ins for two MySQL shards, on pools
+ * that do not auto-commit like the prod ones
+ */
+class TenantShardMoverTest {
+
+    private static final Map<String, String> TABLE_KEYS = new LinkedHashMap<>();
+
+    static {
+        TABLE_KEYS.put("tenant", "tenant_id");
+        TABLE_KEYS.put("store", "store_id");
+        TABLE_KEYS.put("orders", "order_id");
+        TABLE_KEYS.put("order_items", "order_item_id");
+        TABLE_KEYS.put("fulfillments", "fulfillment_id");
+        TABLE_KEYS.put("tracking", "tracking_id");
+        TABLE_KEYS.put("tracking_events", "tracking_event_id");
+        TABLE_KEYS.put("purge_jobs", "purge_job_id");
+        TABLE_KEYS.put("fulfillment_reconciliations", "reconciliation_id");
+        TABLE_KEYS.put("order_outbox", "outbox_id");
+    }
+
+    private HikariDataSource first;
+    private HikariDataSource second;
+    private JdbcTemplate shard0;
+    private JdbcTemplate shard1;
+    private JdbcTemplate routed;
+    private ShardDirectory directory;
+    private ShardResolver resolver;
+    private TenantShardMover mover;
+    private TenantShardMoves moves;
+
+    @BeforeEach
+    void setUp() {
+        first = shardDatabase("shard0");
+        second = shardDatabase("shard1");
+        shard0 = new JdbcTemplate(first);
+        shard1 = new JdbcTemplate(second);
+
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("shard0", first);
+        shards.put("shard1", second);
+        TenantShardRoutingDataSource routing = new TenantShardRoutingDataSource("shard0", shards);
+        routed = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+
+        ShardProperties properties = new ShardProperties();
+        properties.setMoveDrainTime(Duration.ZERO);
+        properties.setMoveBatchSize(2);
+
+        TransactionTemplate defaultShardTransactions = new TransactionTemplate(new DataSourceTransactionManager(first));
+        directory = new ShardDirectory(shard0, defaultShardTransactions, "shard0");
+        resolver = new ShardResolver(directory, routing, 100);
+        mover = new TenantShardMover(directory, routing, properties);
+        JobCoordinator jobCoordinator = new JobCoordinator(shard0, defaultShardTransactions, new JobRegistry(),
+                new SchedulerProperties());
+        moves = new TenantShardMoves(shard0, defaultShardTransactions, directory, mover, routing, properties,
+                jobCoordinator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        moves.stop();
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void unassignedTenant_LivesOnDefaultShard() {
+        assertEquals(new ShardDirectory.Assignment("shard0", ShardDirectory.Status.ACTIVE),
+                directory.lookup(UUID.randomUUID()));
+    }
+
+    @Test
+    void shardContext_RoutesConnections() {
+        assertEquals("shard0", currentShard());
+        assertEquals("shard1", ShardContext.callOn("shard1", this::currentShard));
+        assertEquals("shard0", currentShard());
+    }
+
+    @Test
+    void orderLookup_FindsOwningTenantOnAnyShard() {
+        UUID tenantId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        inTransaction(shard1, () -> shard1.update("INSERT INTO orders (order_id, tenant_id) VALUES (?, ?)",
+                UuidBytes.toBytes(orderId), UuidBytes.toBytes(tenantId)));
+
+        assertEquals(tenantId, resolver.tenantForOrder(orderId));
+        assertNull(resolver.tenantForOrder(UUID.randomUUID()));
+    }
+
+    @Test
+    void moveTenant_CopiesEveryTableAndRepointsDirectory() {
+        UUID tenantId = UUID.randomUUID();
+        UUID otherTenantId = UUID.randomUUID();
+        insertTenantRows(shard0, tenantId, 5);
+        insertTenantRows(shard0, otherTenantId, 1);
+        // Holds the id the tenant's first outbox row has on shard0
+        insertTenantRows(shard1, otherTenantId, 1);
+        AtomicLong progress = new AtomicLong();
+
+        long copied = mover.moveTenant(tenantId, "shard0", "shard1", progress::addAndGet);
+
+        assertEquals(new ShardDirectory.Assignment("shard1", ShardDirectory.Status.ACTIVE),
+                directory.load(tenantId));
+        assertEquals(copied, progress.get());
+        for (String table : TABLE_KEYS.keySet()) {
+            int expected = table.equals("tenant") ? 1 : 5;
+            assertEquals(expected, countRows(shard1, table, tenantId), table);
+            assertEquals(0, countRows(shard0, table, tenantId), table);
+            assertEquals(1, countRows(shard0, table, otherTenantId), table);
+        }
+        assertEquals(5, countRows(shard1, "orders_archive", tenantId));
+    }
+
+    @Test
+    void failedMove_LeavesTenantActiveOnSource() {
+        UUID tenantId = UUID.randomUUID();
+        insertTenantRows(shard0, tenantId, 1);
+        shard1.execute("DROP TABLE tracking_events");
+
+        assertThrows(IllegalStateException.class, () -> mover.moveTenant(tenantId, "shard0", "shard1", rows -> { }));
+
+        assertEquals(new ShardDirectory.Assignment("shard0", ShardDirectory.Status.ACTIVE),
+                directory.load(tenantId));
+        assertEquals(1, countRows(shard0, "orders", tenantId));
+    }
+
+    @Test
+    void requestedMove_RunsInTheBackgroundAndRecordsProgress() {
+        UUID tenantId = UUID.randomUUID();
+        insertTenantRows(shard0, tenantId, 3);
+
+        TenantShardMove requested = moves.request(tenantId, "shard1");
+        assertEquals(TenantShardMove.Status.PENDING, requested.status());
+        assertEquals("shard0", requested.sourceShard());
+
+        moves.runMoves();
+
+        TenantShardMove finished = moves.get(requested.moveId());
+        assertEquals(TenantShardMove.Status.COMPLETED, finished.status());
+        // One tenant row, three rows in every other table and in orders_archive
+        assertEquals(1 + 3L * TABLE_KEYS.size(), finished.rowsCopied());
+        assertEquals(new ShardDirectory.Assignment("shard1", ShardDirectory.Status.ACTIVE),
+                directory.load(tenantId));
+    }
+
+    @Test
+    void requestedMove_IsRejectedWhileTheTenantIsMoving() {
+        UUID tenantId = UUID.randomUUID();
+        moves.request(tenantId, "shard1");
+
+        assertThrows(BusinessLogicException.class, () -> moves.request(tenantId, "shard1"));
+        assertThrows(BusinessLogicException.class, () -> moves.request(UUID.randomUUID(), "shard9"));
+    }
+
+    @Test
+    void staleRunningMove_IsResumedAfterACrash() {
+        UUID tenantId = UUID.randomUUID();
+        insertTenantRows(shard0, tenantId, 2);
+        // A copy that died half way: the tenant is frozen and part of it is on the target
+        TenantShardMove requested = moves.request(tenantId, "shard1");
+        directory.assign(tenantId, "shard0", ShardDirectory.Status.MOVING);
+        insertTenantRows(shard1, tenantId, 1);
+        inTransaction(shard0, () -> shard0.update(
+                "UPDATE tenant_shard_moves SET move_status = 'RUNNING', updated_at = ? WHERE move_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)), UuidBytes.toBytes(requested.moveId())));
+
+        moves.runMoves();
+
+        assertEquals(TenantShardMove.Status.COMPLETED, moves.get(requested.moveId()).status());
+        assertEquals(new ShardDirectory.Assignment("shard1", ShardDirectory.Status.ACTIVE),
+                directory.load(tenantId));
+        assertEquals(2, countRows(shard1, "orders", tenantId));
+        assertEquals(0, countRows(shard0, "orders", tenantId));
+    }
+
+    @Test
+    void failedRequestedMove_IsRecordedAndUnfreezesTheTenant() {
+        UUID tenantId = UUID.randomUUID();
+        insertTenantRows(shard0, tenantId, 1);
+        shard1.execute("DROP TABLE tracking_events");
+
+        TenantShardMove requested = moves.request(tenantId, "shard1");
+        moves.runMoves();
+
+        TenantShardMove failed = moves.get(requested.moveId());
+        assertEquals(TenantShardMove.Status.FAILED, failed.status());
+        assertEquals(new ShardDirectory.Assignment("shard0", ShardDirectory.Status.ACTIVE),
+                directory.load(tenantId));
+    }
+
+    private String currentShard() {
+        return routed.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void insertTenantRows(JdbcTemplate shard, UUID tenantId, int rowsPerTable) {
+        byte[] tenant = UuidBytes.toBytes(tenantId);
+        inTransaction(shard, () -> {
+            shard.update("INSERT INTO tenant (tenant_id, note) VALUES (?, ?)", tenant, "tenant");
+            for (Map.Entry<String, String> table : TABLE_KEYS.entrySet()) {
+                if (table.getKey().equals("tenant")) {
+                    continue;
+                }
+                for (int i = 0; i < rowsPerTable; i++) {
+                    if (table.getKey().equals("order_outbox")) {
+                        shard.update("INSERT INTO order_outbox (tenant_id, note) VALUES (?, ?)", tenant, "row " + i);
+                        continue;
+                    }
+                    shard.update("INSERT INTO " + table.getKey() + " (" + table.getValue() + ", tenant_id, note) "
+                            + "VALUES (?, ?, ?)", UuidBytes.toBytes(UUID.randomUUID()), tenant, "row " + i);
+                }
+            }
+            for (int i = 0; i < rowsPerTable; i++) {
+                shard.update("INSERT INTO orders_archive (order_id, archived_at, tenant_id, note) VALUES (?, ?, ?, ?)",
+                        UuidBytes.toBytes(UUID.randomUUID()), Timestamp.valueOf(LocalDateTime.now()), tenant,
+                        "row " + i);
+            }
+        });
+    }
+
+    private static void inTransaction(JdbcTemplate shard, Runnable work) {
+        new TransactionTemplate(new DataSourceTransactionManager(shard.getDataSource()))
+                .executeWithoutResult(status -> work.run());
+    }
+
+    private static int countRows(JdbcTemplate shard, String table, UUID tenantId) {
+        return shard.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE tenant_id = ?", Integer.class,
+                (Object) UuidBytes.toBytes(tenantId));
+    }
+
+    private static HikariDataSource shardDatabase(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setAutoCommit(false);
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V4__tenant_shard_directory.sql"),
+                new ClassPathResource("db/migration/V15__tenant_shard_moves.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        inTransaction(jdbc, () -> jdbc.update("INSERT INTO node (name) VALUES (?)", name));
+        jdbc.execute("CREATE TABLE tenant (tenant_id BINARY(16) PRIMARY KEY, note VARCHAR(32))");
+        jdbc.execute("CREATE TABLE order_outbox (outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "tenant_id BINARY(16) NOT NULL, note VARCHAR(32))");
+        for (Map.Entry<String, String> table : TABLE_KEYS.entrySet()) {
+            if (table.getKey().equals("tenant") || table.getKey().equals("order_outbox")) {
+                continue;
+            }
+            jdbc.execute("CREATE TABLE " + table.getKey() + " (" + table.getValue() + " BINARY(16) PRIMARY KEY, "
+                    + "tenant_id BINARY(16) NOT NULL, note VARCHAR(32))");
+        }
+        for (Map.Entry<String, String> table : TABLE_KEYS.entrySet()) {
+            if (table.getKey().equals("tenant")) {
+                continue;
+            }
+            jdbc.execute("CREATE TABLE " + table.getKey() + "_archive (" + table.getValue() + " BINARY(16), "
+                    + "archived_at TIMESTAMP, tenant_id BINARY(16) NOT NULL, note VARCHAR(32), "
+                    + "PRIMARY KEY (" + table.getValue() + ", archived_at))");
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,117 @@
+package com.fenix.commerce.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStreamBrokerTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID storeId = UUID.randomUUID();
+    private final OrderStreamBroker broker = broker(2);
+
+    @AfterEach
+    void tearDown() {
+        broker.destroy();
+    }
+
+    @Test
+    void onOrderChange_DeliversOnlyToMatchingSubscribersOfTheTenant() throws InterruptedException {
+        RecordingEmitter sameStore = subscribe(tenantId, storeId, null);
+        RecordingEmitter cancelledOnly = subscribe(tenantId, null, Order.OrderStatus.CANCELLED);
+        RecordingEmitter otherTenant = subscribe(UUID.randomUUID(), null, null);
+
+        broker.onOrderChange(event(OrderChangeEvent.Type.ORDER_UPSERTED, Order.OrderStatus.CREATED));
+        broker.onOrderChange(event(OrderChangeEvent.Type.ORDER_UPDATED, Order.OrderStatus.CANCELLED));
+
+        // Every subscriber first gets the "connected" comment
+        assertTrue(sameStore.await(3));
+        assertTrue(cancelledOnly.await(2));
+        assertTrue(otherTenant.await(1));
+        assertTrue(sameStore.sent.get(1).contains("event:ORDER_UPSERTED"));
+        assertTrue(sameStore.sent.get(2).contains("event:ORDER_UPDATED"));
+        assertTrue(cancelledOnly.sent.get(1).contains("event:ORDER_UPDATED"));
+        assertEquals(1, otherTenant.sent.size());
+    }
+
+    @Test
+    void onOrderChange_DropsSubscriberWhoseBufferOverflows() {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter blocked = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws java.io.IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        broker.register(new OrderStreamSubscriber(blocked, tenantId, null, null, null, 2));
+        RecordingEmitter healthy = subscribe(tenantId, null, null);
+        try {
+            for (int i = 0; i < 5; i++) {
+                broker.onOrderChange(event(OrderChangeEvent.Type.ORDER_UPDATED, Order.OrderStatus.CREATED));
+            }
+            assertEquals(1, broker.getSubscriberCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private RecordingEmitter subscribe(UUID tenant, UUID store, Order.OrderStatus status) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        // Large enough for the healthy subscribers never to be dropped here
+        broker.register(new OrderStreamSubscriber(emitter, tenant, store, status, null, 16));
+        return emitter;
+    }
+
+    private OrderChangeEvent event(OrderChangeEvent.Type type, Order.OrderStatus status) {
+        return new OrderChangeEvent(type, tenantId, storeId, UUID.randomUUID(), null, status,
+                Order.FulfillmentOverallStatus.UNFULFILLED, Instant.now());
+    }
+
+    private static OrderStreamBroker broker(int deliveryThreads) {
+        OrderStreamProperties properties = new OrderStreamProperties();
+        properties.setDeliveryThreads(deliveryThreads);
+        properties.getFanout().setEnabled(false);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new OrderStreamBroker(properties, objectMapper,
+                new OrderStreamFanout(properties, null, null, objectMapper));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        boolean await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return sent.size() == count;
+        }
+    }
+}
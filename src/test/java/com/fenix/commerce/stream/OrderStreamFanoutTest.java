@@ -0,0 +1,101 @@
+package com.fenix.commerce.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fenix.commerce.entity.Order;
+import com.fenix.commerce.event.OrderChangeEvent;
+import com.fenix.commerce.support.TestDatabases;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two instances sharing order changes through order_stream_events, on a pool
+ * that does not auto-commit like the prod one
+ */
+class OrderStreamFanoutTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final OrderStreamProperties properties = new OrderStreamProperties();
+    private final List<OrderChangeEvent> receivedByA = new ArrayList<>();
+    private final List<OrderChangeEvent> receivedByB = new ArrayList<>();
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private OrderStreamFanout nodeA;
+    private OrderStreamFanout nodeB;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("stream-fanout", false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        // Flushes and polls are driven by the test
+        properties.getFanout().setPollInterval(Duration.ofHours(1));
+        nodeA = new OrderStreamFanout(properties, jdbcTemplate, transactionTemplate, objectMapper);
+        nodeB = new OrderStreamFanout(properties, jdbcTemplate, transactionTemplate, objectMapper);
+        nodeA.start(receivedByA::add);
+        nodeB.start(receivedByB::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.stop();
+        nodeB.stop();
+        dataSource.close();
+    }
+
+    @Test
+    void changeCommittedOnOneInstanceReachesTheOtherOnce() {
+        OrderChangeEvent event = event();
+        nodeA.publish(event);
+        nodeA.flush();
+
+        nodeB.poll();
+        nodeB.poll();
+        nodeA.poll();
+
+        assertEquals(List.of(event), receivedByB);
+        assertEquals(List.of(), receivedByA);
+    }
+
+    @Test
+    void flushedChangesAreCommitted() {
+        nodeA.publish(event());
+        nodeA.publish(event());
+        nodeA.flush();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_stream_events", Integer.class));
+    }
+
+    @Test
+    void purgeDeletesRowsPastRetention() throws InterruptedException {
+        properties.getFanout().setRetention(Duration.ZERO);
+        nodeA.publish(event());
+        nodeA.flush();
+        Thread.sleep(5);
+
+        nodeA.purge();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_stream_events", Integer.class));
+    }
+
+    private static OrderChangeEvent event() {
+        return new OrderChangeEvent(OrderChangeEvent.Type.ORDER_UPDATED, UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), null, Order.OrderStatus.CREATED, Order.FulfillmentOverallStatus.UNFULFILLED,
+                Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+}
@@ -0,0 +1,89 @@
+package com.fenix.commerce.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stands in for MySQL Connector/J's row streaming in the H2 slice tests. H2
+ * rejects the {@link Integer#MIN_VALUE} fetch size the streaming queries
+ * ask for, so statements on the {@code dataSource} bean keep the driver's
+ * default instead and remember which queries asked to stream. Import it
+ * into any slice test that runs a streaming query.
+ */
+@TestComponent
+public class StreamingFetchSizes implements BeanPostProcessor {
+
+    private final List<String> streamedQueries = new CopyOnWriteArrayList<>();
+
+    /** SQL of every statement prepared with the streaming fetch size */
+    public List<String> streamedQueries() {
+        return List.copyOf(streamedQueries);
+    }
+
+    /** The context outlives a test; call before each one that checks {@link #streamedQueries} */
+    public void clear() {
+        streamedQueries.clear();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return wrap(obtainTargetDataSource().getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return wrap(obtainTargetDataSource().getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        return wrap(statement, (String) args[0], (Connection) proxy);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement wrap(PreparedStatement statement, String sql, Connection connection) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("setFetchSize") && (int) args[0] == Integer.MIN_VALUE) {
+                        streamedQueries.add(sql);
+                        return null;
+                    }
+                    if (method.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
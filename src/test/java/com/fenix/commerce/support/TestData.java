@@ -0,0 +1,40 @@
+package com.fenix.commerce.support;
+
+import com.fenix.commerce.entity.Store;
+import com.fenix.commerce.entity.Tenant;
+import com.fenix.commerce.repository.StoreRepository;
+import com.fenix.commerce.repository.TenantRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.UUID;
+
+/**
+ * Shared fixtures for the JPA slice tests; import it next to the services
+ * under test
+ */
+@TestComponent
+public class TestData {
+
+    private final TenantRepository tenantRepository;
+    private final StoreRepository storeRepository;
+
+    public TestData(TenantRepository tenantRepository, StoreRepository storeRepository) {
+        this.tenantRepository = tenantRepository;
+        this.storeRepository = storeRepository;
+    }
+
+    /** A new active tenant with one active store; the tenant is {@code store.getTenant()} */
+    public Store newStore() {
+        Tenant tenant = tenantRepository.save(Tenant.builder()
+                .tenantName("Tenant " + UUID.randomUUID())
+                .status(Tenant.TenantStatus.ACTIVE)
+                .build());
+        return storeRepository.save(Store.builder()
+                .tenant(tenant)
+                .storeCode("STORE-" + UUID.randomUUID())
+                .storeName("Test Store")
+                .platform(Store.Platform.SHOPIFY)
+                .status(Store.StoreStatus.ACTIVE)
+                .build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.fenix.commerce.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.UUID;
+
+/**
+ * Standalone in-memory databases with the unmapped tables, for tests that
+ * work on plain JDBC without a Spring context
+ */
+public final class TestDatabases {
+
+    /** DDL for the tables Hibernate's create-drop schema lacks; also run by the slice tests' SQL init */
+    public static final String UNMAPPED_TABLES = "db/h2/unmapped-tables.sql";
+
+    private TestDatabases() {
+    }
+
+    /**
+     * A pooled H2 database; with {@code autoCommit} off it behaves like the
+     * prod pool, which rolls back work returned without a commit
+     */
+    public static HikariDataSource h2(String name, boolean autoCommit) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setAutoCommit(autoCommit);
+        dataSource.setMaximumPoolSize(4);
+        new ResourceDatabasePopulator(new ClassPathResource(UNMAPPED_TABLES)).execute(dataSource);
+        return dataSource;
+    }
+}
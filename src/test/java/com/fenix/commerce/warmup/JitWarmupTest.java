@@ -0,0 +1,118 @@
+package com.fenix.commerce.warmup;
+
+import com.fenix.commerce.support.TestDatabases;
+import com.fenix.commerce.util.UuidBytes;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.InetSocketAddress;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The warm-up pass against a stub server, with ids sampled from the database
+ */
+class JitWarmupTest {
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private HttpServer server;
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+    private final WarmupProperties properties = new WarmupProperties();
+    private final MockEnvironment environment = new MockEnvironment();
+    private JitWarmup warmup;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = TestDatabases.h2("warmup", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE tenant (tenant_id BINARY(16) PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE orders (order_id BINARY(16) PRIMARY KEY, tenant_id BINARY(16) NOT NULL, "
+                + "order_updated_at TIMESTAMP NOT NULL)");
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requested.add(exchange.getRequestURI().toString());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        environment.setProperty("local.server.port", String.valueOf(server.getAddress().getPort()));
+        environment.setProperty("server.servlet.context-path", "/api");
+
+        properties.setEnabled(true);
+        properties.setPaths(List.of("/orders?orgId={orgId}", "/orders/{orderId}"));
+        properties.setRequestsPerRound(20);
+        properties.setConcurrency(2);
+        properties.setStableRounds(1);
+        properties.setTolerance(10);
+        warmup = new JitWarmup(properties, environment, jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        dataSource.close();
+    }
+
+    @Test
+    void run_RequestsRecentlyUpdatedOrders() {
+        UUID tenantId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO tenant (tenant_id) VALUES (?)", (Object) UuidBytes.toBytes(tenantId));
+        UUID stale = insertOrder(tenantId, LocalDateTime.now().minusDays(30));
+        UUID recent = insertOrder(tenantId, LocalDateTime.now().minusMinutes(5));
+        UUID latest = insertOrder(tenantId, LocalDateTime.now());
+        properties.setSampleSize(2);
+
+        assertEquals(List.of(new JitWarmup.Sample(tenantId, latest), new JitWarmup.Sample(tenantId, recent)),
+                warmup.sampleOrders());
+
+        assertFalse(warmup.isComplete());
+        warmup.run();
+
+        assertTrue(warmup.isComplete());
+        assertEquals(Set.of("/api/orders?orgId=" + tenantId, "/api/orders/" + latest, "/api/orders/" + recent),
+                requested);
+        assertFalse(requested.contains("/api/orders/" + stale));
+    }
+
+    @Test
+    void run_WithoutOrders_StillWarmsUpWithRandomIds() {
+        warmup.run();
+
+        assertTrue(warmup.isComplete());
+        Set<String> paths = requested.stream().map(uri -> uri.replaceAll("[0-9a-f-]{36}", "{id}"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("/api/orders?orgId={id}", "/api/orders/{id}"), paths);
+    }
+
+    @Test
+    void run_ServerUnreachable_CompletesSoReadinessIsNotBlocked() {
+        server.stop(0);
+
+        warmup.run();
+
+        assertTrue(warmup.isComplete());
+    }
+
+    private UUID insertOrder(UUID tenantId, LocalDateTime updatedAt) {
+        UUID orderId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO orders (order_id, tenant_id, order_updated_at) VALUES (?, ?, ?)",
+                UuidBytes.toBytes(orderId), UuidBytes.toBytes(tenantId), Timestamp.valueOf(updatedAt));
+        return orderId;
+    }
+}
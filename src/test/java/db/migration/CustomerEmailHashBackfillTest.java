@@ -0,0 +1,108 @@
+package db.migration;
+
+import com.fenix.commerce.support.TestDatabases;
+import com.fenix.commerce.util.EmailHash;
+import com.fenix.commerce.util.UuidBytes;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The V5_1 email hash backfill, which must store the hashes lookups compute
+ */
+class CustomerEmailHashBackfillTest {
+
+    // Tabs and newlines survive SQL TRIM, and a SQL LOWER follows the collation
+    private static final String MESSY_EMAIL = "\t Élise.Dupont@Example.COM\n";
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("email-backfill", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (order_id BINARY(16) PRIMARY KEY, customer_email VARCHAR(255), "
+                + "customer_email_hash BINARY(32))");
+        jdbcTemplate.execute("CREATE TABLE orders_archive (order_id BINARY(16), archived_at TIMESTAMP, "
+                + "customer_email VARCHAR(255), customer_email_hash BINARY(32), PRIMARY KEY (order_id, archived_at))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void migrate_HashesEveryRowLikeLookupsDo() throws Exception {
+        int orders = V5_1__BackfillCustomerEmailHash.BATCH_SIZE + 5;
+        List<Object[]> orderRows = new ArrayList<>();
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            orderRows.add(new Object[] { UuidBytes.toBytes(orderId), email(i) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (order_id, customer_email) VALUES (?, ?)", orderRows);
+
+        // The same order archived twice, with different emails
+        byte[] archivedId = UuidBytes.toBytes(UUID.randomUUID());
+        Timestamp first = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+        Timestamp second = Timestamp.valueOf(LocalDateTime.of(2024, 2, 1, 0, 0));
+        jdbcTemplate.update("INSERT INTO orders_archive (order_id, archived_at, customer_email) VALUES (?, ?, ?)",
+                archivedId, first, MESSY_EMAIL);
+        jdbcTemplate.update("INSERT INTO orders_archive (order_id, archived_at, customer_email) VALUES (?, ?, ?)",
+                archivedId, second, "other@example.com");
+
+        try (Connection connection = dataSource.getConnection()) {
+            Context context = mock(Context.class);
+            when(context.getConnection()).thenReturn(connection);
+            new V5_1__BackfillCustomerEmailHash().migrate(context);
+        }
+
+        for (int i = 0; i < orders; i++) {
+            byte[] hash = jdbcTemplate.queryForObject("SELECT customer_email_hash FROM orders WHERE order_id = ?",
+                    byte[].class, (Object) UuidBytes.toBytes(orderIds.get(i)));
+            if (email(i) == null || email(i).isBlank()) {
+                assertNull(hash);
+            } else {
+                assertArrayEquals(EmailHash.of(email(i)), hash);
+            }
+        }
+        assertArrayEquals(EmailHash.of("élise.dupont@example.com"), archivedHash(archivedId, first));
+        assertArrayEquals(EmailHash.of("other@example.com"), archivedHash(archivedId, second));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders_archive WHERE customer_email_hash IS NOT NULL", Integer.class));
+    }
+
+    private static String email(int i) {
+        return switch (i % 4) {
+            case 0 -> MESSY_EMAIL;
+            case 1 -> null;
+            case 2 -> " \t";
+            default -> "customer" + i + "@example.com";
+        };
+    }
+
+    private byte[] archivedHash(byte[] orderId, Timestamp archivedAt) {
+        return jdbcTemplate.queryForObject(
+                "SELECT customer_email_hash FROM orders_archive WHERE order_id = ? AND archived_at = ?",
+                byte[].class, orderId, archivedAt);
+    }
+}
@@ -0,0 +1,93 @@
+package db.migration;
+
+import com.fenix.commerce.support.TestDatabases;
+import com.fenix.commerce.util.UuidBytes;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The V7_1 counter backfill across several order id ranges
+ */
+class FulfillmentCounterBackfillTest {
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.h2("counter-backfill", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (order_id BINARY(16) PRIMARY KEY, "
+                + "fulfillment_status VARCHAR(32) NOT NULL, "
+                + "fulfillment_count_created INT DEFAULT 0 NOT NULL, fulfillment_count_shipped INT DEFAULT 0 NOT NULL, "
+                + "fulfillment_count_delivered INT DEFAULT 0 NOT NULL, fulfillment_count_cancelled INT DEFAULT 0 NOT NULL, "
+                + "fulfillment_count_failed INT DEFAULT 0 NOT NULL, fulfillment_count_unknown INT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE fulfillments (fulfillment_id BINARY(16) PRIMARY KEY, "
+                + "order_id BINARY(16) NOT NULL, fulfillment_status VARCHAR(32) NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void migrate_FillsCountersAndStatusRangeByRange() throws Exception {
+        int orders = 2 * V7_1__BackfillFulfillmentCounters.BATCH_SIZE + 5;
+        List<Object[]> orderRows = new ArrayList<>();
+        List<Object[]> fulfillmentRows = new ArrayList<>();
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            // Orders without fulfillments keep what their client sent
+            orderRows.add(new Object[] { UuidBytes.toBytes(orderId), i % 2 == 0 ? "UNFULFILLED" : "FULFILLED" });
+            // Every other order has one shipped and one created fulfillment
+            if (i % 2 == 0) {
+                fulfillmentRows.add(new Object[] { UuidBytes.toBytes(UUID.randomUUID()), UuidBytes.toBytes(orderId),
+                        "SHIPPED" });
+                fulfillmentRows.add(new Object[] { UuidBytes.toBytes(UUID.randomUUID()), UuidBytes.toBytes(orderId),
+                        "CREATED" });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (order_id, fulfillment_status) VALUES (?, ?)", orderRows);
+        jdbcTemplate.batchUpdate("INSERT INTO fulfillments (fulfillment_id, order_id, fulfillment_status) "
+                + "VALUES (?, ?, ?)", fulfillmentRows);
+
+        try (Connection connection = dataSource.getConnection()) {
+            Context context = mock(Context.class);
+            when(context.getConnection()).thenReturn(connection);
+            new V7_1__BackfillFulfillmentCounters().migrate(context);
+            assertTrue(connection.getAutoCommit());
+        }
+
+        for (int i = 0; i < orders; i++) {
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM orders WHERE order_id = ?",
+                    (Object) UuidBytes.toBytes(orderIds.get(i)));
+            if (i % 2 == 0) {
+                assertEquals("PARTIAL", row.get("FULFILLMENT_STATUS"));
+                assertEquals(1, row.get("FULFILLMENT_COUNT_SHIPPED"));
+                assertEquals(1, row.get("FULFILLMENT_COUNT_CREATED"));
+            } else {
+                assertEquals("FULFILLED", row.get("FULFILLMENT_STATUS"));
+                assertEquals(0, row.get("FULFILLMENT_COUNT_SHIPPED"));
+                assertEquals(0, row.get("FULFILLMENT_COUNT_CREATED"));
+            }
+        }
+    }
+}
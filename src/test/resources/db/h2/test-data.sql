@@ -0,0 +1,3 @@
+-- Slice tests build their own rows through support.TestData; this replaces
+-- the MySQL seed data in data.sql.
+SELECT 1;
@@ -0,0 +1,83 @@
+-- H2 versions of the Flyway tables that have no entity, so Hibernate's
+-- create-drop schema lacks them. Keep in step with db/migration.
+
+CREATE TABLE IF NOT EXISTS order_items (
+  order_item_id BINARY(16) PRIMARY KEY,
+  tenant_id BINARY(16) NOT NULL,
+  order_id BINARY(16) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_outbox (
+  outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  tenant_id BINARY(16) NOT NULL,
+  order_id BINARY(16) NOT NULL,
+  event_type VARCHAR(32) NOT NULL,
+  payload VARCHAR(4000) NOT NULL,
+  created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS purge_jobs (
+  purge_job_id BINARY(16) PRIMARY KEY,
+  tenant_id BINARY(16) NOT NULL,
+  order_statuses VARCHAR(255),
+  updated_before TIMESTAMP(6),
+  job_status VARCHAR(16) NOT NULL,
+  last_order_id BINARY(16),
+  orders_deleted BIGINT DEFAULT 0 NOT NULL,
+  rows_deleted BIGINT DEFAULT 0 NOT NULL,
+  last_error VARCHAR(1024),
+  created_at TIMESTAMP(6) NOT NULL,
+  updated_at TIMESTAMP(6) NOT NULL,
+  finished_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS fulfillment_reconciliations (
+  reconciliation_id BINARY(16) PRIMARY KEY,
+  tenant_id BINARY(16) NOT NULL,
+  run_status VARCHAR(16) NOT NULL,
+  last_order_id BINARY(16),
+  orders_checked BIGINT DEFAULT 0 NOT NULL,
+  orders_repaired BIGINT DEFAULT 0 NOT NULL,
+  last_error VARCHAR(1024),
+  created_at TIMESTAMP(6) NOT NULL,
+  updated_at TIMESTAMP(6) NOT NULL,
+  finished_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  invalidation_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  origin CHAR(36) NOT NULL,
+  cache_name VARCHAR(64) NOT NULL,
+  cache_key VARCHAR(255),
+  created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_stream_events (
+  event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  origin CHAR(36) NOT NULL,
+  payload VARCHAR(1024) NOT NULL,
+  created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+  lease_name VARCHAR(64) PRIMARY KEY,
+  owner VARCHAR(128) NOT NULL,
+  acquired_at TIMESTAMP(6) NOT NULL,
+  expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scheduler_members (
+  node_id VARCHAR(128) PRIMARY KEY,
+  started_at TIMESTAMP(6) NOT NULL,
+  expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  key_hash BINARY(32) PRIMARY KEY,
+  request_hash BINARY(32) NOT NULL,
+  key_state VARCHAR(16) DEFAULT 'COMPLETED' NOT NULL,
+  status_code SMALLINT,
+  content_type VARCHAR(255),
+  response_body BLOB,
+  expires_at TIMESTAMP(6) NOT NULL
+);